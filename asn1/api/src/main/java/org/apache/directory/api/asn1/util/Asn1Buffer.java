@@ -21,31 +21,60 @@
 package org.apache.directory.api.asn1.util;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * A buffer used to store an encoding PDU. It's auto-extended, and
  * filled by the end.
+ * <br>
+ * The PDU is stored in fixed size chunks : extending the buffer just adds
+ * a chunk, the bytes already stored are never moved. The chunks are kept
+ * when the buffer is cleared, up to a limit, so a buffer used to encode many
+ * PDUs does not allocate anything once it has reached its working size. The
+ * encoded PDU can be written directly into a (possibly direct) ByteBuffer
+ * with {@link #writeTo(ByteBuffer)}.
  *
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
  */
 public class Asn1Buffer
 {
-    /** The buffer default size */
+    /** The buffer default size, which is also the chunks size */
     private static final int DEFAULT_SIZE = 1024;
 
+    /**
+     * The maximum number of chunks kept when the buffer is cleared. Buffers are
+     * usually kept per thread, so only the memory needed by common PDUs is retained
+     */
+    private static final int MAX_POOLED_CHUNKS = 8;
+
     /** The current position in the buffer */
     private int pos = 0;
 
-    /** A buffer to store the encoded PDU */
-    private byte[] buffer;
-    
-    
+    /** The chunks storing the encoded PDU. The first one contains the PDU's end */
+    private byte[][] chunks;
+
+    /** The number of allocated chunks */
+    private int nbChunks;
+
+    /** The index of the chunk being filled */
+    private int chunkIndex;
+
+    /** The number of bytes stored in the chunk being filled */
+    private int chunkPos;
+
+    /** The chunk being filled */
+    private byte[] chunk;
+
+
     /**
      * Creates a new Asn1Buffer instance
      */
     public Asn1Buffer()
     {
-        buffer = new byte[DEFAULT_SIZE];
+        chunks = new byte[4][];
+        chunk = new byte[DEFAULT_SIZE];
+        chunks[0] = chunk;
+        nbChunks = 1;
     }
 
 
@@ -65,7 +94,25 @@ public class Asn1Buffer
      */
     public void setPos( int pos )
     {
+        while ( pos > nbChunks * DEFAULT_SIZE )
+        {
+            allocateChunk();
+        }
+
         this.pos = pos;
+
+        if ( pos == 0 )
+        {
+            chunkIndex = 0;
+            chunkPos = 0;
+        }
+        else
+        {
+            chunkIndex = ( pos - 1 ) / DEFAULT_SIZE;
+            chunkPos = pos - chunkIndex * DEFAULT_SIZE;
+        }
+
+        chunk = chunks[chunkIndex];
     }
 
 
@@ -76,14 +123,15 @@ public class Asn1Buffer
      */
     public void put( byte b )
     {
-        if ( pos == buffer.length )
+        if ( chunkPos == DEFAULT_SIZE )
         {
-            // The buffer needs to be reallocated, its too small
-            extend( 1 );
+            // The current chunk is full
+            nextChunk();
         }
 
+        chunkPos++;
         pos++;
-        buffer[buffer.length - pos] = b;
+        chunk[DEFAULT_SIZE - chunkPos] = b;
     }
 
 
@@ -94,37 +142,56 @@ public class Asn1Buffer
      */
     public void put( byte[] bytes )
     {
-        if ( pos + bytes.length > buffer.length )
+        int remaining = bytes.length;
+
+        // The bytes are stored backward, starting with the last ones
+        while ( remaining > 0 )
         {
-            // The buffer needs to be reallocated, its too small
-            extend( bytes.length );
+            if ( chunkPos == DEFAULT_SIZE )
+            {
+                // The current chunk is full
+                nextChunk();
+            }
+
+            int length = Math.min( remaining, DEFAULT_SIZE - chunkPos );
+            remaining -= length;
+            chunkPos += length;
+            pos += length;
+
+            System.arraycopy( bytes, remaining, chunk, DEFAULT_SIZE - chunkPos, length );
         }
-
-
-        pos += bytes.length;
-        System.arraycopy( bytes, 0, buffer, buffer.length - pos, bytes.length );
     }
 
 
     /**
-     * Extend the buffer
-     * 
-     * @param size The new buffer size
+     * Switch to the next chunk, allocating it if needed
      */
-    private void extend( int size )
+    private void nextChunk()
     {
-        // The buffer needs to be reallocated, it's too small
-        int newSize = ( ( size + buffer.length ) / DEFAULT_SIZE ) * DEFAULT_SIZE;
+        chunkIndex++;
 
-        if ( size % DEFAULT_SIZE != 0 )
+        if ( chunkIndex == nbChunks )
         {
-            newSize += DEFAULT_SIZE;
+            allocateChunk();
         }
 
-        byte[] newBuffer = new byte[newSize];
-        System.arraycopy( buffer, 0, newBuffer, newSize - buffer.length, buffer.length );
+        chunk = chunks[chunkIndex];
+        chunkPos = 0;
+    }
+
 
-        buffer = newBuffer;
+    /**
+     * Allocate a new chunk
+     */
+    private void allocateChunk()
+    {
+        if ( nbChunks == chunks.length )
+        {
+            chunks = Arrays.copyOf( chunks, nbChunks * 2 );
+        }
+
+        chunks[nbChunks] = new byte[DEFAULT_SIZE];
+        nbChunks++;
     }
 
 
@@ -135,35 +202,66 @@ public class Asn1Buffer
     {
         ByteBuffer result = ByteBuffer.allocate( pos );
 
-        result.put( buffer, buffer.length - pos, pos );
+        writeTo( result );
         result.flip();
 
         return result;
     }
 
 
+    /**
+     * Write the stored encoded PDU into a buffer, at its current position. The
+     * buffer must have enough room to store {@link #getPos()} bytes. It can be a
+     * direct buffer, avoiding a copy when it's written to a channel.
+     *
+     * @param buffer The buffer to write the PDU into
+     */
+    public void writeTo( ByteBuffer buffer )
+    {
+        if ( pos == 0 )
+        {
+            return;
+        }
+
+        // Start with the PDU's beginning, stored in the last chunk
+        int lastChunk = ( pos - 1 ) / DEFAULT_SIZE;
+        int length = pos - lastChunk * DEFAULT_SIZE;
+
+        buffer.put( chunks[lastChunk], DEFAULT_SIZE - length, length );
+
+        for ( int i = lastChunk - 1; i >= 0; i-- )
+        {
+            buffer.put( chunks[i], 0, DEFAULT_SIZE );
+        }
+    }
+
+
     /**
      * @return The buffer size (ie the maximum number of bytes that can be
      * added to this bffder before it gets extended).
      */
     public int getSize()
     {
-        return buffer.length;
+        return nbChunks * DEFAULT_SIZE;
     }
 
 
     /**
-     * Clear the position, emptying the buffer. If it has grown, reallocate it
-     * to its initial size.
+     * Clear the position, emptying the buffer. If it has grown too much, release
+     * the extra chunks.
      */
     public void clear()
     {
-        if ( buffer.length > DEFAULT_SIZE )
+        if ( nbChunks > MAX_POOLED_CHUNKS )
         {
-            buffer = new byte[DEFAULT_SIZE];
+            chunks = Arrays.copyOf( chunks, MAX_POOLED_CHUNKS );
+            nbChunks = MAX_POOLED_CHUNKS;
         }
 
         pos = 0;
+        chunkIndex = 0;
+        chunkPos = 0;
+        chunk = chunks[0];
     }
 
 
@@ -173,7 +271,7 @@ public class Asn1Buffer
     @Override
     public String toString()
     {
-        return "[" + buffer.length + ", " + pos + "] '"
-            + Asn1StringUtils.dumpBytes( buffer, buffer.length - pos, pos ) + '\'';
+        return "[" + getSize() + ", " + pos + "] '"
+            + Asn1StringUtils.dumpBytes( getBytes().array() ) + '\'';
     }
 }
@@ -23,32 +23,17 @@ package org.apache.directory.api.asn1.util;
 /**
  * A buffer used to store an encoding PDU. It's auto-extended, and
  * filled by the end.
+ * <br>
+ * This class is kept for compatibility only : it delegates to an {@link Asn1Buffer}.
  *
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ * @deprecated Use {@link Asn1Buffer}, which stores the PDU in reusable chunks
  */
+@Deprecated
 public class Asn1Buffer2
 {
-    /** The buffer default size */
-    private static final int DEFAULT_SIZE = 1024;
-
-    /** The current position in the buffer */
-    private int pos = 0;
-
-    /** The current size */
-    private int size = DEFAULT_SIZE;
-
-    /** The internal buffer storage */
-    private class InternalBuffer
-    {
-        /** A buffer to store the encoded PDU */
-        private byte[] buffer = new byte[DEFAULT_SIZE];
-
-        /** The next buffer, if any */
-        private InternalBuffer next;
-    }
-
-    /** The current internal buffer */
-    private InternalBuffer currentBuffer;
+    /** The buffer storing the PDU */
+    private final Asn1Buffer buffer = new Asn1Buffer();
 
 
     /**
@@ -56,7 +41,7 @@ public class Asn1Buffer2
      */
     public Asn1Buffer2()
     {
-        currentBuffer = new InternalBuffer();
+        // Nothing to do
     }
 
 
@@ -65,7 +50,7 @@ public class Asn1Buffer2
      */
     public int getPos()
     {
-        return pos;
+        return buffer.getPos();
     }
 
 
@@ -76,14 +61,7 @@ public class Asn1Buffer2
      */
     public void put( byte b )
     {
-        if ( pos == size )
-        {
-            // The buffer needs to be reallocated, its too small
-            extend();
-        }
-
-        currentBuffer.buffer[size - pos - 1] = b;
-        pos++;
+        buffer.put( b );
     }
 
 
@@ -94,55 +72,7 @@ public class Asn1Buffer2
      */
     public void put( byte[] bytes )
     {
-        int dataLength = bytes.length;
-
-        while ( true )
-        {
-            int room = size - pos;
-
-            if ( dataLength > room )
-            {
-                // First fulfill the current buffer
-                System.arraycopy(
-                    bytes,
-                    dataLength - room,
-                    currentBuffer,
-                    0,
-                    room );
-
-                dataLength -= room;
-                pos += room;
-
-                extend();
-            }
-            else
-            {
-                // Last bytes are copied in the current buffer
-                System.arraycopy(
-                    bytes,
-                    0,
-                    currentBuffer,
-                    room - dataLength,
-                    dataLength );
-
-                pos += dataLength;
-
-                break;
-            }
-        }
-    }
-
-
-    /**
-     * Extend the buffer
-     */
-    private void extend()
-    {
-        InternalBuffer newCurrentBuffer = new InternalBuffer();
-
-        newCurrentBuffer.next = currentBuffer;
-        currentBuffer = newCurrentBuffer;
-        size += DEFAULT_SIZE;
+        buffer.put( bytes );
     }
 
 
@@ -151,28 +81,7 @@ public class Asn1Buffer2
      */
     public byte[] getBytes()
     {
-        byte[] result = new byte[pos];
-
-        InternalBuffer bufferPtr = currentBuffer;
-        int currentPos = 0;
-        int dataPos = size - pos;
-        int dataLength = DEFAULT_SIZE - dataPos;
-
-        while ( bufferPtr.next != null )
-        {
-            System.arraycopy(
-                bufferPtr,
-                dataPos,
-                result,
-                currentPos,
-                dataLength );
-
-            currentPos += dataLength;
-            dataPos = 0;
-            dataLength = DEFAULT_SIZE;
-        }
-
-        return result;
+        return buffer.getBytes().array();
     }
 
 
@@ -182,24 +91,16 @@ public class Asn1Buffer2
      */
     public int getSize()
     {
-        return size;
+        return buffer.getSize();
     }
 
 
     /**
-     * Clear the position, emptying the buffer. If it has grown, reallocate it
-     * to its initial size.
+     * Clear the position, emptying the buffer.
      */
     public void clear()
     {
-        pos = 0;
-        size = DEFAULT_SIZE;
-
-        // Un-reference the extended buffer. They will be garbage collected.
-        while ( currentBuffer.next != null )
-        {
-            currentBuffer = currentBuffer.next;
-        }
+        buffer.clear();
     }
 
 
@@ -209,16 +110,6 @@ public class Asn1Buffer2
     @Override
     public String toString()
     {
-        StringBuilder sb = new StringBuilder();
-        sb.append( "[" ).append( size ).append( ", " ).append( pos ).append( "] )" );
-
-        InternalBuffer bufferPtr = currentBuffer;
-
-        while ( bufferPtr.next != null )
-        {
-            sb.append( "\n    " ).append( Asn1StringUtils.dumpBytes( bufferPtr.buffer ) );
-        }
-
-        return sb.toString();
+        return buffer.toString();
     }
 }
@@ -19,6 +19,7 @@
  */
 package org.apache.directory.api.asn1.util;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.nio.ByteBuffer;
@@ -95,6 +96,23 @@ public class Asn1Buffer2Test
         }
     }
 
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testAsn1Buffer2()
+    {
+        Asn1Buffer2 buffer = new Asn1Buffer2();
+
+        buffer.put( new byte[] { 0x01, 0x02 } );
+        buffer.put( ( byte ) 0x00 );
+
+        assertEquals( 3, buffer.getPos() );
+        assertArrayEquals( new byte[] { 0x00, 0x01, 0x02 }, buffer.getBytes() );
+
+        buffer.clear();
+        assertEquals( 0, buffer.getBytes().length );
+    }
+
+
     @Test
     @Disabled
     public void testBytesPerf()
@@ -19,9 +19,11 @@
  */
 package org.apache.directory.api.asn1.util;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -94,6 +96,101 @@ public class Asn1BufferTest
         }
     }
 
+
+
+    @Test
+    public void testPutBytesAcrossChunks()
+    {
+        Asn1Buffer buffer = new Asn1Buffer();
+        byte[] expected = new byte[5000];
+
+        for ( int i = 0; i < expected.length; i++ )
+        {
+            expected[i] = ( byte ) i;
+        }
+
+        // Store the bytes backward, in slices of various sizes
+        int end = expected.length;
+        int length = 1;
+
+        while ( end > 0 )
+        {
+            int start = Math.max( 0, end - length );
+            buffer.put( Arrays.copyOfRange( expected, start, end ) );
+            end = start;
+            length = length * 3 + 1;
+        }
+
+        assertEquals( 5000, buffer.getPos() );
+        assertArrayEquals( expected, buffer.getBytes().array() );
+
+        // Write the PDU into a direct buffer
+        ByteBuffer direct = ByteBuffer.allocateDirect( 5002 );
+        direct.put( ( byte ) 0x30 );
+        buffer.writeTo( direct );
+        direct.put( ( byte ) 0x31 );
+        direct.flip();
+
+        assertEquals( 0x30, direct.get() );
+
+        for ( int i = 0; i < expected.length; i++ )
+        {
+            assertEquals( expected[i], direct.get() );
+        }
+
+        assertEquals( 0x31, direct.get() );
+    }
+
+
+    @Test
+    public void testClearKeepsChunks()
+    {
+        Asn1Buffer buffer = new Asn1Buffer();
+
+        for ( int i = 0; i < 3000; i++ )
+        {
+            buffer.put( ( byte ) i );
+        }
+
+        assertEquals( 3072, buffer.getSize() );
+
+        buffer.clear();
+        assertEquals( 0, buffer.getPos() );
+        assertEquals( 3072, buffer.getSize() );
+        assertEquals( 0, buffer.getBytes().remaining() );
+
+        buffer.put( new byte[] { 0x01, 0x02 } );
+        buffer.put( ( byte ) 0x00 );
+        assertArrayEquals( new byte[] { 0x00, 0x01, 0x02 }, buffer.getBytes().array() );
+
+        // Very large PDUs don't stay in memory
+        buffer.put( new byte[1024 * 1024] );
+        buffer.clear();
+        assertEquals( 8 * 1024, buffer.getSize() );
+    }
+
+
+    @Test
+    public void testSetPos()
+    {
+        Asn1Buffer buffer = new Asn1Buffer();
+
+        for ( int i = 0; i < 2000; i++ )
+        {
+            buffer.put( ( byte ) 0x01 );
+        }
+
+        // Forget the last stored bytes
+        buffer.setPos( 1024 );
+        buffer.put( ( byte ) 0x02 );
+
+        ByteBuffer result = buffer.getBytes();
+        assertEquals( 1025, result.remaining() );
+        assertEquals( 0x02, result.get( 0 ) );
+        assertEquals( 0x01, result.get( 1 ) );
+    }
+
+
     @Test
     @Disabled
     public void testBytesPerf()
@@ -71,6 +71,9 @@ public abstract class AbstractContainer implements Asn1Container
      * for constructed types */
     private boolean gathering = false;
 
+    /** A flag telling if the values are read from the stream instead of being copied */
+    private boolean zeroCopy = false;
+
 
     /**
      * Creates a new instance of AbstractContainer with a starting state.
@@ -371,4 +374,24 @@ public ByteBuffer getStream()
         this.gathering = gathering;
     }
 
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isZeroCopy()
+    {
+        return zeroCopy;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setZeroCopy( boolean zeroCopy )
+    {
+        this.zeroCopy = zeroCopy;
+    }
+
 }
@@ -223,4 +223,24 @@ public interface Asn1Container
      * into the container. If not set, the default value is 'false'
      */
     void setGathering( boolean isGathering );
+
+
+    /**
+     * @return true if the decoded values are slices of the decoded stream, false
+     * if they are copied into their own byte array.
+     */
+    boolean isZeroCopy();
+
+
+    /**
+     * Set the zeroCopy flag. When set, the Asn1Decoder does not copy the primitive
+     * values which are entirely contained in the decoded stream : the action reads
+     * them from the stream, and the data are copied only if the action asks for them
+     * with {@link org.apache.directory.api.asn1.ber.tlv.BerValue#getData()}. The value
+     * can't be read once the action has been executed. If not set, the default value
+     * is 'false'
+     *
+     * @param zeroCopy true to ask the Asn1Decoder not to copy the values
+     */
+    void setZeroCopy( boolean zeroCopy );
 }
@@ -167,7 +167,12 @@ public final class Asn1Decoder implements TLVBerDecoderMBean
 
         BerValue value = current.getValue();
 
-        if ( ( value != null ) && ( value.getData() != null ) )
+        if ( ( value != null ) && value.isSlice() )
+        {
+            // Don't copy the data just to get their length
+            return current.getExpectedLength() == value.getCurrentLength();
+        }
+        else if ( ( value != null ) && ( value.getData() != null ) )
         {
             return current.getExpectedLength() == value.getData().length;
         }
@@ -533,8 +538,17 @@ public final class Asn1Decoder implements TLVBerDecoderMBean
             }
             else
             {
-                currentTlv.getValue().init( length );
-                stream.get( currentTlv.getValue().getData(), 0, length );
+                if ( container.isZeroCopy() )
+                {
+                    // The value will be read from the stream by the action
+                    currentTlv.getValue().initSlice( stream, length );
+                }
+                else
+                {
+                    currentTlv.getValue().init( length );
+                    stream.get( currentTlv.getValue().getData(), 0, length );
+                }
+
                 container.setState( TLVStateEnum.TLV_STATE_DONE );
 
                 return MORE;
@@ -570,10 +584,7 @@ public final class Asn1Decoder implements TLVBerDecoderMBean
         }
         else
         {
-            int remaining = length - currentLength;
-            byte[] data = new byte[remaining];
-            stream.get( data, 0, remaining );
-            currentTlv.getValue().addData( data );
+            currentTlv.getValue().addData( stream, length - currentLength );
             container.setState( TLVStateEnum.TLV_STATE_DONE );
 
             return MORE;
@@ -601,10 +612,23 @@ public final class Asn1Decoder implements TLVBerDecoderMBean
         }
 
         // First, we have to execute the associated action
-        container.getGrammar().executeAction( container );
+        TLV currentTlv = container.getCurrentTLV();
+        boolean pduDecoded;
+
+        try
+        {
+            container.getGrammar().executeAction( container );
+
+            // Check if the PDU has been fully decoded.
+            pduDecoded = isTLVDecoded( container );
+        }
+        finally
+        {
+            // The stream will be modified, the value must not refer to it anymore
+            currentTlv.getValue().releaseSlice();
+        }
 
-        // Check if the PDU has been fully decoded.
-        if ( isTLVDecoded( container ) )
+        if ( pduDecoded )
         {
             if ( container.getState() == TLVStateEnum.GRAMMAR_END )
             {
@@ -45,6 +45,15 @@ public class BerValue
     /** The current position of the last byte in the data buffer */
     private int currentPos;
 
+    /** The buffer containing the data, when the value is a slice of the decoded stream */
+    private ByteBuffer slice;
+
+    /** The position of the data in the slice buffer */
+    private int sliceOffset;
+
+    /** Set when the slice has been released before its data were copied */
+    private boolean released;
+
     /** The encoded byte for a TRUE value */
     public static final byte TRUE_VALUE = ( byte ) 0xFF;
 
@@ -135,6 +144,53 @@ public class BerValue
     {
         data = new byte[size];
         currentPos = 0;
+        slice = null;
+        released = false;
+    }
+
+
+    /**
+     * Initialize the Value with a slice of a buffer, without copying the data. The
+     * buffer position is moved after the slice. The data will only be copied if
+     * {@link #getData()} is called, and must not be read once the buffer has been
+     * modified : the slice should be released with {@link #releaseSlice()} as soon
+     * as the value has been consumed.
+     *
+     * @param buffer The buffer containing the data, at its current position
+     * @param length The data length
+     */
+    public void initSlice( ByteBuffer buffer, int length )
+    {
+        data = null;
+        slice = buffer;
+        sliceOffset = buffer.position();
+        currentPos = length;
+        released = false;
+        buffer.position( sliceOffset + length );
+    }
+
+
+    /**
+     * Forget the buffer the Value is a slice of, if any. If the data has not been
+     * copied yet, it is lost, and {@link #getData()} will throw an exception.
+     */
+    public void releaseSlice()
+    {
+        if ( slice != null )
+        {
+            slice = null;
+            released = true;
+        }
+    }
+
+
+    /**
+     * @return <code>true</code> if the Value is a slice of a buffer which data
+     * has not been copied yet
+     */
+    public boolean isSlice()
+    {
+        return slice != null;
     }
 
 
@@ -145,20 +201,68 @@ public class BerValue
     {
         data = null;
         currentPos = 0;
+        slice = null;
+        released = false;
     }
 
 
     /**
-     * Get the Values'data
+     * Get the Values'data. If the Value is a slice of a buffer, the data are
+     * copied from the buffer.
      *
      * @return Returns the data.
+     * @throws IllegalStateException If the Value was a slice of a buffer which has been
+     * released before the data were copied
      */
     public byte[] getData()
     {
+        if ( released )
+        {
+            throw new IllegalStateException( I18n.err( I18n.ERR_01311_RELEASED_SLICE ) );
+        }
+
+        if ( slice != null )
+        {
+            data = new byte[currentPos];
+
+            if ( slice.hasArray() )
+            {
+                System.arraycopy( slice.array(), slice.arrayOffset() + sliceOffset, data, 0, currentPos );
+            }
+            else
+            {
+                ByteBuffer duplicate = slice.duplicate();
+                duplicate.position( sliceOffset );
+                duplicate.get( data, 0, currentPos );
+            }
+
+            slice = null;
+        }
+
         return data;
     }
 
 
+    /**
+     * Get the Value's data as a String, decoded from UTF-8. If the Value is a slice
+     * of a heap buffer, the String is built directly from the buffer, without any
+     * intermediate copy.
+     *
+     * @return The decoded String
+     * @throws IllegalStateException If the Value was a slice of a buffer which has been
+     * released before the data were copied
+     */
+    public String getUtf8String()
+    {
+        if ( ( slice != null ) && slice.hasArray() )
+        {
+            return Strings.utf8ToString( slice.array(), slice.arrayOffset() + sliceOffset, currentPos );
+        }
+
+        return Strings.utf8ToString( getData() );
+    }
+
+
     /**
      * Set a block of bytes in the Value
      *
@@ -185,6 +289,19 @@ public class BerValue
     }
 
 
+    /**
+     * Append some bytes read from a buffer to the data buffer.
+     *
+     * @param buffer The buffer containing the data to append.
+     * @param length The number of bytes to append.
+     */
+    public void addData( ByteBuffer buffer, int length )
+    {
+        buffer.get( data, currentPos, length );
+        currentPos += length;
+    }
+
+
     /**
      * Set a block of bytes in the Value
      *
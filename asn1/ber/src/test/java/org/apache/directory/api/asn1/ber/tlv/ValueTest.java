@@ -21,6 +21,9 @@ package org.apache.directory.api.asn1.ber.tlv;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -787,5 +790,78 @@ public class ValueTest
         
         assertEquals( "0x03 0x03 0x06 0x00 0x40 ", Asn1StringUtils.dumpBytes( buffer.array() )  );
     }
-}
 
+
+    /**
+     * Test that a slice is only copied when the data are asked for
+     */
+    @Test
+    public void testSlice()
+    {
+        checkSlice( ByteBuffer.wrap( new byte[]
+            { 0x00, 'a', 'b', 'c', 0x01 } ) );
+
+        ByteBuffer direct = ByteBuffer.allocateDirect( 5 );
+        direct.put( new byte[]
+            { 0x00, 'a', 'b', 'c', 0x01 } );
+        direct.flip();
+        checkSlice( direct );
+    }
+
+
+    private void checkSlice( ByteBuffer buffer )
+    {
+        BerValue value = new BerValue();
+        buffer.position( 1 );
+        value.initSlice( buffer, 3 );
+
+        assertEquals( 4, buffer.position() );
+        assertTrue( value.isSlice() );
+        assertEquals( 3, value.getCurrentLength() );
+        assertEquals( "abc", value.getUtf8String() );
+
+        // A String can only be built directly from a heap buffer
+        assertEquals( buffer.hasArray(), value.isSlice() );
+
+        byte[] data = value.getData();
+        assertTrue( Arrays.equals( new byte[]
+            { 'a', 'b', 'c' }, data ) );
+        assertFalse( value.isSlice() );
+
+        // The data have been copied
+        buffer.put( 1, ( byte ) 'z' );
+        assertEquals( "abc", value.getUtf8String() );
+
+        value.reset();
+        assertFalse( value.isSlice() );
+        assertNull( value.getData() );
+    }
+
+
+    /**
+     * Test that the data of a released slice can't be read anymore
+     */
+    @Test
+    public void testReleasedSlice()
+    {
+        ByteBuffer buffer = ByteBuffer.wrap( new byte[]
+            { 'a', 'b', 'c' } );
+        BerValue value = new BerValue();
+        value.initSlice( buffer, 3 );
+        value.releaseSlice();
+
+        assertFalse( value.isSlice() );
+        assertThrows( IllegalStateException.class, () -> value.getData() );
+        assertThrows( IllegalStateException.class, () -> value.getUtf8String() );
+
+        // A copied slice can still be read once released
+        buffer.rewind();
+        value.initSlice( buffer, 3 );
+        value.getData();
+        value.releaseSlice();
+        assertEquals( "abc", value.getUtf8String() );
+
+        value.reset();
+        assertNull( value.getData() );
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.benchmarks;
+
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.api.ldap.model.exception.LdapInvalidDnException;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the Dn parsing. The simple Dns are parsed by the FastDnParser, the Dns containing
+ * multi-valued Rdns, escaped characters or hexadecimal values are parsed by the ComplexDnParser.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DnParserBenchmark
+{
+    /** The parsed Dns */
+    private static final Map<String, String> DNS = new HashMap<>();
+
+    static
+    {
+        DNS.put( "SHORT", "dc=com" );
+        DNS.put( "SIMPLE", "cn=John Doe,ou=people,dc=example,dc=com" );
+        DNS.put( "OID", "2.5.4.3=John Doe,2.5.4.11=people,0.9.2342.19200300.100.1.25=example,"
+            + "0.9.2342.19200300.100.1.25=com" );
+        DNS.put( "MULTI_VALUED", "cn=John Doe+uid=jdoe,ou=people,dc=example,dc=com" );
+        DNS.put( "ESCAPED", "cn=Doe\\, John,ou=people\\+staff,dc=example,dc=com" );
+        DNS.put( "HEX_VALUE", "cn=#04084A6F686E20446F65,ou=people,dc=example,dc=com" );
+    }
+
+    /** The kind of parsed Dn */
+    @Param({ "SHORT", "SIMPLE", "OID", "MULTI_VALUED", "ESCAPED", "HEX_VALUE" })
+    String dnType;
+
+    /** The parsed Dn */
+    private String name;
+
+
+    /**
+     * Selects the parsed Dn
+     */
+    @Setup
+    public void setup()
+    {
+        name = DNS.get( dnType );
+    }
+
+
+    /**
+     * Parses the Dn without a SchemaManager
+     * 
+     * @return The parsed Dn
+     * @throws LdapInvalidDnException If the Dn is invalid
+     */
+    @Benchmark
+    public Dn parse() throws LdapInvalidDnException
+    {
+        return new Dn( name );
+    }
+
+
+    /**
+     * Parses and normalizes the Dn
+     * 
+     * @param state The SchemaManager used to normalize the Dn
+     * @return The parsed Dn
+     * @throws LdapInvalidDnException If the Dn is invalid
+     */
+    @Benchmark
+    public Dn parseSchemaAware( SchemaManagerState state ) throws LdapInvalidDnException
+    {
+        return new Dn( state.schemaManager, name );
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.benchmarks;
+
+
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.api.ldap.model.filter.ExprNode;
+import org.apache.directory.api.ldap.model.filter.FilterParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the filter parsing.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FilterParserBenchmark
+{
+    /** The parsed filters */
+    private static final Map<String, String> FILTERS = new HashMap<>();
+
+    static
+    {
+        FILTERS.put( "PRESENCE", "(objectClass=*)" );
+        FILTERS.put( "EQUALITY", "(cn=John Doe)" );
+        FILTERS.put( "SUBSTRING", "(cn=*John*D*e)" );
+        FILTERS.put( "EXTENSIBLE", "(cn:caseExactMatch:=John Doe)" );
+        FILTERS.put( "ESCAPED", "(description=\\28a\\2a\\29 \\5c value)" );
+        FILTERS.put( "COMPLEX", "(&(objectClass=inetOrgPerson)(|(cn=John*)(mail=*@example.com)"
+            + "(telephoneNumber=+1 408*))(!(ou=retired))(createTimestamp>=20200101000000Z)(sn~=doe))" );
+    }
+
+    /** The kind of parsed filter */
+    @Param({ "PRESENCE", "EQUALITY", "SUBSTRING", "EXTENSIBLE", "ESCAPED", "COMPLEX" })
+    String filterType;
+
+    /** The parsed filter */
+    private String filter;
+
+
+    /**
+     * Selects the parsed filter
+     */
+    @Setup
+    public void setup()
+    {
+        filter = FILTERS.get( filterType );
+    }
+
+
+    /**
+     * Parses the filter without a SchemaManager
+     * 
+     * @return The parsed filter
+     * @throws ParseException If the filter is invalid
+     */
+    @Benchmark
+    public ExprNode parse() throws ParseException
+    {
+        return FilterParser.parse( filter );
+    }
+
+
+    /**
+     * Parses the filter and normalizes its values
+     * 
+     * @param state The SchemaManager used to normalize the values
+     * @return The parsed filter
+     * @throws ParseException If the filter is invalid
+     */
+    @Benchmark
+    public ExprNode parseSchemaAware( SchemaManagerState state ) throws ParseException
+    {
+        return FilterParser.parse( state.schemaManager, filter );
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.benchmarks;
+
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.api.asn1.DecoderException;
+import org.apache.directory.api.asn1.ber.Asn1Decoder;
+import org.apache.directory.api.asn1.util.Asn1Buffer;
+import org.apache.directory.api.ldap.codec.api.LdapApiService;
+import org.apache.directory.api.ldap.codec.api.LdapEncoder;
+import org.apache.directory.api.ldap.codec.api.LdapMessageContainer;
+import org.apache.directory.api.ldap.codec.osgi.DefaultLdapCodecService;
+import org.apache.directory.api.ldap.model.message.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the decoding of every LDAP message type, with and without copying the
+ * values out of the received buffer.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LdapDecoderBenchmark
+{
+    /** The decoded message type */
+    @Param
+    MessageFixtures messageType;
+
+    /** Tells if the values are sliced from the received buffer */
+    @Param({ "false", "true" })
+    boolean zeroCopy;
+
+    /** The codec service */
+    private LdapApiService codec;
+
+    /** The PDU to decode */
+    private byte[] pdu;
+
+
+    /**
+     * Encodes the message to decode
+     * 
+     * @throws Exception If the message can't be created
+     */
+    @Setup
+    public void setup() throws Exception
+    {
+        codec = new DefaultLdapCodecService();
+        ByteBuffer encoded = LdapEncoder.encodeMessage( new Asn1Buffer(), codec, messageType.create() );
+        pdu = new byte[encoded.remaining()];
+        encoded.get( pdu );
+    }
+
+
+    /**
+     * Decodes the PDU
+     * 
+     * @return The decoded message
+     * @throws DecoderException If the PDU can't be decoded
+     */
+    @Benchmark
+    public Message decode() throws DecoderException
+    {
+        LdapMessageContainer<Message> container = new LdapMessageContainer<>( codec );
+        container.setZeroCopy( zeroCopy );
+        Asn1Decoder.decode( ByteBuffer.wrap( pdu ), container );
+
+        return container.getMessage();
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.benchmarks;
+
+
+import org.apache.directory.api.ldap.model.entry.DefaultEntry;
+import org.apache.directory.api.ldap.model.entry.DefaultModification;
+import org.apache.directory.api.ldap.model.entry.ModificationOperation;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.message.AbandonRequestImpl;
+import org.apache.directory.api.ldap.model.message.AddRequestImpl;
+import org.apache.directory.api.ldap.model.message.AddResponseImpl;
+import org.apache.directory.api.ldap.model.message.AliasDerefMode;
+import org.apache.directory.api.ldap.model.message.BindRequestImpl;
+import org.apache.directory.api.ldap.model.message.BindResponseImpl;
+import org.apache.directory.api.ldap.model.message.CompareRequestImpl;
+import org.apache.directory.api.ldap.model.message.CompareResponseImpl;
+import org.apache.directory.api.ldap.model.message.DeleteRequestImpl;
+import org.apache.directory.api.ldap.model.message.DeleteResponseImpl;
+import org.apache.directory.api.ldap.model.message.IntermediateResponseImpl;
+import org.apache.directory.api.ldap.model.message.Message;
+import org.apache.directory.api.ldap.model.message.ModifyDnRequestImpl;
+import org.apache.directory.api.ldap.model.message.ModifyDnResponseImpl;
+import org.apache.directory.api.ldap.model.message.ModifyRequestImpl;
+import org.apache.directory.api.ldap.model.message.ModifyResponseImpl;
+import org.apache.directory.api.ldap.model.message.OpaqueExtendedRequest;
+import org.apache.directory.api.ldap.model.message.OpaqueExtendedResponse;
+import org.apache.directory.api.ldap.model.message.ReferralImpl;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.message.ResultResponse;
+import org.apache.directory.api.ldap.model.message.SearchRequestImpl;
+import org.apache.directory.api.ldap.model.message.SearchResultDoneImpl;
+import org.apache.directory.api.ldap.model.message.SearchResultEntryImpl;
+import org.apache.directory.api.ldap.model.message.SearchResultReferenceImpl;
+import org.apache.directory.api.ldap.model.message.SearchScope;
+import org.apache.directory.api.ldap.model.message.UnbindRequestImpl;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.api.ldap.model.name.Rdn;
+import org.apache.directory.api.util.Strings;
+
+
+/**
+ * The messages used by the codec benchmarks. Each message type is always created with
+ * the same content, so that the results of two runs can be compared.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public enum MessageFixtures
+{
+    ABANDON_REQUEST
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return new AbandonRequestImpl( 3 ).setMessageId( MESSAGE_ID );
+        }
+    },
+
+    ADD_REQUEST
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return new AddRequestImpl().setEntry( createEntry() ).setMessageId( MESSAGE_ID );
+        }
+    },
+
+    ADD_RESPONSE
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return setResult( new AddResponseImpl( MESSAGE_ID ) );
+        }
+    },
+
+    BIND_REQUEST
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return new BindRequestImpl().setSimple( true ).setDn( new Dn( ENTRY_DN ) )
+                .setCredentials( Strings.getBytesUtf8( "secret" ) ).setMessageId( MESSAGE_ID );
+        }
+    },
+
+    BIND_RESPONSE
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return setResult( new BindResponseImpl( MESSAGE_ID ) );
+        }
+    },
+
+    COMPARE_REQUEST
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return new CompareRequestImpl().setName( new Dn( ENTRY_DN ) ).setAttributeId( "mail" )
+                .setAssertionValue( "jdoe@example.com" ).setMessageId( MESSAGE_ID );
+        }
+    },
+
+    COMPARE_RESPONSE
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return setResult( new CompareResponseImpl( MESSAGE_ID ) );
+        }
+    },
+
+    DELETE_REQUEST
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return new DeleteRequestImpl().setName( new Dn( ENTRY_DN ) ).setMessageId( MESSAGE_ID );
+        }
+    },
+
+    DELETE_RESPONSE
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return setResult( new DeleteResponseImpl( MESSAGE_ID ) );
+        }
+    },
+
+    EXTENDED_REQUEST
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return new OpaqueExtendedRequest( "1.3.6.1.4.1.18060.0.1.5", Strings.getBytesUtf8( "request value" ) )
+                .setMessageId( MESSAGE_ID );
+        }
+    },
+
+    EXTENDED_RESPONSE
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            OpaqueExtendedResponse response = new OpaqueExtendedResponse( MESSAGE_ID, "1.3.6.1.4.1.18060.0.1.5" );
+            response.setResponseValue( Strings.getBytesUtf8( "response value" ) );
+
+            return setResult( response );
+        }
+    },
+
+    INTERMEDIATE_RESPONSE
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            IntermediateResponseImpl response = new IntermediateResponseImpl( MESSAGE_ID, "1.3.6.1.4.1.4203.1.9.1.4" );
+            response.setResponseValue( Strings.getBytesUtf8( "intermediate value" ) );
+
+            return response;
+        }
+    },
+
+    MODIFY_REQUEST
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return new ModifyRequestImpl().setName( new Dn( ENTRY_DN ) )
+                .addModification( new DefaultModification( ModificationOperation.REPLACE_ATTRIBUTE, "mail",
+                    "john.doe@example.com" ) )
+                .addModification( new DefaultModification( ModificationOperation.ADD_ATTRIBUTE, "description",
+                    "first description", "second description" ) )
+                .addModification( new DefaultModification( ModificationOperation.REMOVE_ATTRIBUTE, "telephoneNumber" ) )
+                .setMessageId( MESSAGE_ID );
+        }
+    },
+
+    MODIFY_RESPONSE
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return setResult( new ModifyResponseImpl( MESSAGE_ID ) );
+        }
+    },
+
+    MODIFY_DN_REQUEST
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return new ModifyDnRequestImpl().setName( new Dn( ENTRY_DN ) ).setNewRdn( new Rdn( "uid=john.doe" ) )
+                .setDeleteOldRdn( true ).setNewSuperior( new Dn( "ou=users,dc=example,dc=com" ) )
+                .setMessageId( MESSAGE_ID );
+        }
+    },
+
+    MODIFY_DN_RESPONSE
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return setResult( new ModifyDnResponseImpl( MESSAGE_ID ) );
+        }
+    },
+
+    SEARCH_REQUEST
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return new SearchRequestImpl().setBase( new Dn( "ou=people,dc=example,dc=com" ) )
+                .setScope( SearchScope.SUBTREE ).setDerefAliases( AliasDerefMode.NEVER_DEREF_ALIASES )
+                .setSizeLimit( 1000L ).setTimeLimit( 30 )
+                .setFilter( "(&(objectClass=inetOrgPerson)(|(cn=John*)(mail=*@example.com))(!(ou=retired)))" )
+                .addAttributes( "cn", "sn", "mail", "telephoneNumber" ).setMessageId( MESSAGE_ID );
+        }
+    },
+
+    SEARCH_RESULT_DONE
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return setResult( new SearchResultDoneImpl( MESSAGE_ID ) );
+        }
+    },
+
+    SEARCH_RESULT_ENTRY
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            SearchResultEntryImpl searchResultEntry = new SearchResultEntryImpl( MESSAGE_ID );
+            searchResultEntry.setEntry( createEntry() );
+
+            return searchResultEntry;
+        }
+    },
+
+    SEARCH_RESULT_REFERENCE
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            ReferralImpl referral = new ReferralImpl();
+            referral.addLdapUrl( "ldap://server1.example.com/ou=people,dc=example,dc=com" );
+            referral.addLdapUrl( "ldap://server2.example.com/ou=people,dc=example,dc=com" );
+
+            SearchResultReferenceImpl searchResultReference = new SearchResultReferenceImpl( MESSAGE_ID );
+            searchResultReference.setReferral( referral );
+
+            return searchResultReference;
+        }
+    },
+
+    UNBIND_REQUEST
+    {
+        @Override
+        public Message create() throws LdapException
+        {
+            return new UnbindRequestImpl().setMessageId( MESSAGE_ID );
+        }
+    };
+
+    /** The message ID used by all the messages */
+    private static final int MESSAGE_ID = 12;
+
+    /** The Dn used by all the messages */
+    private static final String ENTRY_DN = "cn=John Doe,ou=people,dc=example,dc=com";
+
+
+    /**
+     * Creates the message
+     *
+     * @return A new instance of the message
+     * @throws LdapException If the message can't be created
+     */
+    public abstract Message create() throws LdapException;
+
+
+    /**
+     * Creates the entry used by the Add request and the Search Result Entry
+     */
+    private static DefaultEntry createEntry() throws LdapException
+    {
+        return new DefaultEntry( ENTRY_DN,
+            "objectClass: top",
+            "objectClass: person",
+            "objectClass: organizationalPerson",
+            "objectClass: inetOrgPerson",
+            "cn: John Doe",
+            "sn: Doe",
+            "givenName: John",
+            "uid: jdoe",
+            "mail: jdoe@example.com",
+            "telephoneNumber: +1 408 555 1234",
+            "description: A test entry with a few attributes, as commonly returned by a search" );
+    }
+
+
+    /**
+     * Sets a successful result in a response
+     */
+    private static Message setResult( ResultResponse response ) throws LdapException
+    {
+        response.getLdapResult().setResultCode( ResultCodeEnum.SUCCESS );
+        response.getLdapResult().setMatchedDn( new Dn( "dc=example,dc=com" ) );
+        response.getLdapResult().setDiagnosticMessage( "Operation completed" );
+
+        return response;
+    }
+}
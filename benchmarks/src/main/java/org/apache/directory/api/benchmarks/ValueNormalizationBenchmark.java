@@ -0,0 +1,124 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.benchmarks;
+
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.api.ldap.model.entry.Value;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.schema.AttributeType;
+import org.apache.directory.api.ldap.model.schema.PrepareString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the normalization of the values, which goes through the PrepareString
+ * methods for the String attributes.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ValueNormalizationBenchmark
+{
+    /** The normalized values, with the attribute they belong to */
+    private static final Map<String, String[]> VALUES = new HashMap<>();
+
+    static
+    {
+        VALUES.put( "ASCII", new String[] { "cn", "  John   DOE  " } );
+        VALUES.put( "UNICODE", new String[] { "cn", "  J\u00e9r\u00f4me   \u00dcNAL  " } );
+        VALUES.put( "CASE_EXACT", new String[] { "vendorName", "  John   DOE  " } );
+        VALUES.put( "IA5", new String[] { "mail", "  John.Doe@Example.COM " } );
+        VALUES.put( "TELEPHONE_NUMBER", new String[] { "telephoneNumber", " +1 (408) 555-1234 " } );
+        VALUES.put( "LONG", new String[] { "description", "A rather long description, as can be found in many "
+            + "entries, with    several SPACES in it, to check how the normalization cost grows with the value" } );
+    }
+
+    /** The kind of normalized value */
+    @Param({ "ASCII", "UNICODE", "CASE_EXACT", "IA5", "TELEPHONE_NUMBER", "LONG" })
+    String valueType;
+
+    /** The value's AttributeType */
+    private AttributeType attributeType;
+
+    /** The value to normalize */
+    private String upValue;
+
+
+    /**
+     * Selects the normalized value
+     * 
+     * @param state The SchemaManager containing the AttributeType
+     * @throws LdapException If the AttributeType does not exist
+     */
+    @Setup
+    public void setup( SchemaManagerState state ) throws LdapException
+    {
+        String[] value = VALUES.get( valueType );
+        attributeType = state.schemaManager.lookupAttributeTypeRegistry( value[0] );
+        upValue = value[1];
+    }
+
+
+    /**
+     * Creates a schema aware value, which normalizes it
+     * 
+     * @return The created value
+     * @throws LdapException If the value is invalid
+     */
+    @Benchmark
+    public Value createValue() throws LdapException
+    {
+        return new Value( attributeType, upValue );
+    }
+
+
+    /**
+     * Prepares the value as the caseIgnoreMatch matching rule does
+     * 
+     * @return The prepared value
+     */
+    @Benchmark
+    public String prepareString()
+    {
+        String normalized = PrepareString.normalize( upValue );
+        normalized = PrepareString.mapIgnoreCase( normalized );
+
+        return PrepareString.insignificantSpacesStringValue( normalized.toCharArray() );
+    }
+}
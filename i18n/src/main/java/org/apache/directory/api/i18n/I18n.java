@@ -73,6 +73,7 @@ public enum I18n
     ERR_01305_ABOVE_4_BYTES_INTEGER( "ERR_01305_ABOVE_4_BYTES_INTEGER" ),
     ERR_01306_VALUE_NOT_IN_RANGE( "ERR_01306_VALUE_NOT_IN_RANGE" ),
     ERR_01307_0_BYTES_LONG_LONG( "ERR_01307_0_BYTES_LONG_LONG" ),
+    ERR_01311_RELEASED_SLICE( "ERR_01311_RELEASED_SLICE" ),
 
     // api-dsml-engine                  2000-2999
     ERR_02000_FAILED_PROCESSING_DSML( "ERR_02000_FAILED_PROCESSING_DSML" ),
@@ -214,6 +215,24 @@ public enum I18n
     ERR_04178_CANT_LOAD_KEY_STORE( "ERR_04178_CANT_LOAD_KEY_STORE" ),
     ERR_04179_TRUST_STORE_CANT_BE_READ( "ERR_04179_TRUST_STORE_CANT_BE_READ" ),
     ERR_04180_FILE_DOES_NOT_EXIST_ON_CLASSPATH( "ERR_04180_FILE_DOES_NOT_EXIST_ON_CLASSPATH" ),
+    ERR_04181_INVALID_PROCESSOR_COUNT( "ERR_04181_INVALID_PROCESSOR_COUNT" ),
+    ERR_04182_NO_HANDLER_FOR_SESSION( "ERR_04182_NO_HANDLER_FOR_SESSION" ),
+    ERR_04183_REQUEST_WRITE_FAILED( "ERR_04183_REQUEST_WRITE_FAILED" ),
+    ERR_04184_NULL_SUBSCRIBER( "ERR_04184_NULL_SUBSCRIBER" ),
+    ERR_04185_ALREADY_SUBSCRIBED( "ERR_04185_ALREADY_SUBSCRIBED" ),
+    ERR_04186_INVALID_DEMAND( "ERR_04186_INVALID_DEMAND" ),
+    ERR_04187_INVALID_PAGE_SIZE( "ERR_04187_INVALID_PAGE_SIZE" ),
+    ERR_04188_INVALID_TLS_SESSION_CACHE( "ERR_04188_INVALID_TLS_SESSION_CACHE" ),
+    ERR_04189_INVALID_MULTIPLEXED_CONNECTION( "ERR_04189_INVALID_MULTIPLEXED_CONNECTION" ),
+    ERR_04190_IN_FLIGHT_WINDOW_TIMEOUT( "ERR_04190_IN_FLIGHT_WINDOW_TIMEOUT" ),
+    ERR_04191_MULTIPLEXED_CONNECTION_CLOSED( "ERR_04191_MULTIPLEXED_CONNECTION_CLOSED" ),
+    ERR_04192_NOT_AN_ASYNC_CONNECTION( "ERR_04192_NOT_AN_ASYNC_CONNECTION" ),
+    ERR_04193_INVALID_CONCURRENT_BINDS( "ERR_04193_INVALID_CONCURRENT_BINDS" ),
+    ERR_04194_CREDENTIAL_VERIFIER_CLOSED( "ERR_04194_CREDENTIAL_VERIFIER_CLOSED" ),
+    ERR_04195_NO_LDAP_SERVER( "ERR_04195_NO_LDAP_SERVER" ),
+    ERR_04196_OPERATION_OBSERVER_FAILED( "ERR_04196_OPERATION_OBSERVER_FAILED" ),
+    ERR_04197_POOL_OBSERVER_FAILED( "ERR_04197_POOL_OBSERVER_FAILED" ),
+    ERR_04198_MULTIPLEXED_OPERATION_TIMEOUT( "ERR_04198_MULTIPLEXED_OPERATION_TIMEOUT" ),
 
     //     template                     4200-4300
     // None
@@ -538,6 +557,7 @@ public enum I18n
     ERR_13248_CANNOT_READ_ENTRY( "ERR_13248_CANNOT_READ_ENTRY" ),
     ERR_13249_NO_COMPARATOR_FOR_AT( "ERR_13249_NO_COMPARATOR_FOR_AT" ),
     ERR_13250_VALUE_MISSING_AT_THE_END( "ERR_13250_VALUE_MISSING_AT_THE_END" ),
+    ERR_13251_CANT_APPLY_SCHEMA_TO_ATTRIBUTE( "ERR_13251_CANT_APPLY_SCHEMA_TO_ATTRIBUTE" ),
 
     //     filter                           13300 - 13399
     ERR_13300_BAD_PLACE_HOLDERS_NUMBER( "ERR_13300_BAD_PLACE_HOLDERS_NUMBER" ),
@@ -559,6 +579,8 @@ public enum I18n
     ERR_13316_EMPTY_FILTER( "ERR_13316_EMPTY_FILTER" ),
     ERR_13317_NO_MORE_THAN_ONE_ELEM_IN_NOT( "ERR_13317_NO_MORE_THAN_ONE_ELEM_IN_NOT" ),
     ERR_13318_INVALID_ATTR_IN_REFINEMENT( "ERR_13318_INVALID_ATTR_IN_REFINEMENT" ),
+    ERR_13319_NULL_SCHEMA_MANAGER_FOR_FILTER( "ERR_13319_NULL_SCHEMA_MANAGER_FOR_FILTER" ),
+    ERR_13320_CANNOT_EVALUATE_FILTER_NODE( "ERR_13320_CANNOT_EVALUATE_FILTER_NODE" ),
 
     //     ldif                         13400 - 13499
     ERR_13400_ENTRY_WITH_TWO_DNS( "ERR_13400_ENTRY_WITH_TWO_DNS" ),
@@ -687,6 +709,7 @@ public enum I18n
     ERR_13624_CANNOT_SERIALIZE_NULL_DN( "ERR_13624_CANNOT_SERIALIZE_NULL_DN" ),
     ERR_13625_INVALID_RDN( "ERR_13625_INVALID_RDN" ),
     ERR_13626_INVALID_RDN_DUPLICATE_AVA( "ERR_13626_INVALID_RDN_DUPLICATE_AVA" ),
+    ERR_13627_INVALID_CACHE_SIZE( "ERR_13627_INVALID_CACHE_SIZE" ),
 
     //     schema                           13700 - 13899
     ERR_13700_CANNOT_MODIFY_LOCKED_SCHEMA_OBJECT( "ERR_13700_CANNOT_MODIFY_LOCKED_SCHEMA_OBJECT" ),
@@ -859,6 +882,8 @@ public enum I18n
     ERR_13867_MOD_INCREMENT_NO_ATTRIBUTE( "ERR_13867_MOD_INCREMENT_NO_ATTRIBUTE" ),
     ERR_13868_MOD_INCREMENT_NO_INT_ATTRIBUTE( "ERR_13868_MOD_INCREMENT_NO_INT_ATTRIBUTE" ),
     ERR_13869_MOD_INCREMENT_OVERFLOW( "ERR_13869_MOD_INCREMENT_OVERFLOW" ),
+    ERR_13870_CANNOT_MODIFY_OID_REGISTRY_COPY( "ERR_13870_CANNOT_MODIFY_OID_REGISTRY_COPY" ),
+    ERR_13871_CANNOT_MODIFY_REGISTRIES_COPY( "ERR_13871_CANNOT_MODIFY_REGISTRIES_COPY" ),
 
     // api-ldap-model subtree          13900-13999
     ERR_13900_INTEGER_TOKEN_NOT_INTEGER( "ERR_13900_INTEGER_TOKEN_NOT_INTEGER" ),
@@ -959,6 +984,8 @@ public enum I18n
     ERR_16078_CANNOT_LOAD_UNKNOWN_SCHEMA( "ERR_16078_CANNOT_LOAD_UNKNOWN_SCHEMA" ),
     ERR_16079_INVALID_SCHEMA_OBJECT_CANNOT_BE_LOADED( "ERR_16079_INVALID_SCHEMA_OBJECT_CANNOT_BE_LOADED" ),
     ERR_16080_SCHEMA_LOADER_CANT_BE_CREATED("ERR_16080_SCHEMA_LOADER_CANT_BE_CREATED"),
+    ERR_16081_INVALID_SCHEMA_SNAPSHOT( "ERR_16081_INVALID_SCHEMA_SNAPSHOT" ),
+    ERR_16082_SCHEMA_SNAPSHOT_READ_ONLY( "ERR_16082_SCHEMA_SNAPSHOT_READ_ONLY" ),
 
     // api-utils                        17000 - 17999
     ERR_17000_UNEXPECTED_PARSER_CONDITION( "ERR_17000_UNEXPECTED_PARSER_CONDITION" ),
@@ -1162,6 +1189,8 @@ public enum I18n
     MSG_04176_TRUST_MANAGER_ON_CLASSPATH( "MSG_04176_TRUST_MANAGER_ON_CLASSPATH" ),
     MSG_04177_CONNECTION_TIMEOUT( "MSG_04177_CONNECTION_TIMEOUT" ),
     MSH_04178_CLOSE_LATCH_ABORTED( "MSH_04178_CLOSE_LATCH_ABORTED" ),
+    MSG_04179_SERVER_EJECTED( "MSG_04179_SERVER_EJECTED" ),
+    MSG_04180_SERVER_RECOVERING( "MSG_04180_SERVER_RECOVERING" ),
 
     // api-ldap-codec-core              5000-5999
     //     <>                               5000-5099
@@ -1494,6 +1523,7 @@ public enum I18n
     MSG_16022_REMOVED_FROM_ENABLED_SCHEMA( "MSG_16022_REMOVED_FROM_ENABLED_SCHEMA" ),
     MSG_16023_CANNOT_DELETE_SCHEMAOBJECT( "MSG_16023_CANNOT_DELETE_SCHEMAOBJECT" ),
     MSG_16024_REMOVED_FROM_DISABLED_SCHEMA( "MSG_16024_REMOVED_FROM_DISABLED_SCHEMA" ),
+    MSG_16025_LOADING_SCHEMA_SNAPSHOT( "MSG_16025_LOADING_SCHEMA_SNAPSHOT" ),
 
     // api-utils                        17000 - 17999
     MSG_17000_NO_EXPORT_FOUND( "MSG_17000_NO_EXPORT_FOUND" ),
@@ -0,0 +1,226 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.entry;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.apache.directory.api.ldap.model.entry.Attribute;
+import org.apache.directory.api.ldap.model.entry.DefaultAttribute;
+import org.apache.directory.api.ldap.model.entry.DefaultEntry;
+import org.apache.directory.api.ldap.model.entry.Entry;
+import org.apache.directory.api.ldap.model.entry.LazySchemaAwareEntry;
+import org.apache.directory.api.ldap.model.exception.LdapNoSuchAttributeException;
+import org.apache.directory.api.ldap.model.schema.SchemaManager;
+import org.apache.directory.api.ldap.schema.manager.impl.DefaultSchemaManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+
+/**
+ * A test class for the LazySchemaAwareEntry class
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@Execution( ExecutionMode.CONCURRENT )
+public class LazySchemaAwareEntryTest
+{
+    private static SchemaManager schemaManager;
+
+
+    @BeforeAll
+    public static void setUpBeforeClass() throws Exception
+    {
+        schemaManager = new DefaultSchemaManager();
+    }
+
+
+    /**
+     * Creates a schema agnostic entry, as decoded from a SearchResultEntry
+     */
+    private Entry createRawEntry() throws Exception
+    {
+        return new DefaultEntry(
+            "CN=Test,OU=System",
+            "objectClass: top",
+            "objectClass: person",
+            "cn: Test",
+            "CommonName: other",
+            "sn:  Some   Name ",
+            "description: a description" );
+    }
+
+
+    @Test
+    public void testLazyConversion() throws Exception
+    {
+        LazySchemaAwareEntry entry = new LazySchemaAwareEntry( schemaManager, createRawEntry() );
+
+        assertTrue( entry.isSchemaAware() );
+        assertEquals( 4, entry.size() );
+        assertEquals( 4, entry.getPendingAttributesCount() );
+
+        // Checking the presence of an attribute does not convert it
+        assertTrue( entry.containsAttribute( "2.5.4.4", "commonName" ) );
+        assertTrue( entry.containsAttribute( schemaManager.getAttributeType( "description" ) ) );
+        assertFalse( entry.containsAttribute( "seeAlso" ) );
+        assertEquals( 4, entry.getPendingAttributesCount() );
+
+        // Reading an attribute converts only this one
+        Attribute sn = entry.get( "surname" );
+        assertNotNull( sn );
+        assertNotNull( sn.getAttributeType() );
+        assertTrue( sn.contains( "some name" ) );
+        assertEquals( 3, entry.getPendingAttributesCount() );
+        assertEquals( 4, entry.size() );
+
+        // The two cn attributes have been merged
+        assertTrue( entry.contains( "cn", "test", "OTHER" ) );
+        assertEquals( 2, entry.get( "2.5.4.3" ).size() );
+        assertTrue( entry.hasObjectClass( "PERSON" ) );
+        assertEquals( 1, entry.getPendingAttributesCount() );
+
+        assertNull( entry.get( "seeAlso" ) );
+    }
+
+
+    @Test
+    public void testLazyDn() throws Exception
+    {
+        Entry entry = new LazySchemaAwareEntry( schemaManager, createRawEntry() );
+
+        assertTrue( entry.getDn().isSchemaAware() );
+        assertEquals( "CN=Test,OU=System", entry.getDn().getName() );
+        assertEquals( new DefaultEntry( schemaManager, createRawEntry() ).getDn().getNormName(),
+            entry.getDn().getNormName() );
+    }
+
+
+    @Test
+    public void testUnknownAttribute() throws Exception
+    {
+        Entry rawEntry = createRawEntry();
+        rawEntry.add( "unknownAttribute", "value" );
+
+        assertThrows( LdapNoSuchAttributeException.class, () -> new LazySchemaAwareEntry( schemaManager, rawEntry ) );
+    }
+
+
+    @Test
+    public void testModifications() throws Exception
+    {
+        Entry entry = new LazySchemaAwareEntry( schemaManager, createRawEntry() );
+
+        // Replacing a pending attribute drops its original values
+        entry.put( "description", "another description" );
+        assertEquals( 1, entry.get( "description" ).size() );
+        assertTrue( entry.contains( "description", "another description" ) );
+
+        // Adding to a pending attribute keeps its original values
+        entry.add( "sn", "another name" );
+        assertEquals( 2, entry.get( "sn" ).size() );
+
+        entry.removeAttributes( "cn" );
+        assertFalse( entry.containsAttribute( "cn" ) );
+        assertNull( entry.get( "commonName" ) );
+        assertEquals( 3, entry.size() );
+
+        entry.remove( "objectClass", "top" );
+        assertFalse( entry.hasObjectClass( "top" ) );
+        assertTrue( entry.hasObjectClass( "person" ) );
+    }
+
+
+    @Test
+    public void testEqualsDefaultEntry() throws Exception
+    {
+        Entry expected = new DefaultEntry( schemaManager, createRawEntry() );
+        Entry entry = new LazySchemaAwareEntry( schemaManager, createRawEntry() );
+
+        assertEquals( expected, entry );
+        assertEquals( expected.hashCode(), entry.hashCode() );
+        assertEquals( expected, entry.clone() );
+
+        int nbAttributes = 0;
+
+        for ( Attribute attribute : new LazySchemaAwareEntry( schemaManager, createRawEntry() ) )
+        {
+            assertNotNull( attribute.getAttributeType() );
+            nbAttributes++;
+        }
+
+        assertEquals( 4, nbAttributes );
+    }
+
+
+    @Test
+    public void testInvalidValue() throws Exception
+    {
+        Entry rawEntry = new DefaultEntry( "ou=system" );
+        rawEntry.add( new DefaultAttribute( "entryUUID", "not a UUID" ) );
+        Entry entry = new LazySchemaAwareEntry( schemaManager, rawEntry );
+
+        assertTrue( entry.containsAttribute( "entryUUID" ) );
+        assertThrows( IllegalArgumentException.class, () -> entry.get( "entryUUID" ) );
+    }
+
+
+    /**
+     * Serializes and deserializes an entry
+     */
+    private Entry serializeAndDeserialize( Entry entry ) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try ( ObjectOutputStream oOut = new ObjectOutputStream( out ) )
+        {
+            oOut.writeObject( entry );
+        }
+
+        try ( ObjectInputStream oIn = new ObjectInputStream( new ByteArrayInputStream( out.toByteArray() ) ) )
+        {
+            return ( Entry ) oIn.readObject();
+        }
+    }
+
+
+    @Test
+    public void testSerialization() throws Exception
+    {
+        Entry expected = serializeAndDeserialize( new DefaultEntry( schemaManager, createRawEntry() ) );
+        Entry deserialized = serializeAndDeserialize( new LazySchemaAwareEntry( schemaManager, createRawEntry() ) );
+
+        assertEquals( expected.getDn(), deserialized.getDn() );
+        assertEquals( 4, deserialized.size() );
+        assertEquals( new DefaultEntry( schemaManager, expected ), new DefaultEntry( schemaManager, deserialized ) );
+    }
+}
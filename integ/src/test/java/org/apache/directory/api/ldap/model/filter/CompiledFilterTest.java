@@ -0,0 +1,241 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.model.filter;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.directory.api.ldap.model.entry.DefaultEntry;
+import org.apache.directory.api.ldap.model.entry.Entry;
+import org.apache.directory.api.ldap.model.message.AliasDerefMode;
+import org.apache.directory.api.ldap.model.message.SearchScope;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.api.ldap.model.schema.SchemaManager;
+import org.apache.directory.api.ldap.schema.manager.impl.DefaultSchemaManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+
+/**
+ * Test the CompiledFilter class
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class CompiledFilterTest
+{
+    private static SchemaManager schemaManager;
+
+    private static Entry jSmith;
+
+    private static Entry aDoe;
+
+
+    @BeforeAll
+    public static void setup() throws Exception
+    {
+        schemaManager = new DefaultSchemaManager();
+
+        jSmith = new DefaultEntry( schemaManager,
+            "cn=John Smith,ou=people,dc=example,dc=com",
+            "objectClass: top",
+            "objectClass: person",
+            "objectClass: inetOrgPerson",
+            "cn: John  Smith",
+            "cn: Johnny",
+            "sn: Smith",
+            "pwdMinLength: 1024",
+            "createTimestamp: 20100115083000Z",
+            "mail: jsmith@example.com" );
+
+        aDoe = new DefaultEntry( schemaManager,
+            "cn=Alice Doe,ou=people,dc=example,dc=com",
+            "objectClass: top",
+            "objectClass: person",
+            "cn: Alice Doe",
+            "sn: Doe",
+            "pwdMinLength: 99",
+            "createTimestamp: 20200115083000Z" );
+    }
+
+
+    private static boolean matches( String filter, Entry entry ) throws Exception
+    {
+        return CompiledFilter.compile( schemaManager, filter ).matches( entry );
+    }
+
+
+    /**
+     * Compiles a filter parsed without the schema, so that it may contain Undefined nodes
+     */
+    private static boolean matchesRaw( String filter, Entry entry ) throws Exception
+    {
+        return CompiledFilter.compile( schemaManager, FilterParser.parse( filter ) ).matches( entry );
+    }
+
+
+    @Test
+    public void testEquality() throws Exception
+    {
+        assertTrue( matches( "(cn=john smith)", jSmith ) );
+        assertTrue( matches( "(CommonName=  JOHN SMITH )", jSmith ) );
+        assertTrue( matches( "(objectClass=InetOrgPerson)", jSmith ) );
+        assertTrue( matches( "(objectClass=2.16.840.1.113730.3.2.2)", jSmith ) );
+        assertFalse( matches( "(cn=john)", jSmith ) );
+        assertFalse( matches( "(objectClass=inetOrgPerson)", aDoe ) );
+        assertTrue( matches( "(cn~=alice doe)", aDoe ) );
+
+        // The name attribute type is a supertype of cn and sn
+        assertTrue( matches( "(name=smith)", jSmith ) );
+        assertFalse( matches( "(name=smith)", aDoe ) );
+    }
+
+
+    @Test
+    public void testPresence() throws Exception
+    {
+        assertTrue( matches( "(mail=*)", jSmith ) );
+        assertFalse( matches( "(mail=*)", aDoe ) );
+        assertTrue( matches( "(objectClass=*)", aDoe ) );
+        assertTrue( matches( "(name=*)", aDoe ) );
+    }
+
+
+    @Test
+    public void testSubstring() throws Exception
+    {
+        assertTrue( matches( "(cn=jo*)", jSmith ) );
+        assertTrue( matches( "(cn=*SMITH)", jSmith ) );
+        assertTrue( matches( "(cn=j*n*s*h)", jSmith ) );
+        assertTrue( matches( "(mail=*@example.com)", jSmith ) );
+        assertFalse( matches( "(cn=*bob*)", jSmith ) );
+        assertFalse( matches( "(cn=jo*)", aDoe ) );
+    }
+
+
+    @Test
+    public void testOrdering() throws Exception
+    {
+        assertTrue( matches( "(pwdMinLength>=1000)", jSmith ) );
+        assertFalse( matches( "(pwdMinLength>=1000)", aDoe ) );
+        assertTrue( matches( "(pwdMinLength<=100)", aDoe ) );
+        assertTrue( matches( "(pwdMinLength<=99)", aDoe ) );
+        assertTrue( matches( "(createTimestamp>=20150101000000Z)", aDoe ) );
+        assertFalse( matches( "(createTimestamp>=20150101000000Z)", jSmith ) );
+        assertTrue( matches( "(createTimestamp<=20100115093000+0100)", jSmith ) );
+    }
+
+
+    @Test
+    public void testBranches() throws Exception
+    {
+        assertTrue( matches( "(&(objectClass=person)(|(cn=alice*)(pwdMinLength>=1000)))", jSmith ) );
+        assertTrue( matches( "(&(objectClass=person)(|(cn=alice*)(pwdMinLength>=1000)))", aDoe ) );
+        assertFalse( matches( "(&(objectClass=person)(!(sn=doe)))", aDoe ) );
+        assertTrue( matches( "(&(objectClass=person)(!(sn=doe)))", jSmith ) );
+        assertFalse( matches( "(|(sn=jones)(mail=*@apache.org))", jSmith ) );
+    }
+
+
+    @Test
+    public void testUndefined() throws Exception
+    {
+        // The schema aware parser rejects the whole filter
+        assertFalse( matches( "(!(unknown=foo))", jSmith ) );
+
+        // An unknown attribute type is Undefined, even when negated
+        assertFalse( matchesRaw( "(unknown=foo)", jSmith ) );
+        assertFalse( matchesRaw( "(!(unknown=foo))", jSmith ) );
+        assertTrue( matchesRaw( "(|(unknown=foo)(sn=smith))", jSmith ) );
+        assertFalse( matchesRaw( "(&(unknown=foo)(sn=smith))", jSmith ) );
+        assertFalse( matchesRaw( "(!(&(unknown=foo)(sn=smith)))", jSmith ) );
+        assertTrue( matchesRaw( "(!(&(unknown=foo)(sn=doe)))", jSmith ) );
+
+        // mail and cn have no ordering matching rule
+        assertFalse( matchesRaw( "(mail>=a)", jSmith ) );
+        assertFalse( matchesRaw( "(!(cn<=z))", jSmith ) );
+    }
+
+
+    @Test
+    public void testExtensible() throws Exception
+    {
+        assertTrue( matches( "(cn:caseExactMatch:=Johnny)", jSmith ) );
+        assertFalse( matches( "(cn:caseExactMatch:=johnny)", jSmith ) );
+        assertTrue( matches( "(sn:2.5.13.2:=SMITH)", jSmith ) );
+        assertTrue( matchesRaw( "(:caseIgnoreMatch:=doe)", aDoe ) );
+        assertFalse( matches( "(ou:=people)", aDoe ) );
+        assertTrue( matches( "(ou:dn:=people)", aDoe ) );
+        assertTrue( matchesRaw( "(:dn:caseIgnoreMatch:=example)", aDoe ) );
+        assertFalse( matchesRaw( "(:caseIgnoreMatch:=example)", aDoe ) );
+    }
+
+
+    @Test
+    public void testScope() throws Exception
+    {
+        Dn people = new Dn( schemaManager, "ou=people,dc=example,dc=com" );
+        Dn example = new Dn( schemaManager, "dc=example,dc=com" );
+
+        assertTrue( CompiledFilter.compile( schemaManager,
+            new ScopeNode( AliasDerefMode.NEVER_DEREF_ALIASES, people, null, SearchScope.ONELEVEL ) ).matches( aDoe ) );
+        assertFalse( CompiledFilter.compile( schemaManager,
+            new ScopeNode( AliasDerefMode.NEVER_DEREF_ALIASES, example, null, SearchScope.ONELEVEL ) ).matches( aDoe ) );
+        assertTrue( CompiledFilter.compile( schemaManager,
+            new ScopeNode( AliasDerefMode.NEVER_DEREF_ALIASES, example, null, SearchScope.SUBTREE ) ).matches( aDoe ) );
+        assertFalse( CompiledFilter.compile( schemaManager,
+            new ScopeNode( AliasDerefMode.NEVER_DEREF_ALIASES, people, null, SearchScope.OBJECT ) ).matches( aDoe ) );
+    }
+
+
+    @Test
+    public void testNotSchemaAwareEntry() throws Exception
+    {
+        Entry entry = new DefaultEntry( "cn=test,ou=system",
+            "objectClass: person",
+            "CN: Test  User",
+            "sn: User" );
+
+        assertTrue( matches( "(cn=test user)", entry ) );
+        assertTrue( matches( "(commonName=TEST*)", entry ) );
+        assertFalse( matches( "(sn=test)", entry ) );
+    }
+
+
+    @Test
+    public void testReusableFilter() throws Exception
+    {
+        CompiledFilter filter = CompiledFilter.compile( schemaManager, "(&(objectClass=person)(pwdMinLength>=100))" );
+        List<Entry> entries = Arrays.asList( jSmith, aDoe, null );
+
+        assertEquals( Arrays.asList( jSmith ), entries.stream().filter( filter ).collect( Collectors.toList() ) );
+        assertTrue( filter.toString().contains( "pwdMinLength" ) );
+        assertThrows( IllegalArgumentException.class, () -> CompiledFilter.compile( null, "(cn=test)" ) );
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.apache.directory.ldap.client.api;
+
+
+import java.io.IOException;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.constants.Loggers;
+import org.apache.directory.api.ldap.model.cursor.AbstractCursor;
+import org.apache.directory.api.ldap.model.cursor.CursorException;
+import org.apache.directory.api.ldap.model.cursor.CursorLdapReferralException;
+import org.apache.directory.api.ldap.model.cursor.EntryCursor;
+import org.apache.directory.api.ldap.model.cursor.InvalidCursorPositionException;
+import org.apache.directory.api.ldap.model.cursor.SearchCursor;
+import org.apache.directory.api.ldap.model.entry.Entry;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.exception.LdapReferralException;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.message.SearchRequest;
+import org.apache.directory.api.ldap.model.message.SearchResultDone;
+import org.apache.directory.api.util.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * An EntryCursor driving a Paged Results search (RFC 2696) through the
+ * {@link LdapConnection#search(SearchRequest)} operation : each page is read with its own
+ * SearchCursor, and the next page is requested with the cookie returned by the server
+ * once the current page has been read. This is the cursor used by the default
+ * {@link LdapConnection#searchPaged(SearchRequest, int, boolean)} implementation, which
+ * does not prefetch the pages.
+ * <br>
+ * The search stops on the first page which is not successful : the result is available
+ * through {@link #getSearchResultDone()}.
+ * <br>
+ * Note: This is a forward only cursor hence the only valid operations are next(), get() and close()
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class BlockingPagedEntryCursorImpl extends AbstractCursor<Entry> implements EntryCursor
+{
+    /** A dedicated log for cursors */
+    private static final Logger LOG_CURSOR = LoggerFactory.getLogger( Loggers.CURSOR_LOG.getName() );
+
+    /** The connection used to send the page requests */
+    private final LdapConnection connection;
+
+    /** The original search request */
+    private final SearchRequest searchRequest;
+
+    /** The number of entries per page */
+    private final int pageSize;
+
+    /** The cursor on the page being read */
+    private SearchCursor currentPage;
+
+    /** The number of the page being read, starting at 1 */
+    private int pageNumber;
+
+    /** The final SearchResultDone */
+    private SearchResultDone searchResultDone;
+
+    /** The underlying messageId */
+    private int messageId;
+
+
+    /**
+     * Instantiates a new paged entry cursor, and sends the request for the first page.
+     *
+     * @param connection The connection to use
+     * @param searchRequest The search request. It won't be modified
+     * @param pageSize The number of entries per page
+     * @throws LdapException If the first page request can't be sent
+     */
+    public BlockingPagedEntryCursorImpl( LdapConnection connection, SearchRequest searchRequest, int pageSize )
+        throws LdapException
+    {
+        if ( pageSize <= 0 )
+        {
+            throw new IllegalArgumentException( I18n.err( I18n.ERR_04187_INVALID_PAGE_SIZE, pageSize ) );
+        }
+
+        if ( LOG_CURSOR.isDebugEnabled() )
+        {
+            LOG_CURSOR.debug( I18n.msg( I18n.MSG_04161_CREATING_ENTRY_CURSOR, this ) );
+        }
+
+        this.connection = connection;
+        this.searchRequest = searchRequest;
+        this.pageSize = pageSize;
+        messageId = -1;
+
+        currentPage = connection.search(
+            PagedEntryCursorImpl.newPageRequest( searchRequest, pageSize, Strings.EMPTY_BYTES ) );
+        pageNumber = 1;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean next() throws LdapException, CursorException
+    {
+        if ( searchResultDone != null )
+        {
+            return false;
+        }
+
+        while ( true )
+        {
+            if ( currentPage.next() )
+            {
+                if ( currentPage.isEntry() || currentPage.isReferral() )
+                {
+                    messageId = currentPage.get().getMessageId();
+
+                    return true;
+                }
+
+                // Skip the intermediate responses
+                continue;
+            }
+
+            SearchResultDone done = currentPage.getSearchResultDone();
+
+            if ( done == null )
+            {
+                throw new LdapException( LdapNetworkConnection.NO_RESPONSE_ERROR );
+            }
+
+            byte[] cookie = PagedEntryCursorImpl.getCookie( done );
+
+            if ( ( done.getLdapResult().getResultCode() != ResultCodeEnum.SUCCESS ) || Strings.isEmpty( cookie ) )
+            {
+                // This was the last page
+                searchResultDone = done;
+
+                return false;
+            }
+
+            closePage();
+            currentPage = connection.search( PagedEntryCursorImpl.newPageRequest( searchRequest, pageSize, cookie ) );
+            pageNumber++;
+        }
+    }
+
+
+    /**
+     * Closes the cursor on a completed page
+     */
+    private void closePage() throws CursorException
+    {
+        try
+        {
+            currentPage.close();
+        }
+        catch ( IOException ioe )
+        {
+            throw new CursorException( ioe.getMessage(), ioe );
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry get() throws CursorException
+    {
+        if ( !available() )
+        {
+            throw new InvalidCursorPositionException();
+        }
+
+        try
+        {
+            if ( currentPage.isReferral() )
+            {
+                throw new LdapReferralException( currentPage.getReferral().getLdapUrls() );
+            }
+
+            return currentPage.getEntry();
+        }
+        catch ( LdapReferralException lre )
+        {
+            throw new CursorLdapReferralException( lre );
+        }
+        catch ( LdapException le )
+        {
+            throw new CursorException( le.getMessage(), le );
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SearchResultDone getSearchResultDone()
+    {
+        return searchResultDone;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean available()
+    {
+        return ( searchResultDone == null ) && currentPage.available();
+    }
+
+
+    /**
+     * @return The number of the page being read, starting at 1
+     */
+    public int getPageNumber()
+    {
+        return pageNumber;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        close( null );
+    }
+
+
+    /**
+     * Closes the cursor. If the search is not finished, the page being read is abandoned.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void close( Exception cause ) throws IOException
+    {
+        if ( LOG_CURSOR.isDebugEnabled() )
+        {
+            LOG_CURSOR.debug( I18n.msg( I18n.MSG_04162_CLOSING_ENTRY_CURSOR, this ) );
+        }
+
+        if ( cause != null )
+        {
+            currentPage.close( cause );
+            super.close( cause );
+        }
+        else
+        {
+            currentPage.close();
+            super.close();
+        }
+    }
+
+
+    // rest of all operations will throw UnsupportedOperationException
+
+    /**
+     * This operation is not supported in SearchCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public void after( Entry element ) throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "after( Response element )" ) ) );
+    }
+
+
+    /**
+     * This operation is not supported in SearchCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public void afterLast() throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "afterLast()" ) ) );
+    }
+
+
+    /**
+     * This operation is not supported in SearchCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public void before( Entry element ) throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "before( Response element )" ) ) );
+    }
+
+
+    /**
+     * This operation is not supported in SearchCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public void beforeFirst() throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "beforeFirst()" ) ) );
+    }
+
+
+    /**
+     * This operation is not supported in SearchCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean first() throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "first()" ) ) );
+    }
+
+
+    /**
+     * This operation is not supported in SearchCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean last() throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "last()" ) ) );
+    }
+
+
+    /**
+     * This operation is not supported in SearchCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean previous() throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "previous()" ) ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMessageId()
+    {
+        return messageId;
+    }
+}
@@ -33,6 +33,12 @@ import org.slf4j.LoggerFactory;
  * The default implementation of LdapConnectionFactory. Allows for the 
  * setting of timeout and {@link LdapApiService} as well as the standard 
  * {@link LdapConnectionConfig}.
+ * <br>
+ * If the configuration holds a {@link LdapSharedConnector}, all the connections
+ * created by this factory will share its I/O processors.
+ * <br>
+ * If the configuration holds a {@link LdapTlsContext}, all the connections created by
+ * this factory share it, so that they can resume each other's TLS sessions.
  * 
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
  */
@@ -146,6 +152,15 @@ public class DefaultLdapConnectionFactory implements LdapConnectionFactory
     }
 
 
+    /**
+     * @return The TLS context shared by the connections created by this factory, if any
+     */
+    public LdapTlsContext getTlsContext()
+    {
+        return connectionConfig.getTlsContext();
+    }
+
+
     /**
      * Sets the LdapApiService (codec) to be used by the connections created
      * by this factory.
@@ -21,16 +21,24 @@ package org.apache.directory.ldap.client.api;
 
 
 import java.io.IOException;
+import java.util.concurrent.CompletionStage;
 
 import org.apache.directory.api.ldap.model.entry.Entry;
 import org.apache.directory.api.ldap.model.exception.LdapException;
 import org.apache.directory.api.ldap.model.message.AddRequest;
+import org.apache.directory.api.ldap.model.message.AddResponse;
 import org.apache.directory.api.ldap.model.message.BindRequest;
+import org.apache.directory.api.ldap.model.message.BindResponse;
 import org.apache.directory.api.ldap.model.message.CompareRequest;
+import org.apache.directory.api.ldap.model.message.CompareResponse;
 import org.apache.directory.api.ldap.model.message.DeleteRequest;
+import org.apache.directory.api.ldap.model.message.DeleteResponse;
 import org.apache.directory.api.ldap.model.message.ExtendedRequest;
+import org.apache.directory.api.ldap.model.message.ExtendedResponse;
 import org.apache.directory.api.ldap.model.message.ModifyDnRequest;
+import org.apache.directory.api.ldap.model.message.ModifyDnResponse;
 import org.apache.directory.api.ldap.model.message.ModifyRequest;
+import org.apache.directory.api.ldap.model.message.ModifyResponse;
 import org.apache.directory.api.ldap.model.message.SearchRequest;
 import org.apache.directory.api.ldap.model.message.SearchScope;
 import org.apache.directory.api.ldap.model.name.Dn;
@@ -42,6 +50,7 @@ import org.apache.directory.ldap.client.api.future.ExtendedFuture;
 import org.apache.directory.ldap.client.api.future.ModifyDnFuture;
 import org.apache.directory.ldap.client.api.future.ModifyFuture;
 import org.apache.directory.ldap.client.api.future.SearchFuture;
+import org.apache.directory.ldap.client.api.future.SearchPublisher;
 
 
 /**
@@ -196,6 +205,22 @@ public interface LdapAsyncConnection extends LdapConnection
     SearchFuture searchAsync( SearchRequest searchRequest ) throws LdapException;
 
 
+    /**
+     * Performs an asynchronous search operation, and gives back a {@link SearchPublisher}
+     * publishing the responses to a subscriber. The connection stops reading from the
+     * server while the subscriber has not requested more responses, so that the number
+     * of responses held in memory stays bounded whatever the size of the result set.
+     * <br>
+     * As long as the subscriber does not request more responses, the other operations
+     * running on this connection are stalled too.
+     *
+     * @param searchRequest The search request to send to the server
+     * @return the search operation's publisher
+     * @throws LdapException if some error occurred
+     */
+    SearchPublisher searchPublisher( SearchRequest searchRequest ) throws LdapException;
+
+
     /**
      * Performs an asynchronous modify operation based on the modifications present in
      * the ModifyRequest.
@@ -247,6 +272,90 @@ public interface LdapAsyncConnection extends LdapConnection
     ExtendedFuture extendedAsync( ExtendedRequest extendedRequest ) throws LdapException;
 
 
+    //------------------------ CompletionStage operations ------------------------//
+    // The following methods never block once the connection is established. The //
+    // returned stage is completed by the I/O thread when the response is         //
+    // received, so the dependent actions must not block. If no response is       //
+    // received before the connection timeout, the operation is abandoned and the //
+    // stage is completed exceptionally with an LdapException.                    //
+    //----------------------------------------------------------------------------//
+    /**
+     * Performs an asynchronous add operation, and gives back a {@link CompletionStage}
+     * which will be completed with the AddResponse. If the request can't be sent, the stage is
+     * completed exceptionally.
+     *
+     * @param addRequest the AddRequest to send
+     * @return the add operation's CompletionStage
+     */
+    CompletionStage<AddResponse> addStage( AddRequest addRequest );
+
+
+    /**
+     * Performs an asynchronous bind operation, and gives back a {@link CompletionStage}
+     * which will be completed with the BindResponse. If the request can't be sent, the stage is
+     * completed exceptionally.
+     *
+     * @param bindRequest the BindRequest to send
+     * @return the bind operation's CompletionStage
+     */
+    CompletionStage<BindResponse> bindStage( BindRequest bindRequest );
+
+
+    /**
+     * Performs an asynchronous compare operation, and gives back a {@link CompletionStage}
+     * which will be completed with the CompareResponse. If the request can't be sent, the stage is
+     * completed exceptionally.
+     *
+     * @param compareRequest the CompareRequest to send
+     * @return the compare operation's CompletionStage
+     */
+    CompletionStage<CompareResponse> compareStage( CompareRequest compareRequest );
+
+
+    /**
+     * Performs an asynchronous delete operation, and gives back a {@link CompletionStage}
+     * which will be completed with the DeleteResponse. If the request can't be sent, the stage is
+     * completed exceptionally.
+     *
+     * @param deleteRequest the DeleteRequest to send
+     * @return the delete operation's CompletionStage
+     */
+    CompletionStage<DeleteResponse> deleteStage( DeleteRequest deleteRequest );
+
+
+    /**
+     * Performs an asynchronous extended operation, and gives back a {@link CompletionStage}
+     * which will be completed with the ExtendedResponse. If the request can't be sent, the stage is
+     * completed exceptionally.
+     *
+     * @param extendedRequest the ExtendedRequest to send
+     * @return the extended operation's CompletionStage
+     */
+    CompletionStage<ExtendedResponse> extendedStage( ExtendedRequest extendedRequest );
+
+
+    /**
+     * Performs an asynchronous modify operation, and gives back a {@link CompletionStage}
+     * which will be completed with the ModifyResponse. If the request can't be sent, the stage is
+     * completed exceptionally.
+     *
+     * @param modifyRequest the ModifyRequest to send
+     * @return the modify operation's CompletionStage
+     */
+    CompletionStage<ModifyResponse> modifyStage( ModifyRequest modifyRequest );
+
+
+    /**
+     * Performs an asynchronous modifyDn operation, and gives back a {@link CompletionStage}
+     * which will be completed with the ModifyDnResponse. If the request can't be sent, the stage is
+     * completed exceptionally.
+     *
+     * @param modifyDnRequest the ModifyDnRequest to send
+     * @return the modifyDn operation's CompletionStage
+     */
+    CompletionStage<ModifyDnResponse> modifyDnStage( ModifyDnRequest modifyDnRequest );
+
+
     /**
      * Configuration of LdapNetworkConnection
      * 
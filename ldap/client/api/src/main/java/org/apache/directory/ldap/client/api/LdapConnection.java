@@ -306,6 +306,43 @@ public interface LdapConnection extends Closeable
     SearchCursor search( SearchRequest searchRequest ) throws LdapException;
 
 
+    /**
+     * Performs a paged search (RFC 2696) using a search request object : the entries are
+     * requested page by page, using the Paged Results control, and returned through a
+     * single cursor. The next page is requested while the current page is being read.
+     *
+     * @param searchRequest The search request object containing all the needed information
+     * @param pageSize The number of entries per page
+     * @return An {@link EntryCursor} on all the entries.
+     * @throws LdapException if some error occurred
+     */
+    default EntryCursor searchPaged( SearchRequest searchRequest, int pageSize ) throws LdapException
+    {
+        return searchPaged( searchRequest, pageSize, true );
+    }
+
+
+    /**
+     * Performs a paged search (RFC 2696) using a search request object : the entries are
+     * requested page by page, using the Paged Results control, and returned through a
+     * single cursor.
+     * <br>
+     * The default implementation reads the pages one after the other through
+     * {@link #search(SearchRequest)}, and ignores the <code>prefetch</code> flag.
+     *
+     * @param searchRequest The search request object containing all the needed information
+     * @param pageSize The number of entries per page
+     * @param prefetch If <tt>true</tt>, the next page is requested while the current page is being read
+     * @return An {@link EntryCursor} on all the entries.
+     * @throws LdapException if some error occurred
+     */
+    default EntryCursor searchPaged( SearchRequest searchRequest, int pageSize, boolean prefetch )
+        throws LdapException
+    {
+        return new BlockingPagedEntryCursorImpl( this, searchRequest, pageSize );
+    }
+
+
     //------------------------ The LDAP operations ------------------------//
     // Unbind operations                                                   //
     //---------------------------------------------------------------------//
@@ -34,6 +34,7 @@ import org.apache.directory.api.i18n.I18n;
 import org.apache.directory.api.ldap.codec.api.BinaryAttributeDetector;
 import org.apache.directory.api.ldap.codec.api.LdapApiService;
 import org.apache.directory.api.util.Network;
+import org.apache.directory.ldap.client.api.metrics.LdapOperationObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -112,6 +113,33 @@ public class LdapConnectionConfig
     /** The Service to use internally when creating connections */
     private LdapApiService ldapApiService;
 
+    /** The connector shared by all the connections created with this configuration, if any */
+    private LdapSharedConnector sharedConnector;
+
+    /** The TLS context shared by all the connections created with this configuration, if any */
+    private LdapTlsContext tlsContext;
+
+    /** The observer notified of the operations done by the connections, if any */
+    private LdapOperationObserver operationObserver;
+
+    /** The number of search responses above which the connection stops reading, 0 if unbounded */
+    private int searchQueueHighWatermark;
+
+    /** The number of search responses under which the connection resumes reading */
+    private int searchQueueLowWatermark;
+
+    /** The size of the search responses above which the connection stops reading, 0 if unbounded */
+    private long searchQueueHighWatermarkBytes;
+
+    /** The size of the search responses under which the connection resumes reading */
+    private long searchQueueLowWatermarkBytes;
+
+    /** Tells if the decoder reads the values from the received buffers instead of copying them */
+    private boolean zeroCopyDecoding = false;
+
+    /** Tells if the schema is applied lazily to the received search entries */
+    private boolean lazySchemaAwareEntries = false;
+
 
     /**
      * Creates a default LdapConnectionConfig instance
@@ -531,4 +559,221 @@ public class LdapConnectionConfig
     {
         this.ldapApiService = ldapApiService;
     }
+
+
+    /**
+     * @return the connector shared by the connections using this configuration,
+     * or <tt>null</tt> if each connection creates its own connector
+     */
+    public LdapSharedConnector getSharedConnector()
+    {
+        return sharedConnector;
+    }
+
+
+    /**
+     * Sets the connector to share among all the connections using this configuration.
+     * If <tt>null</tt> (the default), each connection will create its own connector.
+     * 
+     * @param sharedConnector the shared connector to use
+     */
+    public void setSharedConnector( LdapSharedConnector sharedConnector )
+    {
+        this.sharedConnector = sharedConnector;
+    }
+
+
+    /**
+     * @return the TLS context shared by the connections using this configuration,
+     * or <tt>null</tt> if each connection creates its own SSL context
+     */
+    public LdapTlsContext getTlsContext()
+    {
+        return tlsContext;
+    }
+
+
+    /**
+     * Sets the TLS context to share among all the connections using this configuration,
+     * so that they can resume the TLS sessions negotiated by each other.
+     * If <tt>null</tt> (the default), each connection will create its own SSL context.
+     * 
+     * @param tlsContext the shared TLS context to use
+     */
+    public void setTlsContext( LdapTlsContext tlsContext )
+    {
+        this.tlsContext = tlsContext;
+    }
+
+
+    /**
+     * @return the observer notified of the operations done by the connections using this
+     * configuration, or <tt>null</tt> if the operations aren't observed
+     */
+    public LdapOperationObserver getOperationObserver()
+    {
+        return operationObserver;
+    }
+
+
+    /**
+     * Sets the observer notified of the operations done by the connections using this
+     * configuration. It must be set before the connections are opened.
+     * If <tt>null</tt> (the default), the operations aren't observed.
+     * 
+     * @param operationObserver the observer to notify
+     */
+    public void setOperationObserver( LdapOperationObserver operationObserver )
+    {
+        this.operationObserver = operationObserver;
+    }
+
+
+    /**
+     * @return the number of search responses waiting to be read above which the
+     * connection stops reading from the server, or 0 if the number of responses is unbounded
+     */
+    public int getSearchQueueHighWatermark()
+    {
+        return searchQueueHighWatermark;
+    }
+
+
+    /**
+     * Sets the maximum number of responses a search can hold before they are read by
+     * the application. When this number is reached, the connection stops reading from
+     * the server, until the number of waiting responses falls to the low watermark.
+     * The default, 0, means there is no limit.
+     * <br>
+     * Note that the other operations running on the same connection are stalled while
+     * the reads are suspended.
+     *
+     * @param searchQueueHighWatermark the maximum number of waiting search responses
+     */
+    public void setSearchQueueHighWatermark( int searchQueueHighWatermark )
+    {
+        this.searchQueueHighWatermark = searchQueueHighWatermark;
+    }
+
+
+    /**
+     * @return the number of search responses waiting to be read under which the
+     * connection resumes reading from the server
+     */
+    public int getSearchQueueLowWatermark()
+    {
+        return searchQueueLowWatermark;
+    }
+
+
+    /**
+     * Sets the number of waiting search responses under which the connection resumes
+     * reading from the server once the high watermark has been reached. It must be
+     * lower than the high watermark. The default is 0 : the reads resume when all the
+     * waiting responses have been read.
+     *
+     * @param searchQueueLowWatermark the number of waiting responses to resume reading at
+     */
+    public void setSearchQueueLowWatermark( int searchQueueLowWatermark )
+    {
+        this.searchQueueLowWatermark = searchQueueLowWatermark;
+    }
+
+
+    /**
+     * @return the size in bytes of the search responses waiting to be read above which the
+     * connection stops reading from the server, or 0 if the size is unbounded
+     */
+    public long getSearchQueueHighWatermarkBytes()
+    {
+        return searchQueueHighWatermarkBytes;
+    }
+
+
+    /**
+     * Sets the maximum size, in bytes, of the responses a search can hold before they are
+     * read by the application. The size of a response is the size of its PDU, as received
+     * from the server. When this size is reached, the connection stops
+     * reading from the server, until the size of the waiting responses falls to the low watermark.
+     * The default, 0, means there is no limit.
+     *
+     * @param searchQueueHighWatermarkBytes the maximum size of the waiting search responses
+     */
+    public void setSearchQueueHighWatermarkBytes( long searchQueueHighWatermarkBytes )
+    {
+        this.searchQueueHighWatermarkBytes = searchQueueHighWatermarkBytes;
+    }
+
+
+    /**
+     * @return the size in bytes of the search responses waiting to be read under which the
+     * connection resumes reading from the server
+     */
+    public long getSearchQueueLowWatermarkBytes()
+    {
+        return searchQueueLowWatermarkBytes;
+    }
+
+
+    /**
+     * Sets the size, in bytes, of the waiting search responses under which the connection
+     * resumes reading from the server once the high watermark has been reached. It must be
+     * lower than the high watermark. The default is 0.
+     *
+     * @param searchQueueLowWatermarkBytes the size of the waiting responses to resume reading at
+     */
+    public void setSearchQueueLowWatermarkBytes( long searchQueueLowWatermarkBytes )
+    {
+        this.searchQueueLowWatermarkBytes = searchQueueLowWatermarkBytes;
+    }
+
+
+    /**
+     * @return <code>true</code> if the responses are decoded without copying the values
+     * out of the received buffers
+     */
+    public boolean isZeroCopyDecoding()
+    {
+        return zeroCopyDecoding;
+    }
+
+
+    /**
+     * Tells the decoder to read the values directly from the received buffers, copying
+     * them only when they have to be kept as a byte[]. The textual values (Dn, attribute
+     * types, attribute values...) are built straight from the buffers. The default is
+     * <code>false</code>.
+     *
+     * @param zeroCopyDecoding <code>true</code> to avoid copying the decoded values
+     */
+    public void setZeroCopyDecoding( boolean zeroCopyDecoding )
+    {
+        this.zeroCopyDecoding = zeroCopyDecoding;
+    }
+
+
+    /**
+     * @return <code>true</code> if the schema is applied lazily to the received search entries
+     */
+    public boolean isLazySchemaAwareEntries()
+    {
+        return lazySchemaAwareEntries;
+    }
+
+
+    /**
+     * Tells the connection to apply the schema lazily to the received search entries, using
+     * a {@link org.apache.directory.api.ldap.model.entry.LazySchemaAwareEntry} instead of
+     * a {@link org.apache.directory.api.ldap.model.entry.DefaultEntry}. An attribute is then
+     * normalized when it's read for the first time, and the values which are not valid
+     * accordingly to the schema are reported at this time, with an IllegalArgumentException.
+     * Such an entry is modified by its read accessors : it must not be shared between threads.
+     * The default is <code>false</code>.
+     *
+     * @param lazySchemaAwareEntries <code>true</code> to apply the schema lazily
+     */
+    public void setLazySchemaAwareEntries( boolean lazySchemaAwareEntries )
+    {
+        this.lazySchemaAwareEntries = lazySchemaAwareEntries;
+    }
 }
@@ -21,12 +21,16 @@
 package org.apache.directory.ldap.client.api;
 
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.apache.commons.pool2.PooledObjectFactory;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.apache.directory.api.i18n.I18n;
 import org.apache.directory.api.ldap.codec.api.LdapApiService;
 import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.ldap.client.api.metrics.LdapOperationObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +49,12 @@ public class LdapConnectionPool extends GenericObjectPool<LdapConnection>
 
     private PooledObjectFactory<LdapConnection> factory;
 
+    /** The observer notified when a connection is borrowed and released, if any */
+    private volatile LdapOperationObserver operationObserver;
+
+    /** The time each observed connection has been borrowed */
+    private final Map<LdapConnection, Long> borrowTimes = new ConcurrentHashMap<>();
+
 
     /**
      * Instantiates a new LDAP connection pool.
@@ -110,6 +120,33 @@ public class LdapConnectionPool extends GenericObjectPool<LdapConnection>
     }
 
 
+    /**
+     * @return The observer notified when a connection is borrowed and released, or null
+     */
+    public LdapOperationObserver getOperationObserver()
+    {
+        return operationObserver;
+    }
+
+
+    /**
+     * Sets the observer notified when a connection is borrowed and released. To observe the
+     * operations done by the connections, the observer must also be set in their
+     * {@link LdapConnectionConfig}.
+     *
+     * @param operationObserver The observer to notify, or null to stop observing the pool
+     */
+    public void setOperationObserver( LdapOperationObserver operationObserver )
+    {
+        this.operationObserver = operationObserver;
+
+        if ( operationObserver == null )
+        {
+            borrowTimes.clear();
+        }
+    }
+
+
     /**
      * Gives a LdapConnection fetched from the pool.
      *
@@ -119,6 +156,8 @@ public class LdapConnectionPool extends GenericObjectPool<LdapConnection>
     public LdapConnection getConnection() throws LdapException
     {
         LdapConnection connection;
+        LdapOperationObserver observer = operationObserver;
+        long start = System.nanoTime();
 
         try
         {
@@ -128,6 +167,25 @@ public class LdapConnectionPool extends GenericObjectPool<LdapConnection>
             {
                 LOG.trace( I18n.msg( I18n.MSG_04163_BORROWED_CONNECTION, connection ) );
             }
+
+            if ( observer != null )
+            {
+                long borrowed = System.nanoTime();
+                borrowTimes.put( connection, borrowed );
+
+                try
+                {
+                    observer.connectionBorrowed( borrowed - start );
+                }
+                catch ( RuntimeException re )
+                {
+                    // The connection has been borrowed, an observer failure must not leak it
+                    if ( LOG.isWarnEnabled() )
+                    {
+                        LOG.warn( I18n.err( I18n.ERR_04197_POOL_OBSERVER_FAILED, connection ), re );
+                    }
+                }
+            }
         }
         catch ( LdapException | RuntimeException e )
         {
@@ -166,6 +224,25 @@ public class LdapConnectionPool extends GenericObjectPool<LdapConnection>
      */
     public void releaseConnection( LdapConnection connection ) throws LdapException
     {
+        Long borrowed = borrowTimes.remove( connection );
+        LdapOperationObserver observer = operationObserver;
+
+        if ( ( borrowed != null ) && ( observer != null ) )
+        {
+            try
+            {
+                observer.connectionReleased( System.nanoTime() - borrowed );
+            }
+            catch ( RuntimeException re )
+            {
+                // The connection must be returned to the pool anyway
+                if ( LOG.isWarnEnabled() )
+                {
+                    LOG.warn( I18n.err( I18n.ERR_04197_POOL_OBSERVER_FAILED, connection ), re );
+                }
+            }
+        }
+
         try
         {
             super.returnObject( connection );
@@ -184,4 +261,15 @@ public class LdapConnectionPool extends GenericObjectPool<LdapConnection>
             throw new RuntimeException( e );
         }
     }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidateObject( LdapConnection connection ) throws Exception
+    {
+        borrowTimes.remove( connection );
+        super.invalidateObject( connection );
+    }
 }
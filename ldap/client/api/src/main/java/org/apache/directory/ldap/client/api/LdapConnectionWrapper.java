@@ -291,6 +291,27 @@ public class LdapConnectionWrapper implements LdapConnection, Wrapper<LdapConnec
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EntryCursor searchPaged( SearchRequest searchRequest, int pageSize ) throws LdapException
+    {
+        return connection.searchPaged( searchRequest, pageSize );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EntryCursor searchPaged( SearchRequest searchRequest, int pageSize, boolean prefetch )
+        throws LdapException
+    {
+        return connection.searchPaged( searchRequest, pageSize, prefetch );
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,532 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.message.BindRequest;
+import org.apache.directory.api.ldap.model.message.BindRequestImpl;
+import org.apache.directory.api.ldap.model.message.BindResponse;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.api.util.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Verifies the credentials of users, by binding them on a dedicated set of connections.
+ * <br>
+ * Checking a user's password with a connection borrowed from a {@link LdapConnectionPool} managed by
+ * a {@link ValidatingPoolableLdapConnectionFactory} costs two binds : the user's bind, and the bind
+ * restoring the configured identity when the connection is returned to the pool. The connections
+ * held by this class are only used to bind users : they are never bound back to another identity,
+ * the next user's bind replacing the previous one.
+ * <pre>
+ * LdapCredentialVerifier verifier = new LdapCredentialVerifier( config, 8 );
+ *
+ * // From any thread
+ * if ( verifier.verify( userDn, password ) )
+ * {
+ *     ...
+ * }
+ * ...
+ * verifier.close();
+ * </pre>
+ * Each connection carries one bind at a time, as required by the protocol, but the binds of
+ * concurrent callers are spread over the connections, and the asynchronous {@link #verifyStage(Dn, String)}
+ * lets a single thread pipeline many binds. The number of concurrent binds on the server is bounded :
+ * the callers exceeding this limit wait, in arrival order, for at most the configured timeout. A
+ * synchronous verification which hasn't been answered after the timeout is abandoned.
+ * <br>
+ * An empty password is never sent to the server, as it would be accepted as an unauthenticated bind.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LdapCredentialVerifier implements Closeable
+{
+    /** The logger for this class */
+    private static final Logger LOG = LoggerFactory.getLogger( LdapCredentialVerifier.class );
+
+    /** The factory creating the connections */
+    private final LdapConnectionFactory factory;
+
+    /** The connections ready to be used, the most recently used first */
+    private final ConcurrentLinkedDeque<LdapAsyncConnection> idleConnections = new ConcurrentLinkedDeque<>();
+
+    /** The maximum number of concurrent binds */
+    private final int maxConcurrentBinds;
+
+    /** The permits to bind, handed out in arrival order */
+    private final Semaphore bindPermits;
+
+    /** The time to wait for a permit to bind, and for the bind response, in ms */
+    private final long timeout;
+
+    /** The number of accepted credentials */
+    private final LongAdder accepted = new LongAdder();
+
+    /** The number of rejected credentials */
+    private final LongAdder rejected = new LongAdder();
+
+    /** Tells if this verifier has been closed */
+    private volatile boolean closed;
+
+
+    /**
+     * Creates a new instance of LdapCredentialVerifier.
+     *
+     * @param config The configuration of the connections. The name and the credentials are not used
+     * @param maxConcurrentBinds The maximum number of concurrent binds, and of connections
+     */
+    public LdapCredentialVerifier( LdapConnectionConfig config, int maxConcurrentBinds )
+    {
+        this( new DefaultLdapConnectionFactory( config ), maxConcurrentBinds, config.getTimeout() );
+    }
+
+
+    /**
+     * Creates a new instance of LdapCredentialVerifier.
+     *
+     * @param factory The factory creating the connections. Only its unbound connections are used
+     * @param maxConcurrentBinds The maximum number of concurrent binds, and of connections
+     * @param timeout The time to wait for a permit to bind, and for the bind response, in milliseconds
+     */
+    public LdapCredentialVerifier( LdapConnectionFactory factory, int maxConcurrentBinds, long timeout )
+    {
+        if ( maxConcurrentBinds < 1 )
+        {
+            throw new IllegalArgumentException(
+                I18n.err( I18n.ERR_04193_INVALID_CONCURRENT_BINDS, maxConcurrentBinds ) );
+        }
+
+        this.factory = factory;
+        this.maxConcurrentBinds = maxConcurrentBinds;
+        this.bindPermits = new Semaphore( maxConcurrentBinds, true );
+        this.timeout = timeout;
+    }
+
+
+    /**
+     * Verifies a user's password.
+     *
+     * @param name The user's name
+     * @param credentials The user's password
+     * @return <tt>true</tt> if the server has accepted the credentials, <tt>false</tt> if it has rejected them
+     * @throws LdapException If the credentials can't be verified
+     */
+    public boolean verify( String name, String credentials ) throws LdapException
+    {
+        return await( verifyStage( name, credentials ) );
+    }
+
+
+    /**
+     * Verifies a user's password.
+     *
+     * @param name The user's Dn
+     * @param credentials The user's password
+     * @return <tt>true</tt> if the server has accepted the credentials, <tt>false</tt> if it has rejected them
+     * @throws LdapException If the credentials can't be verified
+     */
+    public boolean verify( Dn name, String credentials ) throws LdapException
+    {
+        return await( verifyStage( name, credentials ) );
+    }
+
+
+    /**
+     * Verifies a user's password, without waiting for the server's response.
+     *
+     * @param name The user's name
+     * @param credentials The user's password
+     * @return A stage completed with <tt>true</tt> if the server has accepted the credentials, with
+     * <tt>false</tt> if it has rejected them, or exceptionally if they can't be verified
+     */
+    public CompletionStage<Boolean> verifyStage( String name, String credentials )
+    {
+        BindRequest bindRequest = new BindRequestImpl();
+        bindRequest.setName( name );
+
+        return verifyStage( bindRequest, credentials );
+    }
+
+
+    /**
+     * Verifies a user's password, without waiting for the server's response.
+     *
+     * @param name The user's Dn
+     * @param credentials The user's password
+     * @return A stage completed with <tt>true</tt> if the server has accepted the credentials, with
+     * <tt>false</tt> if it has rejected them, or exceptionally if they can't be verified
+     */
+    public CompletionStage<Boolean> verifyStage( Dn name, String credentials )
+    {
+        BindRequest bindRequest = new BindRequestImpl();
+        bindRequest.setDn( name );
+
+        return verifyStage( bindRequest, credentials );
+    }
+
+
+    private CompletionStage<Boolean> verifyStage( BindRequest bindRequest, String credentials )
+    {
+        if ( Strings.isEmpty( credentials ) )
+        {
+            // This would be an unauthenticated bind, which succeeds
+            rejected.increment();
+
+            return CompletableFuture.completedFuture( Boolean.FALSE );
+        }
+
+        bindRequest.setCredentials( credentials );
+
+        CompletableFuture<BindResponse> bind = bindStage( bindRequest ).toCompletableFuture();
+        CompletableFuture<Boolean> result = bind.thenApply( this::isAccepted );
+
+        // Cancelling the caller's stage abandons the bind
+        result.whenComplete( ( isAccepted, cause ) ->
+        {
+            if ( result.isCancelled() )
+            {
+                bind.cancel( true );
+            }
+        } );
+
+        return result;
+    }
+
+
+    /**
+     * Tells if a bind response accepts the credentials, or throws an exception if it's an error
+     */
+    private Boolean isAccepted( BindResponse bindResponse )
+    {
+        ResultCodeEnum resultCode = bindResponse.getLdapResult().getResultCode();
+
+        switch ( resultCode )
+        {
+            case SUCCESS:
+                accepted.increment();
+
+                return Boolean.TRUE;
+
+            case INVALID_CREDENTIALS:
+            case INAPPROPRIATE_AUTHENTICATION:
+            case INVALID_DN_SYNTAX:
+                rejected.increment();
+
+                return Boolean.FALSE;
+
+            default:
+                try
+                {
+                    ResultCodeEnum.processResponse( bindResponse );
+                }
+                catch ( LdapException e )
+                {
+                    throw new CompletionException( e );
+                }
+
+                return Boolean.FALSE;
+        }
+    }
+
+
+    /**
+     * Sends a bind request on one of the connections. The connection is kept bound with the
+     * request's identity until it's used for another bind. Cancelling the returned stage abandons
+     * the bind, and closes the connection.
+     *
+     * @param bindRequest The bind request
+     * @return The bind operation's CompletionStage
+     */
+    public CompletionStage<BindResponse> bindStage( BindRequest bindRequest )
+    {
+        LdapAsyncConnection connection;
+
+        try
+        {
+            acquire();
+        }
+        catch ( LdapException e )
+        {
+            return failedStage( e );
+        }
+
+        try
+        {
+            connection = getConnection();
+        }
+        catch ( LdapException | RuntimeException e )
+        {
+            bindPermits.release();
+
+            return failedStage( e );
+        }
+
+        CompletionStage<BindResponse> stage = connection.bindStage( bindRequest );
+        CompletableFuture<BindResponse> result = new CompletableFuture<>();
+
+        // The connection is released before the caller is notified
+        stage.whenComplete( ( bindResponse, cause ) ->
+        {
+            if ( ( cause == null ) && !closed )
+            {
+                idleConnections.offerFirst( connection );
+            }
+            else
+            {
+                closeQuietly( connection );
+            }
+
+            bindPermits.release();
+
+            if ( cause == null )
+            {
+                result.complete( bindResponse );
+            }
+            else
+            {
+                result.completeExceptionally( cause );
+            }
+        } );
+
+        // Cancelling the caller's stage abandons the bind
+        result.whenComplete( ( bindResponse, cause ) ->
+        {
+            if ( result.isCancelled() )
+            {
+                stage.toCompletableFuture().cancel( true );
+            }
+        } );
+
+        return result;
+    }
+
+
+    /**
+     * Waits for a permit to bind
+     */
+    private void acquire() throws LdapException
+    {
+        if ( closed )
+        {
+            throw new LdapException( I18n.err( I18n.ERR_04194_CREDENTIAL_VERIFIER_CLOSED ) );
+        }
+
+        try
+        {
+            if ( !bindPermits.tryAcquire( timeout, TimeUnit.MILLISECONDS ) )
+            {
+                throw new LdapException( LdapNetworkConnection.TIME_OUT_ERROR );
+            }
+        }
+        catch ( InterruptedException ie )
+        {
+            Thread.currentThread().interrupt();
+
+            throw new LdapException( ie.getMessage(), ie );
+        }
+    }
+
+
+    /**
+     * Gets an idle connection, or creates a new one. The connection will be connected when
+     * the bind request will be sent.
+     */
+    private LdapAsyncConnection getConnection() throws LdapException
+    {
+        LdapAsyncConnection connection;
+
+        while ( ( connection = idleConnections.pollFirst() ) != null )
+        {
+            if ( connection.isConnected() )
+            {
+                return connection;
+            }
+
+            closeQuietly( connection );
+        }
+
+        LdapConnection newConnection = factory.newUnboundLdapConnection();
+
+        if ( !( newConnection instanceof LdapAsyncConnection ) )
+        {
+            closeQuietly( newConnection );
+
+            throw new LdapException( I18n.err( I18n.ERR_04192_NOT_AN_ASYNC_CONNECTION,
+                newConnection.getClass().getName() ) );
+        }
+
+        return ( LdapAsyncConnection ) newConnection;
+    }
+
+
+    /**
+     * Waits for a verification, abandoning it if it hasn't been answered after the timeout
+     */
+    private boolean await( CompletionStage<Boolean> stage ) throws LdapException
+    {
+        CompletableFuture<Boolean> future = stage.toCompletableFuture();
+
+        try
+        {
+            return future.get( timeout, TimeUnit.MILLISECONDS );
+        }
+        catch ( TimeoutException te )
+        {
+            // Abandon the bind : the connection is closed, and the permit released
+            if ( !future.cancel( true ) )
+            {
+                // The response has been received meanwhile
+                return await( future );
+            }
+
+            throw new LdapException( LdapNetworkConnection.TIME_OUT_ERROR, te );
+        }
+        catch ( InterruptedException ie )
+        {
+            Thread.currentThread().interrupt();
+
+            throw new LdapException( ie.getMessage(), ie );
+        }
+        catch ( ExecutionException ee )
+        {
+            Throwable cause = ee.getCause();
+
+            if ( cause instanceof LdapException )
+            {
+                throw ( LdapException ) cause;
+            }
+
+            throw new LdapException( cause.getMessage(), cause );
+        }
+    }
+
+
+    private static <R> CompletionStage<R> failedStage( Throwable cause )
+    {
+        CompletableFuture<R> stage = new CompletableFuture<>();
+        stage.completeExceptionally( cause );
+
+        return stage;
+    }
+
+
+    private static void closeQuietly( LdapConnection connection )
+    {
+        try
+        {
+            connection.close();
+        }
+        catch ( IOException ioe )
+        {
+            LOG.debug( ioe.getMessage(), ioe );
+        }
+    }
+
+
+    /**
+     * @return The maximum number of concurrent binds
+     */
+    public int getMaxConcurrentBinds()
+    {
+        return maxConcurrentBinds;
+    }
+
+
+    /**
+     * @return The number of binds in progress
+     */
+    public int getActiveBindCount()
+    {
+        return maxConcurrentBinds - bindPermits.availablePermits();
+    }
+
+
+    /**
+     * @return The number of connections waiting for a bind
+     */
+    public int getIdleConnectionCount()
+    {
+        return idleConnections.size();
+    }
+
+
+    /**
+     * @return The number of verified credentials accepted by the server
+     */
+    public long getAcceptedCount()
+    {
+        return accepted.sum();
+    }
+
+
+    /**
+     * @return The number of verified credentials rejected by the server, or empty
+     */
+    public long getRejectedCount()
+    {
+        return rejected.sum();
+    }
+
+
+    /**
+     * Tells if this verifier has been closed
+     *
+     * @return <tt>true</tt> if the verifier has been closed
+     */
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+
+    /**
+     * Closes the idle connections. The connections used by the binds in progress are closed
+     * once the binds are completed.
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+
+        LdapAsyncConnection connection;
+
+        while ( ( connection = idleConnections.pollFirst() ) != null )
+        {
+            closeQuietly( connection );
+        }
+    }
+}
@@ -0,0 +1,640 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.message.AddRequest;
+import org.apache.directory.api.ldap.model.message.AddResponse;
+import org.apache.directory.api.ldap.model.message.CompareRequest;
+import org.apache.directory.api.ldap.model.message.CompareResponse;
+import org.apache.directory.api.ldap.model.message.DeleteRequest;
+import org.apache.directory.api.ldap.model.message.DeleteResponse;
+import org.apache.directory.api.ldap.model.message.ExtendedRequest;
+import org.apache.directory.api.ldap.model.message.ExtendedResponse;
+import org.apache.directory.api.ldap.model.message.ModifyDnRequest;
+import org.apache.directory.api.ldap.model.message.ModifyDnResponse;
+import org.apache.directory.api.ldap.model.message.ModifyRequest;
+import org.apache.directory.api.ldap.model.message.ModifyResponse;
+import org.apache.directory.api.ldap.model.message.Response;
+import org.apache.directory.api.ldap.model.message.SearchRequest;
+import org.apache.directory.api.ldap.model.message.SearchResultDone;
+import org.apache.directory.ldap.client.api.future.SearchFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A connection multiplexing the operations of many threads over a few LDAP connections.
+ * <br>
+ * LDAP allows many operations to be outstanding on a single connection, the responses being
+ * associated with the requests by their message ID. Instead of borrowing a connection from a
+ * {@link LdapConnectionPool} for each operation, any number of threads can share an instance of
+ * this class, which dispatches each operation to the underlying connection having the least
+ * outstanding requests :
+ * <pre>
+ * LdapMultiplexedConnection connection = new LdapMultiplexedConnection(
+ *     new DefaultLdapConnectionFactory( config ), 4, 64 );
+ *
+ * // From any thread
+ * ModifyResponse response = connection.modifyStage( modifyRequest ).toCompletableFuture().get();
+ * ...
+ * connection.close();
+ * </pre>
+ * The number of outstanding requests on each underlying connection is bounded by the in-flight
+ * window. When all the connections have a full window, the threads issuing new operations wait,
+ * and are served in arrival order, for at most the configured timeout. An operation which hasn't
+ * been answered after the configured timeout is abandoned, and its room in the window is freed.
+ * <br>
+ * The underlying connections are created and bound by the {@link LdapConnectionFactory}, and are
+ * shared by all the threads : the operations changing the connection's state, like a bind or a
+ * StartTLS extended operation, must not be sent through this class. A connection found closed
+ * is replaced by a new one.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LdapMultiplexedConnection implements Closeable
+{
+    /** The logger for this class */
+    private static final Logger LOG = LoggerFactory.getLogger( LdapMultiplexedConnection.class );
+
+    /** The factory creating the underlying connections */
+    private final LdapConnectionFactory factory;
+
+    /** The underlying connections */
+    private final Slot[] slots;
+
+    /** The maximum number of outstanding requests per connection */
+    private final int maxInFlight;
+
+    /** The room left in the in-flight windows, handed out in arrival order */
+    private final Semaphore window;
+
+    /** The index of the connection to check first, so that ties are spread */
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    /** The time to wait for room in the window, and for the responses, in ms */
+    private final long timeout;
+
+    /** The timer abandoning the operations which haven't been answered in time */
+    private final ScheduledThreadPoolExecutor timer;
+
+    /** Tells if this connection has been closed */
+    private volatile boolean closed;
+
+
+    /**
+     * An underlying connection, and its number of outstanding requests
+     */
+    private final class Slot
+    {
+        /** The connection */
+        private volatile LdapAsyncConnection connection;
+
+        /** The number of requests sent on this connection, and not yet completed */
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+
+        Slot( LdapAsyncConnection connection )
+        {
+            this.connection = connection;
+        }
+
+
+        /**
+         * Gets the connection, replacing it if it has been closed
+         */
+        LdapAsyncConnection getConnection() throws LdapException
+        {
+            LdapAsyncConnection current = connection;
+
+            if ( current.isConnected() )
+            {
+                return current;
+            }
+
+            synchronized ( this )
+            {
+                if ( !connection.isConnected() )
+                {
+                    closeQuietly( connection );
+                    connection = open();
+                }
+
+                return connection;
+            }
+        }
+    }
+
+
+    /**
+     * Creates a new instance of LdapMultiplexedConnection, opening the underlying connections.
+     *
+     * @param factory The factory creating and binding the underlying connections
+     * @param connectionCount The number of underlying connections
+     * @param maxInFlight The maximum number of outstanding requests on each connection
+     * @throws LdapException If the connections can't be opened
+     */
+    public LdapMultiplexedConnection( LdapConnectionFactory factory, int connectionCount, int maxInFlight )
+        throws LdapException
+    {
+        if ( ( connectionCount < 1 ) || ( maxInFlight < 1 ) )
+        {
+            throw new IllegalArgumentException(
+                I18n.err( I18n.ERR_04189_INVALID_MULTIPLEXED_CONNECTION, connectionCount, maxInFlight ) );
+        }
+
+        this.factory = factory;
+        this.maxInFlight = maxInFlight;
+        this.window = new Semaphore( connectionCount * maxInFlight, true );
+        this.slots = new Slot[connectionCount];
+
+        timer = new ScheduledThreadPoolExecutor( 1, runnable ->
+        {
+            Thread thread = new Thread( runnable, "LdapMultiplexedTimeout" );
+            thread.setDaemon( true );
+
+            return thread;
+        } );
+
+        // Don't keep the timeouts of the completed operations in the queue
+        timer.setRemoveOnCancelPolicy( true );
+
+        try
+        {
+            for ( int i = 0; i < connectionCount; i++ )
+            {
+                slots[i] = new Slot( open() );
+            }
+        }
+        catch ( LdapException e )
+        {
+            close();
+
+            throw e;
+        }
+
+        this.timeout = slots[0].connection.getConfig().getTimeout();
+    }
+
+
+    /**
+     * Creates a new underlying connection
+     */
+    private LdapAsyncConnection open() throws LdapException
+    {
+        LdapConnection connection = factory.newLdapConnection();
+
+        if ( !( connection instanceof LdapAsyncConnection ) )
+        {
+            closeQuietly( connection );
+
+            throw new LdapException( I18n.err( I18n.ERR_04192_NOT_AN_ASYNC_CONNECTION,
+                connection.getClass().getName() ) );
+        }
+
+        return ( LdapAsyncConnection ) connection;
+    }
+
+
+    private static void closeQuietly( LdapConnection connection )
+    {
+        try
+        {
+            connection.close();
+        }
+        catch ( IOException ioe )
+        {
+            LOG.debug( ioe.getMessage(), ioe );
+        }
+    }
+
+
+    /**
+     * Waits for some room in the in-flight window, then reserves a request on the connection
+     * having the least outstanding requests.
+     */
+    private Slot acquire() throws LdapException
+    {
+        if ( closed )
+        {
+            throw new LdapException( I18n.err( I18n.ERR_04191_MULTIPLEXED_CONNECTION_CLOSED ) );
+        }
+
+        try
+        {
+            if ( !window.tryAcquire( timeout, TimeUnit.MILLISECONDS ) )
+            {
+                throw new LdapException( I18n.err( I18n.ERR_04190_IN_FLIGHT_WINDOW_TIMEOUT, timeout ) );
+            }
+        }
+        catch ( InterruptedException ie )
+        {
+            Thread.currentThread().interrupt();
+
+            throw new LdapException( ie.getMessage(), ie );
+        }
+
+        // We hold a permit, so at least one connection has some room in its window
+        while ( true )
+        {
+            int start = Math.floorMod( nextSlot.getAndIncrement(), slots.length );
+            Slot best = null;
+            int bestOutstanding = maxInFlight;
+
+            for ( int i = 0; i < slots.length; i++ )
+            {
+                Slot slot = slots[( start + i ) % slots.length];
+                int outstanding = slot.outstanding.get();
+
+                if ( outstanding < bestOutstanding )
+                {
+                    best = slot;
+                    bestOutstanding = outstanding;
+                }
+            }
+
+            if ( ( best != null ) && best.outstanding.compareAndSet( bestOutstanding, bestOutstanding + 1 ) )
+            {
+                return best;
+            }
+        }
+    }
+
+
+    /**
+     * Releases a request reserved on a connection
+     */
+    private void release( Slot slot )
+    {
+        slot.outstanding.decrementAndGet();
+        window.release();
+    }
+
+
+    /**
+     * Sends an operation on the connection having the least outstanding requests, and gives
+     * back a stage completed with the operation's stage, once the request has been released.
+     * If the operation hasn't been answered after the timeout, it is abandoned and released.
+     */
+    private <R> CompletionStage<R> dispatch( Function<LdapAsyncConnection, CompletionStage<R>> operation )
+    {
+        Slot slot;
+
+        try
+        {
+            slot = acquire();
+        }
+        catch ( LdapException e )
+        {
+            return failedStage( e );
+        }
+
+        CompletionStage<R> stage;
+
+        try
+        {
+            stage = operation.apply( slot.getConnection() );
+        }
+        catch ( LdapException | RuntimeException e )
+        {
+            release( slot );
+
+            return failedStage( e );
+        }
+
+        // The request is released only once, when it completes or when it times out
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable releaseOnce = () ->
+        {
+            if ( released.compareAndSet( false, true ) )
+            {
+                release( slot );
+            }
+        };
+
+        // The request is released before the caller is notified
+        CompletableFuture<R> result = new CompletableFuture<>();
+
+        stage.whenComplete( ( response, cause ) ->
+        {
+            releaseOnce.run();
+
+            if ( cause == null )
+            {
+                result.complete( response );
+            }
+            else
+            {
+                result.completeExceptionally( cause );
+            }
+        } );
+
+        if ( timeout > 0L )
+        {
+            expireAfterTimeout( result, stage, releaseOnce );
+        }
+
+        // Cancelling the caller's stage abandons the operation
+        result.whenComplete( ( response, cause ) ->
+        {
+            if ( result.isCancelled() )
+            {
+                stage.toCompletableFuture().cancel( true );
+            }
+        } );
+
+        return result;
+    }
+
+
+    /**
+     * Abandons an operation, and releases its request, if it hasn't been answered after the timeout
+     */
+    private <R> void expireAfterTimeout( CompletableFuture<R> result, CompletionStage<R> stage, Runnable releaseOnce )
+    {
+        ScheduledFuture<?> expiry;
+
+        try
+        {
+            expiry = timer.schedule( () ->
+            {
+                if ( result.isDone() )
+                {
+                    return;
+                }
+
+                // Free the room in the window before notifying the caller, then abandon the operation
+                releaseOnce.run();
+
+                if ( result.completeExceptionally( new LdapException(
+                    I18n.err( I18n.ERR_04198_MULTIPLEXED_OPERATION_TIMEOUT, timeout ) ) ) )
+                {
+                    stage.toCompletableFuture().cancel( true );
+                }
+            }, timeout, TimeUnit.MILLISECONDS );
+        }
+        catch ( RejectedExecutionException ree )
+        {
+            // This connection has been closed : the operation fails with the underlying connection
+            return;
+        }
+
+        result.whenComplete( ( response, cause ) -> expiry.cancel( false ) );
+    }
+
+
+    private static <R> CompletionStage<R> failedStage( Throwable cause )
+    {
+        CompletableFuture<R> stage = new CompletableFuture<>();
+        stage.completeExceptionally( cause );
+
+        return stage;
+    }
+
+
+    /**
+     * Performs an add operation on the least loaded connection.
+     *
+     * @param addRequest The add request
+     * @return the add operation's CompletionStage
+     * @see LdapAsyncConnection#addStage(AddRequest)
+     */
+    public CompletionStage<AddResponse> addStage( AddRequest addRequest )
+    {
+        return dispatch( connection -> connection.addStage( addRequest ) );
+    }
+
+
+    /**
+     * Performs a compare operation on the least loaded connection.
+     *
+     * @param compareRequest The compare request
+     * @return the compare operation's CompletionStage
+     * @see LdapAsyncConnection#compareStage(CompareRequest)
+     */
+    public CompletionStage<CompareResponse> compareStage( CompareRequest compareRequest )
+    {
+        return dispatch( connection -> connection.compareStage( compareRequest ) );
+    }
+
+
+    /**
+     * Performs a delete operation on the least loaded connection.
+     *
+     * @param deleteRequest The delete request
+     * @return the delete operation's CompletionStage
+     * @see LdapAsyncConnection#deleteStage(DeleteRequest)
+     */
+    public CompletionStage<DeleteResponse> deleteStage( DeleteRequest deleteRequest )
+    {
+        return dispatch( connection -> connection.deleteStage( deleteRequest ) );
+    }
+
+
+    /**
+     * Performs an extended operation on the least loaded connection. The extended operations
+     * changing the connection's state (like StartTLS) must not be used.
+     *
+     * @param extendedRequest The extended request
+     * @return the extended operation's CompletionStage
+     * @see LdapAsyncConnection#extendedStage(ExtendedRequest)
+     */
+    public CompletionStage<ExtendedResponse> extendedStage( ExtendedRequest extendedRequest )
+    {
+        return dispatch( connection -> connection.extendedStage( extendedRequest ) );
+    }
+
+
+    /**
+     * Performs a modify operation on the least loaded connection.
+     *
+     * @param modifyRequest The modify request
+     * @return the modify operation's CompletionStage
+     * @see LdapAsyncConnection#modifyStage(ModifyRequest)
+     */
+    public CompletionStage<ModifyResponse> modifyStage( ModifyRequest modifyRequest )
+    {
+        return dispatch( connection -> connection.modifyStage( modifyRequest ) );
+    }
+
+
+    /**
+     * Performs a modifyDn operation on the least loaded connection.
+     *
+     * @param modifyDnRequest The modifyDn request
+     * @return the modifyDn operation's CompletionStage
+     * @see LdapAsyncConnection#modifyDnStage(ModifyDnRequest)
+     */
+    public CompletionStage<ModifyDnResponse> modifyDnStage( ModifyDnRequest modifyDnRequest )
+    {
+        return dispatch( connection -> connection.modifyDnStage( modifyDnRequest ) );
+    }
+
+
+    /**
+     * Performs a search on the least loaded connection, and waits for all its responses.
+     *
+     * @param searchRequest The search request
+     * @return The search responses : the entries, the references and the intermediate responses,
+     * in the order they have been received, the last one being the {@link SearchResultDone}
+     * @throws LdapException If the search failed, or timed out
+     */
+    public List<Response> search( SearchRequest searchRequest ) throws LdapException
+    {
+        Slot slot = acquire();
+
+        try
+        {
+            LdapAsyncConnection connection = slot.getConnection();
+            SearchFuture future = connection.searchAsync( searchRequest );
+            List<Response> responses = new ArrayList<>();
+
+            while ( true )
+            {
+                Response response = future.get( timeout, TimeUnit.MILLISECONDS );
+
+                if ( response == null )
+                {
+                    connection.abandon( searchRequest.getMessageId() );
+
+                    throw new LdapException( LdapNetworkConnection.TIME_OUT_ERROR );
+                }
+
+                responses.add( response );
+
+                if ( response instanceof SearchResultDone )
+                {
+                    return responses;
+                }
+            }
+        }
+        catch ( InterruptedException ie )
+        {
+            Thread.currentThread().interrupt();
+
+            throw new LdapException( ie.getMessage(), ie );
+        }
+        catch ( LdapException e )
+        {
+            throw e;
+        }
+        catch ( Exception e )
+        {
+            throw new LdapException( e.getMessage(), e );
+        }
+        finally
+        {
+            release( slot );
+        }
+    }
+
+
+    /**
+     * @return The number of underlying connections
+     */
+    public int getConnectionCount()
+    {
+        return slots.length;
+    }
+
+
+    /**
+     * @return The maximum number of outstanding requests on each underlying connection
+     */
+    public int getMaxInFlight()
+    {
+        return maxInFlight;
+    }
+
+
+    /**
+     * @return The number of requests sent and not yet completed, on all the underlying connections
+     */
+    public int getOutstandingRequests()
+    {
+        int outstanding = 0;
+
+        for ( Slot slot : slots )
+        {
+            if ( slot != null )
+            {
+                outstanding += slot.outstanding.get();
+            }
+        }
+
+        return outstanding;
+    }
+
+
+    /**
+     * @return The approximate number of threads waiting for some room in the in-flight window
+     */
+    public int getWaitingThreadCount()
+    {
+        return window.getQueueLength();
+    }
+
+
+    /**
+     * Tells if this connection has been closed
+     *
+     * @return <tt>true</tt> if the connection has been closed
+     */
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+
+    /**
+     * Closes all the underlying connections. The outstanding requests are not waited for.
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        timer.shutdownNow();
+
+        for ( Slot slot : slots )
+        {
+            if ( slot != null )
+            {
+                closeQuietly( slot.connection );
+            }
+        }
+    }
+}
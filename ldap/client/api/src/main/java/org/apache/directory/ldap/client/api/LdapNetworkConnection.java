@@ -33,19 +33,26 @@ import java.nio.channels.UnresolvedAddressException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
 import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
@@ -64,6 +71,7 @@ import org.apache.directory.api.ldap.codec.api.ExtendedOperationFactory;
 import org.apache.directory.api.ldap.codec.api.LdapApiService;
 import org.apache.directory.api.ldap.codec.api.LdapApiServiceFactory;
 import org.apache.directory.api.ldap.codec.api.LdapDecoder;
+import org.apache.directory.api.ldap.codec.api.LdapEncoder;
 import org.apache.directory.api.ldap.codec.api.LdapMessageContainer;
 import org.apache.directory.api.ldap.codec.api.MessageEncoderException;
 import org.apache.directory.api.ldap.codec.api.SchemaBinaryAttributeDetector;
@@ -79,6 +87,7 @@ import org.apache.directory.api.ldap.model.cursor.SearchCursor;
 import org.apache.directory.api.ldap.model.entry.Attribute;
 import org.apache.directory.api.ldap.model.entry.DefaultEntry;
 import org.apache.directory.api.ldap.model.entry.Entry;
+import org.apache.directory.api.ldap.model.entry.LazySchemaAwareEntry;
 import org.apache.directory.api.ldap.model.entry.Modification;
 import org.apache.directory.api.ldap.model.entry.ModificationOperation;
 import org.apache.directory.api.ldap.model.entry.Value;
@@ -111,6 +120,7 @@ import org.apache.directory.api.ldap.model.message.ExtendedResponse;
 import org.apache.directory.api.ldap.model.message.IntermediateResponse;
 import org.apache.directory.api.ldap.model.message.LdapResult;
 import org.apache.directory.api.ldap.model.message.Message;
+import org.apache.directory.api.ldap.model.message.MessageTypeEnum;
 import org.apache.directory.api.ldap.model.message.ModifyDnRequest;
 import org.apache.directory.api.ldap.model.message.ModifyDnRequestImpl;
 import org.apache.directory.api.ldap.model.message.ModifyDnResponse;
@@ -122,6 +132,7 @@ import org.apache.directory.api.ldap.model.message.OpaqueExtendedResponse;
 import org.apache.directory.api.ldap.model.message.Request;
 import org.apache.directory.api.ldap.model.message.Response;
 import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.message.ResultResponse;
 import org.apache.directory.api.ldap.model.message.SearchRequest;
 import org.apache.directory.api.ldap.model.message.SearchRequestImpl;
 import org.apache.directory.api.ldap.model.message.SearchResultDone;
@@ -166,6 +177,9 @@ import org.apache.directory.ldap.client.api.future.ModifyDnFuture;
 import org.apache.directory.ldap.client.api.future.ModifyFuture;
 import org.apache.directory.ldap.client.api.future.ResponseFuture;
 import org.apache.directory.ldap.client.api.future.SearchFuture;
+import org.apache.directory.ldap.client.api.future.SearchPublisher;
+import org.apache.directory.ldap.client.api.metrics.LdapOperationEvent;
+import org.apache.directory.ldap.client.api.metrics.LdapOperationObserver;
 import org.apache.mina.core.filterchain.IoFilter;
 import org.apache.mina.core.future.CloseFuture;
 import org.apache.mina.core.future.ConnectFuture;
@@ -210,6 +224,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     /** The connector open with the remote server */
     private IoConnector connector;
 
+    /** The shared connector, if the connector is not owned by this connection */
+    private LdapSharedConnector sharedConnector;
+
     /** A mutex used to avoid a double close of the connector */
     private ReentrantLock connectorMutex = new ReentrantLock();
 
@@ -231,6 +248,15 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     /** A flag indicating that the BindRequest has been issued and successfully authenticated the user */
     private AtomicBoolean authenticated = new AtomicBoolean( false );
 
+    /** The number of requests queued in the session and not yet written */
+    private AtomicInteger pendingWrites = new AtomicInteger( 0 );
+
+    /** The operations being observed, if the configuration has an observer */
+    private Map<Integer, OperationTracker> trackerMap = new ConcurrentHashMap<>();
+
+    /** The size of the PDUs decoded and not yet processed, if the search queues are bounded by size */
+    private Map<Message, Integer> decodedSizes = Collections.synchronizedMap( new IdentityHashMap<>() );
+
     /** a list of listeners interested in getting notified when the
      *  connection's session gets closed cause of network issues
      */
@@ -250,7 +276,7 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     
     /** A future used to block any action until the handshake is completed */
     private HandshakeFuture handshakeFuture;
-    
+
     /** A future used to wait for a connection to be closed */
     private CompletableFuture<Integer> connectionCloseFuture = new CompletableFuture<>(); 
     
@@ -504,6 +530,17 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
      */
     private void createConnector() throws LdapException
     {
+        sharedConnector = config.getSharedConnector();
+
+        if ( sharedConnector != null )
+        {
+            // The connector is shared with other connections : the filters will be
+            // added into the session's chain when the session will be created.
+            connector = sharedConnector.getConnector();
+
+            return;
+        }
+
         // Use only one thread inside the connector
         connector = new NioSocketConnector( 1 );
         
@@ -530,6 +567,22 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     }
 
 
+    /**
+     * Dispose the connector, unless it's a shared connector
+     */
+    private void disposeConnector()
+    {
+        if ( ( sharedConnector == null ) && ( connector != null ) && !connector.isDisposing()
+            && !connector.isDisposed() )
+        {
+            connector.dispose();
+        }
+
+        connector = null;
+        sharedConnector = null;
+    }
+
+
     //--------------------------- Helper methods ---------------------------//
     /**
      * {@inheritDoc}
@@ -674,7 +727,18 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     {
         // Build the connection address
         SocketAddress address = new InetSocketAddress( config.getLdapHost(), config.getLdapPort() );
-        ConnectFuture connectionFuture = connector.connect( address );
+        ConnectFuture connectionFuture;
+
+        if ( sharedConnector != null )
+        {
+            connectionFuture = sharedConnector.connect( address, this, socketSessionConfig );
+        }
+        else
+        {
+            // The SslFilter is added to the session's chain once initialized
+            connectionFuture = connector.connect( address, ( session, future ) -> setTlsPeerAddress( session ) );
+        }
+
         boolean result = false;
 
         // Wait until it's established
@@ -684,8 +748,7 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
         }
         catch ( InterruptedException e )
         {
-            connector.dispose();
-            connector = null;
+            disposeConnector();
 
             if ( LOG.isDebugEnabled() )
             {
@@ -702,12 +765,7 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
             // It may be an exception, or a timeout
             Throwable connectionException = connectionFuture.getException();
 
-            if ( ( connector != null ) && !connector.isDisposing() && !connector.isDisposed() )
-            { 
-                connector.dispose();
-            }
-
-            connector = null;
+            disposeConnector();
 
             if ( connectionException == null )
             {
@@ -903,6 +961,80 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     }
     
     
+    /**
+     * What is known about an observed operation, until its final response is received.
+     */
+    private static final class OperationTracker
+    {
+        /** The request's type */
+        private final MessageTypeEnum type;
+
+        /** The request's message ID */
+        private final int messageId;
+
+        /** The time the request has been handed to the session */
+        private final long start = System.nanoTime();
+
+        /** The time the request has been written, 0 if it's not yet written */
+        private volatile long written;
+
+        /** The time the first response has been received, 0 if none has been received */
+        private volatile long firstResponse;
+
+        /** The size of the encoded request */
+        private volatile int bytesEncoded;
+
+        /** The size of the decoded responses */
+        private volatile long bytesDecoded;
+
+        /** The number of received responses */
+        private volatile int responseCount;
+
+
+        OperationTracker( MessageTypeEnum type, int messageId )
+        {
+            this.type = type;
+            this.messageId = messageId;
+        }
+
+
+        /**
+         * Called by the I/O thread when a response has been received
+         */
+        void responseReceived()
+        {
+            if ( firstResponse == 0L )
+            {
+                firstResponse = System.nanoTime();
+            }
+
+            responseCount++;
+        }
+
+
+        /**
+         * Creates the event describing the completed operation
+         *
+         * @param resultCode The final result code, null if the operation hasn't completed
+         * @return The event to give to the observer
+         */
+        LdapOperationEvent toEvent( ResultCodeEnum resultCode )
+        {
+            long end = System.nanoTime();
+            long firstResponseTime = ( firstResponse == 0L ) ? end : firstResponse;
+
+            // The write listener may be called after the response has been received
+            long writeTime = ( written == 0L ) ? firstResponseTime : Math.min( written, firstResponseTime );
+
+            LdapOperationEvent event = new LdapOperationEvent( type, messageId, resultCode );
+            event.setSizes( bytesEncoded, bytesDecoded, responseCount );
+            event.setTimes( writeTime - start, firstResponseTime - start, end - start );
+
+            return event;
+        }
+    }
+
+
     /**
      * Set the BinaryDetector instance in the session
      */
@@ -929,10 +1061,24 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
                 atDetector = new SchemaBinaryAttributeDetector( schemaManager );
             }
 
-            ioSession.setAttribute( LdapDecoder.MESSAGE_CONTAINER_ATTR,
-                new LdapMessageContainer<Message>( codec, atDetector ) );
+            ioSession.setAttribute( LdapDecoder.MESSAGE_CONTAINER_ATTR, newMessageContainer( atDetector ) );
         }
     }
+
+
+    /**
+     * Creates the container used to decode the messages received on the session
+     *
+     * @param binaryAttributeDetector The detector used to tell if an attribute is binary
+     * @return The new container
+     */
+    private LdapMessageContainer<Message> newMessageContainer( BinaryAttributeDetector binaryAttributeDetector )
+    {
+        LdapMessageContainer<Message> container = new LdapMessageContainer<>( codec, binaryAttributeDetector );
+        container.setZeroCopy( config.isZeroCopyDecoding() );
+
+        return container;
+    }
     
 
     //-------------------------- The methods ---------------------------//
@@ -993,11 +1139,7 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
         }
         catch ( Exception e )
         {
-            if ( ( connector != null ) && !connector.isDisposing() && !connector.isDisposed() ) 
-            {
-                connector.dispose();
-                connector = null;
-            }
+            disposeConnector();
 
             throw e;
         }
@@ -1129,6 +1271,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( addResponse == null )
             {
+                // The request may not have been written
+                checkWriteFailure( addFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 {
@@ -1157,6 +1302,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             return addResponse;
         }
+        catch ( InvalidConnectionException ice )
+        {
+            // The request couldn't be written
+            throw ice;
+        }
         catch ( Exception ie )
         {
             // Catch all other exceptions
@@ -1291,6 +1441,7 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
         // remove the associated listener if any
         int abandonId = abandonRequest.getAbandoned();
+        operationCompleted( abandonId, null );
 
         ResponseFuture<? extends Response> rf = getFromFutureMap( abandonId );
 
@@ -1524,6 +1675,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( bindResponse == null )
             {
+                // The request may not have been written
+                checkWriteFailure( bindFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 { 
@@ -1554,6 +1708,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             return bindResponse;
         }
+        catch ( InvalidConnectionException ice )
+        {
+            // The request couldn't be written
+            throw ice;
+        }
         catch ( Exception ie )
         {
             // Catch all other exceptions
@@ -1691,6 +1850,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( bindResponse == null )
             {
+                // The request may not have been written
+                checkWriteFailure( bindFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 { 
@@ -1721,6 +1883,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             return bindResponse;
         }
+        catch ( InvalidConnectionException ice )
+        {
+            // The request couldn't be written
+            throw ice;
+        }
         catch ( Exception ie )
         {
             // Catch all other exceptions
@@ -1763,6 +1930,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( bindResponse == null )
             {
+                // The request may not have been written
+                checkWriteFailure( bindFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 { 
@@ -1793,6 +1963,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             return bindResponse;
         }
+        catch ( InvalidConnectionException ice )
+        {
+            // The request couldn't be written
+            throw ice;
+        }
         catch ( Exception ie )
         {
             // Catch all other exceptions
@@ -1871,6 +2046,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( bindResponse == null )
             {
+                // The request may not have been written
+                checkWriteFailure( bindFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 { 
@@ -1901,6 +2079,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             return bindResponse;
         }
+        catch ( InvalidConnectionException ice )
+        {
+            // The request couldn't be written
+            throw ice;
+        }
         catch ( Exception ie )
         {
             // Catch all other exceptions
@@ -1957,6 +2140,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( bindResponse == null )
             {
+                // The request may not have been written
+                checkWriteFailure( bindFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 { 
@@ -1987,6 +2173,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             return bindResponse;
         }
+        catch ( InvalidConnectionException ice )
+        {
+            // The request couldn't be written
+            throw ice;
+        }
         catch ( Exception ie )
         {
             // Catch all other exceptions
@@ -2029,6 +2220,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( bindResponse == null )
             {
+                // The request may not have been written
+                checkWriteFailure( bindFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 { 
@@ -2059,6 +2253,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             return bindResponse;
         }
+        catch ( InvalidConnectionException ice )
+        {
+            // The request couldn't be written
+            throw ice;
+        }
         catch ( Exception ie )
         {
             // Catch all other exceptions
@@ -2101,6 +2300,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( bindResponse == null )
             {
+                // The request may not have been written
+                checkWriteFailure( bindFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 { 
@@ -2131,6 +2333,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             return bindResponse;
         }
+        catch ( InvalidConnectionException ice )
+        {
+            // The request couldn't be written
+            throw ice;
+        }
         catch ( Exception ie )
         {
             // Catch all other exceptions
@@ -2294,6 +2501,32 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
      */
     @Override
     public SearchFuture searchAsync( SearchRequest searchRequest ) throws LdapException
+    {
+        return sendSearchRequest( searchRequest, id -> new SearchFuture( this, id, ioSession, config ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SearchPublisher searchPublisher( SearchRequest searchRequest ) throws LdapException
+    {
+        return sendSearchRequest( searchRequest, id -> new SearchPublisher( this, id, ioSession ) );
+    }
+
+
+    /**
+     * Sends a SearchRequest, and gives back the future created by the given factory, which
+     * will receive the responses.
+     *
+     * @param searchRequest The SearchRequest to send
+     * @param futureFactory The factory creating the future from the request's message ID
+     * @return The created future
+     * @throws LdapException If the request can't be sent
+     */
+    private <F extends SearchFuture> F sendSearchRequest( SearchRequest searchRequest, IntFunction<F> futureFactory )
+        throws LdapException
     {
         if ( searchRequest == null )
         {
@@ -2339,7 +2572,7 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
             LOG.debug( I18n.msg( I18n.MSG_04104_SENDING_REQUEST, searchRequest ) );
         }
 
-        SearchFuture searchFuture = new SearchFuture( this, searchRequest.getMessageId() );
+        F searchFuture = futureFactory.apply( searchRequest.getMessageId() );
         addToFutureMap( searchRequest.getMessageId(), searchFuture );
 
         // Send the request to the server
@@ -2383,6 +2616,31 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EntryCursor searchPaged( SearchRequest searchRequest, int pageSize, boolean prefetch )
+        throws LdapException
+    {
+        if ( searchRequest == null )
+        {
+            String msg = I18n.err( I18n.ERR_04130_CANNOT_PROCESS_NULL_SEARCH_REQ );
+
+            if ( LOG.isDebugEnabled() )
+            {
+                LOG.debug( msg );
+            }
+
+            throw new IllegalArgumentException( msg );
+        }
+
+        long searchTimeout = getTimeout( timeout, searchRequest.getTimeLimit() );
+
+        return new PagedEntryCursorImpl( this, searchRequest, pageSize, prefetch, searchTimeout );
+    }
+
+
     //------------------------ The LDAP operations ------------------------//
     // Unbind operations                                                   //
     //---------------------------------------------------------------------//
@@ -2700,15 +2958,16 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
      * 
      * @param intermediateResponse The IntermediateResponse to process
      * @param responseFuture The ResponseFuture to feed
+     * @param pduSize The size of the response's PDU, 0 if unknown
      * @throws InterruptedException If the Future is interrupted
      */
-    private void intermediateReceived( IntermediateResponse intermediateResponse, ResponseFuture<? extends Response> responseFuture ) 
-        throws InterruptedException
+    private void intermediateReceived( IntermediateResponse intermediateResponse, ResponseFuture<? extends Response> responseFuture,
+        long pduSize ) throws InterruptedException
     {
         // Store the response into the future
         if ( responseFuture instanceof SearchFuture )
         {
-            ( ( SearchFuture ) responseFuture ).set( intermediateResponse );
+            ( ( SearchFuture ) responseFuture ).set( intermediateResponse, pduSize );
         }
         else if ( responseFuture instanceof ExtendedFuture )
         {
@@ -2803,10 +3062,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
      * @param searchResultDone The SearchResultDone to process
      * @param searchFuture The SearchFuture to feed
      * @param responseId The associated request message ID
+     * @param pduSize The size of the response's PDU, 0 if unknown
      * @throws InterruptedException If the Future is interrupted
      */
     private void searchResultDoneReceived( SearchResultDone searchResultDone, SearchFuture searchFuture, 
-        int responseId ) throws InterruptedException
+        int responseId, long pduSize ) throws InterruptedException
     {
         if ( LOG.isDebugEnabled() )
         {
@@ -2823,7 +3083,7 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
         }
 
         // Store the response into the future
-        searchFuture.set( searchResultDone );
+        searchFuture.set( searchResultDone, pduSize );
 
         // Remove the future from the map
         removeFromFutureMaps( responseId );
@@ -2835,15 +3095,23 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
      * 
      * @param searchResultEntry The SearchResultEntry to process
      * @param searchFuture The SearchFuture to feed
+     * @param pduSize The size of the response's PDU, 0 if unknown
      * @throws InterruptedException If the Future is interrupted
      * @throws LdapException If we weren't able to create a new Entry
      */
-    private void searchResultEntryReceived( SearchResultEntry searchResultEntry, SearchFuture searchFuture ) 
-        throws InterruptedException, LdapException
+    private void searchResultEntryReceived( SearchResultEntry searchResultEntry, SearchFuture searchFuture,
+        long pduSize ) throws InterruptedException, LdapException
     {
         if ( schemaManager != null )
         {
-            searchResultEntry.setEntry( new DefaultEntry( schemaManager, searchResultEntry.getEntry() ) );
+            if ( config.isLazySchemaAwareEntries() )
+            {
+                searchResultEntry.setEntry( new LazySchemaAwareEntry( schemaManager, searchResultEntry.getEntry() ) );
+            }
+            else
+            {
+                searchResultEntry.setEntry( new DefaultEntry( schemaManager, searchResultEntry.getEntry() ) );
+            }
         }
 
         if ( LOG.isDebugEnabled() )
@@ -2852,7 +3120,7 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
         }
 
         // Store the response into the future
-        searchFuture.set( searchResultEntry );
+        searchFuture.set( searchResultEntry, pduSize );
     }
     
     
@@ -2861,10 +3129,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
      * 
      * @param searchResultReference The SearchResultReference to process
      * @param searchFuture The SearchFuture to feed
+     * @param pduSize The size of the response's PDU, 0 if unknown
      * @throws InterruptedException If the Future is interrupted
      */
-    private void searchResultReferenceReceived( SearchResultReference searchResultReference, SearchFuture searchFuture ) 
-        throws InterruptedException
+    private void searchResultReferenceReceived( SearchResultReference searchResultReference, SearchFuture searchFuture,
+        long pduSize ) throws InterruptedException
     {
         if ( LOG.isDebugEnabled() )
         {
@@ -2872,7 +3141,7 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
         }
 
         // Store the response into the future
-        searchFuture.set( searchResultReference );
+        searchFuture.set( searchResultReference, pduSize );
     }
     
 
@@ -2889,6 +3158,8 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     {
         // Feed the response and store it into the session
         Response response = ( Response ) message;
+        Integer decodedSize = decodedSizes.isEmpty() ? null : decodedSizes.remove( response );
+        long pduSize = ( decodedSize == null ) ? 0L : decodedSize;
 
         if ( LOG.isDebugEnabled() )
         {
@@ -2921,6 +3192,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
             return;
         }
 
+        if ( config.getOperationObserver() != null )
+        {
+            operationResponseReceived( response );
+        }
+
         switch ( response.getType() )
         {
             case ADD_RESPONSE:
@@ -2949,7 +3225,7 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
                 break;
 
             case INTERMEDIATE_RESPONSE:
-                intermediateReceived( ( IntermediateResponse ) response, responseFuture );
+                intermediateReceived( ( IntermediateResponse ) response, responseFuture, pduSize );
 
                 break;
 
@@ -2964,17 +3240,19 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
                 break;
 
             case SEARCH_RESULT_DONE:
-                searchResultDoneReceived( ( SearchResultDone ) response, ( SearchFuture ) responseFuture, responseId );
+                searchResultDoneReceived( ( SearchResultDone ) response, ( SearchFuture ) responseFuture, responseId,
+                    pduSize );
 
                 break;
 
             case SEARCH_RESULT_ENTRY:
-                searchResultEntryReceived( ( SearchResultEntry ) response, ( SearchFuture ) responseFuture );
+                searchResultEntryReceived( ( SearchResultEntry ) response, ( SearchFuture ) responseFuture, pduSize );
 
                 break;
 
             case SEARCH_RESULT_REFERENCE:
-                searchResultReferenceReceived( ( SearchResultReference ) response, ( SearchFuture ) responseFuture );
+                searchResultReferenceReceived( ( SearchResultReference ) response, ( SearchFuture ) responseFuture,
+                    pduSize );
 
                 break;
 
@@ -3138,6 +3416,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( modifyResponse == null )
             {
+                // The request may not have been written
+                checkWriteFailure( modifyFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 {
@@ -3172,6 +3453,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             return modifyResponse;
         }
+        catch ( InvalidConnectionException ice )
+        {
+            // The request couldn't be written
+            throw ice;
+        }
         catch ( Exception ie )
         {
             // Catch all other exceptions
@@ -3534,6 +3820,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( modifyDnResponse == null )
             {
+                // The request may not have been written
+                checkWriteFailure( modifyDnFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 {
@@ -3562,6 +3851,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             return modifyDnResponse;
         }
+        catch ( InvalidConnectionException ice )
+        {
+            // The request couldn't be written
+            throw ice;
+        }
         catch ( Exception ie )
         {
             // Catch all other exceptions
@@ -3756,6 +4050,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( delResponse == null )
             {
+                // The request may not have been written
+                checkWriteFailure( deleteFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 {
@@ -3784,6 +4081,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             return delResponse;
         }
+        catch ( InvalidConnectionException ice )
+        {
+            // The request couldn't be written
+            throw ice;
+        }
         catch ( Exception ie )
         {
             // Catch all other exceptions
@@ -3968,6 +4270,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( compareResponse == null )
             {
+                // The request may not have been written
+                checkWriteFailure( compareFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 {
@@ -3996,6 +4301,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             return compareResponse;
         }
+        catch ( InvalidConnectionException ice )
+        {
+            // The request couldn't be written
+            throw ice;
+        }
         catch ( Exception ie )
         {
             // Catch all other exceptions
@@ -4167,6 +4477,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             if ( response == null )
             {
+                // The request may not have been written
+                checkWriteFailure( extendedFuture );
+
                 // We didn't received anything : this is an error
                 if ( LOG.isErrorEnabled() )
                 {
@@ -4261,6 +4574,146 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     }
 
 
+    //------------------------ The LDAP operations ------------------------//
+    // CompletionStage operations                                          //
+    //---------------------------------------------------------------------//
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<AddResponse> addStage( AddRequest addRequest )
+    {
+        try
+        {
+            return addAsync( addRequest ).toCompletionStage( timeout, TimeUnit.MILLISECONDS );
+        }
+        catch ( LdapException e )
+        {
+            return failedStage( e );
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<BindResponse> bindStage( BindRequest bindRequest )
+    {
+        try
+        {
+            return bindAsync( bindRequest ).toCompletionStage( timeout, TimeUnit.MILLISECONDS );
+        }
+        catch ( LdapException e )
+        {
+            return failedStage( e );
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<CompareResponse> compareStage( CompareRequest compareRequest )
+    {
+        try
+        {
+            return compareAsync( compareRequest ).toCompletionStage( timeout, TimeUnit.MILLISECONDS );
+        }
+        catch ( LdapException e )
+        {
+            return failedStage( e );
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<DeleteResponse> deleteStage( DeleteRequest deleteRequest )
+    {
+        try
+        {
+            return deleteAsync( deleteRequest ).toCompletionStage( timeout, TimeUnit.MILLISECONDS );
+        }
+        catch ( LdapException e )
+        {
+            return failedStage( e );
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletionStage<ExtendedResponse> extendedStage( ExtendedRequest extendedRequest )
+    {
+        try
+        {
+            // The final response of an extended operation is always an ExtendedResponse
+            return ( CompletionStage<ExtendedResponse> ) ( CompletionStage<?> ) extendedAsync( extendedRequest )
+                .toCompletionStage( timeout, TimeUnit.MILLISECONDS );
+        }
+        catch ( LdapException e )
+        {
+            return failedStage( e );
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<ModifyResponse> modifyStage( ModifyRequest modifyRequest )
+    {
+        try
+        {
+            return modifyAsync( modifyRequest ).toCompletionStage( timeout, TimeUnit.MILLISECONDS );
+        }
+        catch ( LdapException e )
+        {
+            return failedStage( e );
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<ModifyDnResponse> modifyDnStage( ModifyDnRequest modifyDnRequest )
+    {
+        try
+        {
+            return modifyDnAsync( modifyDnRequest ).toCompletionStage( timeout, TimeUnit.MILLISECONDS );
+        }
+        catch ( LdapException e )
+        {
+            return failedStage( e );
+        }
+    }
+
+
+    /**
+     * Creates a CompletionStage which has already failed
+     * 
+     * @param cause The failure cause
+     * @return The failed CompletionStage
+     */
+    private static <R> CompletionStage<R> failedStage( Throwable cause )
+    {
+        CompletableFuture<R> stage = new CompletableFuture<>();
+        stage.completeExceptionally( cause );
+
+        return stage;
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -4517,8 +4970,7 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             // Change the container's BinaryDetector
             ioSession.setAttribute( LdapDecoder.MESSAGE_CONTAINER_ATTR,
-                new LdapMessageContainer<>( codec,
-                    new SchemaBinaryAttributeDetector( schemaManager ) ) );
+                newMessageContainer( new SchemaBinaryAttributeDetector( schemaManager ) ) );
 
         }
         catch ( LdapException le )
@@ -4698,6 +5150,8 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     private void clearMaps()
     {
         futureMap.clear();
+        trackerMap.clear();
+        decodedSizes.clear();
     }
 
 
@@ -4759,12 +5213,61 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     @Override
     public void sessionCreated( IoSession session ) throws Exception
     {
-        // Last, store the message container
-        LdapMessageContainer<Message> ldapMessageContainer =
-            new LdapMessageContainer<>(
-                codec, config.getBinaryAttributeDetector() );
+        if ( sharedConnector != null )
+        {
+            // The connector is shared, we have to add the filters in the session's chain
+            session.getFilterChain().addLast( "ldapCodec", ldapProtocolFilter );
+
+            if ( config.isUseSsl() )
+            {
+                setTlsPeerAddress( session );
+                session.getFilterChain().addFirst( SSL_FILTER_KEY, createSslFilter() );
+            }
+        }
+
+        // Ask the codec for the sizes of the PDUs if the operations are observed,
+        // or if the search queues are bounded by size
+        boolean observed = config.getOperationObserver() != null;
+        boolean sizeBounded = config.getSearchQueueHighWatermarkBytes() > 0L;
 
-        session.setAttribute( LdapDecoder.MESSAGE_CONTAINER_ATTR, ldapMessageContainer );
+        if ( observed )
+        {
+            ObjIntConsumer<Message> encodedSizeListener = ( message, size ) ->
+            {
+                OperationTracker tracker = trackerMap.get( message.getMessageId() );
+
+                if ( tracker != null )
+                {
+                    tracker.bytesEncoded += size;
+                }
+            };
+
+            session.setAttribute( LdapEncoder.ENCODED_SIZE_LISTENER_ATTR, encodedSizeListener );
+        }
+
+        if ( observed || sizeBounded )
+        {
+            ObjIntConsumer<Message> decodedSizeListener = ( message, size ) ->
+            {
+                if ( sizeBounded )
+                {
+                    decodedSizes.put( message, size );
+                }
+
+                OperationTracker tracker = observed ? trackerMap.get( message.getMessageId() ) : null;
+
+                if ( tracker != null )
+                {
+                    tracker.bytesDecoded += size;
+                }
+            };
+
+            session.setAttribute( LdapDecoder.DECODED_SIZE_LISTENER_ATTR, decodedSizeListener );
+        }
+
+        // Last, store the message container
+        session.setAttribute( LdapDecoder.MESSAGE_CONTAINER_ATTR,
+            newMessageContainer( config.getBinaryAttributeDetector() ) );
     }
 
 
@@ -4792,11 +5295,7 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
         try
         {
-            if ( connector != null )
-            {
-                connector.dispose();
-                connector = null;
-            }
+            disposeConnector();
         }
         finally
         {
@@ -4883,9 +5382,65 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     {
         try
         {
-            SSLContext sslContext = SSLContext.getInstance( config.getSslProtocol() );
-            
-            sslContext.init( config.getKeyManagers(), config.getTrustManagers(), config.getSecureRandom() );
+            SslFilter sslFilter = createSslFilter();
+
+            if ( ( ioSession == null ) || !isConnected() )
+            {
+                connector.getFilterChain().addFirst( SSL_FILTER_KEY, sslFilter );
+            }
+            else
+            // for StartTLS
+            {
+                setTlsPeerAddress( ioSession );
+                ioSession.getFilterChain().addFirst( SSL_FILTER_KEY, sslFilter );
+                
+                boolean isSecured = handshakeFuture.get( timeout, TimeUnit.MILLISECONDS );
+                
+                if ( !isSecured )
+                {
+                    Throwable cause = ( Throwable ) ioSession.getAttribute( EXCEPTION_KEY );
+                    throw new LdapTlsHandshakeException( I18n.err( I18n.ERR_04120_TLS_HANDSHAKE_ERROR ), cause );
+                }
+            }
+        }
+        catch ( Exception e )
+        {
+            if ( e instanceof LdapException )
+            {
+                throw ( LdapException ) e;
+            }
+
+            String msg = I18n.err( I18n.ERR_04122_SSL_CONTEXT_INIT_FAILURE );
+            LOG.error( msg, e );
+            throw new LdapException( msg, e );
+        }
+    }
+
+
+    /**
+     * Creates the {@link SslFilter}, and a new {@link HandshakeFuture} to wait for
+     * the handshake completion
+     * 
+     * @return The created SslFilter
+     * @throws LdapException If the SSL context can't be created
+     */
+    private SslFilter createSslFilter() throws LdapException
+    {
+        try
+        {
+            SSLContext sslContext;
+            LdapTlsContext tlsContext = config.getTlsContext();
+
+            if ( tlsContext != null )
+            {
+                // Share the SSLContext, and its session cache, with the other connections
+                sslContext = tlsContext.getSslContext( config );
+            }
+            else
+            {
+                sslContext = SSLContext.getInstance( config.getSslProtocol() );
+                sslContext.init( config.getKeyManagers(), config.getTrustManagers(), config.getSecureRandom() );
+            }
 
             SslFilter sslFilter = new SslFilter( sslContext );
             sslFilter.setUseClientMode( true );
@@ -4914,32 +5469,11 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
             // for LDAPS/TLS
             handshakeFuture = new HandshakeFuture();
-            
-            if ( ( ioSession == null ) || !isConnected() )
-            {
-                connector.getFilterChain().addFirst( SSL_FILTER_KEY, sslFilter );
-            }
-            else
-            // for StartTLS
-            {
-                ioSession.getFilterChain().addFirst( SSL_FILTER_KEY, sslFilter );
-                
-                boolean isSecured = handshakeFuture.get( timeout, TimeUnit.MILLISECONDS );
-                
-                if ( !isSecured )
-                {
-                    Throwable cause = ( Throwable ) ioSession.getAttribute( EXCEPTION_KEY );
-                    throw new LdapTlsHandshakeException( I18n.err( I18n.ERR_04120_TLS_HANDSHAKE_ERROR ), cause );
-                }
-            }
+
+            return sslFilter;
         }
-        catch ( Exception e )
+        catch ( GeneralSecurityException e )
         {
-            if ( e instanceof LdapException )
-            {
-                throw ( LdapException ) e;
-            }
-
             String msg = I18n.err( I18n.ERR_04122_SSL_CONTEXT_INIT_FAILURE );
             LOG.error( msg, e );
             throw new LdapException( msg, e );
@@ -4947,6 +5481,22 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
     }
 
 
+    /**
+     * Tells the SSL engine which server the session is connected to, when the TLS context is shared,
+     * so that a TLS session previously negotiated with this server can be resumed.
+     * 
+     * @param session The session to secure
+     */
+    private void setTlsPeerAddress( IoSession session )
+    {
+        if ( config.getTlsContext() != null )
+        {
+            session.setAttribute( SslFilter.PEER_ADDRESS,
+                new InetSocketAddress( config.getLdapHost(), config.getLdapPort() ) );
+        }
+    }
+
+
     /**
      * Process the SASL Bind. It's a dialog with the server, we will send a first BindRequest, receive
      * a response and the, if this response is a challenge, continue by sending a new BindRequest with
@@ -5046,6 +5596,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
                 if ( bindResponse == null )
                 {
+                    // The request may not have been written
+                    checkWriteFailure( bindFuture );
+
                     // We didn't received anything : this is an error
                     if ( LOG.isErrorEnabled() )
                     { 
@@ -5075,6 +5628,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
                 if ( bindResponse == null )
                 {
+                    // The request may not have been written
+                    checkWriteFailure( bindFuture );
+
                     // We didn't received anything : this is an error
                     if ( LOG.isErrorEnabled() )
                     {
@@ -5113,6 +5669,9 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
                     if ( bindResponse == null )
                     {
+                        // The request may not have been written
+                        checkWriteFailure( bindFuture );
+
                         // We didn't received anything : this is an error
                         if ( LOG.isErrorEnabled() )
                         {
@@ -5143,60 +5702,192 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
 
 
     /**
-     * A reusable code block to be used in various bind methods
+     * Sends a request to the server. This method does not wait for the request to be
+     * written : it returns as soon as the request has been queued in the session. A
+     * listener is associated with the write, and if it fails, the future waiting for
+     * the response is cancelled, which wakes up any thread waiting for this response.
      * 
      * @param request The request to send
-     * @throws LdapException If the request was ot properly sent
+     * @throws LdapException If the request can't be sent because the session is closed
      */
     private void writeRequest( Request request ) throws LdapException
     {
+        if ( !ioSession.isConnected() )
+        {
+            // The session has been closed : this is an error
+            if ( LOG.isErrorEnabled() )
+            {
+                LOG.error( I18n.err( I18n.ERR_04118_SOMETHING_WRONG_HAPPENED ) );
+            }
+
+            Exception exception = ( Exception ) ioSession.removeAttribute( EXCEPTION_KEY );
+
+            if ( exception instanceof LdapException )
+            {
+                throw ( LdapException ) exception;
+            }
+            else if ( exception != null )
+            {
+                throw new InvalidConnectionException( exception.getMessage(), exception );
+            }
+
+            throw new InvalidConnectionException( I18n.err( I18n.ERR_04160_SESSION_HAS_BEEN_CLOSED ) );
+        }
+
+        int requestId = request.getMessageId();
+        pendingWrites.incrementAndGet();
+
+        if ( config.getOperationObserver() != null )
+        {
+            trackerMap.put( requestId, new OperationTracker( request.getType(), requestId ) );
+        }
+
         // Send the request to the server
         WriteFuture writeFuture = ioSession.write( request );
 
-        long localTimeout = timeout;
+        writeFuture.addListener( future -> writeCompleted( ( WriteFuture ) future, requestId ) );
+    }
+
 
-        while ( localTimeout > 0 )
+    /**
+     * Called when a request has been written, or when the write has failed. In this case,
+     * the associated ResponseFuture is cancelled.
+     * 
+     * @param writeFuture The completed write future
+     * @param requestId The written request's message ID
+     */
+    private void writeCompleted( WriteFuture writeFuture, int requestId )
+    {
+        pendingWrites.decrementAndGet();
+
+        if ( writeFuture.isWritten() )
         {
-            // Wait only 100 ms
-            boolean done = writeFuture.awaitUninterruptibly( 100 );
+            OperationTracker tracker = trackerMap.get( requestId );
 
-            if ( done )
+            if ( tracker != null )
             {
-                return;
+                tracker.written = System.nanoTime();
             }
 
-            // Wait for the message to be sent to the server
-            if ( !ioSession.isConnected() )
-            {
-                // We didn't received anything : this is an error
-                if ( LOG.isErrorEnabled() )
-                {
-                    LOG.error( I18n.err( I18n.ERR_04118_SOMETHING_WRONG_HAPPENED ) );
-                }
+            return;
+        }
 
-                Exception exception = ( Exception ) ioSession.removeAttribute( EXCEPTION_KEY );
+        operationCompleted( requestId, null );
 
-                if ( exception instanceof LdapException )
-                {
-                    throw ( LdapException ) exception;
-                }
-                else if ( exception != null )
-                {
-                    throw new InvalidConnectionException( exception.getMessage(), exception );
-                }
+        Throwable cause = writeFuture.getException();
 
-                throw new InvalidConnectionException( I18n.err( I18n.ERR_04160_SESSION_HAS_BEEN_CLOSED ) );
-            }
+        if ( LOG.isErrorEnabled() )
+        {
+            LOG.error( I18n.err( I18n.ERR_04183_REQUEST_WRITE_FAILED, requestId ), cause );
+        }
 
-            localTimeout -= 100;
+        ResponseFuture<? extends Response> responseFuture = getFromFutureMap( requestId );
+
+        if ( responseFuture != null )
+        {
+            responseFuture.setCause( cause );
+            responseFuture.cancel();
         }
+    }
 
-        if ( LOG.isErrorEnabled() )
+
+    /**
+     * Throws the failure which has cancelled a future when its request couldn't be written.
+     * It's called by the synchronous operations which haven't received any response, to
+     * report this failure instead of a timeout.
+     * 
+     * @param responseFuture The future which hasn't received any response
+     * @throws LdapException The write failure, if any
+     */
+    private void checkWriteFailure( ResponseFuture<? extends Response> responseFuture ) throws LdapException
+    {
+        Throwable cause = responseFuture.getCause();
+
+        if ( cause instanceof LdapException )
         {
-            LOG.error( I18n.err( I18n.ERR_04119_TIMEOUT ) );
+            throw ( LdapException ) cause;
+        }
+        else if ( cause != null )
+        {
+            throw new InvalidConnectionException( cause.getMessage(), cause );
         }
-        
-        throw new LdapException( TIME_OUT_ERROR );
+    }
+
+
+    /**
+     * Updates the tracker of an observed operation when one of its responses is received,
+     * and notifies the observer if it's the final response.
+     * 
+     * @param response The received response
+     */
+    private void operationResponseReceived( Response response )
+    {
+        OperationTracker tracker = trackerMap.get( response.getMessageId() );
+
+        if ( tracker == null )
+        {
+            return;
+        }
+
+        tracker.responseReceived();
+
+        if ( ( response instanceof ResultResponse ) && !( response instanceof IntermediateResponse ) )
+        {
+            operationCompleted( response.getMessageId(),
+                ( ( ResultResponse ) response ).getLdapResult().getResultCode() );
+        }
+    }
+
+
+    /**
+     * Notifies the observer that an operation has completed, if it's observed.
+     * 
+     * @param requestId The operation's message ID
+     * @param resultCode The final result code, null if the operation has been abandoned or
+     * the request couldn't be written
+     */
+    private void operationCompleted( int requestId, ResultCodeEnum resultCode )
+    {
+        OperationTracker tracker = trackerMap.remove( requestId );
+        LdapOperationObserver observer = config.getOperationObserver();
+
+        if ( ( tracker == null ) || ( observer == null ) )
+        {
+            return;
+        }
+
+        try
+        {
+            observer.operationCompleted( tracker.toEvent( resultCode ) );
+        }
+        catch ( RuntimeException re )
+        {
+            if ( LOG.isWarnEnabled() )
+            {
+                LOG.warn( I18n.err( I18n.ERR_04196_OPERATION_OBSERVER_FAILED, requestId ), re );
+            }
+        }
+    }
+
+
+    /**
+     * Gives back the number of requests which have been queued in the session, but
+     * which have not yet been written to the socket.
+     * 
+     * @return The number of pending writes
+     */
+    public int getWriteQueueDepth()
+    {
+        return pendingWrites.get();
+    }
+
+
+    /**
+     * @return The session used to communicate with the server, null if the connection isn't opened
+     */
+    IoSession getIoSession()
+    {
+        return ioSession;
     }
 
 
@@ -5334,6 +6025,18 @@ public class LdapNetworkConnection extends AbstractLdapConnection implements Lda
         // Check if it's a SSLevent 
         if ( ( event instanceof SslEvent ) && ( ( SslEvent ) event == SslEvent.SECURED ) )
         {
+            LdapTlsContext tlsContext = config.getTlsContext();
+
+            if ( tlsContext != null )
+            {
+                SslFilter sslFilter = ( SslFilter ) session.getFilterChain().get( SSL_FILTER_KEY );
+
+                if ( sslFilter != null )
+                {
+                    tlsContext.handshakeCompleted( sslFilter.getSslSession( session ) );
+                }
+            }
+
             handshakeFuture.secured();
         }
     }
@@ -0,0 +1,329 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import java.io.Closeable;
+import java.net.SocketAddress;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.mina.core.future.ConnectFuture;
+import org.apache.mina.core.service.IoConnector;
+import org.apache.mina.core.service.IoHandler;
+import org.apache.mina.core.session.IdleStatus;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.FilterEvent;
+import org.apache.mina.transport.socket.SocketSessionConfig;
+import org.apache.mina.transport.socket.nio.NioSocketConnector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A NIO connector which can be shared by many {@link LdapNetworkConnection} instances.
+ * <br>
+ * By default, each LdapNetworkConnection creates its own connector, with its own
+ * selector thread and its own I/O processor. When many connections are opened (typically
+ * in a {@link LdapConnectionPool}), it's much more efficient to multiplex all the
+ * sessions over a few I/O processors. This is what this class does : it holds a single
+ * {@link NioSocketConnector}, which default number of processors is the number of
+ * available cores, and dispatches the I/O events to the connection owning the session.
+ * <br>
+ * In order to use it, set it in the {@link LdapConnectionConfig} :
+ * <pre>
+ * LdapSharedConnector sharedConnector = new LdapSharedConnector();
+ * LdapConnectionConfig config = new LdapConnectionConfig();
+ * config.setSharedConnector( sharedConnector );
+ *
+ * LdapConnectionPool pool = new LdapConnectionPool(
+ *     new DefaultPoolableLdapConnectionFactory( new DefaultLdapConnectionFactory( config ) ) );
+ * ...
+ * pool.close();
+ * sharedConnector.close();
+ * </pre>
+ * Every connection created with this configuration will use the shared connector. The
+ * shared connector is not owned by the connections : it has to be closed by the application
+ * once all the connections have been closed.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LdapSharedConnector implements Closeable
+{
+    /** The logger for this class */
+    private static final Logger LOG = LoggerFactory.getLogger( LdapSharedConnector.class );
+
+    /** The session attribute storing the handler (ie the connection) this session belongs to */
+    private static final String HANDLER_KEY = LdapSharedConnector.class.getName() + ".handler";
+
+    /** The underlying connector */
+    private final NioSocketConnector connector;
+
+
+    /**
+     * Creates a new instance of LdapSharedConnector, using as many I/O processors
+     * as we have available cores.
+     */
+    public LdapSharedConnector()
+    {
+        this( Runtime.getRuntime().availableProcessors() );
+    }
+
+
+    /**
+     * Creates a new instance of LdapSharedConnector.
+     *
+     * @param processorCount The number of I/O processors (ie selector threads) to use
+     */
+    public LdapSharedConnector( int processorCount )
+    {
+        if ( processorCount < 1 )
+        {
+            throw new IllegalArgumentException( I18n.err( I18n.ERR_04181_INVALID_PROCESSOR_COUNT, processorCount ) );
+        }
+
+        connector = new NioSocketConnector( processorCount );
+        connector.getSessionConfig().setReuseAddress( true );
+        connector.setHandler( new SessionDispatcher() );
+    }
+
+
+    /**
+     * @return The underlying connector
+     */
+    public IoConnector getConnector()
+    {
+        return connector;
+    }
+
+
+    /**
+     * @return The number of sessions currently managed by this connector
+     */
+    public int getManagedSessionCount()
+    {
+        return connector.getManagedSessionCount();
+    }
+
+
+    /**
+     * Tells if this connector has been closed
+     *
+     * @return <tt>true</tt> if the connector has been closed, or is being closed
+     */
+    public boolean isClosed()
+    {
+        return connector.isDisposing() || connector.isDisposed();
+    }
+
+
+    /**
+     * Connect to a remote server. The created session will be associated with the given handler,
+     * which will receive all the events for this session.
+     *
+     * @param address The remote address
+     * @param handler The handler for the created session
+     * @param socketSessionConfig The specific socket configuration, if any
+     * @return The connection future
+     */
+    ConnectFuture connect( SocketAddress address, IoHandler handler, SocketSessionConfig socketSessionConfig )
+    {
+        return connector.connect( address, ( session, future ) ->
+        {
+            session.setAttribute( HANDLER_KEY, handler );
+
+            if ( socketSessionConfig != null )
+            {
+                session.getConfig().setAll( socketSessionConfig );
+            }
+        } );
+    }
+
+
+    /**
+     * Close the connector. All the sessions still managed by this connector will be closed.
+     */
+    @Override
+    public void close()
+    {
+        if ( !isClosed() )
+        {
+            connector.dispose();
+        }
+    }
+
+
+    /**
+     * The IoHandler dispatching the events to the handler associated with each session
+     */
+    private static final class SessionDispatcher implements IoHandler
+    {
+        /**
+         * Get the handler associated with a session
+         */
+        private IoHandler getHandler( IoSession session )
+        {
+            IoHandler handler = ( IoHandler ) session.getAttribute( HANDLER_KEY );
+
+            if ( handler == null )
+            {
+                // This session has not been created through the connect() method. Kill it.
+                LOG.error( I18n.err( I18n.ERR_04182_NO_HANDLER_FOR_SESSION, session ) );
+                session.closeNow();
+            }
+
+            return handler;
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void sessionCreated( IoSession session ) throws Exception
+        {
+            IoHandler handler = getHandler( session );
+
+            if ( handler != null )
+            {
+                handler.sessionCreated( session );
+            }
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void sessionOpened( IoSession session ) throws Exception
+        {
+            IoHandler handler = getHandler( session );
+
+            if ( handler != null )
+            {
+                handler.sessionOpened( session );
+            }
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void sessionClosed( IoSession session ) throws Exception
+        {
+            IoHandler handler = getHandler( session );
+
+            if ( handler != null )
+            {
+                handler.sessionClosed( session );
+            }
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void sessionIdle( IoSession session, IdleStatus status ) throws Exception
+        {
+            IoHandler handler = getHandler( session );
+
+            if ( handler != null )
+            {
+                handler.sessionIdle( session, status );
+            }
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void exceptionCaught( IoSession session, Throwable cause ) throws Exception
+        {
+            IoHandler handler = getHandler( session );
+
+            if ( handler != null )
+            {
+                handler.exceptionCaught( session, cause );
+            }
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void messageReceived( IoSession session, Object message ) throws Exception
+        {
+            IoHandler handler = getHandler( session );
+
+            if ( handler != null )
+            {
+                handler.messageReceived( session, message );
+            }
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void messageSent( IoSession session, Object message ) throws Exception
+        {
+            IoHandler handler = getHandler( session );
+
+            if ( handler != null )
+            {
+                handler.messageSent( session, message );
+            }
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void inputClosed( IoSession session ) throws Exception
+        {
+            IoHandler handler = getHandler( session );
+
+            if ( handler != null )
+            {
+                handler.inputClosed( session );
+            }
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void event( IoSession session, FilterEvent event ) throws Exception
+        {
+            IoHandler handler = getHandler( session );
+
+            if ( handler != null )
+            {
+                handler.event( session, event );
+            }
+        }
+    }
+}
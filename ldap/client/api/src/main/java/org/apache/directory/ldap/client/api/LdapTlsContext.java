@@ -0,0 +1,308 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+
+import org.apache.directory.api.i18n.I18n;
+
+
+/**
+ * A TLS context which can be shared by many {@link LdapNetworkConnection} instances.
+ * <br>
+ * By default, each LdapNetworkConnection creates its own {@link SSLContext} when it establishes
+ * a LDAPS connection or when it starts TLS. As the TLS sessions are cached by the SSLContext,
+ * no connection can resume a session negotiated by another one, and each new connection goes
+ * through a full handshake. When this class is set in the {@link LdapConnectionConfig}, all the
+ * connections using this configuration share a single SSLContext, and its client session cache :
+ * <pre>
+ * LdapConnectionConfig config = new LdapConnectionConfig();
+ * config.setUseSsl( true );
+ * config.setTlsContext( new LdapTlsContext() );
+ * </pre>
+ * The connections tell the SSL engine which server they are connected to, so that a cached session
+ * can be resumed, either using its session ID, or using the session ticket the server has sent
+ * (the session tickets are handled by the JSSE provider, see the
+ * <tt>jdk.tls.client.enableSessionTicketExtension</tt> system property).
+ * <br>
+ * Unless it has been given one, the SSLContext is created the first time a connection needs it,
+ * using the protocol, the key managers, the trust managers and the secure random of this
+ * connection's configuration. The SSL parameters of the configurations later using this shared
+ * context are ignored.
+ * <br>
+ * The number of handshakes, and the number of handshakes which have resumed a cached session,
+ * are counted. A handshake has resumed a session when the negotiated session has the ID of a
+ * session already negotiated through this context.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LdapTlsContext
+{
+    /** The default number of cached TLS sessions */
+    public static final int DEFAULT_SESSION_CACHE_SIZE = 1000;
+
+    /** The default lifetime of a cached TLS session, in seconds */
+    public static final int DEFAULT_SESSION_TIMEOUT = 3600;
+
+    /** The number of cached sessions, 0 if unbounded */
+    private final int sessionCacheSize;
+
+    /** The lifetime of a cached session, in seconds, 0 if unbounded */
+    private final int sessionTimeout;
+
+    /** The shared SSLContext */
+    private volatile SSLContext sslContext;
+
+    /** The number of completed handshakes */
+    private final LongAdder handshakes = new LongAdder();
+
+    /** The number of completed handshakes which resumed a cached session */
+    private final LongAdder resumptions = new LongAdder();
+
+    /** The IDs of the negotiated sessions, used to tell if a handshake has resumed one of them */
+    private final SessionIds sessionIds;
+
+
+    /**
+     * The IDs of the most recently negotiated sessions, bounded like the session cache.
+     */
+    private static final class SessionIds extends LinkedHashMap<ByteBuffer, Boolean>
+    {
+        private static final long serialVersionUID = 1L;
+
+        /** The maximum number of IDs */
+        private final int maxSize;
+
+
+        SessionIds( int maxSize )
+        {
+            super( 16, 0.75f, true );
+            this.maxSize = maxSize;
+        }
+
+
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<ByteBuffer, Boolean> eldest )
+        {
+            return size() > maxSize;
+        }
+    }
+
+
+    /**
+     * Creates a new instance of LdapTlsContext, caching up to {@link #DEFAULT_SESSION_CACHE_SIZE}
+     * sessions for {@link #DEFAULT_SESSION_TIMEOUT} seconds.
+     */
+    public LdapTlsContext()
+    {
+        this( DEFAULT_SESSION_CACHE_SIZE, DEFAULT_SESSION_TIMEOUT );
+    }
+
+
+    /**
+     * Creates a new instance of LdapTlsContext.
+     *
+     * @param sessionCacheSize The maximum number of cached TLS sessions, 0 if unbounded
+     * @param sessionTimeout The lifetime of a cached TLS session, in seconds, 0 if unbounded
+     */
+    public LdapTlsContext( int sessionCacheSize, int sessionTimeout )
+    {
+        if ( ( sessionCacheSize < 0 ) || ( sessionTimeout < 0 ) )
+        {
+            throw new IllegalArgumentException(
+                I18n.err( I18n.ERR_04188_INVALID_TLS_SESSION_CACHE, sessionCacheSize, sessionTimeout ) );
+        }
+
+        this.sessionCacheSize = sessionCacheSize;
+        this.sessionTimeout = sessionTimeout;
+        sessionIds = new SessionIds( sessionCacheSize == 0 ? DEFAULT_SESSION_CACHE_SIZE : sessionCacheSize );
+    }
+
+
+    /**
+     * Creates a new instance of LdapTlsContext sharing an already initialized SSLContext.
+     * Its client session cache is left as is.
+     *
+     * @param sslContext The SSLContext to share
+     */
+    public LdapTlsContext( SSLContext sslContext )
+    {
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+
+        this.sslContext = sslContext;
+        this.sessionCacheSize = sessionContext.getSessionCacheSize();
+        this.sessionTimeout = sessionContext.getSessionTimeout();
+        sessionIds = new SessionIds( sessionCacheSize == 0 ? DEFAULT_SESSION_CACHE_SIZE : sessionCacheSize );
+    }
+
+
+    /**
+     * Gets the shared SSLContext, creating it if needed.
+     *
+     * @param config The configuration used to initialize the SSLContext, if it hasn't been created yet
+     * @return The shared SSLContext
+     * @throws GeneralSecurityException If the SSLContext can't be created
+     */
+    public SSLContext getSslContext( LdapConnectionConfig config ) throws GeneralSecurityException
+    {
+        SSLContext context = sslContext;
+
+        if ( context == null )
+        {
+            synchronized ( this )
+            {
+                context = sslContext;
+
+                if ( context == null )
+                {
+                    context = SSLContext.getInstance( config.getSslProtocol() );
+                    context.init( config.getKeyManagers(), config.getTrustManagers(), config.getSecureRandom() );
+
+                    SSLSessionContext sessionContext = context.getClientSessionContext();
+                    sessionContext.setSessionCacheSize( sessionCacheSize );
+                    sessionContext.setSessionTimeout( sessionTimeout );
+
+                    sslContext = context;
+                }
+            }
+        }
+
+        return context;
+    }
+
+
+    /**
+     * @return The maximum number of cached TLS sessions, 0 if unbounded
+     */
+    public int getSessionCacheSize()
+    {
+        return sessionCacheSize;
+    }
+
+
+    /**
+     * @return The lifetime of a cached TLS session, in seconds, 0 if unbounded
+     */
+    public int getSessionTimeout()
+    {
+        return sessionTimeout;
+    }
+
+
+    /**
+     * Records a completed handshake. The session has been resumed if its ID is the ID
+     * of a session previously negotiated through this context.
+     *
+     * @param session The negotiated TLS session
+     */
+    public void handshakeCompleted( SSLSession session )
+    {
+        if ( session != null )
+        {
+            byte[] id = session.getId();
+            boolean resumed = false;
+
+            if ( ( id != null ) && ( id.length > 0 ) )
+            {
+                synchronized ( sessionIds )
+                {
+                    resumed = sessionIds.put( ByteBuffer.wrap( id ), Boolean.TRUE ) != null;
+                }
+            }
+
+            handshakeCompleted( resumed );
+        }
+    }
+
+
+    /**
+     * Records a completed handshake.
+     *
+     * @param resumed Tells if the handshake has resumed a cached session
+     */
+    void handshakeCompleted( boolean resumed )
+    {
+        handshakes.increment();
+
+        if ( resumed )
+        {
+            resumptions.increment();
+        }
+    }
+
+
+    /**
+     * @return The number of completed TLS handshakes
+     */
+    public long getHandshakeCount()
+    {
+        return handshakes.sum();
+    }
+
+
+    /**
+     * @return The number of completed TLS handshakes which resumed a cached session
+     */
+    public long getResumedHandshakeCount()
+    {
+        return resumptions.sum();
+    }
+
+
+    /**
+     * @return The ratio of completed TLS handshakes which resumed a cached session, between 0 and 1
+     */
+    public double getResumptionRate()
+    {
+        long handshakeCount = handshakes.sum();
+
+        return handshakeCount == 0 ? 0d : ( double ) resumptions.sum() / handshakeCount;
+    }
+
+
+    /**
+     * Resets the handshake counters.
+     */
+    public void resetCounters()
+    {
+        handshakes.reset();
+        resumptions.reset();
+    }
+
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "LdapTlsContext[sessionCacheSize=" + sessionCacheSize + ", sessionTimeout=" + sessionTimeout
+            + ", handshakes=" + getHandshakeCount() + ", resumed=" + getResumedHandshakeCount() + "]";
+    }
+}
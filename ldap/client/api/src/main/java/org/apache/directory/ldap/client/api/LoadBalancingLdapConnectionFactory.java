@@ -0,0 +1,665 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.codec.api.LdapApiService;
+import org.apache.directory.api.ldap.model.exception.LdapAuthenticationException;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A LdapConnectionFactory spreading the connections over many replicas of a directory.
+ * <br>
+ * Each replica is described by its own {@link LdapConnectionConfig}. A new connection is opened on
+ * the server with the best score, computed from :
+ * <ul>
+ * <li>the observed latency of the connections and binds on this server (a moving average)</li>
+ * <li>the observed error rate (a moving average too)</li>
+ * <li>the number of connections currently opened on this server by this factory</li>
+ * </ul>
+ * Two servers are picked at random, and the best one is used, so that the connections aren't all
+ * sent to the same server between two updates of the scores. If the connection can't be opened,
+ * the next best server is tried.
+ * <br>
+ * A server failing too many times in a row is ejected. Unless the probe interval is 0, all the
+ * servers are probed in the background, by opening and binding a connection : the probes refresh
+ * the latency of the healthy servers, and bring the ejected servers which answer again back. A
+ * server being brought back only gets a fraction of the new connections, growing up to a full share
+ * during the slow start time.
+ * <pre>
+ * LoadBalancingLdapConnectionFactory factory = new LoadBalancingLdapConnectionFactory(
+ *     Arrays.asList( replica1Config, replica2Config, replica3Config ), 10000L );
+ * LdapConnectionPool pool = new LdapConnectionPool( new DefaultPoolableLdapConnectionFactory( factory ) );
+ * ...
+ * pool.close();
+ * factory.close();
+ * </pre>
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LoadBalancingLdapConnectionFactory implements LdapConnectionFactory, Closeable
+{
+    /** The logger for this class */
+    private static final Logger LOG = LoggerFactory.getLogger( LoadBalancingLdapConnectionFactory.class );
+
+    /** The default number of consecutive failures ejecting a server */
+    public static final int DEFAULT_MAX_CONSECUTIVE_FAILURES = 3;
+
+    /** The default time during which a server brought back gets a growing share of the connections, in ms */
+    public static final long DEFAULT_SLOW_START_TIME = 30000L;
+
+    /** The weight of a new sample in the moving averages */
+    private static final double SMOOTHING = 0.2d;
+
+    /** The minimal share of the connections given to a server brought back */
+    private static final double MIN_WEIGHT = 0.1d;
+
+    /** The state of a server */
+    public enum ServerState
+    {
+        /** The server gets its full share of the connections */
+        HEALTHY,
+
+        /** The server has been brought back, and gets a growing share of the connections */
+        RECOVERING,
+
+        /** The server failed too many times, it only gets probes */
+        EJECTED
+    }
+
+    /** The servers */
+    private final List<Server> servers;
+
+    /** The scheduler probing the servers, if any */
+    private final ScheduledExecutorService prober;
+
+    /** The number of consecutive failures ejecting a server */
+    private volatile int maxConsecutiveFailures = DEFAULT_MAX_CONSECUTIVE_FAILURES;
+
+    /** The slow start time, in ms */
+    private volatile long slowStartTime = DEFAULT_SLOW_START_TIME;
+
+
+    /**
+     * A replica, and what has been observed about it.
+     */
+    public final class Server
+    {
+        /** The factory creating the connections on this server */
+        private final DefaultLdapConnectionFactory factory;
+
+        /** The server's configuration */
+        private final LdapConnectionConfig config;
+
+        /** The number of opened connections */
+        private final AtomicInteger openedConnections = new AtomicInteger();
+
+        /** The server's state */
+        private ServerState state = ServerState.HEALTHY;
+
+        /** The moving average of the latency, in ms */
+        private double latency;
+
+        /** The moving average of the error rate, between 0 and 1 */
+        private double errorRate;
+
+        /** The number of failures since the last success */
+        private int consecutiveFailures;
+
+        /** The time the server has been brought back, in ns */
+        private long recoveryStart;
+
+
+        Server( LdapConnectionConfig config )
+        {
+            this.config = config;
+            this.factory = new DefaultLdapConnectionFactory( config );
+        }
+
+
+        /**
+         * @return The server's configuration
+         */
+        public LdapConnectionConfig getConfig()
+        {
+            return config;
+        }
+
+
+        /**
+         * @return The server's state
+         */
+        public synchronized ServerState getState()
+        {
+            if ( ( state == ServerState.RECOVERING ) && ( getWeight() >= 1d ) )
+            {
+                state = ServerState.HEALTHY;
+            }
+
+            return state;
+        }
+
+
+        /**
+         * @return The moving average of the latency of the connections and binds, in ms
+         */
+        public synchronized double getLatency()
+        {
+            return latency;
+        }
+
+
+        /**
+         * @return The moving average of the error rate, between 0 and 1
+         */
+        public synchronized double getErrorRate()
+        {
+            return errorRate;
+        }
+
+
+        /**
+         * @return The number of connections opened by the factory on this server, and not yet closed
+         */
+        public int getOpenedConnectionCount()
+        {
+            return openedConnections.get();
+        }
+
+
+        /**
+         * @return The share of the connections this server can get, between 0 and 1
+         */
+        public synchronized double getWeight()
+        {
+            switch ( state )
+            {
+                case EJECTED:
+                    return 0d;
+
+                case RECOVERING:
+                    long elapsed = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - recoveryStart );
+
+                    return elapsed >= slowStartTime ? 1d : Math.max( MIN_WEIGHT, ( double ) elapsed / slowStartTime );
+
+                default:
+                    return 1d;
+            }
+        }
+
+
+        /**
+         * @return The server's score : the lower, the better
+         */
+        synchronized double getScore()
+        {
+            double weight = state == ServerState.EJECTED ? MIN_WEIGHT : getWeight();
+
+            return ( latency + 1d ) * ( openedConnections.get() + 1 ) * ( 1d + 4d * errorRate ) / weight;
+        }
+
+
+        /**
+         * Records a successful connection
+         */
+        synchronized void success( long elapsedNanos )
+        {
+            double elapsed = elapsedNanos / 1000000d;
+
+            latency = latency == 0d ? elapsed : latency + SMOOTHING * ( elapsed - latency );
+            errorRate -= SMOOTHING * errorRate;
+            consecutiveFailures = 0;
+
+            if ( state == ServerState.EJECTED )
+            {
+                LOG.info( I18n.msg( I18n.MSG_04180_SERVER_RECOVERING, config.getLdapHost(), config.getLdapPort() ) );
+                state = slowStartTime > 0L ? ServerState.RECOVERING : ServerState.HEALTHY;
+                recoveryStart = System.nanoTime();
+            }
+        }
+
+
+        /**
+         * Records a failed connection, ejecting the server if it fails too often
+         */
+        synchronized void failure()
+        {
+            errorRate += SMOOTHING * ( 1d - errorRate );
+            consecutiveFailures++;
+
+            if ( ( state != ServerState.EJECTED ) && ( consecutiveFailures >= maxConsecutiveFailures ) )
+            {
+                LOG.warn( I18n.msg( I18n.MSG_04179_SERVER_EJECTED, config.getLdapHost(), config.getLdapPort(),
+                    consecutiveFailures ) );
+                state = ServerState.EJECTED;
+            }
+        }
+
+
+        /**
+         * Counts a connection opened on this server, until it's closed
+         */
+        LdapConnection track( LdapConnection connection )
+        {
+            openedConnections.incrementAndGet();
+
+            if ( connection instanceof LdapNetworkConnection )
+            {
+                AtomicBoolean closed = new AtomicBoolean();
+
+                ( ( LdapNetworkConnection ) connection ).addConnectionClosedEventListener( () ->
+                {
+                    if ( closed.compareAndSet( false, true ) )
+                    {
+                        openedConnections.decrementAndGet();
+                    }
+                } );
+            }
+
+            return connection;
+        }
+
+
+        /**
+         * Opens and binds a connection to check that the server answers
+         */
+        void probe()
+        {
+            LdapConnection connection = factory.newUnboundLdapConnection();
+            long start = System.nanoTime();
+
+            try
+            {
+                factory.bindConnection( connection );
+                success( System.nanoTime() - start );
+            }
+            catch ( LdapAuthenticationException e )
+            {
+                success( System.nanoTime() - start );
+            }
+            catch ( LdapException e )
+            {
+                failure();
+            }
+            finally
+            {
+                closeQuietly( connection );
+            }
+        }
+
+
+        /**
+         * @see Object#toString()
+         */
+        @Override
+        public String toString()
+        {
+            return config.getLdapHost() + ":" + config.getLdapPort() + "[" + getState() + ", latency="
+                + getLatency() + "ms, errorRate=" + getErrorRate() + ", opened=" + getOpenedConnectionCount() + "]";
+        }
+    }
+
+
+    /**
+     * Creates a new instance of LoadBalancingLdapConnectionFactory.
+     *
+     * @param configs The configurations of the replicas
+     * @param probeInterval The interval between two probes of the servers, in ms, 0 to disable the probes
+     */
+    public LoadBalancingLdapConnectionFactory( List<LdapConnectionConfig> configs, long probeInterval )
+    {
+        if ( ( configs == null ) || configs.isEmpty() )
+        {
+            throw new IllegalArgumentException( I18n.err( I18n.ERR_04195_NO_LDAP_SERVER ) );
+        }
+
+        List<Server> list = new ArrayList<>( configs.size() );
+
+        for ( LdapConnectionConfig config : configs )
+        {
+            list.add( new Server( config ) );
+        }
+
+        servers = Collections.unmodifiableList( list );
+
+        if ( probeInterval > 0L )
+        {
+            prober = Executors.newSingleThreadScheduledExecutor( runnable ->
+            {
+                Thread thread = new Thread( runnable, "LdapServerProber" );
+                thread.setDaemon( true );
+
+                return thread;
+            } );
+
+            prober.scheduleWithFixedDelay( this::probe, probeInterval, probeInterval, TimeUnit.MILLISECONDS );
+        }
+        else
+        {
+            prober = null;
+        }
+    }
+
+
+    /**
+     * Probes all the servers, bringing back the ejected servers which answer again.
+     */
+    public void probe()
+    {
+        for ( Server server : servers )
+        {
+            server.probe();
+        }
+    }
+
+
+    /**
+     * @return The servers, in the order of their configurations
+     */
+    public List<Server> getServers()
+    {
+        return servers;
+    }
+
+
+    /**
+     * Sets the number of consecutive failures ejecting a server.
+     *
+     * @param maxConsecutiveFailures The number of consecutive failures ejecting a server
+     */
+    public void setMaxConsecutiveFailures( int maxConsecutiveFailures )
+    {
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+    }
+
+
+    /**
+     * Sets the time during which a server brought back gets a growing share of the connections.
+     *
+     * @param slowStartTime The slow start time, in ms, 0 to give the server a full share immediately
+     */
+    public void setSlowStartTime( long slowStartTime )
+    {
+        this.slowStartTime = slowStartTime;
+    }
+
+
+    /**
+     * Selects the server to connect to, among the servers not yet tried. The ejected servers
+     * are only selected when all the other servers have been tried.
+     */
+    private Server select( List<Server> tried )
+    {
+        List<Server> candidates = new ArrayList<>( servers.size() );
+
+        for ( Server server : servers )
+        {
+            if ( !tried.contains( server ) && ( server.getState() != ServerState.EJECTED ) )
+            {
+                candidates.add( server );
+            }
+        }
+
+        if ( candidates.isEmpty() )
+        {
+            for ( Server server : servers )
+            {
+                if ( !tried.contains( server ) )
+                {
+                    candidates.add( server );
+                }
+            }
+        }
+
+        switch ( candidates.size() )
+        {
+            case 0:
+                return null;
+
+            case 1:
+                return candidates.get( 0 );
+
+            default:
+                // Pick two servers at random, and keep the best one
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int first = random.nextInt( candidates.size() );
+                int second = random.nextInt( candidates.size() - 1 );
+
+                if ( second >= first )
+                {
+                    second++;
+                }
+
+                Server server1 = candidates.get( first );
+                Server server2 = candidates.get( second );
+
+                return server1.getScore() <= server2.getScore() ? server1 : server2;
+        }
+    }
+
+
+    /**
+     * Finds the server a connection has been created for
+     */
+    private Server getServer( LdapConnection connection )
+    {
+        if ( connection instanceof LdapAsyncConnection )
+        {
+            LdapConnectionConfig config = ( ( LdapAsyncConnection ) connection ).getConfig();
+
+            for ( Server server : servers )
+            {
+                if ( server.config == config )
+                {
+                    return server;
+                }
+            }
+        }
+
+        return servers.get( 0 );
+    }
+
+
+    private static void closeQuietly( LdapConnection connection )
+    {
+        try
+        {
+            connection.close();
+        }
+        catch ( IOException ioe )
+        {
+            LOG.debug( ioe.getMessage(), ioe );
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LdapConnection bindConnection( LdapConnection connection ) throws LdapException
+    {
+        return getServer( connection ).factory.bindConnection( connection );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LdapConnection configureConnection( LdapConnection connection )
+    {
+        return getServer( connection ).factory.configureConnection( connection );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LdapApiService getLdapApiService()
+    {
+        return servers.get( 0 ).factory.getLdapApiService();
+    }
+
+
+    /**
+     * Opens and binds a connection on the best server, trying the other servers if it fails.
+     *
+     * @return A bound connection
+     * @throws LdapException If no server accepted the connection
+     */
+    @Override
+    public LdapConnection newLdapConnection() throws LdapException
+    {
+        List<Server> tried = new ArrayList<>( servers.size() );
+        LdapException failure = null;
+        Server server;
+
+        while ( ( server = select( tried ) ) != null )
+        {
+            tried.add( server );
+            LdapConnection connection = server.factory.newUnboundLdapConnection();
+            long start = System.nanoTime();
+
+            try
+            {
+                // Closes the connection if it fails
+                server.factory.bindConnection( connection );
+                server.success( System.nanoTime() - start );
+
+                return server.track( connection );
+            }
+            catch ( LdapAuthenticationException e )
+            {
+                // The server is fine, the credentials aren't : no need to try another server
+                server.success( System.nanoTime() - start );
+
+                throw e;
+            }
+            catch ( LdapException e )
+            {
+                server.failure();
+                failure = e;
+            }
+        }
+
+        throw failure;
+    }
+
+
+    /**
+     * Opens a connection on the best server, trying the other servers if it fails. If no server
+     * can be connected to, the connection to the best server is returned unconnected.
+     *
+     * @return A connected connection, not bound
+     */
+    @Override
+    public LdapConnection newUnboundLdapConnection()
+    {
+        List<Server> tried = new ArrayList<>( servers.size() );
+        Server server;
+
+        while ( ( server = select( tried ) ) != null )
+        {
+            tried.add( server );
+            LdapConnection connection = server.factory.newUnboundLdapConnection();
+            long start = System.nanoTime();
+
+            try
+            {
+                if ( connection.connect() )
+                {
+                    server.success( System.nanoTime() - start );
+
+                    return server.track( connection );
+                }
+            }
+            catch ( LdapException e )
+            {
+                LOG.debug( e.getMessage(), e );
+            }
+
+            server.failure();
+            closeQuietly( connection );
+        }
+
+        return select( Collections.<Server>emptyList() ).factory.newUnboundLdapConnection();
+    }
+
+
+    /**
+     * Sets the LdapApiService (codec) to be used by the connections created on all the servers.
+     *
+     * @param apiService The codec to use
+     */
+    public void setLdapApiService( LdapApiService apiService )
+    {
+        for ( Server server : servers )
+        {
+            server.factory.setLdapApiService( apiService );
+        }
+    }
+
+
+    /**
+     * Sets the timeout that will be used by all the connections created by this factory.
+     *
+     * @param timeout The timeout in millis.
+     *
+     * @see LdapConnection#setTimeOut(long)
+     */
+    public void setTimeOut( long timeout )
+    {
+        for ( Server server : servers )
+        {
+            server.factory.setTimeOut( timeout );
+        }
+    }
+
+
+    /**
+     * Stops probing the servers. The opened connections are left as is.
+     */
+    @Override
+    public void close()
+    {
+        if ( prober != null )
+        {
+            prober.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,623 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.constants.Loggers;
+import org.apache.directory.api.ldap.model.cursor.AbstractCursor;
+import org.apache.directory.api.ldap.model.cursor.CursorException;
+import org.apache.directory.api.ldap.model.cursor.CursorLdapReferralException;
+import org.apache.directory.api.ldap.model.cursor.EntryCursor;
+import org.apache.directory.api.ldap.model.cursor.InvalidCursorPositionException;
+import org.apache.directory.api.ldap.model.entry.Entry;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.exception.LdapReferralException;
+import org.apache.directory.api.ldap.model.message.Control;
+import org.apache.directory.api.ldap.model.message.Response;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.message.SearchRequest;
+import org.apache.directory.api.ldap.model.message.SearchRequestImpl;
+import org.apache.directory.api.ldap.model.message.SearchResultDone;
+import org.apache.directory.api.ldap.model.message.SearchResultEntry;
+import org.apache.directory.api.ldap.model.message.SearchResultReference;
+import org.apache.directory.api.ldap.model.message.controls.PagedResults;
+import org.apache.directory.api.ldap.model.message.controls.PagedResultsImpl;
+import org.apache.directory.api.util.Strings;
+import org.apache.directory.ldap.client.api.future.SearchFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * An EntryCursor driving a Paged Results search (RFC 2696) : the search request is sent
+ * page by page, each page request carrying the cookie returned by the server with the
+ * previous page, and all the entries are presented through a single cursor. The server
+ * side size limits are then kept whatever the number of entries.
+ * <br>
+ * When prefetching is enabled, the request for the page N+1 is sent as soon as the
+ * server has completed the page N, while the application is still reading it : the
+ * cursor never waits for a full round-trip between two pages. At most two pages are held
+ * in memory.
+ * <br>
+ * The search stops on the first page which is not successful : the result is available
+ * through {@link #getSearchResultDone()}.
+ * <br>
+ * Note: This is a forward only cursor hence the only valid operations are next(), get() and close()
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class PagedEntryCursorImpl extends AbstractCursor<Entry> implements EntryCursor
+{
+    /** A dedicated log for cursors */
+    private static final Logger LOG_CURSOR = LoggerFactory.getLogger( Loggers.CURSOR_LOG.getName() );
+
+    /** The connection used to send the page requests */
+    private final LdapAsyncConnection connection;
+
+    /** The original search request */
+    private final SearchRequest searchRequest;
+
+    /** The number of entries per page */
+    private final int pageSize;
+
+    /** Tells if the next page is requested before the current page has been read */
+    private final boolean prefetch;
+
+    /** The timeout when waiting for a response, in milliseconds */
+    private final long timeout;
+
+    /** The future for the page being read */
+    private SearchFuture currentPage;
+
+    /** The number of the page being read, starting at 1 */
+    private int pageNumber;
+
+    /** The prefetched page, if any. Guarded by this */
+    private SearchFuture nextPage;
+
+    /** The number of pages requested so far. Guarded by this */
+    private int requestedPages;
+
+    /** The cookie of the last completed page, until the next page is requested. Guarded by this */
+    private byte[] pendingCookie;
+
+    /** Set when the cursor has been closed. Guarded by this */
+    private boolean released;
+
+    /** The current response */
+    private Response response;
+
+    /** The final SearchResultDone */
+    private SearchResultDone searchResultDone;
+
+    /** The underlying messageId */
+    private int messageId;
+
+
+    /**
+     * Instantiates a new paged entry cursor, and sends the request for the first page.
+     *
+     * @param connection The connection to use
+     * @param searchRequest The search request. It won't be modified
+     * @param pageSize The number of entries per page
+     * @param prefetch Tells if the next page is requested before the current page has been read
+     * @param timeout The timeout when waiting for a response, in milliseconds
+     * @throws LdapException If the first page request can't be sent
+     */
+    public PagedEntryCursorImpl( LdapAsyncConnection connection, SearchRequest searchRequest, int pageSize,
+        boolean prefetch, long timeout ) throws LdapException
+    {
+        if ( pageSize <= 0 )
+        {
+            throw new IllegalArgumentException( I18n.err( I18n.ERR_04187_INVALID_PAGE_SIZE, pageSize ) );
+        }
+
+        if ( LOG_CURSOR.isDebugEnabled() )
+        {
+            LOG_CURSOR.debug( I18n.msg( I18n.MSG_04161_CREATING_ENTRY_CURSOR, this ) );
+        }
+
+        this.connection = connection;
+        this.searchRequest = searchRequest;
+        this.pageSize = pageSize;
+        this.prefetch = prefetch;
+        this.timeout = timeout;
+        messageId = -1;
+
+        synchronized ( this )
+        {
+            currentPage = sendPage( Strings.EMPTY_BYTES );
+        }
+
+        pageNumber = 1;
+    }
+
+
+    /**
+     * Creates the request for a page, copying the original request
+     */
+    static SearchRequest newPageRequest( SearchRequest searchRequest, int size, byte[] cookie ) throws LdapException
+    {
+        SearchRequest pageRequest = new SearchRequestImpl();
+        pageRequest.setBase( searchRequest.getBase() );
+        pageRequest.setScope( searchRequest.getScope() );
+        pageRequest.setDerefAliases( searchRequest.getDerefAliases() );
+        pageRequest.setSizeLimit( searchRequest.getSizeLimit() );
+        pageRequest.setTimeLimit( searchRequest.getTimeLimit() );
+        pageRequest.setTypesOnly( searchRequest.getTypesOnly() );
+        pageRequest.setFilter( searchRequest.getFilter() );
+        pageRequest.addAttributes( searchRequest.getAttributes().toArray( Strings.EMPTY_STRING_ARRAY ) );
+
+        if ( searchRequest.isIgnoreReferrals() )
+        {
+            pageRequest.ignoreReferrals();
+        }
+        else if ( searchRequest.isFollowReferrals() )
+        {
+            pageRequest.followReferrals();
+        }
+
+        for ( Control control : searchRequest.getControls().values() )
+        {
+            if ( !PagedResults.OID.equals( control.getOid() ) )
+            {
+                pageRequest.addControl( control );
+            }
+        }
+
+        PagedResults pagedResults = new PagedResultsImpl();
+        pagedResults.setSize( size );
+        pagedResults.setCookie( cookie );
+        pageRequest.addControl( pagedResults );
+
+        return pageRequest;
+    }
+
+
+    /**
+     * Sends the request for the next page. Must be called while holding the lock.
+     */
+    private SearchFuture sendPage( byte[] cookie ) throws LdapException
+    {
+        SearchFuture page = connection.searchAsync( newPageRequest( searchRequest, pageSize, cookie ) );
+        requestedPages++;
+        pendingCookie = null;
+
+        if ( prefetch )
+        {
+            int number = requestedPages;
+            page.toCompletionStage().thenAccept( done ->
+            {
+                if ( done instanceof SearchResultDone )
+                {
+                    prefetch( number, ( SearchResultDone ) done );
+                }
+            } );
+        }
+
+        return page;
+    }
+
+
+    /**
+     * Requests the page following the given completed page, if it has not already been
+     * requested. Called by the I/O thread as soon as a page is completed.
+     */
+    private synchronized void prefetch( int completedPage, SearchResultDone done )
+    {
+        if ( released || ( requestedPages != completedPage ) )
+        {
+            return;
+        }
+
+        byte[] cookie = getCookie( done );
+
+        if ( ( done.getLdapResult().getResultCode() != ResultCodeEnum.SUCCESS ) || Strings.isEmpty( cookie ) )
+        {
+            return;
+        }
+
+        try
+        {
+            nextPage = sendPage( cookie );
+        }
+        catch ( LdapException le )
+        {
+            // The cursor will send the request again when it needs the page, and get the error
+            pendingCookie = cookie;
+
+            if ( LOG_CURSOR.isDebugEnabled() )
+            {
+                LOG_CURSOR.debug( le.getMessage(), le );
+            }
+        }
+    }
+
+
+    /**
+     * Gets the future of the page following the current one, sending its request if it
+     * has not been prefetched.
+     */
+    private synchronized SearchFuture takeNextPage( byte[] cookie ) throws LdapException
+    {
+        SearchFuture page;
+
+        if ( ( nextPage != null ) && ( requestedPages == pageNumber + 1 ) )
+        {
+            page = nextPage;
+        }
+        else
+        {
+            try
+            {
+                page = sendPage( cookie );
+            }
+            catch ( LdapException le )
+            {
+                // The server still holds the state of the current page
+                pendingCookie = cookie;
+
+                throw le;
+            }
+        }
+
+        nextPage = null;
+        pageNumber++;
+
+        return page;
+    }
+
+
+    /**
+     * Gets the cookie returned with a page, or null if there is none
+     */
+    static byte[] getCookie( SearchResultDone done )
+    {
+        Control control = done.getControl( PagedResults.OID );
+
+        if ( control instanceof PagedResults )
+        {
+            return ( ( PagedResults ) control ).getCookie();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean next() throws LdapException, CursorException
+    {
+        if ( searchResultDone != null )
+        {
+            response = null;
+
+            return false;
+        }
+
+        try
+        {
+            while ( true )
+            {
+                response = currentPage.get( timeout, TimeUnit.MILLISECONDS );
+
+                if ( response == null )
+                {
+                    throw new LdapException( LdapNetworkConnection.TIME_OUT_ERROR );
+                }
+
+                messageId = response.getMessageId();
+
+                if ( ( response instanceof SearchResultEntry ) || ( response instanceof SearchResultReference ) )
+                {
+                    return true;
+                }
+
+                if ( response instanceof SearchResultDone )
+                {
+                    SearchResultDone done = ( SearchResultDone ) response;
+                    byte[] cookie = getCookie( done );
+
+                    if ( ( done.getLdapResult().getResultCode() != ResultCodeEnum.SUCCESS )
+                        || Strings.isEmpty( cookie ) )
+                    {
+                        // This was the last page
+                        searchResultDone = done;
+                        response = null;
+
+                        return false;
+                    }
+
+                    currentPage = takeNextPage( cookie );
+                }
+            }
+        }
+        catch ( Exception e )
+        {
+            LdapException ldapException = new LdapException( LdapNetworkConnection.NO_RESPONSE_ERROR );
+            ldapException.initCause( e );
+
+            // close the cursor
+            try
+            {
+                close( ldapException );
+            }
+            catch ( IOException ioe )
+            {
+                throw new LdapException( ioe.getMessage(), ioe );
+            }
+
+            throw ldapException;
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry get() throws CursorException
+    {
+        if ( !available() )
+        {
+            throw new InvalidCursorPositionException();
+        }
+
+        if ( response instanceof SearchResultReference )
+        {
+            try
+            {
+                throw new LdapReferralException( ( ( SearchResultReference ) response ).getReferral().getLdapUrls() );
+            }
+            catch ( LdapReferralException lre )
+            {
+                throw new CursorLdapReferralException( lre );
+            }
+        }
+
+        return ( ( SearchResultEntry ) response ).getEntry();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SearchResultDone getSearchResultDone()
+    {
+        return searchResultDone;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean available()
+    {
+        return response != null;
+    }
+
+
+    /**
+     * @return The number of the page being read, starting at 1
+     */
+    public int getPageNumber()
+    {
+        return pageNumber;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        close( null );
+    }
+
+
+    /**
+     * Closes the cursor. If the search is not finished, the running page requests are
+     * abandoned, and if the server is holding the state of a completed page, a request with
+     * a size of 0 is sent to let it release its resources.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void close( Exception cause ) throws IOException
+    {
+        if ( LOG_CURSOR.isDebugEnabled() )
+        {
+            LOG_CURSOR.debug( I18n.msg( I18n.MSG_04162_CLOSING_ENTRY_CURSOR, this ) );
+        }
+
+        synchronized ( this )
+        {
+            if ( !released )
+            {
+                released = true;
+                release();
+            }
+        }
+
+        if ( cause != null )
+        {
+            super.close( cause );
+        }
+        else
+        {
+            super.close();
+        }
+    }
+
+
+    /**
+     * Abandons the running pages, and lets the server release the paged search state.
+     * Must be called while holding the lock.
+     */
+    private void release()
+    {
+        if ( searchResultDone != null )
+        {
+            return;
+        }
+
+        SearchFuture lastPage = ( nextPage != null ) ? nextPage : currentPage;
+        byte[] cookie = pendingCookie;
+        nextPage = null;
+
+        if ( !lastPage.isDone() )
+        {
+            // Abandon the running page
+            lastPage.cancel( true );
+        }
+        else if ( Strings.isEmpty( cookie ) && !lastPage.isCancelled() )
+        {
+            // The page is completed, but we haven't requested the next one yet
+            Response done = lastPage.toCompletionStage().toCompletableFuture().getNow( null );
+
+            if ( ( done instanceof SearchResultDone )
+                && ( ( ( SearchResultDone ) done ).getLdapResult().getResultCode() == ResultCodeEnum.SUCCESS ) )
+            {
+                cookie = getCookie( ( SearchResultDone ) done );
+            }
+        }
+
+        if ( !Strings.isEmpty( cookie ) && connection.isConnected() )
+        {
+            try
+            {
+                connection.searchAsync( newPageRequest( searchRequest, 0, cookie ) );
+            }
+            catch ( LdapException le )
+            {
+                // Nothing we can do
+                if ( LOG_CURSOR.isDebugEnabled() )
+                {
+                    LOG_CURSOR.debug( le.getMessage(), le );
+                }
+            }
+        }
+    }
+
+
+    // rest of all operations will throw UnsupportedOperationException
+
+    /**
+     * This operation is not supported in PagedEntryCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public void after( Entry element ) throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "after( Response element )" ) ) );
+    }
+
+
+    /**
+     * This operation is not supported in PagedEntryCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public void afterLast() throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "afterLast()" ) ) );
+    }
+
+
+    /**
+     * This operation is not supported in PagedEntryCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public void before( Entry element ) throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "before( Response element )" ) ) );
+    }
+
+
+    /**
+     * This operation is not supported in PagedEntryCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public void beforeFirst() throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "beforeFirst()" ) ) );
+    }
+
+
+    /**
+     * This operation is not supported in PagedEntryCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean first() throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "first()" ) ) );
+    }
+
+
+    /**
+     * This operation is not supported in PagedEntryCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean last() throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "last()" ) ) );
+    }
+
+
+    /**
+     * This operation is not supported in PagedEntryCursor.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean previous() throws LdapException, CursorException
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13102_UNSUPPORTED_OPERATION, getClass().getName()
+            .concat( "." ).concat( "previous()" ) ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMessageId()
+    {
+        return messageId;
+    }
+}
@@ -39,6 +39,7 @@ import org.apache.directory.api.ldap.model.message.Response;
 import org.apache.directory.api.ldap.model.message.SearchResultDone;
 import org.apache.directory.api.ldap.model.message.SearchResultEntry;
 import org.apache.directory.api.ldap.model.message.SearchResultReference;
+import org.apache.directory.ldap.client.api.exception.InvalidConnectionException;
 import org.apache.directory.ldap.client.api.exception.LdapConnectionTimeOutException;
 import org.apache.directory.ldap.client.api.future.SearchFuture;
 import org.slf4j.Logger;
@@ -107,6 +108,22 @@ public class SearchCursorImpl extends AbstractCursor<Response> implements Search
             return false;
         }
 
+        // The request may not have been written
+        Throwable cause = future.getCause();
+
+        if ( future.isCancelled() && ( cause != null ) )
+        {
+            response = null;
+            done = true;
+
+            if ( cause instanceof LdapException )
+            {
+                throw ( LdapException ) cause;
+            }
+
+            throw new InvalidConnectionException( cause.getMessage(), cause );
+        }
+
         try
         {
             if ( future.isCancelled() )
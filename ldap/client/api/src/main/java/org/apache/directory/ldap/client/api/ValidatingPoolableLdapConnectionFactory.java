@@ -56,6 +56,9 @@ import org.slf4j.LoggerFactory;
  * This is a <i>MOSTLY</i> safe way to handle connections in a pool. If one 
  * would like to use a slightly less expensive pool factory, the 
  * {@link DefaultPoolableLdapConnectionFactory} may be the right choice.
+ * <br>
+ * If the connections are borrowed to verify users' credentials, the
+ * {@link LdapCredentialVerifier} avoids the bind done upon return.
  * 
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
  */
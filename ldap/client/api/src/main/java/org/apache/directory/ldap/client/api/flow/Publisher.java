@@ -0,0 +1,42 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api.flow;
+
+
+/**
+ * A producer of items, received by a {@link Subscriber} as it requests them. This
+ * follows the contract of the JDK 9 <tt>java.util.concurrent.Flow.Publisher</tt> and
+ * of the Reactive Streams <tt>org.reactivestreams.Publisher</tt>, which are not available
+ * in Java 8 : adapting it to those interfaces is a matter of delegating each method.
+ *
+ * @param <T> The published items type
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public interface Publisher<T>
+{
+    /**
+     * Adds the given Subscriber. The subscriber's {@link Subscriber#onSubscribe(Subscription)}
+     * method is called first, then items are pushed to the subscriber as it requests them.
+     * If the subscription is rejected, {@link Subscriber#onError(Throwable)} is called.
+     *
+     * @param subscriber The subscriber
+     */
+    void subscribe( Subscriber<? super T> subscriber );
+}
@@ -0,0 +1,64 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api.flow;
+
+
+/**
+ * A receiver of items published by a {@link Publisher}. The methods are invoked in
+ * sequence, never concurrently. This follows the contract of the JDK 9
+ * <tt>java.util.concurrent.Flow.Subscriber</tt>.
+ *
+ * @param <T> The received items type
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public interface Subscriber<T>
+{
+    /**
+     * Called before any other method. No item will be received until
+     * {@link Subscription#request(long)} is called.
+     *
+     * @param subscription The subscription
+     */
+    void onSubscribe( Subscription subscription );
+
+
+    /**
+     * Called with the next item.
+     *
+     * @param item The item
+     */
+    void onNext( T item );
+
+
+    /**
+     * Called when an unrecoverable error occurred. No other method will be called
+     * after this one.
+     *
+     * @param throwable The error
+     */
+    void onError( Throwable throwable );
+
+
+    /**
+     * Called when all the items have been published. No other method will be called
+     * after this one.
+     */
+    void onComplete();
+}
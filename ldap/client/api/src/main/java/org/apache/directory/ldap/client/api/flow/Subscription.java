@@ -0,0 +1,46 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api.flow;
+
+
+/**
+ * The link between a {@link Publisher} and a {@link Subscriber}, used by the subscriber
+ * to control the flow of items. This follows the contract of the JDK 9
+ * <tt>java.util.concurrent.Flow.Subscription</tt>.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public interface Subscription
+{
+    /**
+     * Adds the given number of items to the current demand. If <tt>n</tt> is not
+     * positive, the subscriber will receive an error.
+     *
+     * @param n The number of additional items the subscriber can receive.
+     * <tt>Long.MAX_VALUE</tt> means the demand is unbounded.
+     */
+    void request( long n );
+
+
+    /**
+     * Stops the flow of items. Some items may still be received after this call.
+     */
+    void cancel();
+}
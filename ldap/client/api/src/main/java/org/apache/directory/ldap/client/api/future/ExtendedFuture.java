@@ -82,7 +82,7 @@ public class ExtendedFuture extends MultipleResponseFuture<Response>
             response.setResponseName( extendedRequest.getRequestName() );
         }
         
-        queue.add( response );
+        super.set( response );
     }
 
 
@@ -21,11 +21,15 @@ package org.apache.directory.ldap.client.api.future;
 
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
-import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.message.IntermediateResponse;
 import org.apache.directory.api.ldap.model.message.Response;
+import org.apache.directory.api.ldap.model.message.ResultResponse;
 import org.apache.directory.ldap.client.api.LdapConnection;
 
 
@@ -52,6 +56,15 @@ public abstract class MultipleResponseFuture<R extends Response> implements Resp
     /** The connection used by the request */
     protected LdapConnection connection;
 
+    /** A flag set to TRUE when the final response has been received */
+    protected volatile boolean done = false;
+
+    /** The final response, once received */
+    private R finalResponse;
+
+    /** The CompletionStage completed with the final response, created on demand */
+    private CompletableFuture<R> completionStage;
+
 
     /**
      * Creates a new instance of ResponseFuture.
@@ -87,6 +100,8 @@ public abstract class MultipleResponseFuture<R extends Response> implements Resp
             // then clear the queue, cause the might be some incoming messages before this abandon request
             // hits the server
             queue.clear();
+
+            failCompletionStage();
         }
 
         return cancelled;
@@ -114,6 +129,146 @@ public abstract class MultipleResponseFuture<R extends Response> implements Resp
     public void set( R response ) throws InterruptedException
     {
         queue.add( response );
+
+        if ( isFinalResponse( response ) )
+        {
+            CompletableFuture<R> stage;
+
+            synchronized ( this )
+            {
+                done = true;
+                finalResponse = response;
+                stage = completionStage;
+            }
+
+            // Complete the stage outside of the lock, as it will run the dependent actions
+            if ( stage != null )
+            {
+                stage.complete( response );
+            }
+        }
+    }
+
+
+    /**
+     * Gives back a {@link CompletionStage} which will be completed when the final
+     * response will be received. The other responses (entries, references, intermediate
+     * responses) are not available through this stage : they still have to be read using
+     * the <tt>get</tt> methods. The dependent actions are executed by the thread which
+     * receives the response, ie the I/O thread : they must not block, and must not call a
+     * synchronous operation on the same connection. If the operation is cancelled, the stage
+     * is completed exceptionally with the cancellation cause, or with a {@link CancellationException}.
+     * <br>
+     * Cancelling the returned stage will cancel this future, and abandon the operation.
+     * 
+     * @return The CompletionStage associated with this future
+     */
+    public CompletionStage<R> toCompletionStage()
+    {
+        CompletableFuture<R> stage;
+        R response;
+
+        synchronized ( this )
+        {
+            if ( completionStage != null )
+            {
+                return completionStage;
+            }
+
+            completionStage = new CompletableFuture<>();
+            stage = completionStage;
+            response = finalResponse;
+        }
+
+        if ( response != null )
+        {
+            stage.complete( response );
+        }
+        else if ( cancelled )
+        {
+            completeExceptionally( stage );
+        }
+        else
+        {
+            stage.whenComplete( ( result, throwable ) ->
+            {
+                if ( ( throwable instanceof CancellationException ) && !cancelled )
+                {
+                    // The stage has been cancelled by the user : abandon the operation
+                    cancel( true );
+                }
+            } );
+        }
+
+        return stage;
+    }
+
+
+    /**
+     * Gives back a {@link CompletionStage} which will be completed when the response
+     * will be received, like {@link #toCompletionStage()}. If no response has been received
+     * when the timeout expires, the operation is abandoned and the stage is completed
+     * exceptionally with an {@link org.apache.directory.api.ldap.model.exception.LdapException}.
+     * 
+     * @param timeout The maximum time to wait for the response
+     * @param unit The timeout unit
+     * @return The CompletionStage associated with this future
+     */
+    public CompletionStage<R> toCompletionStage( long timeout, TimeUnit unit )
+    {
+        CompletionStage<R> stage = toCompletionStage();
+
+        ResponseFutureTimer.schedule( stage.toCompletableFuture(), this, timeout, unit );
+
+        return stage;
+    }
+
+
+    /**
+     * Completes the stage exceptionally, if it exists
+     */
+    private void failCompletionStage()
+    {
+        CompletableFuture<R> stage;
+
+        synchronized ( this )
+        {
+            stage = completionStage;
+        }
+
+        if ( stage != null )
+        {
+            completeExceptionally( stage );
+        }
+    }
+
+
+    /**
+     * Completes a stage exceptionally, with the cancellation cause if any.
+     */
+    private void completeExceptionally( CompletableFuture<R> stage )
+    {
+        if ( cause != null )
+        {
+            stage.completeExceptionally( cause );
+        }
+        else
+        {
+            stage.completeExceptionally( new CancellationException( toString() ) );
+        }
+    }
+
+
+    /**
+     * Tells if a response is the last one for the operation. This is the case for
+     * any {@link ResultResponse}, except the {@link IntermediateResponse}.
+     * 
+     * @param response The response to check
+     * @return <tt>true</tt> if this is the final response
+     */
+    protected static boolean isFinalResponse( Response response )
+    {
+        return ( response instanceof ResultResponse ) && !( response instanceof IntermediateResponse );
     }
 
 
@@ -139,14 +294,15 @@ public abstract class MultipleResponseFuture<R extends Response> implements Resp
 
 
     /**
-     * This operation is not supported in this implementation of Future.
-     * 
      * {@inheritDoc}
+     * 
+     * The future is done when the final response has been received, or when it has
+     * been cancelled. There may still be some responses to read in the queue.
      */
     @Override
     public boolean isDone()
     {
-        throw new UnsupportedOperationException( I18n.err( I18n.ERR_04106_OPERATION_NOT_SUPPORTED ) );
+        return done || cancelled;
     }
 
 
@@ -177,6 +333,8 @@ public abstract class MultipleResponseFuture<R extends Response> implements Resp
     {
         // set the cancel flag first
         cancelled = true;
+
+        failCompletionStage();
     }
 
 
@@ -0,0 +1,96 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api.future;
+
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+
+
+/**
+ * A timer shared by all the futures, used to fail the CompletionStages which haven't
+ * been completed before the operation timeout. The timer thread only cancels the
+ * futures : it never waits for anything.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class ResponseFutureTimer
+{
+    /** The scheduler, with a single daemon thread */
+    private static final ScheduledThreadPoolExecutor SCHEDULER;
+
+    static
+    {
+        SCHEDULER = new ScheduledThreadPoolExecutor( 1, runnable ->
+        {
+            Thread thread = new Thread( runnable, "LdapResponseTimeout" );
+            thread.setDaemon( true );
+
+            return thread;
+        } );
+
+        // Don't keep the timeouts of the completed operations in the queue
+        SCHEDULER.setRemoveOnCancelPolicy( true );
+    }
+
+
+    private ResponseFutureTimer()
+    {
+    }
+
+
+    /**
+     * Schedules the timeout of a CompletionStage. If the stage is not completed when the
+     * timeout expires, the future is cancelled with a timeout cause, which abandons the
+     * operation and fails the stage. The timeout is dropped as soon as the stage completes.
+     *
+     * @param stage The stage to watch
+     * @param future The future associated with the stage
+     * @param timeout The maximum time to wait for the response
+     * @param unit The timeout unit
+     */
+    static void schedule( CompletableFuture<?> stage, ResponseFuture<?> future, long timeout, TimeUnit unit )
+    {
+        if ( stage.isDone() )
+        {
+            return;
+        }
+
+        ScheduledFuture<?> expiry = SCHEDULER.schedule( () ->
+        {
+            if ( !stage.isDone() )
+            {
+                LdapException timeoutException = new LdapException( I18n.err( I18n.ERR_04170_TIMEOUT_OCCURED ) );
+                future.setCause( timeoutException );
+
+                // Abandon the operation, then fail the stage if the cancellation hasn't done it
+                future.cancel( true );
+                stage.completeExceptionally( timeoutException );
+            }
+        }, timeout, unit );
+
+        stage.whenComplete( ( result, throwable ) -> expiry.cancel( false ) );
+    }
+}
@@ -20,17 +20,55 @@
 package org.apache.directory.ldap.client.api.future;
 
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.directory.api.ldap.model.message.Response;
 import org.apache.directory.ldap.client.api.LdapConnection;
+import org.apache.directory.ldap.client.api.LdapConnectionConfig;
+import org.apache.mina.core.session.IoSession;
 
 
 /**
  * A Future to manage SerachRequest.
+ * <br>
+ * The responses are stored until they are read by the application. The number, or the size,
+ * of the stored responses can be bounded : when the high watermark is reached, the session
+ * stops reading from the server, and it resumes reading once the application has read enough
+ * responses to reach the low watermark (see {@link LdapConnectionConfig#setSearchQueueHighWatermark(int)}
+ * and {@link LdapConnectionConfig#setSearchQueueHighWatermarkBytes(long)}).
  *
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
  */
 public class SearchFuture extends MultipleResponseFuture<Response>
 {
+    /** The session the responses are read from, if the queue is bounded */
+    private final IoSession session;
+
+    /** The number of responses above which the reads are suspended, 0 if unbounded */
+    private final int highWatermark;
+
+    /** The number of responses under which the reads are resumed */
+    private final int lowWatermark;
+
+    /** The size of the responses above which the reads are suspended, 0 if unbounded */
+    private final long highWatermarkBytes;
+
+    /** The size of the responses under which the reads are resumed */
+    private final long lowWatermarkBytes;
+
+    /** The size of the responses in the queue */
+    private final AtomicLong queuedBytes = new AtomicLong();
+
+    /** The size of each response in the queue, in the same order */
+    private final Queue<Long> queuedSizes = new ConcurrentLinkedQueue<>();
+
+    /** Tells if we have suspended the session's reads. Guarded by this */
+    private boolean readSuspended;
+
+
     /**
      * Creates a new instance of SearchFuture.
      *
@@ -38,8 +76,241 @@ public class SearchFuture extends MultipleResponseFuture<Response>
      * @param messageId The associated messageId
      */
     public SearchFuture( LdapConnection connection, int messageId )
+    {
+        this( connection, messageId, null, null );
+    }
+
+
+    /**
+     * Creates a new instance of SearchFuture, which queue is bounded by the watermarks
+     * defined in the given configuration.
+     *
+     * @param connection the LDAP connection
+     * @param messageId The associated messageId
+     * @param session The session the responses are read from
+     * @param config The connection configuration, containing the watermarks
+     */
+    public SearchFuture( LdapConnection connection, int messageId, IoSession session, LdapConnectionConfig config )
     {
         super( connection, messageId );
+
+        if ( ( session == null ) || ( config == null ) )
+        {
+            this.session = null;
+            highWatermark = 0;
+            lowWatermark = 0;
+            highWatermarkBytes = 0L;
+            lowWatermarkBytes = 0L;
+        }
+        else
+        {
+            this.session = session;
+            highWatermark = Math.max( 0, config.getSearchQueueHighWatermark() );
+            lowWatermark = Math.max( 0, Math.min( config.getSearchQueueLowWatermark(), highWatermark - 1 ) );
+            highWatermarkBytes = Math.max( 0L, config.getSearchQueueHighWatermarkBytes() );
+            lowWatermarkBytes = Math.max( 0L, Math.min( config.getSearchQueueLowWatermarkBytes(), highWatermarkBytes - 1 ) );
+        }
+    }
+
+
+    /**
+     * Tells if the number or the size of the stored responses is bounded
+     */
+    private boolean isBounded()
+    {
+        return ( highWatermark > 0 ) || ( highWatermarkBytes > 0L );
+    }
+
+
+    /**
+     * Stores a response which size is unknown : it's not counted in the size of the queue.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void set( Response response ) throws InterruptedException
+    {
+        set( response, 0L );
+    }
+
+
+    /**
+     * Stores a response, and suspends the session's reads if the queue is above its high watermark.
+     *
+     * @param response The response to add into the Future
+     * @param size The size of the response's PDU
+     * @throws InterruptedException if the operation has been cancelled by client
+     */
+    public void set( Response response, long size ) throws InterruptedException
+    {
+        if ( !isBounded() )
+        {
+            super.set( response );
+
+            return;
+        }
+
+        // The size is queued first, so that it's available as soon as the response can be read
+        queuedSizes.add( size );
+        queuedBytes.addAndGet( size );
+        super.set( response );
+
+        synchronized ( this )
+        {
+            if ( done || cancelled )
+            {
+                // We won't receive anything else for this search
+                releaseReads();
+            }
+            else if ( !readSuspended && isAboveHighWatermark() )
+            {
+                SessionReadThrottle.suspend( session );
+                readSuspended = true;
+            }
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Response get() throws InterruptedException
+    {
+        Response response = super.get();
+
+        responseRead( response );
+
+        return response;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Response get( long timeout, TimeUnit unit ) throws InterruptedException
+    {
+        Response response = super.get( timeout, unit );
+
+        responseRead( response );
+
+        return response;
+    }
+
+
+    /**
+     * Updates the queue size once a response has been read, and resumes the session's reads
+     * if we are under the low watermark.
+     */
+    private void responseRead( Response response )
+    {
+        if ( !isBounded() || ( response == null ) )
+        {
+            return;
+        }
+
+        Long size = queuedSizes.poll();
+
+        if ( size != null )
+        {
+            queuedBytes.addAndGet( -size );
+        }
+
+        synchronized ( this )
+        {
+            if ( readSuspended && isUnderLowWatermark() )
+            {
+                releaseReads();
+            }
+        }
+    }
+
+
+    private boolean isAboveHighWatermark()
+    {
+        return ( ( highWatermark > 0 ) && ( queue.size() >= highWatermark ) )
+            || ( ( highWatermarkBytes > 0L ) && ( queuedBytes.get() >= highWatermarkBytes ) );
+    }
+
+
+    private boolean isUnderLowWatermark()
+    {
+        return ( ( highWatermark == 0 ) || ( queue.size() <= lowWatermark ) )
+            && ( ( highWatermarkBytes == 0L ) || ( queuedBytes.get() <= lowWatermarkBytes ) );
+    }
+
+
+    /**
+     * Resumes the session's reads if we have suspended them. Must be called while holding the lock.
+     */
+    private void releaseReads()
+    {
+        if ( readSuspended )
+        {
+            SessionReadThrottle.resume( session );
+            readSuspended = false;
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean cancel( boolean mayInterruptIfRunning )
+    {
+        boolean result = super.cancel( mayInterruptIfRunning );
+
+        if ( isBounded() )
+        {
+            queuedSizes.clear();
+            queuedBytes.set( 0L );
+
+            synchronized ( this )
+            {
+                releaseReads();
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancel()
+    {
+        super.cancel();
+
+        if ( isBounded() )
+        {
+            synchronized ( this )
+            {
+                releaseReads();
+            }
+        }
+    }
+
+
+    /**
+     * @return The number of responses waiting to be read
+     */
+    public int getQueueSize()
+    {
+        return queue.size();
+    }
+
+
+    /**
+     * @return The size, in bytes, of the PDUs of the responses waiting to be read. It's only
+     * computed when the queue is bounded.
+     */
+    public long getQueuedBytes()
+    {
+        return queuedBytes.get();
     }
 
 
@@ -0,0 +1,491 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api.future;
+
+
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.message.Response;
+import org.apache.directory.ldap.client.api.LdapConnection;
+import org.apache.directory.ldap.client.api.exception.InvalidConnectionException;
+import org.apache.directory.ldap.client.api.flow.Publisher;
+import org.apache.directory.ldap.client.api.flow.Subscriber;
+import org.apache.directory.ldap.client.api.flow.Subscription;
+import org.apache.mina.core.session.IoSession;
+
+
+/**
+ * A {@link Publisher} of the responses of a search operation, which applies back-pressure
+ * on the connection : when the subscriber has not requested any more responses, the
+ * session stops reading from the socket, and it resumes reading when the subscriber
+ * requests some more responses. The number of buffered responses is then bounded by
+ * what has been decoded from a single socket read, whatever the number of entries
+ * returned by the server.
+ * <br>
+ * The search result entries, references and intermediate responses are published
+ * in order, followed by the SearchResultDone, and then the publisher completes. If the
+ * connection is closed before the end of the search, the subscriber receives an error.
+ * <br>
+ * The responses can also be pulled one at a time with the <tt>get</tt> methods, as with a
+ * {@link SearchFuture} : the first call subscribes an internal subscriber, which requests
+ * a single response per call, so that the back-pressure still applies.
+ * <br>
+ * Note that suspending the reads suspends every operation running on the same connection.
+ * Only one subscriber is accepted.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class SearchPublisher extends SearchFuture implements Publisher<Response>
+{
+    /** The session the responses are read from */
+    private final IoSession session;
+
+    /** The responses received and not yet published */
+    private final Queue<Response> buffer = new ConcurrentLinkedQueue<>();
+
+    /** The number of responses requested by the subscriber and not yet published */
+    private final AtomicLong demand = new AtomicLong();
+
+    /** Used to serialize the calls to the subscriber */
+    private final AtomicInteger wip = new AtomicInteger();
+
+    /** Tells if we already have a subscriber */
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /** The subscriber */
+    private volatile Subscriber<? super Response> subscriber;
+
+    /** The error to send to the subscriber */
+    private volatile Throwable error;
+
+    /** Set when the subscriber has cancelled its subscription */
+    private volatile boolean subscriptionCancelled;
+
+    /** Set when onComplete or onError has been called */
+    private volatile boolean finished;
+
+    /** Tells if we have suspended the session's reads. Guarded by this */
+    private boolean readSuspended;
+
+    /** The subscriber used by the get methods, created on demand. Guarded by this */
+    private PullSubscriber pullSubscriber;
+
+
+    /**
+     * Creates a new instance of SearchPublisher.
+     *
+     * @param connection The LDAP connection
+     * @param messageId The associated messageId
+     * @param session The session the responses are read from
+     */
+    public SearchPublisher( LdapConnection connection, int messageId, IoSession session )
+    {
+        super( connection, messageId );
+        this.session = session;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subscribe( Subscriber<? super Response> newSubscriber )
+    {
+        if ( newSubscriber == null )
+        {
+            throw new IllegalArgumentException( I18n.err( I18n.ERR_04184_NULL_SUBSCRIBER ) );
+        }
+
+        if ( !subscribed.compareAndSet( false, true ) )
+        {
+            newSubscriber.onSubscribe( new SearchSubscription() );
+            newSubscriber.onError( new IllegalStateException( I18n.err( I18n.ERR_04185_ALREADY_SUBSCRIBED ) ) );
+
+            return;
+        }
+
+        newSubscriber.onSubscribe( new SearchSubscription() );
+        subscriber = newSubscriber;
+
+        drain();
+    }
+
+
+    /**
+     * Buffers the response, and publishes it if the subscriber has some demand. Otherwise,
+     * the session reads are suspended.
+     *
+     * @param response The received response
+     * @param size The size of the response's PDU, not used as the buffer is bounded by the demand
+     */
+    @Override
+    public void set( Response response, long size )
+    {
+        if ( cancelled )
+        {
+            return;
+        }
+
+        buffer.add( response );
+
+        if ( isFinalResponse( response ) )
+        {
+            done = true;
+        }
+
+        drain();
+
+        synchronized ( this )
+        {
+            if ( !readSuspended && !done && !buffer.isEmpty() && ( demand.get() == 0L ) )
+            {
+                SessionReadThrottle.suspend( session );
+                readSuspended = true;
+            }
+        }
+    }
+
+
+    /**
+     * Resumes the session reads if they have been suspended and we can accept more
+     * responses.
+     */
+    private void resumeReadIfNeeded()
+    {
+        synchronized ( this )
+        {
+            if ( readSuspended && ( finished || buffer.isEmpty() || ( demand.get() > 0L ) ) )
+            {
+                SessionReadThrottle.resume( session );
+                readSuspended = false;
+            }
+        }
+    }
+
+
+    /**
+     * Publishes as many buffered responses as requested. Only one thread at a time can
+     * call the subscriber : if another thread is already publishing, it will do the work.
+     */
+    private void drain()
+    {
+        if ( wip.getAndIncrement() != 0 )
+        {
+            return;
+        }
+
+        int missed = 1;
+
+        do
+        {
+            Subscriber<? super Response> currentSubscriber = subscriber;
+
+            if ( ( currentSubscriber != null ) && !finished )
+            {
+                if ( subscriptionCancelled )
+                {
+                    buffer.clear();
+                }
+                else if ( error != null )
+                {
+                    finished = true;
+                    buffer.clear();
+                    currentSubscriber.onError( error );
+                }
+                else
+                {
+                    publish( currentSubscriber );
+                }
+            }
+
+            missed = wip.addAndGet( -missed );
+        }
+        while ( missed != 0 );
+    }
+
+
+    /**
+     * Publishes the buffered responses, up to the current demand
+     */
+    private void publish( Subscriber<? super Response> currentSubscriber )
+    {
+        long requested = demand.get();
+        long emitted = 0L;
+
+        while ( ( emitted != requested ) && !subscriptionCancelled )
+        {
+            Response response = buffer.poll();
+
+            if ( response == null )
+            {
+                break;
+            }
+
+            currentSubscriber.onNext( response );
+            emitted++;
+
+            if ( isFinalResponse( response ) )
+            {
+                finished = true;
+                currentSubscriber.onComplete();
+
+                break;
+            }
+        }
+
+        if ( ( emitted != 0L ) && ( requested != Long.MAX_VALUE ) )
+        {
+            demand.addAndGet( -emitted );
+        }
+    }
+
+
+    /**
+     * Called when the session is closed, or when the request can't be sent.
+     */
+    @Override
+    public void cancel()
+    {
+        super.cancel();
+
+        if ( !subscriptionCancelled )
+        {
+            if ( cause != null )
+            {
+                error = cause;
+            }
+            else
+            {
+                error = new InvalidConnectionException( I18n.err( I18n.ERR_04160_SESSION_HAS_BEEN_CLOSED ) );
+            }
+        }
+
+        drain();
+    }
+
+
+    /**
+     * Gives back the next response, waiting until it's received. The responses can't be read
+     * this way if another subscriber has subscribed.
+     *
+     * @return The next response, or null if the search has completed, failed or been cancelled
+     * @throws InterruptedException If the thread has been interrupted while waiting
+     */
+    @Override
+    public Response get() throws InterruptedException
+    {
+        return getPullSubscriber().next( Long.MAX_VALUE, TimeUnit.NANOSECONDS );
+    }
+
+
+    /**
+     * Gives back the next response, waiting at most the given time until it's received.
+     * The responses can't be read this way if another subscriber has subscribed.
+     *
+     * @param timeout The maximum time to wait
+     * @param unit The unit of the timeout
+     * @return The next response, or null if the search has completed, failed or been cancelled,
+     * or if the timeout has expired
+     * @throws InterruptedException If the thread has been interrupted while waiting
+     */
+    @Override
+    public Response get( long timeout, TimeUnit unit ) throws InterruptedException
+    {
+        return getPullSubscriber().next( timeout, unit );
+    }
+
+
+    /**
+     * Subscribes the subscriber used by the get methods, if not already done
+     */
+    private synchronized PullSubscriber getPullSubscriber()
+    {
+        if ( pullSubscriber == null )
+        {
+            if ( subscribed.get() )
+            {
+                throw new IllegalStateException( I18n.err( I18n.ERR_04185_ALREADY_SUBSCRIBED ) );
+            }
+
+            pullSubscriber = new PullSubscriber();
+            subscribe( pullSubscriber );
+        }
+
+        return pullSubscriber;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append( "SearchPublisher" ).append( super.toString() );
+
+        return sb.toString();
+    }
+
+
+    /**
+     * The subscription given to the subscriber
+     */
+    private class SearchSubscription implements Subscription
+    {
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void request( long n )
+        {
+            if ( n <= 0L )
+            {
+                error = new IllegalArgumentException( I18n.err( I18n.ERR_04186_INVALID_DEMAND, n ) );
+
+                if ( !isDone() )
+                {
+                    // The subscriber won't receive anything else : abandon the search
+                    SearchPublisher.this.cancel( true );
+                }
+            }
+            else
+            {
+                // Add the demand, capping it to Long.MAX_VALUE
+                demand.getAndUpdate( current -> ( current + n < 0L ) ? Long.MAX_VALUE : current + n );
+            }
+
+            drain();
+            resumeReadIfNeeded();
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void cancel()
+        {
+            if ( !subscriptionCancelled )
+            {
+                subscriptionCancelled = true;
+
+                if ( !isDone() )
+                {
+                    // Abandon the search
+                    SearchPublisher.this.cancel( true );
+                }
+
+                drain();
+
+                synchronized ( SearchPublisher.this )
+                {
+                    if ( readSuspended )
+                    {
+                        SessionReadThrottle.resume( session );
+                        readSuspended = false;
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * The subscriber used to pull the responses with the get methods. It requests a
+     * response only when the previous ones have been read.
+     */
+    private static final class PullSubscriber implements Subscriber<Response>
+    {
+        /** The marker queued when the publisher has terminated */
+        private static final Object END = new Object();
+
+        /** The published responses, followed by the END marker */
+        private final BlockingQueue<Object> responses = new LinkedBlockingQueue<>();
+
+        /** Set when a response has been requested and not yet received */
+        private final AtomicBoolean requested = new AtomicBoolean();
+
+        /** The subscription */
+        private volatile Subscription subscription;
+
+
+        /**
+         * Gives back the next response, requesting it if needed
+         */
+        Response next( long timeout, TimeUnit unit ) throws InterruptedException
+        {
+            if ( responses.isEmpty() && requested.compareAndSet( false, true ) )
+            {
+                subscription.request( 1L );
+            }
+
+            Object next = responses.poll( timeout, unit );
+
+            if ( next == END )
+            {
+                // Keep the marker for the next calls
+                responses.add( END );
+
+                return null;
+            }
+
+            return ( Response ) next;
+        }
+
+
+        @Override
+        public void onSubscribe( Subscription newSubscription )
+        {
+            subscription = newSubscription;
+        }
+
+
+        @Override
+        public void onNext( Response response )
+        {
+            requested.set( false );
+            responses.add( response );
+        }
+
+
+        @Override
+        public void onError( Throwable throwable )
+        {
+            responses.add( END );
+        }
+
+
+        @Override
+        public void onComplete()
+        {
+            responses.add( END );
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api.future;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.mina.core.session.IoSession;
+
+
+/**
+ * Suspends and resumes the reads on a session on behalf of many futures. The reads
+ * are suspended as soon as one future asks for it, and are resumed only when all the
+ * futures which have suspended them have asked for resuming them. Each future must
+ * pair its calls to {@link #suspend(IoSession)} and {@link #resume(IoSession)}.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class SessionReadThrottle
+{
+    /** The session attribute storing the number of pending suspensions */
+    private static final String SUSPENSIONS_KEY = SessionReadThrottle.class.getName() + ".suspensions";
+
+
+    private SessionReadThrottle()
+    {
+    }
+
+
+    /**
+     * Get the number of pending suspensions for a session, creating it if needed
+     */
+    private static AtomicInteger getSuspensions( IoSession session )
+    {
+        AtomicInteger suspensions = ( AtomicInteger ) session.getAttribute( SUSPENSIONS_KEY );
+
+        if ( suspensions == null )
+        {
+            AtomicInteger newSuspensions = new AtomicInteger();
+            suspensions = ( AtomicInteger ) session.setAttributeIfAbsent( SUSPENSIONS_KEY, newSuspensions );
+
+            if ( suspensions == null )
+            {
+                suspensions = newSuspensions;
+            }
+        }
+
+        return suspensions;
+    }
+
+
+    /**
+     * Suspends the reads on the given session, if they are not already suspended
+     *
+     * @param session The session
+     */
+    static void suspend( IoSession session )
+    {
+        AtomicInteger suspensions = getSuspensions( session );
+
+        synchronized ( suspensions )
+        {
+            if ( suspensions.getAndIncrement() == 0 )
+            {
+                session.suspendRead();
+            }
+        }
+    }
+
+
+    /**
+     * Resumes the reads on the given session, if no one else has suspended them. The
+     * I/O processor reads the session again on its next selection.
+     *
+     * @param session The session
+     */
+    static void resume( IoSession session )
+    {
+        AtomicInteger suspensions = getSuspensions( session );
+
+        synchronized ( suspensions )
+        {
+            if ( suspensions.decrementAndGet() == 0 )
+            {
+                session.resumeRead();
+            }
+        }
+    }
+}
@@ -19,6 +19,9 @@
  */
 package org.apache.directory.ldap.client.api.future;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.directory.api.ldap.model.message.Response;
@@ -51,6 +54,9 @@ public abstract class UniqueResponseFuture<R extends Response> implements Respon
     /** A flag set to TRUE when the response has been received */
     private volatile boolean done = false;
 
+    /** The CompletionStage associated with this future, created on demand */
+    private CompletableFuture<R> completionStage;
+
     /**
      * Creates a new instance of UniqueResponseFuture.
      *
@@ -103,13 +109,117 @@ public abstract class UniqueResponseFuture<R extends Response> implements Respon
      * @param response The response to add into the Future
      * @throws InterruptedException if the operation has been cancelled by client
      */
-    public synchronized void set( R response ) throws InterruptedException
+    public void set( R response ) throws InterruptedException
     {
-        this.response = response;
+        CompletableFuture<R> stage;
+
+        synchronized ( this )
+        {
+            this.response = response;
+
+            done = response != null;
+
+            notifyAll();
+
+            stage = completionStage;
+        }
+
+        // Complete the stage outside of the lock, as it will run the dependent actions
+        if ( stage != null )
+        {
+            complete( stage, response );
+        }
+    }
 
-        done = response != null;
 
-        notifyAll();
+    /**
+     * Gives back a {@link CompletionStage} which will be completed when the response
+     * will be received. The dependent actions are executed by the thread which receives
+     * the response, ie the I/O thread : they must not block, and must not call a synchronous
+     * operation on the same connection. If the operation is cancelled, the stage is
+     * completed exceptionally with the cancellation cause, or with a {@link CancellationException}.
+     * <br>
+     * Cancelling the returned stage will cancel this future, and abandon the operation.
+     * 
+     * @return The CompletionStage associated with this future
+     */
+    public CompletionStage<R> toCompletionStage()
+    {
+        CompletableFuture<R> stage;
+        boolean isCompleted;
+        R currentResponse;
+
+        synchronized ( this )
+        {
+            if ( completionStage != null )
+            {
+                return completionStage;
+            }
+
+            completionStage = new CompletableFuture<>();
+            stage = completionStage;
+            isCompleted = done || cancelled;
+            currentResponse = response;
+        }
+
+        if ( isCompleted )
+        {
+            complete( stage, currentResponse );
+        }
+        else
+        {
+            stage.whenComplete( ( result, throwable ) ->
+            {
+                if ( ( throwable instanceof CancellationException ) && !cancelled )
+                {
+                    // The stage has been cancelled by the user : abandon the operation
+                    cancel( true );
+                }
+            } );
+        }
+
+        return stage;
+    }
+
+
+    /**
+     * Gives back a {@link CompletionStage} which will be completed when the response
+     * will be received, like {@link #toCompletionStage()}. If no response has been received
+     * when the timeout expires, the operation is abandoned and the stage is completed
+     * exceptionally with an {@link org.apache.directory.api.ldap.model.exception.LdapException}.
+     * 
+     * @param timeout The maximum time to wait for the response
+     * @param unit The timeout unit
+     * @return The CompletionStage associated with this future
+     */
+    public CompletionStage<R> toCompletionStage( long timeout, TimeUnit unit )
+    {
+        CompletionStage<R> stage = toCompletionStage();
+
+        ResponseFutureTimer.schedule( stage.toCompletableFuture(), this, timeout, unit );
+
+        return stage;
+    }
+
+
+    /**
+     * Completes a stage with the received response, or exceptionally if we
+     * haven't received any response.
+     */
+    private void complete( CompletableFuture<R> stage, R response )
+    {
+        if ( response != null )
+        {
+            stage.complete( response );
+        }
+        else if ( cause != null )
+        {
+            stage.completeExceptionally( cause );
+        }
+        else
+        {
+            stage.completeExceptionally( new CancellationException( toString() ) );
+        }
     }
 
 
@@ -0,0 +1,294 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api.metrics;
+
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.directory.api.ldap.model.message.MessageTypeEnum;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+
+
+/**
+ * An {@link LdapOperationObserver} recording the latencies in {@link LatencyHistogram}s, in
+ * microseconds :
+ * <ul>
+ *   <li>the total time of the operations, per request type and per request type and result code</li>
+ *   <li>the time until the first response, per request type</li>
+ *   <li>the time spent by the requests waiting to be written</li>
+ *   <li>the time spent waiting for a pooled connection, and the time it has been held</li>
+ * </ul>
+ * It also counts the encoded and decoded bytes. A typical use :
+ * <pre>
+ * HistogramOperationObserver observer = new HistogramOperationObserver();
+ * config.setOperationObserver( observer );
+ * pool.setOperationObserver( observer );
+ * ...
+ * long p99 = observer.getTotalTimes( MessageTypeEnum.SEARCH_REQUEST ).getValueAtPercentile( 99d );
+ * </pre>
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class HistogramOperationObserver implements LdapOperationObserver
+{
+    /** The total times, per request type */
+    private final Map<MessageTypeEnum, LatencyHistogram> totalTimes = new ConcurrentHashMap<>();
+
+    /** The total times, per request type and result code */
+    private final Map<Key, LatencyHistogram> resultTimes = new ConcurrentHashMap<>();
+
+    /** The times until the first response, per request type */
+    private final Map<MessageTypeEnum, LatencyHistogram> firstResponseTimes = new ConcurrentHashMap<>();
+
+    /** The time spent by the requests waiting to be written */
+    private final LatencyHistogram queueWaits = new LatencyHistogram();
+
+    /** The time spent waiting for a pooled connection */
+    private final LatencyHistogram borrowWaits = new LatencyHistogram();
+
+    /** The time a pooled connection has been held */
+    private final LatencyHistogram holdTimes = new LatencyHistogram();
+
+    /** The number of encoded bytes */
+    private final LongAdder bytesEncoded = new LongAdder();
+
+    /** The number of decoded bytes */
+    private final LongAdder bytesDecoded = new LongAdder();
+
+
+    /**
+     * The key of the per result code histograms : a request type and a result code, which is
+     * null for the abandoned operations.
+     */
+    private static final class Key
+    {
+        /** The request type */
+        private final MessageTypeEnum type;
+
+        /** The result code */
+        private final ResultCodeEnum resultCode;
+
+
+        Key( MessageTypeEnum type, ResultCodeEnum resultCode )
+        {
+            this.type = type;
+            this.resultCode = resultCode;
+        }
+
+
+        @Override
+        public int hashCode()
+        {
+            return type.hashCode() * 31 + Objects.hashCode( resultCode );
+        }
+
+
+        @Override
+        public boolean equals( Object that )
+        {
+            if ( this == that )
+            {
+                return true;
+            }
+
+            if ( !( that instanceof Key ) )
+            {
+                return false;
+            }
+
+            Key other = ( Key ) that;
+
+            return ( type == other.type ) && ( resultCode == other.resultCode );
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void operationCompleted( LdapOperationEvent event )
+    {
+        long totalTime = toMicros( event.getTotalTime() );
+
+        totalTimes.computeIfAbsent( event.getType(), type -> new LatencyHistogram() ).record( totalTime );
+        resultTimes.computeIfAbsent( new Key( event.getType(), event.getResultCode() ),
+            key -> new LatencyHistogram() ).record( totalTime );
+
+        if ( event.getResponseCount() > 0 )
+        {
+            firstResponseTimes.computeIfAbsent( event.getType(), type -> new LatencyHistogram() )
+                .record( toMicros( event.getFirstResponseTime() ) );
+        }
+
+        queueWaits.record( toMicros( event.getQueueWait() ) );
+        bytesEncoded.add( event.getBytesEncoded() );
+        bytesDecoded.add( event.getBytesDecoded() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connectionBorrowed( long waitTime )
+    {
+        borrowWaits.record( toMicros( waitTime ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connectionReleased( long holdTime )
+    {
+        holdTimes.record( toMicros( holdTime ) );
+    }
+
+
+    private static long toMicros( long nanos )
+    {
+        return TimeUnit.NANOSECONDS.toMicros( Math.max( 0L, nanos ) );
+    }
+
+
+    /**
+     * @param type The request type
+     * @return The total times of this type of operations, in microseconds, or null if none has been observed
+     */
+    public LatencyHistogram getTotalTimes( MessageTypeEnum type )
+    {
+        return totalTimes.get( type );
+    }
+
+
+    /**
+     * @param type The request type
+     * @param resultCode The result code, null for the abandoned operations
+     * @return The total times of this type of operations having completed with this result code, in
+     * microseconds, or null if none has been observed
+     */
+    public LatencyHistogram getTotalTimes( MessageTypeEnum type, ResultCodeEnum resultCode )
+    {
+        return resultTimes.get( new Key( type, resultCode ) );
+    }
+
+
+    /**
+     * @param type The request type
+     * @return The times until the first response of this type of operations, in microseconds, or null
+     * if none has been observed
+     */
+    public LatencyHistogram getFirstResponseTimes( MessageTypeEnum type )
+    {
+        return firstResponseTimes.get( type );
+    }
+
+
+    /**
+     * @return The time spent by the requests waiting to be written, in microseconds
+     */
+    public LatencyHistogram getQueueWaits()
+    {
+        return queueWaits;
+    }
+
+
+    /**
+     * @return The time spent waiting for a pooled connection, in microseconds
+     */
+    public LatencyHistogram getBorrowWaits()
+    {
+        return borrowWaits;
+    }
+
+
+    /**
+     * @return The time the pooled connections have been held, in microseconds
+     */
+    public LatencyHistogram getHoldTimes()
+    {
+        return holdTimes;
+    }
+
+
+    /**
+     * @return The number of bytes of the encoded requests
+     */
+    public long getBytesEncoded()
+    {
+        return bytesEncoded.sum();
+    }
+
+
+    /**
+     * @return The number of bytes of the decoded responses
+     */
+    public long getBytesDecoded()
+    {
+        return bytesDecoded.sum();
+    }
+
+
+    /**
+     * Forgets all the recorded values.
+     */
+    public void reset()
+    {
+        totalTimes.clear();
+        resultTimes.clear();
+        firstResponseTimes.clear();
+        queueWaits.reset();
+        borrowWaits.reset();
+        holdTimes.reset();
+        bytesEncoded.reset();
+        bytesDecoded.reset();
+    }
+
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append( "Operations (us) :\n" );
+
+        for ( Map.Entry<MessageTypeEnum, LatencyHistogram> entry : totalTimes.entrySet() )
+        {
+            sb.append( "    " ).append( entry.getKey() ).append( " : " ).append( entry.getValue() ).append( '\n' );
+        }
+
+        sb.append( "Queue waits (us) : " ).append( queueWaits ).append( '\n' );
+        sb.append( "Borrow waits (us) : " ).append( borrowWaits ).append( '\n' );
+        sb.append( "Hold times (us) : " ).append( holdTimes ).append( '\n' );
+        sb.append( "Bytes : " ).append( getBytesEncoded() ).append( " encoded, " ).append( getBytesDecoded() )
+            .append( " decoded" );
+
+        return sb.toString();
+    }
+}
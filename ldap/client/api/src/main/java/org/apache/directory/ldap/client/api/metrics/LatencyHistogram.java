@@ -0,0 +1,239 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api.metrics;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A histogram of positive values, typically latencies, which can be updated concurrently
+ * without locking.
+ * <br>
+ * The values are counted in buckets whose width grows with the values : the values lower
+ * than 64 have their own bucket, and each following power of two is split in 32 buckets.
+ * The recorded values are therefore known with a relative precision better than 3.2%, whatever
+ * their magnitude, using a fixed amount of memory. Recording a value costs a few arithmetic
+ * operations and an atomic increment.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public final class LatencyHistogram
+{
+    /** The number of bits used to split a power of two into buckets, plus one */
+    private static final int PRECISION_BITS = 6;
+
+    /** The number of values having their own bucket */
+    private static final int LINEAR_BUCKETS = 1 << PRECISION_BITS;
+
+    /** The number of buckets per power of two */
+    private static final int SUB_BUCKETS = LINEAR_BUCKETS >> 1;
+
+    /** The total number of buckets, to count any positive long */
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + ( 64 - PRECISION_BITS ) * SUB_BUCKETS;
+
+    /** The counts, per bucket */
+    private final AtomicLongArray counts = new AtomicLongArray( BUCKET_COUNT );
+
+    /** The number of recorded values */
+    private final LongAdder count = new LongAdder();
+
+    /** The sum of the recorded values */
+    private final LongAdder sum = new LongAdder();
+
+    /** The lowest recorded value */
+    private final AtomicLong min = new AtomicLong( Long.MAX_VALUE );
+
+    /** The highest recorded value */
+    private final AtomicLong max = new AtomicLong();
+
+
+    /**
+     * Gets the index of the bucket counting a value
+     */
+    static int bucketIndex( long value )
+    {
+        if ( value < LINEAR_BUCKETS )
+        {
+            return ( int ) value;
+        }
+
+        // The position of the highest bit, at least PRECISION_BITS
+        int exponent = 63 - Long.numberOfLeadingZeros( value );
+        int shift = exponent - PRECISION_BITS + 1;
+        int subBucket = ( int ) ( value >>> shift ) - SUB_BUCKETS;
+
+        return LINEAR_BUCKETS + ( shift - 1 ) * SUB_BUCKETS + subBucket;
+    }
+
+
+    /**
+     * Gets the highest value counted by a bucket
+     */
+    static long highestValue( int index )
+    {
+        if ( index < LINEAR_BUCKETS )
+        {
+            return index;
+        }
+
+        int shift = ( index - LINEAR_BUCKETS ) / SUB_BUCKETS + 1;
+        long mantissa = ( index - LINEAR_BUCKETS ) % SUB_BUCKETS + SUB_BUCKETS;
+
+        return ( ( mantissa + 1 ) << shift ) - 1;
+    }
+
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     *
+     * @param value The value to record
+     */
+    public void record( long value )
+    {
+        long recorded = Math.max( 0L, value );
+
+        counts.incrementAndGet( bucketIndex( recorded ) );
+        count.increment();
+        sum.add( recorded );
+
+        if ( recorded < min.get() )
+        {
+            min.accumulateAndGet( recorded, Math::min );
+        }
+
+        if ( recorded > max.get() )
+        {
+            max.accumulateAndGet( recorded, Math::max );
+        }
+    }
+
+
+    /**
+     * @return The number of recorded values
+     */
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+
+    /**
+     * @return The lowest recorded value, or 0 if no value has been recorded
+     */
+    public long getMin()
+    {
+        long lowest = min.get();
+
+        return lowest == Long.MAX_VALUE ? 0L : lowest;
+    }
+
+
+    /**
+     * @return The highest recorded value, or 0 if no value has been recorded
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+
+    /**
+     * @return The mean of the recorded values, or 0 if no value has been recorded
+     */
+    public double getMean()
+    {
+        long total = count.sum();
+
+        return total == 0L ? 0d : ( double ) sum.sum() / total;
+    }
+
+
+    /**
+     * Gets the value under which a given percentage of the recorded values are. The value is
+     * the highest value of the bucket holding the percentile, capped by the highest recorded value.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The value at this percentile, or 0 if no value has been recorded
+     */
+    public long getValueAtPercentile( double percentile )
+    {
+        long total = 0L;
+        long[] snapshot = new long[BUCKET_COUNT];
+
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
+        {
+            snapshot[i] = counts.get( i );
+            total += snapshot[i];
+        }
+
+        if ( total == 0L )
+        {
+            return 0L;
+        }
+
+        double clamped = Math.min( 100d, Math.max( 0d, percentile ) );
+        long rank = Math.max( 1L, ( long ) Math.ceil( clamped * total / 100d ) );
+        long seen = 0L;
+
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
+        {
+            seen += snapshot[i];
+
+            if ( seen >= rank )
+            {
+                return Math.min( highestValue( i ), getMax() );
+            }
+        }
+
+        return getMax();
+    }
+
+
+    /**
+     * Removes all the recorded values. The values recorded concurrently may be partially kept.
+     */
+    public void reset()
+    {
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
+        {
+            counts.set( i, 0L );
+        }
+
+        count.reset();
+        sum.reset();
+        min.set( Long.MAX_VALUE );
+        max.set( 0L );
+    }
+
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "count=" + getCount() + ", min=" + getMin() + ", mean=" + Math.round( getMean() ) + ", p50="
+            + getValueAtPercentile( 50d ) + ", p99=" + getValueAtPercentile( 99d ) + ", p99.9="
+            + getValueAtPercentile( 99.9d ) + ", max=" + getMax();
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api.metrics;
+
+
+import org.apache.directory.api.ldap.model.message.MessageTypeEnum;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+
+
+/**
+ * What has been observed about a completed LDAP operation. The times are in nanoseconds,
+ * measured from the moment the request has been handed to the connection.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LdapOperationEvent
+{
+    /** The request's type */
+    private final MessageTypeEnum type;
+
+    /** The request's message ID */
+    private final int messageId;
+
+    /** The final result code, null if the operation has been abandoned */
+    private final ResultCodeEnum resultCode;
+
+    /** The size of the encoded request */
+    private int bytesEncoded;
+
+    /** The size of the decoded responses */
+    private long bytesDecoded;
+
+    /** The number of received responses, including the final one */
+    private int responseCount;
+
+    /** The time spent in the session's write queue */
+    private long queueWait;
+
+    /** The time until the first response */
+    private long firstResponseTime;
+
+    /** The time until the final response */
+    private long totalTime;
+
+
+    /**
+     * Creates a new instance of LdapOperationEvent.
+     *
+     * @param type The request's type
+     * @param messageId The request's message ID
+     * @param resultCode The final result code, null if the operation has been abandoned
+     */
+    public LdapOperationEvent( MessageTypeEnum type, int messageId, ResultCodeEnum resultCode )
+    {
+        this.type = type;
+        this.messageId = messageId;
+        this.resultCode = resultCode;
+    }
+
+
+    /**
+     * Sets the sizes of the exchanged PDUs.
+     *
+     * @param bytesEncoded The size of the encoded request, in bytes
+     * @param bytesDecoded The size of the decoded responses, in bytes
+     * @param responseCount The number of received responses, including the final one
+     */
+    public void setSizes( int bytesEncoded, long bytesDecoded, int responseCount )
+    {
+        this.bytesEncoded = bytesEncoded;
+        this.bytesDecoded = bytesDecoded;
+        this.responseCount = responseCount;
+    }
+
+
+    /**
+     * Sets the times, measured from the moment the request has been handed to the connection.
+     *
+     * @param queueWait The time spent waiting for the request to be written, in ns
+     * @param firstResponseTime The time until the first response, in ns
+     * @param totalTime The time until the final response, in ns
+     */
+    public void setTimes( long queueWait, long firstResponseTime, long totalTime )
+    {
+        this.queueWait = queueWait;
+        this.firstResponseTime = firstResponseTime;
+        this.totalTime = totalTime;
+    }
+
+
+    /**
+     * @return The request's type
+     */
+    public MessageTypeEnum getType()
+    {
+        return type;
+    }
+
+
+    /**
+     * @return The request's message ID
+     */
+    public int getMessageId()
+    {
+        return messageId;
+    }
+
+
+    /**
+     * @return The final result code, or null if the operation has been abandoned, or if the
+     * request could not be written
+     */
+    public ResultCodeEnum getResultCode()
+    {
+        return resultCode;
+    }
+
+
+    /**
+     * @return The size of the encoded request, in bytes
+     */
+    public int getBytesEncoded()
+    {
+        return bytesEncoded;
+    }
+
+
+    /**
+     * @return The size of the decoded responses, in bytes
+     */
+    public long getBytesDecoded()
+    {
+        return bytesDecoded;
+    }
+
+
+    /**
+     * @return The number of received responses, including the final one
+     */
+    public int getResponseCount()
+    {
+        return responseCount;
+    }
+
+
+    /**
+     * @return The time spent waiting for the request to be written to the socket, in ns
+     */
+    public long getQueueWait()
+    {
+        return queueWait;
+    }
+
+
+    /**
+     * @return The time until the first response (the first entry of a search), in ns
+     */
+    public long getFirstResponseTime()
+    {
+        return firstResponseTime;
+    }
+
+
+    /**
+     * @return The time until the final response, in ns
+     */
+    public long getTotalTime()
+    {
+        return totalTime;
+    }
+
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return type + "[" + messageId + "] " + resultCode + ", " + bytesEncoded + "/" + bytesDecoded + " bytes, "
+            + responseCount + " responses, queued " + queueWait + "ns, first response " + firstResponseTime
+            + "ns, total " + totalTime + "ns";
+    }
+}
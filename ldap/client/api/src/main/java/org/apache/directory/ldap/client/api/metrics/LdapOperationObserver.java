@@ -0,0 +1,64 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api.metrics;
+
+
+/**
+ * An observer notified of the operations done by the connections, and of the connections
+ * borrowed from a pool.
+ * <br>
+ * The observer is set in the {@link org.apache.directory.ldap.client.api.LdapConnectionConfig}
+ * for the connections, and in the {@link org.apache.directory.ldap.client.api.LdapConnectionPool}
+ * for the pool. It's called from the I/O threads, and from the threads using the pool : it must
+ * be thread safe, and return quickly.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public interface LdapOperationObserver
+{
+    /**
+     * Called when an operation has received its final response, or has been abandoned.
+     *
+     * @param event What has been observed about the operation
+     */
+    void operationCompleted( LdapOperationEvent event );
+
+
+    /**
+     * Called when a connection has been borrowed from a pool.
+     *
+     * @param waitTime The time spent waiting for the connection, in ns
+     */
+    default void connectionBorrowed( long waitTime )
+    {
+        // Nothing to do
+    }
+
+
+    /**
+     * Called when a connection has been released to a pool.
+     *
+     * @param holdTime The time the connection has been borrowed, in ns
+     */
+    default void connectionReleased( long holdTime )
+    {
+        // Nothing to do
+    }
+}
@@ -20,9 +20,14 @@
 package org.apache.directory.ldap.client.template;
 
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.directory.api.ldap.model.cursor.CursorException;
+import org.apache.directory.api.ldap.model.cursor.EntryCursor;
 import org.apache.directory.api.ldap.model.entry.Attribute;
+import org.apache.directory.api.ldap.model.exception.LdapException;
 import org.apache.directory.api.ldap.model.message.AddRequest;
 import org.apache.directory.api.ldap.model.message.AddResponse;
 import org.apache.directory.api.ldap.model.message.DeleteRequest;
@@ -33,6 +38,7 @@ import org.apache.directory.api.ldap.model.message.ResultResponse;
 import org.apache.directory.api.ldap.model.message.SearchRequest;
 import org.apache.directory.api.ldap.model.message.SearchScope;
 import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.ldap.client.api.LdapConnection;
 import org.apache.directory.ldap.client.api.search.FilterBuilder;
 import org.apache.directory.ldap.client.template.exception.PasswordException;
 
@@ -445,6 +451,48 @@ public interface LdapConnectionOperations
         EntryMapper<T> entryMapper );
 
 
+    /**
+     * Searches for the entries matching the supplied <code>searchRequest</code>
+     * using the Paged Results control (RFC 2696), feeding the result into the
+     * <code>entryMapper</code>. The entries are requested page by page, the next
+     * page being requested while the current one is mapped. If a page is not
+     * successful, a LdapRequestUnsuccessfulException is thrown.
+     * <br>
+     * The default implementation runs {@link LdapConnection#searchPaged(SearchRequest, int)}
+     * on the connection provided by {@link #execute(ConnectionCallback)}.
+     *
+     * @param searchRequest The search request
+     * @param pageSize The number of entries per page
+     * @param entryMapper The mapper
+     * @param <T> The type of the mapped entry
+     * @return The mapped entries
+     */
+    default <T> List<T> searchPaged( SearchRequest searchRequest, int pageSize,
+        EntryMapper<T> entryMapper )
+    {
+        return execute( connection ->
+        {
+            List<T> entries = new ArrayList<>();
+
+            try ( EntryCursor cursor = connection.searchPaged( searchRequest, pageSize ) )
+            {
+                while ( cursor.next() )
+                {
+                    entries.add( entryMapper.map( cursor.get() ) );
+                }
+
+                responseOrException( cursor.getSearchResultDone() );
+            }
+            catch ( CursorException | IOException e )
+            {
+                throw new LdapException( e );
+            }
+
+            return entries;
+        } );
+    }
+
+
     /**
      * Searches for the first entry matching the supplied criteria, feeding the 
      * result into the <code>entryMapper</code>.
@@ -20,12 +20,15 @@
 package org.apache.directory.ldap.client.template;
 
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.directory.api.i18n.I18n;
 import org.apache.directory.api.ldap.extras.controls.ppolicy.PasswordPolicyResponse;
 import org.apache.directory.api.ldap.extras.controls.ppolicy.PasswordPolicyResponseImpl;
+import org.apache.directory.api.ldap.model.cursor.CursorException;
+import org.apache.directory.api.ldap.model.cursor.EntryCursor;
 import org.apache.directory.api.ldap.model.entry.Attribute;
 import org.apache.directory.api.ldap.model.entry.Entry;
 import org.apache.directory.api.ldap.model.entry.Value;
@@ -844,6 +847,64 @@ public class LdapConnectionTemplate implements LdapConnectionOperations, ModelFa
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> List<T> searchPaged( SearchRequest searchRequest, int pageSize,
+        EntryMapper<T> entryMapper )
+    {
+        List<T> entries = new ArrayList<>();
+
+        LdapConnection connection = null;
+        EntryCursor cursor = null;
+
+        try
+        {
+            connection = connectionPool.getConnection();
+            cursor = connection.searchPaged( searchRequest, pageSize );
+
+            while ( cursor.next() )
+            {
+                entries.add( entryMapper.map( cursor.get() ) );
+            }
+
+            responseOrException( cursor.getSearchResultDone() );
+        }
+        catch ( LdapException e )
+        {
+            throw new LdapRuntimeException( e );
+        }
+        catch ( CursorException e )
+        {
+            throw new LdapRuntimeException( new LdapException( e ) );
+        }
+        finally
+        {
+            closeCursor( cursor );
+            returnLdapConnection( connection );
+        }
+
+        return entries;
+    }
+
+
+    private void closeCursor( EntryCursor cursor )
+    {
+        if ( cursor != null )
+        {
+            try
+            {
+                cursor.close();
+            }
+            catch ( IOException e )
+            {
+                LOG.warn( e.getMessage(), e );
+            }
+        }
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,184 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.api.ldap.model.entry.DefaultEntry;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.message.AddRequest;
+import org.apache.directory.api.ldap.model.message.AddRequestImpl;
+import org.apache.directory.api.ldap.model.message.BindRequestImpl;
+import org.apache.directory.api.ldap.model.message.DeleteRequest;
+import org.apache.directory.api.ldap.model.message.DeleteRequestImpl;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the CompletionStage operations of LdapAsyncConnection.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LdapAsyncConnectionStageTest
+{
+    private LdapStubServer server;
+    private LdapNetworkConnection connection;
+
+
+    @BeforeEach
+    public void setup() throws Exception
+    {
+        server = new LdapStubServer();
+        connection = new LdapNetworkConnection( server.newConfig() );
+        connection.connect();
+    }
+
+
+    @AfterEach
+    public void tearDown() throws Exception
+    {
+        connection.close();
+        server.close();
+    }
+
+
+    @Test
+    public void testComposedStages() throws Exception
+    {
+        BindRequestImpl bindRequest = new BindRequestImpl();
+        bindRequest.setDn( new Dn( "uid=admin,ou=system" ) );
+        bindRequest.setCredentials( "secret" );
+
+        CompletableFuture<ResultCodeEnum> result = connection.bindStage( bindRequest )
+            .thenCompose( bindResponse ->
+            {
+                AddRequest addRequest = new AddRequestImpl();
+
+                try
+                {
+                    addRequest.setEntry( new DefaultEntry( "cn=test,ou=system", "objectClass: person", "cn: test" ) );
+                }
+                catch ( Exception e )
+                {
+                    throw new IllegalStateException( e );
+                }
+
+                return connection.addStage( addRequest );
+            } )
+            .thenApply( addResponse -> addResponse.getLdapResult().getResultCode() )
+            .toCompletableFuture();
+
+        assertEquals( ResultCodeEnum.SUCCESS, result.get( 10, TimeUnit.SECONDS ) );
+        assertTrue( connection.isAuthenticated() );
+    }
+
+
+    @Test
+    public void testManyConcurrentStages() throws Exception
+    {
+        List<CompletableFuture<?>> stages = new ArrayList<>();
+
+        for ( int i = 0; i < 500; i++ )
+        {
+            DeleteRequest deleteRequest = new DeleteRequestImpl();
+            deleteRequest.setName( new Dn( "cn=test" + i + ",ou=system" ) );
+            stages.add( connection.deleteStage( deleteRequest ).toCompletableFuture() );
+        }
+
+        CompletableFuture.allOf( stages.toArray( new CompletableFuture<?>[0] ) ).get( 10, TimeUnit.SECONDS );
+
+        for ( CompletableFuture<?> stage : stages )
+        {
+            assertTrue( stage.isDone() );
+            assertFalse( stage.isCompletedExceptionally() );
+        }
+    }
+
+
+    @Test
+    public void testCancelledStageAbandonsTheOperation() throws Exception
+    {
+        // The server never answers
+        server.setResponder( request -> Collections.emptyList() );
+
+        DeleteRequest deleteRequest = new DeleteRequestImpl();
+        deleteRequest.setName( new Dn( "cn=test,ou=system" ) );
+        CompletableFuture<?> stage = connection.deleteStage( deleteRequest ).toCompletableFuture();
+        int messageId = deleteRequest.getMessageId();
+
+        assertFalse( connection.isRequestCompleted( messageId ) );
+
+        stage.cancel( true );
+
+        assertTrue( connection.isRequestCompleted( messageId ) );
+        assertThrows( CancellationException.class, () -> stage.get() );
+    }
+
+
+    @Test
+    public void testStageFailsOnSessionClose() throws Exception
+    {
+        server.setResponder( request -> Collections.emptyList() );
+
+        DeleteRequest deleteRequest = new DeleteRequestImpl();
+        deleteRequest.setName( new Dn( "cn=test,ou=system" ) );
+        CompletableFuture<?> stage = connection.deleteStage( deleteRequest ).toCompletableFuture();
+
+        connection.close();
+
+        assertThrows( Exception.class, () -> stage.get( 10, TimeUnit.SECONDS ) );
+        assertTrue( stage.isCompletedExceptionally() );
+    }
+
+
+    @Test
+    public void testStageTimesOut() throws Exception
+    {
+        // The server never answers
+        server.setResponder( request -> Collections.emptyList() );
+        connection.setTimeOut( 200L );
+
+        DeleteRequest deleteRequest = new DeleteRequestImpl();
+        deleteRequest.setName( new Dn( "cn=test,ou=system" ) );
+        CompletableFuture<?> stage = connection.deleteStage( deleteRequest ).toCompletableFuture();
+        int messageId = deleteRequest.getMessageId();
+
+        ExecutionException ee = assertThrows( ExecutionException.class, () -> stage.get( 10, TimeUnit.SECONDS ) );
+
+        assertTrue( ee.getCause() instanceof LdapException );
+        assertTrue( connection.isRequestCompleted( messageId ) );
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.message.BindRequest;
+import org.apache.directory.api.ldap.model.message.BindResponse;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.api.util.Strings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the LdapCredentialVerifier.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LdapCredentialVerifierTest
+{
+    private LdapStubServer server;
+    private LdapConnectionConfig config;
+    private AtomicInteger bindCount;
+
+
+    @BeforeEach
+    public void setup() throws Exception
+    {
+        bindCount = new AtomicInteger();
+        server = new LdapStubServer();
+        server.setResponder( request ->
+        {
+            if ( !( request instanceof BindRequest ) )
+            {
+                return LdapStubServer.defaultResponses( request );
+            }
+
+            BindRequest bindRequest = ( BindRequest ) request;
+            BindResponse bindResponse = ( BindResponse ) bindRequest.getResultResponse();
+            String name = bindRequest.getName();
+            String password = Strings.utf8ToString( bindRequest.getCredentials() );
+            bindCount.incrementAndGet();
+
+            if ( name.startsWith( "cn=silent" ) )
+            {
+                return Collections.emptyList();
+            }
+            else if ( name.startsWith( "cn=busy" ) )
+            {
+                bindResponse.getLdapResult().setResultCode( ResultCodeEnum.BUSY );
+            }
+            else if ( !password.equals( "secret" ) )
+            {
+                bindResponse.getLdapResult().setResultCode( ResultCodeEnum.INVALID_CREDENTIALS );
+            }
+
+            return Collections.singletonList( bindResponse );
+        } );
+
+        config = server.newConfig();
+        config.setName( "cn=service,ou=system" );
+        config.setCredentials( "service" );
+    }
+
+
+    @AfterEach
+    public void tearDown()
+    {
+        server.close();
+    }
+
+
+    @Test
+    public void testInvalidConcurrentBinds()
+    {
+        assertThrows( IllegalArgumentException.class, () -> new LdapCredentialVerifier( config, 0 ) );
+    }
+
+
+    @Test
+    public void testVerify() throws Exception
+    {
+        try ( LdapCredentialVerifier verifier = new LdapCredentialVerifier( config, 2 ) )
+        {
+            assertTrue( verifier.verify( "cn=user1,ou=system", "secret" ) );
+            assertFalse( verifier.verify( new Dn( "cn=user1,ou=system" ), "wrong" ) );
+            assertTrue( verifier.verify( new Dn( "cn=user2,ou=system" ), "secret" ) );
+
+            // Empty passwords are rejected without asking the server
+            assertFalse( verifier.verify( "cn=user1,ou=system", "" ) );
+            assertFalse( verifier.verify( "cn=user1,ou=system", null ) );
+
+            // One bind per verification on a single connection : no bind back to the service account
+            assertEquals( 3, bindCount.get() );
+            assertEquals( 1, server.getSessionCount() );
+            assertEquals( 1, verifier.getIdleConnectionCount() );
+            assertEquals( 2L, verifier.getAcceptedCount() );
+            assertEquals( 3L, verifier.getRejectedCount() );
+
+            // A server error isn't a rejection
+            assertThrows( LdapException.class, () -> verifier.verify( "cn=busy,ou=system", "secret" ) );
+        }
+    }
+
+
+    @Test
+    public void testConcurrentVerifications() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( 16 );
+
+        try ( LdapCredentialVerifier verifier = new LdapCredentialVerifier( config, 4 ) )
+        {
+            List<Future<Boolean>> results = new ArrayList<>();
+
+            for ( int i = 0; i < 200; i++ )
+            {
+                String password = ( i % 2 == 0 ) ? "secret" : "wrong";
+                String name = "cn=user" + i + ",ou=system";
+                results.add( executor.submit( () -> verifier.verify( name, password ) ) );
+            }
+
+            for ( int i = 0; i < 200; i++ )
+            {
+                assertEquals( i % 2 == 0, results.get( i ).get( 10, TimeUnit.SECONDS ) );
+            }
+
+            assertEquals( 200, bindCount.get() );
+            assertTrue( server.getSessionCount() <= 4 );
+            assertEquals( 0, verifier.getActiveBindCount() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+
+    @Test
+    public void testPipelinedVerifications() throws Exception
+    {
+        try ( LdapCredentialVerifier verifier = new LdapCredentialVerifier( config, 3 ) )
+        {
+            List<Future<Boolean>> results = new ArrayList<>();
+
+            for ( int i = 0; i < 3; i++ )
+            {
+                results.add( verifier.verifyStage( "cn=user" + i + ",ou=system", "secret" ).toCompletableFuture() );
+            }
+
+            for ( Future<Boolean> result : results )
+            {
+                assertTrue( result.get( 10, TimeUnit.SECONDS ) );
+            }
+        }
+    }
+
+
+    @Test
+    public void testUnansweredBindTimesOut() throws Exception
+    {
+        // The connections don't time out by themselves
+        DefaultLdapConnectionFactory factory = new DefaultLdapConnectionFactory( config )
+        {
+            @Override
+            public LdapConnection newUnboundLdapConnection()
+            {
+                LdapConnection connection = super.newUnboundLdapConnection();
+                connection.setTimeOut( 60000L );
+
+                return connection;
+            }
+        };
+
+        try ( LdapCredentialVerifier verifier = new LdapCredentialVerifier( factory, 1, 200L ) )
+        {
+            assertThrows( LdapException.class, () -> verifier.verify( "cn=silent,ou=system", "secret" ) );
+
+            // The bind has been abandoned, its connection closed and its permit released
+            assertEquals( 0, verifier.getActiveBindCount() );
+            assertEquals( 0, verifier.getIdleConnectionCount() );
+            assertTrue( verifier.verify( "cn=user1,ou=system", "secret" ) );
+        }
+    }
+
+
+    @Test
+    public void testClosed() throws Exception
+    {
+        LdapCredentialVerifier verifier = new LdapCredentialVerifier( config, 2 );
+        assertTrue( verifier.verify( "cn=user1,ou=system", "secret" ) );
+
+        verifier.close();
+
+        assertTrue( verifier.isClosed() );
+        assertEquals( 0, verifier.getIdleConnectionCount() );
+        assertThrows( LdapException.class, () -> verifier.verify( "cn=user1,ou=system", "secret" ) );
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.message.ModifyRequest;
+import org.apache.directory.api.ldap.model.message.ModifyRequestImpl;
+import org.apache.directory.api.ldap.model.message.ModifyResponse;
+import org.apache.directory.api.ldap.model.message.Response;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.message.SearchRequest;
+import org.apache.directory.api.ldap.model.message.SearchRequestImpl;
+import org.apache.directory.api.ldap.model.message.SearchResultDone;
+import org.apache.directory.api.ldap.model.message.SearchScope;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the LdapMultiplexedConnection.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LdapMultiplexedConnectionTest
+{
+    private LdapStubServer server;
+    private LdapConnectionConfig config;
+
+
+    @BeforeEach
+    public void setup() throws Exception
+    {
+        server = new LdapStubServer();
+        config = server.newConfig();
+    }
+
+
+    @AfterEach
+    public void tearDown()
+    {
+        server.close();
+    }
+
+
+    private static ModifyRequest newModifyRequest( int i ) throws Exception
+    {
+        ModifyRequest modifyRequest = new ModifyRequestImpl();
+        modifyRequest.setName( new Dn( "cn=test" + i + ",ou=system" ) );
+        modifyRequest.replace( "description", "value " + i );
+
+        return modifyRequest;
+    }
+
+
+    @Test
+    public void testInvalidParameters()
+    {
+        DefaultLdapConnectionFactory factory = new DefaultLdapConnectionFactory( config );
+
+        assertThrows( IllegalArgumentException.class, () -> new LdapMultiplexedConnection( factory, 0, 10 ) );
+        assertThrows( IllegalArgumentException.class, () -> new LdapMultiplexedConnection( factory, 2, 0 ) );
+    }
+
+
+    @Test
+    public void testConcurrentOperations() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( 16 );
+
+        try ( LdapMultiplexedConnection connection =
+            new LdapMultiplexedConnection( new DefaultLdapConnectionFactory( config ), 3, 8 ) )
+        {
+            assertEquals( 3, server.getSessionCount() );
+
+            List<Future<ModifyResponse>> results = new ArrayList<>();
+
+            for ( int i = 0; i < 500; i++ )
+            {
+                ModifyRequest modifyRequest = newModifyRequest( i );
+                results.add( executor.submit(
+                    () -> connection.modifyStage( modifyRequest ).toCompletableFuture().get() ) );
+            }
+
+            for ( Future<ModifyResponse> result : results )
+            {
+                assertEquals( ResultCodeEnum.SUCCESS, result.get( 10, TimeUnit.SECONDS ).getLdapResult()
+                    .getResultCode() );
+            }
+
+            // All the operations went over the same sockets
+            assertEquals( 3, server.getSessionCount() );
+            assertEquals( 0, connection.getOutstandingRequests() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+
+    @Test
+    public void testInFlightWindow() throws Exception
+    {
+        // The modify requests are never answered
+        server.setResponder( request -> request instanceof ModifyRequest ? Collections.emptyList()
+            : LdapStubServer.defaultResponses( request ) );
+        config.setTimeout( 200L );
+
+        try ( LdapMultiplexedConnection connection =
+            new LdapMultiplexedConnection( new DefaultLdapConnectionFactory( config ), 2, 2 ) )
+        {
+            List<CompletableFuture<ModifyResponse>> pending = new ArrayList<>();
+
+            for ( int i = 0; i < 4; i++ )
+            {
+                pending.add( connection.modifyStage( newModifyRequest( i ) ).toCompletableFuture() );
+            }
+
+            assertEquals( 4, connection.getOutstandingRequests() );
+
+            // Cancelling an operation abandons it, and frees its room in the window
+            pending.get( 0 ).cancel( true );
+            assertEquals( 3, connection.getOutstandingRequests() );
+
+            pending.add( connection.modifyStage( newModifyRequest( 4 ) ).toCompletableFuture() );
+            assertEquals( 4, connection.getOutstandingRequests() );
+
+            // Both windows are full : the next operation waits until the unanswered ones time out
+            CompletableFuture<ModifyResponse> waiting = connection.modifyStage( newModifyRequest( 5 ) )
+                .toCompletableFuture();
+
+            ExecutionException ee = assertThrows( ExecutionException.class,
+                () -> waiting.get( 10, TimeUnit.SECONDS ) );
+            assertTrue( ee.getCause() instanceof LdapException );
+            assertFalse( ee.getCause().getMessage().startsWith(
+                I18n.ERR_04190_IN_FLIGHT_WINDOW_TIMEOUT.getErrorCode() ) );
+            assertEquals( 0, connection.getOutstandingRequests() );
+        }
+    }
+
+
+    @Test
+    public void testUnansweredOperationTimesOut() throws Exception
+    {
+        // The modify requests are never answered
+        server.setResponder( request -> request instanceof ModifyRequest ? Collections.emptyList()
+            : LdapStubServer.defaultResponses( request ) );
+        config.setTimeout( 200L );
+
+        // The underlying connection doesn't time out by itself
+        try ( LdapMultiplexedConnection connection = new LdapMultiplexedConnection( newFactory( 10000L ), 1, 1 ) )
+        {
+            CompletableFuture<ModifyResponse> pending = connection.modifyStage( newModifyRequest( 0 ) )
+                .toCompletableFuture();
+
+            ExecutionException ee = assertThrows( ExecutionException.class,
+                () -> pending.get( 10, TimeUnit.SECONDS ) );
+            assertTrue( ee.getCause() instanceof LdapException );
+
+            // The operation has been abandoned, and its room in the window freed
+            assertEquals( 0, connection.getOutstandingRequests() );
+            connection.modifyStage( newModifyRequest( 1 ) );
+            assertEquals( 1, connection.getOutstandingRequests() );
+        }
+    }
+
+
+    /**
+     * Creates a factory whose connections use their own operation timeout
+     */
+    private DefaultLdapConnectionFactory newFactory( long operationTimeout )
+    {
+        return new DefaultLdapConnectionFactory( config )
+        {
+            @Override
+            public LdapConnection newUnboundLdapConnection()
+            {
+                LdapConnection connection = super.newUnboundLdapConnection();
+                connection.setTimeOut( operationTimeout );
+
+                return connection;
+            }
+        };
+    }
+
+
+    @Test
+    public void testSearch() throws Exception
+    {
+        try ( LdapMultiplexedConnection connection =
+            new LdapMultiplexedConnection( new DefaultLdapConnectionFactory( config ), 2, 4 ) )
+        {
+            SearchRequest searchRequest = new SearchRequestImpl();
+            searchRequest.setBase( new Dn( "ou=system" ) );
+            searchRequest.setFilter( "(objectClass=*)" );
+            searchRequest.setScope( SearchScope.SUBTREE );
+
+            List<Response> responses = connection.search( searchRequest );
+
+            assertEquals( 1, responses.size() );
+            assertTrue( responses.get( 0 ) instanceof SearchResultDone );
+            assertEquals( 0, connection.getOutstandingRequests() );
+        }
+    }
+
+
+    @Test
+    public void testClosed() throws Exception
+    {
+        LdapMultiplexedConnection connection =
+            new LdapMultiplexedConnection( new DefaultLdapConnectionFactory( config ), 2, 4 );
+        connection.close();
+
+        assertTrue( connection.isClosed() );
+        assertThrows( ExecutionException.class,
+            () -> connection.modifyStage( newModifyRequest( 0 ) ).toCompletableFuture().get() );
+    }
+}
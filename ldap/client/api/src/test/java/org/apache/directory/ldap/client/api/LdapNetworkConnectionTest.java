@@ -21,10 +21,35 @@ package org.apache.directory.ldap.client.api;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
+import org.apache.directory.api.ldap.model.cursor.EntryCursor;
+import org.apache.directory.api.ldap.model.entry.DefaultEntry;
+import org.apache.directory.api.ldap.model.entry.Entry;
+import org.apache.directory.api.ldap.model.entry.LazySchemaAwareEntry;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.message.SearchRequest;
+import org.apache.directory.api.ldap.model.message.SearchResultDone;
+import org.apache.directory.api.ldap.model.message.SearchResultEntry;
+import org.apache.directory.api.ldap.model.message.SearchResultEntryImpl;
+import org.apache.directory.api.ldap.model.message.SearchScope;
+import org.apache.directory.api.ldap.schema.manager.impl.DefaultSchemaManager;
+import org.apache.directory.api.util.Strings;
+import org.apache.directory.ldap.client.api.exception.InvalidConnectionException;
+import org.apache.directory.ldap.client.api.future.AddFuture;
+import org.apache.mina.core.filterchain.IoFilterAdapter;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.core.write.WriteRequest;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -84,4 +109,165 @@ public class LdapNetworkConnectionTest
         }
     }
 
+
+    @Test
+    public void testAsyncWritesDoNotWaitForCompletion() throws Exception
+    {
+        try ( LdapStubServer server = new LdapStubServer();
+            LdapNetworkConnection connection = new LdapNetworkConnection( server.newConfig() ) )
+        {
+            connection.connect();
+
+            // Swallow the encoded requests : their write future never completes
+            connection.getIoSession().getFilterChain().addFirst( "blackhole", new IoFilterAdapter()
+            {
+                @Override
+                public void filterWrite( NextFilter nextFilter, IoSession session, WriteRequest writeRequest )
+                {
+                    // Never written
+                }
+            } );
+
+            List<AddFuture> futures = new ArrayList<>();
+            long start = System.nanoTime();
+
+            for ( int i = 0; i < 100; i++ )
+            {
+                futures.add( connection.addAsync(
+                    new DefaultEntry( "cn=test" + i + ",ou=system", "objectClass: person", "cn: test" + i ) ) );
+            }
+
+            // A write waiting for its completion would block for at least 100 ms each
+            assertTrue( System.nanoTime() - start < TimeUnit.SECONDS.toNanos( 5L ) );
+            assertEquals( 100, connection.getWriteQueueDepth() );
+
+            for ( AddFuture future : futures )
+            {
+                assertFalse( future.isDone() );
+            }
+
+            // Let the UnbindRequest go through when closing
+            connection.getIoSession().getFilterChain().remove( "blackhole" );
+        }
+    }
+
+
+    @Test
+    public void testWriteFailureIsThrown() throws Exception
+    {
+        try ( LdapStubServer server = new LdapStubServer();
+            LdapNetworkConnection connection = new LdapNetworkConnection( server.newConfig() ) )
+        {
+            connection.connect();
+            connection.setTimeOut( TimeUnit.MINUTES.toMillis( 1L ) );
+
+            // Fail the writes of the encoded requests
+            connection.getIoSession().getFilterChain().addFirst( "broken", new IoFilterAdapter()
+            {
+                @Override
+                public void filterWrite( NextFilter nextFilter, IoSession session, WriteRequest writeRequest )
+                {
+                    writeRequest.getFuture().setException( new IOException( "Broken pipe" ) );
+                }
+            } );
+
+            long start = System.nanoTime();
+
+            InvalidConnectionException addException = assertThrows( InvalidConnectionException.class,
+                () -> connection.add( new DefaultEntry( "cn=test,ou=system", "objectClass: person", "cn: test" ) ) );
+            assertTrue( addException.getCause() instanceof IOException );
+            assertEquals( "Broken pipe", addException.getCause().getMessage() );
+
+            // The search request write fails once the cursor has been returned
+            List<WriteRequest> pendingWrites = new ArrayList<>();
+            connection.getIoSession().getFilterChain().replace( "broken", new IoFilterAdapter()
+            {
+                @Override
+                public void filterWrite( NextFilter nextFilter, IoSession session, WriteRequest writeRequest )
+                {
+                    pendingWrites.add( writeRequest );
+                }
+            } );
+
+            try ( EntryCursor cursor = connection.search( "ou=system", "(objectClass=*)", SearchScope.ONELEVEL ) )
+            {
+                pendingWrites.get( 0 ).getFuture().setException( new IOException( "Broken pipe" ) );
+
+                InvalidConnectionException searchException = assertThrows( InvalidConnectionException.class,
+                    cursor::next );
+                assertTrue( searchException.getCause() instanceof IOException );
+            }
+
+            // The failures aren't reported as timeouts
+            assertTrue( System.nanoTime() - start < TimeUnit.SECONDS.toNanos( 30L ) );
+
+            // Let the AbandonRequest and the UnbindRequest go through when closing
+            connection.getIoSession().getFilterChain().remove( "broken" );
+        }
+    }
+
+
+    @ParameterizedTest
+    @MethodSource("lazySchemaAwareEntries")
+    public void testSchemaAwareSearchEntries( boolean lazySchemaAwareEntries,
+        Class<? extends Entry> expectedClass ) throws Exception
+    {
+        try ( LdapStubServer server = new LdapStubServer() )
+        {
+            server.setResponder( request ->
+            {
+                if ( !( request instanceof SearchRequest ) )
+                {
+                    return LdapStubServer.defaultResponses( request );
+                }
+
+                SearchResultEntry entry = new SearchResultEntryImpl( request.getMessageId() );
+
+                try
+                {
+                    entry.setEntry( new DefaultEntry( "cn=test,ou=system", "objectClass: person", "cn: test",
+                        "sn: Test", "userPassword;binary", Strings.getBytesUtf8( "secret" ) ) );
+                }
+                catch ( Exception e )
+                {
+                    throw new IllegalStateException( e );
+                }
+
+                SearchResultDone done = ( SearchResultDone ) ( ( SearchRequest ) request ).getResultResponse();
+                done.getLdapResult().setResultCode( ResultCodeEnum.SUCCESS );
+
+                return Arrays.asList( entry, done );
+            } );
+
+            LdapConnectionConfig config = server.newConfig();
+            config.setLazySchemaAwareEntries( lazySchemaAwareEntries );
+
+            try ( LdapNetworkConnection connection = new LdapNetworkConnection( config ) )
+            {
+                connection.setSchemaManager( new DefaultSchemaManager() );
+
+                try ( EntryCursor cursor = connection.search( "ou=system", "(objectClass=*)", SearchScope.SUBTREE ) )
+                {
+                    assertTrue( cursor.next() );
+
+                    Entry entry = cursor.get();
+
+                    assertEquals( expectedClass, entry.getClass() );
+                    assertTrue( entry.isSchemaAware() );
+                    assertTrue( entry.contains( "surname", "test" ) );
+
+                    // The binary attributes are detected from the raw attribute type
+                    assertFalse( entry.get( "userPassword" ).isHumanReadable() );
+                }
+            }
+        }
+    }
+
+
+    private static Stream<Arguments> lazySchemaAwareEntries()
+    {
+        return Stream.of(
+            Arguments.of( false, DefaultEntry.class ),
+            Arguments.of( true, LazySchemaAwareEntry.class ) );
+    }
 }
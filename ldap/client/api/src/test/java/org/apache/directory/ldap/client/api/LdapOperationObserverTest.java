@@ -0,0 +1,292 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.directory.api.ldap.model.cursor.EntryCursor;
+import org.apache.directory.api.ldap.model.entry.DefaultEntry;
+import org.apache.directory.api.ldap.model.entry.DefaultModification;
+import org.apache.directory.api.ldap.model.entry.ModificationOperation;
+import org.apache.directory.api.ldap.model.exception.LdapNoSuchObjectException;
+import org.apache.directory.api.ldap.model.message.MessageTypeEnum;
+import org.apache.directory.api.ldap.model.message.ModifyRequest;
+import org.apache.directory.api.ldap.model.message.Response;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.message.ResultResponse;
+import org.apache.directory.api.ldap.model.message.SearchRequest;
+import org.apache.directory.api.ldap.model.message.SearchResultEntry;
+import org.apache.directory.api.ldap.model.message.SearchResultEntryImpl;
+import org.apache.directory.api.ldap.model.message.SearchScope;
+import org.apache.directory.ldap.client.api.metrics.HistogramOperationObserver;
+import org.apache.directory.ldap.client.api.metrics.LdapOperationEvent;
+import org.apache.directory.ldap.client.api.metrics.LdapOperationObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the LdapOperationObserver notifications.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LdapOperationObserverTest
+{
+    private static final int NB_ENTRIES = 3;
+
+    private LdapStubServer server;
+    private LdapConnectionConfig config;
+    private List<LdapOperationEvent> events;
+    private HistogramOperationObserver histograms;
+
+
+    @BeforeEach
+    public void setup() throws Exception
+    {
+        server = new LdapStubServer();
+        server.setResponder( request ->
+        {
+            if ( request instanceof ModifyRequest )
+            {
+                ResultResponse response = ( ( ModifyRequest ) request ).getResultResponse();
+                response.getLdapResult().setResultCode( ResultCodeEnum.NO_SUCH_OBJECT );
+
+                return Collections.singletonList( response );
+            }
+
+            if ( !( request instanceof SearchRequest ) )
+            {
+                return LdapStubServer.defaultResponses( request );
+            }
+
+            List<Response> responses = new ArrayList<>();
+
+            try
+            {
+                for ( int i = 0; i < NB_ENTRIES; i++ )
+                {
+                    SearchResultEntry entry = new SearchResultEntryImpl( request.getMessageId() );
+                    entry.setEntry( new DefaultEntry( "cn=test" + i + ",ou=system", "objectClass: person",
+                        "cn: test" + i ) );
+                    responses.add( entry );
+                }
+            }
+            catch ( Exception e )
+            {
+                throw new IllegalStateException( e );
+            }
+
+            responses.add( ( ( SearchRequest ) request ).getResultResponse() );
+
+            return responses;
+        } );
+
+        events = new CopyOnWriteArrayList<>();
+        histograms = new HistogramOperationObserver();
+
+        config = server.newConfig();
+        config.setOperationObserver( event ->
+        {
+            events.add( event );
+            histograms.operationCompleted( event );
+        } );
+    }
+
+
+    @AfterEach
+    public void tearDown()
+    {
+        server.close();
+    }
+
+
+    @Test
+    public void testOperationEvents() throws Exception
+    {
+        try ( LdapNetworkConnection connection = new LdapNetworkConnection( config ) )
+        {
+            connection.bind( "cn=admin,ou=system", "secret" );
+            connection.add( new DefaultEntry( "cn=test,ou=system", "objectClass: person", "cn: test" ) );
+            assertThrows( LdapNoSuchObjectException.class, () -> connection.modify( "cn=missing,ou=system",
+                new DefaultModification( ModificationOperation.REPLACE_ATTRIBUTE, "cn", "test" ) ) );
+
+            int count = 0;
+
+            try ( EntryCursor cursor = connection.search( "ou=system", "(objectClass=*)", SearchScope.SUBTREE ) )
+            {
+                while ( cursor.next() )
+                {
+                    count++;
+                }
+            }
+
+            assertEquals( NB_ENTRIES, count );
+        }
+
+        assertEquals( 4, events.size() );
+
+        LdapOperationEvent bind = events.get( 0 );
+        assertEquals( MessageTypeEnum.BIND_REQUEST, bind.getType() );
+        assertEquals( ResultCodeEnum.SUCCESS, bind.getResultCode() );
+        assertEquals( 1, bind.getResponseCount() );
+
+        LdapOperationEvent modify = events.get( 2 );
+        assertEquals( MessageTypeEnum.MODIFY_REQUEST, modify.getType() );
+        assertEquals( ResultCodeEnum.NO_SUCH_OBJECT, modify.getResultCode() );
+
+        LdapOperationEvent search = events.get( 3 );
+        assertEquals( MessageTypeEnum.SEARCH_REQUEST, search.getType() );
+        assertEquals( ResultCodeEnum.SUCCESS, search.getResultCode() );
+        assertEquals( NB_ENTRIES + 1, search.getResponseCount() );
+        assertTrue( search.getBytesDecoded() > bind.getBytesDecoded() );
+
+        for ( LdapOperationEvent event : events )
+        {
+            assertTrue( event.getBytesEncoded() > 0, event.toString() );
+            assertTrue( event.getBytesDecoded() > 0, event.toString() );
+            assertTrue( event.getQueueWait() <= event.getFirstResponseTime(), event.toString() );
+            assertTrue( event.getFirstResponseTime() <= event.getTotalTime(), event.toString() );
+        }
+
+        assertEquals( 1L, histograms.getTotalTimes( MessageTypeEnum.MODIFY_REQUEST ).getCount() );
+        assertEquals( 1L,
+            histograms.getTotalTimes( MessageTypeEnum.MODIFY_REQUEST, ResultCodeEnum.NO_SUCH_OBJECT ).getCount() );
+        assertNull( histograms.getTotalTimes( MessageTypeEnum.MODIFY_REQUEST, ResultCodeEnum.SUCCESS ) );
+        assertEquals( 1L, histograms.getFirstResponseTimes( MessageTypeEnum.SEARCH_REQUEST ).getCount() );
+        assertEquals( 4L, histograms.getQueueWaits().getCount() );
+        assertTrue( histograms.getBytesDecoded() > histograms.getBytesEncoded() );
+    }
+
+
+    @Test
+    public void testPoolObserver() throws Exception
+    {
+        config.setName( "cn=admin,ou=system" );
+        config.setCredentials( "secret" );
+        DefaultLdapConnectionFactory factory = new DefaultLdapConnectionFactory( config );
+        LdapConnectionPool pool = new LdapConnectionPool( new DefaultPoolableLdapConnectionFactory( factory ) );
+        List<Long> borrowed = new CopyOnWriteArrayList<>();
+        List<Long> released = new CopyOnWriteArrayList<>();
+
+        pool.setOperationObserver( new LdapOperationObserver()
+        {
+            @Override
+            public void operationCompleted( LdapOperationEvent event )
+            {
+                // Nothing to do
+            }
+
+
+            @Override
+            public void connectionBorrowed( long waitTime )
+            {
+                borrowed.add( waitTime );
+            }
+
+
+            @Override
+            public void connectionReleased( long holdTime )
+            {
+                released.add( holdTime );
+            }
+        } );
+
+        try
+        {
+            LdapConnection connection = pool.getConnection();
+            assertEquals( 1, borrowed.size() );
+            assertTrue( released.isEmpty() );
+
+            Thread.sleep( 5L );
+            pool.releaseConnection( connection );
+            assertEquals( 1, released.size() );
+            assertTrue( released.get( 0 ) >= 5_000_000L );
+
+            // A connection borrowed without observer isn't reported when released
+            pool.setOperationObserver( null );
+            connection = pool.getConnection();
+            pool.releaseConnection( connection );
+            assertEquals( 1, borrowed.size() );
+            assertEquals( 1, released.size() );
+        }
+        finally
+        {
+            pool.close();
+        }
+    }
+
+
+    @Test
+    public void testFailingPoolObserver() throws Exception
+    {
+        config.setName( "cn=admin,ou=system" );
+        config.setCredentials( "secret" );
+        DefaultLdapConnectionFactory factory = new DefaultLdapConnectionFactory( config );
+        LdapConnectionPool pool = new LdapConnectionPool( new DefaultPoolableLdapConnectionFactory( factory ) );
+
+        pool.setOperationObserver( new LdapOperationObserver()
+        {
+            @Override
+            public void operationCompleted( LdapOperationEvent event )
+            {
+                // Nothing to do
+            }
+
+
+            @Override
+            public void connectionBorrowed( long waitTime )
+            {
+                throw new IllegalStateException( "borrowed" );
+            }
+
+
+            @Override
+            public void connectionReleased( long holdTime )
+            {
+                throw new IllegalStateException( "released" );
+            }
+        } );
+
+        try
+        {
+            // The observer failures don't prevent the connection from being borrowed and returned
+            LdapConnection connection = pool.getConnection();
+            assertEquals( 1, pool.getNumActive() );
+
+            pool.releaseConnection( connection );
+            assertEquals( 0, pool.getNumActive() );
+            assertEquals( 1, pool.getNumIdle() );
+        }
+        finally
+        {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the LdapSharedConnector.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LdapSharedConnectorTest
+{
+    private LdapStubServer server;
+    private LdapSharedConnector sharedConnector;
+
+
+    @BeforeEach
+    public void setup() throws Exception
+    {
+        server = new LdapStubServer();
+        sharedConnector = new LdapSharedConnector( 2 );
+    }
+
+
+    @AfterEach
+    public void tearDown()
+    {
+        sharedConnector.close();
+        server.close();
+    }
+
+
+    @Test
+    public void testInvalidProcessorCount()
+    {
+        assertThrows( IllegalArgumentException.class, () -> new LdapSharedConnector( 0 ) );
+    }
+
+
+    @Test
+    public void testManyConnectionsOverSharedConnector() throws Exception
+    {
+        LdapConnectionConfig config = server.newConfig();
+        config.setSharedConnector( sharedConnector );
+        List<LdapNetworkConnection> connections = new ArrayList<>();
+
+        for ( int i = 0; i < 20; i++ )
+        {
+            LdapNetworkConnection connection = new LdapNetworkConnection( config );
+            connection.bind( "uid=admin,ou=system", "secret" );
+            assertTrue( connection.isAuthenticated() );
+            connections.add( connection );
+        }
+
+        assertEquals( 20, sharedConnector.getManagedSessionCount() );
+
+        for ( LdapNetworkConnection connection : connections )
+        {
+            connection.close();
+            assertFalse( connection.isConnected() );
+        }
+
+        // The connections must not have disposed the shared connector
+        assertFalse( sharedConnector.isClosed() );
+
+        // A closed connection can be reopened on the shared connector
+        LdapNetworkConnection connection = connections.get( 0 );
+        connection.bind( "uid=admin,ou=system", "secret" );
+        assertTrue( connection.isAuthenticated() );
+        connection.unBind();
+        connection.close();
+    }
+
+
+    @Test
+    public void testPoolOverSharedConnector() throws Exception
+    {
+        LdapConnectionConfig config = server.newConfig();
+        config.setSharedConnector( sharedConnector );
+        config.setName( "uid=admin,ou=system" );
+        config.setCredentials( "secret" );
+
+        LdapConnectionPool pool = new LdapConnectionPool(
+            new DefaultPoolableLdapConnectionFactory( new DefaultLdapConnectionFactory( config ) ) );
+
+        try
+        {
+            LdapConnection connection1 = pool.getConnection();
+            LdapConnection connection2 = pool.getConnection();
+
+            assertTrue( connection1.isAuthenticated() );
+            assertTrue( connection2.isAuthenticated() );
+            assertEquals( 2, sharedConnector.getManagedSessionCount() );
+
+            pool.releaseConnection( connection1 );
+            pool.releaseConnection( connection2 );
+        }
+        finally
+        {
+            pool.close();
+        }
+
+        assertFalse( sharedConnector.isClosed() );
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.directory.api.ldap.codec.api.LdapApiService;
+import org.apache.directory.api.ldap.codec.api.LdapApiServiceFactory;
+import org.apache.directory.api.ldap.codec.api.LdapDecoder;
+import org.apache.directory.api.ldap.codec.api.LdapMessageContainer;
+import org.apache.directory.api.ldap.model.message.Message;
+import org.apache.directory.api.ldap.model.message.Request;
+import org.apache.directory.api.ldap.model.message.Response;
+import org.apache.directory.api.ldap.model.message.ResultResponseRequest;
+import org.apache.directory.api.ldap.model.message.UnbindRequest;
+import org.apache.mina.core.service.IoHandlerAdapter;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.codec.ProtocolCodecFilter;
+import org.apache.mina.transport.socket.nio.NioSocketAcceptor;
+
+
+/**
+ * A minimal in-process LDAP server used to test the client side. By default, it
+ * answers every request expecting a response with a successful result, and closes
+ * the session on an UnbindRequest. A specific responder can be set to return
+ * other responses.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LdapStubServer implements Closeable
+{
+    /** The acceptor */
+    private final NioSocketAcceptor acceptor;
+
+    /** The codec */
+    private final LdapApiService codec = LdapApiServiceFactory.getSingleton();
+
+    /** The function computing the responses to send back for a request */
+    private volatile Function<Request, List<Response>> responder = LdapStubServer::defaultResponses;
+
+
+    /**
+     * Creates and starts a new LdapStubServer, listening on a random port
+     *
+     * @throws IOException If the server can't be started
+     */
+    public LdapStubServer() throws IOException
+    {
+        acceptor = new NioSocketAcceptor();
+        acceptor.setReuseAddress( true );
+        acceptor.getFilterChain().addLast( "ldapCodec", new ProtocolCodecFilter( codec.getProtocolCodecFactory() ) );
+        acceptor.setHandler( new StubHandler() );
+        acceptor.bind( new InetSocketAddress( "localhost", 0 ) );
+    }
+
+
+    /**
+     * @return The port this server is listening on
+     */
+    public int getPort()
+    {
+        return acceptor.getLocalAddress().getPort();
+    }
+
+
+    /**
+     * @return The number of sessions currently opened on this server
+     */
+    public int getSessionCount()
+    {
+        return acceptor.getManagedSessionCount();
+    }
+
+
+    /**
+     * Sets the function computing the responses sent back for each request.
+     *
+     * @param responder The responder to use
+     */
+    public void setResponder( Function<Request, List<Response>> responder )
+    {
+        this.responder = responder;
+    }
+
+
+    /**
+     * Creates a configuration targeting this server
+     *
+     * @return The connection configuration
+     */
+    public LdapConnectionConfig newConfig()
+    {
+        LdapConnectionConfig config = new LdapConnectionConfig();
+        config.setLdapHost( "localhost" );
+        config.setLdapPort( getPort() );
+        config.setTimeout( 10000L );
+
+        return config;
+    }
+
+
+    /**
+     * The default responses : a successful result for any request expecting one.
+     *
+     * @param request The received request
+     * @return The responses to send
+     */
+    public static List<Response> defaultResponses( Request request )
+    {
+        if ( request instanceof ResultResponseRequest )
+        {
+            return Collections.singletonList( ( ( ResultResponseRequest ) request ).getResultResponse() );
+        }
+
+        return Collections.emptyList();
+    }
+
+
+    /**
+     * Stops the server
+     */
+    @Override
+    public void close()
+    {
+        acceptor.unbind();
+        acceptor.dispose( true );
+    }
+
+
+    /**
+     * The handler decoding requests and writing back responses
+     */
+    private class StubHandler extends IoHandlerAdapter
+    {
+        @Override
+        public void sessionCreated( IoSession session ) throws Exception
+        {
+            session.setAttribute( LdapDecoder.MESSAGE_CONTAINER_ATTR, new LdapMessageContainer<Message>( codec ) );
+        }
+
+
+        @Override
+        public void messageReceived( IoSession session, Object message ) throws Exception
+        {
+            if ( message instanceof UnbindRequest )
+            {
+                session.closeNow();
+
+                return;
+            }
+
+            for ( Response response : responder.apply( ( Request ) message ) )
+            {
+                session.write( response );
+            }
+        }
+    }
+}
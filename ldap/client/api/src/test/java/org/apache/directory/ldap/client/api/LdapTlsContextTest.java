@@ -0,0 +1,154 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the LdapTlsContext.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LdapTlsContextTest
+{
+    @Test
+    public void testInvalidSessionCache()
+    {
+        assertThrows( IllegalArgumentException.class, () -> new LdapTlsContext( -1, 100 ) );
+        assertThrows( IllegalArgumentException.class, () -> new LdapTlsContext( 100, -1 ) );
+    }
+
+
+    @Test
+    public void testSharedSslContext() throws Exception
+    {
+        LdapTlsContext tlsContext = new LdapTlsContext( 10, 60 );
+        LdapConnectionConfig config1 = new LdapConnectionConfig();
+        LdapConnectionConfig config2 = new LdapConnectionConfig();
+        config2.setSslProtocol( "TLSv1.2" );
+
+        SSLContext sslContext = tlsContext.getSslContext( config1 );
+
+        // The second configuration gets the context created for the first one
+        assertSame( sslContext, tlsContext.getSslContext( config2 ) );
+        assertEquals( config1.getSslProtocol(), sslContext.getProtocol() );
+        assertEquals( 10, sslContext.getClientSessionContext().getSessionCacheSize() );
+        assertEquals( 60, sslContext.getClientSessionContext().getSessionTimeout() );
+    }
+
+
+    @Test
+    public void testGivenSslContext() throws Exception
+    {
+        SSLContext sslContext = SSLContext.getInstance( "TLS" );
+        sslContext.init( null, null, null );
+        sslContext.getClientSessionContext().setSessionCacheSize( 42 );
+
+        LdapTlsContext tlsContext = new LdapTlsContext( sslContext );
+
+        assertSame( sslContext, tlsContext.getSslContext( new LdapConnectionConfig() ) );
+        assertEquals( 42, tlsContext.getSessionCacheSize() );
+    }
+
+
+    @Test
+    public void testHandshakeCounters()
+    {
+        LdapTlsContext tlsContext = new LdapTlsContext();
+
+        assertEquals( 0d, tlsContext.getResumptionRate() );
+
+        tlsContext.handshakeCompleted( false );
+        tlsContext.handshakeCompleted( true );
+        tlsContext.handshakeCompleted( true );
+        tlsContext.handshakeCompleted( true );
+        tlsContext.handshakeCompleted( null );
+
+        assertEquals( 4L, tlsContext.getHandshakeCount() );
+        assertEquals( 3L, tlsContext.getResumedHandshakeCount() );
+        assertEquals( 0.75d, tlsContext.getResumptionRate(), 0.0001d );
+
+        tlsContext.resetCounters();
+        assertEquals( 0L, tlsContext.getHandshakeCount() );
+    }
+
+
+    @Test
+    public void testResumptionDetection()
+    {
+        LdapTlsContext tlsContext = new LdapTlsContext( 2, 60 );
+
+        // The sessions resumed have the ID of a previously negotiated session
+        tlsContext.handshakeCompleted( mockSession( 1 ) );
+        tlsContext.handshakeCompleted( mockSession( 2 ) );
+        tlsContext.handshakeCompleted( mockSession( 1 ) );
+        assertEquals( 3L, tlsContext.getHandshakeCount() );
+        assertEquals( 1L, tlsContext.getResumedHandshakeCount() );
+
+        // Only the IDs of the most recent sessions are kept, like the session cache
+        tlsContext.handshakeCompleted( mockSession( 3 ) );
+        tlsContext.handshakeCompleted( mockSession( 2 ) );
+        assertEquals( 1L, tlsContext.getResumedHandshakeCount() );
+
+        // A session without ID is never considered as resumed
+        tlsContext.handshakeCompleted( mockSession( 0 ) );
+        tlsContext.handshakeCompleted( mockSession( 0 ) );
+        assertEquals( 7L, tlsContext.getHandshakeCount() );
+        assertEquals( 1L, tlsContext.getResumedHandshakeCount() );
+    }
+
+
+    private static SSLSession mockSession( int id )
+    {
+        SSLSession session = mock( SSLSession.class );
+        when( session.getId() ).thenReturn( id == 0 ? new byte[0] : new byte[] { 0x01, ( byte ) id } );
+
+        return session;
+    }
+
+
+    @Test
+    public void testFactoryDoesNotModifyConfig()
+    {
+        LdapConnectionConfig config = new LdapConnectionConfig();
+        config.setUseSsl( true );
+
+        // The TLS context is only shared when it has been set in the configuration
+        assertNull( new DefaultLdapConnectionFactory( config ).getTlsContext() );
+        assertNull( config.getTlsContext() );
+
+        LdapTlsContext tlsContext = new LdapTlsContext();
+        config.setTlsContext( tlsContext );
+
+        assertSame( tlsContext, new DefaultLdapConnectionFactory( config ).getTlsContext() );
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.directory.api.ldap.model.exception.LdapAuthenticationException;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.message.BindRequest;
+import org.apache.directory.api.ldap.model.message.BindResponse;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.ldap.client.api.LoadBalancingLdapConnectionFactory.Server;
+import org.apache.directory.ldap.client.api.LoadBalancingLdapConnectionFactory.ServerState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the LoadBalancingLdapConnectionFactory against in-process stub servers.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LoadBalancingLdapConnectionFactoryTest
+{
+    private LdapStubServer server1;
+    private LdapStubServer server2;
+    private AtomicInteger binds1;
+    private AtomicInteger binds2;
+    private AtomicBoolean unavailable1;
+    private volatile long delay1;
+    private LoadBalancingLdapConnectionFactory factory;
+
+
+    @BeforeEach
+    public void setup() throws Exception
+    {
+        binds1 = new AtomicInteger();
+        binds2 = new AtomicInteger();
+        unavailable1 = new AtomicBoolean();
+        delay1 = 0L;
+
+        server1 = new LdapStubServer();
+        server1.setResponder( request ->
+        {
+            if ( request instanceof BindRequest )
+            {
+                binds1.incrementAndGet();
+
+                if ( delay1 > 0L )
+                {
+                    try
+                    {
+                        Thread.sleep( delay1 );
+                    }
+                    catch ( InterruptedException ie )
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                if ( unavailable1.get() )
+                {
+                    BindResponse bindResponse = ( BindResponse ) ( ( BindRequest ) request ).getResultResponse();
+                    bindResponse.getLdapResult().setResultCode( ResultCodeEnum.UNAVAILABLE );
+
+                    return Collections.singletonList( bindResponse );
+                }
+            }
+
+            return LdapStubServer.defaultResponses( request );
+        } );
+
+        server2 = new LdapStubServer();
+        server2.setResponder( request ->
+        {
+            if ( request instanceof BindRequest )
+            {
+                BindRequest bindRequest = ( BindRequest ) request;
+                binds2.incrementAndGet();
+
+                if ( "cn=wrong,ou=system".equals( bindRequest.getName() ) )
+                {
+                    BindResponse bindResponse = ( BindResponse ) bindRequest.getResultResponse();
+                    bindResponse.getLdapResult().setResultCode( ResultCodeEnum.INVALID_CREDENTIALS );
+
+                    return Collections.singletonList( bindResponse );
+                }
+            }
+
+            return LdapStubServer.defaultResponses( request );
+        } );
+
+        factory = new LoadBalancingLdapConnectionFactory( Arrays.asList( server1.newConfig(), server2.newConfig() ),
+            0L );
+    }
+
+
+    @AfterEach
+    public void tearDown()
+    {
+        factory.close();
+        server1.close();
+        server2.close();
+    }
+
+
+    @Test
+    public void testNoServer()
+    {
+        assertThrows( IllegalArgumentException.class,
+            () -> new LoadBalancingLdapConnectionFactory( Collections.emptyList(), 0L ) );
+    }
+
+
+    @Test
+    public void testPreferFastServer() throws Exception
+    {
+        delay1 = 50L;
+
+        for ( int i = 0; i < 20; i++ )
+        {
+            factory.newLdapConnection().close();
+        }
+
+        assertEquals( 20, binds1.get() + binds2.get() );
+        assertTrue( binds2.get() >= 15, "Slow server got " + binds1.get() + " connections" );
+        assertTrue( factory.getServers().get( 0 ).getLatency() > factory.getServers().get( 1 ).getLatency() );
+    }
+
+
+    @Test
+    public void testOpenedConnections() throws Exception
+    {
+        Server server = factory.getServers().get( 1 );
+        server1.close();
+        factory.setMaxConsecutiveFailures( 1 );
+
+        LdapConnection connection = factory.newLdapConnection();
+        assertTrue( connection.isAuthenticated() );
+        assertEquals( 1, server.getOpenedConnectionCount() );
+
+        connection.close();
+        assertEquals( 0, server.getOpenedConnectionCount() );
+    }
+
+
+    @Test
+    public void testFailover() throws Exception
+    {
+        factory.setMaxConsecutiveFailures( 1 );
+        server1.close();
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            factory.newLdapConnection().close();
+        }
+
+        assertEquals( 5, binds2.get() );
+        assertEquals( ServerState.EJECTED, factory.getServers().get( 0 ).getState() );
+        assertEquals( ServerState.HEALTHY, factory.getServers().get( 1 ).getState() );
+
+        // No server left
+        server2.close();
+        assertThrows( LdapException.class, () -> factory.newLdapConnection() );
+    }
+
+
+    @Test
+    public void testEjectionAndRecovery() throws Exception
+    {
+        Server server = factory.getServers().get( 0 );
+        factory.setMaxConsecutiveFailures( 2 );
+        unavailable1.set( true );
+
+        factory.probe();
+        assertEquals( ServerState.HEALTHY, server.getState() );
+        factory.probe();
+        assertEquals( ServerState.EJECTED, server.getState() );
+        assertTrue( server.getErrorRate() > 0d );
+
+        // The ejected server doesn't get any connection
+        int binds = binds1.get();
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            factory.newLdapConnection().close();
+        }
+
+        assertEquals( binds, binds1.get() );
+
+        // Once it answers, it's brought back slowly
+        unavailable1.set( false );
+        factory.setSlowStartTime( 60000L );
+        factory.probe();
+
+        assertEquals( ServerState.RECOVERING, server.getState() );
+        assertTrue( server.getWeight() < 0.5d );
+
+        factory.setSlowStartTime( 0L );
+        assertEquals( ServerState.HEALTHY, server.getState() );
+        assertEquals( 1d, server.getWeight() );
+    }
+
+
+    @Test
+    public void testInvalidCredentialsDontFailOver() throws Exception
+    {
+        LdapConnectionConfig config = server2.newConfig();
+        config.setName( "cn=wrong,ou=system" );
+        config.setCredentials( "wrong" );
+
+        try ( LoadBalancingLdapConnectionFactory wrongFactory = new LoadBalancingLdapConnectionFactory(
+            Arrays.asList( config ), 0L ) )
+        {
+            assertThrows( LdapAuthenticationException.class, () -> wrongFactory.newLdapConnection() );
+            assertEquals( ServerState.HEALTHY, wrongFactory.getServers().get( 0 ).getState() );
+            assertEquals( 0d, wrongFactory.getServers().get( 0 ).getErrorRate() );
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.directory.api.ldap.model.cursor.EntryCursor;
+import org.apache.directory.api.ldap.model.entry.DefaultEntry;
+import org.apache.directory.api.ldap.model.message.AbandonRequest;
+import org.apache.directory.api.ldap.model.message.Request;
+import org.apache.directory.api.ldap.model.message.Response;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.message.SearchRequest;
+import org.apache.directory.api.ldap.model.message.SearchRequestImpl;
+import org.apache.directory.api.ldap.model.message.SearchResultDone;
+import org.apache.directory.api.ldap.model.message.SearchResultDoneImpl;
+import org.apache.directory.api.ldap.model.message.SearchResultEntry;
+import org.apache.directory.api.ldap.model.message.SearchResultEntryImpl;
+import org.apache.directory.api.ldap.model.message.SearchScope;
+import org.apache.directory.api.ldap.model.message.controls.PagedResults;
+import org.apache.directory.api.ldap.model.message.controls.PagedResultsImpl;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.api.util.Strings;
+import org.apache.directory.ldap.client.template.LdapConnectionTemplate;
+import org.apache.directory.ldap.client.template.exception.LdapRequestUnsuccessfulException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the paged search cursor.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class PagedEntryCursorTest
+{
+    private static final int NB_ENTRIES = 250;
+
+    private LdapStubServer server;
+    private LdapNetworkConnection connection;
+
+    /** The number of page requests received by the server */
+    private final AtomicInteger pageRequests = new AtomicInteger();
+
+    /** The number of requests with a size of 0 received by the server */
+    private final AtomicInteger releaseRequests = new AtomicInteger();
+
+    /** The number of abandon requests received by the server */
+    private final AtomicInteger abandonRequests = new AtomicInteger();
+
+    /** The page number on which the server returns an error, if any */
+    private volatile int failingPage = -1;
+
+
+    @BeforeEach
+    public void setup() throws Exception
+    {
+        server = new LdapStubServer();
+        server.setResponder( this::pagedResponses );
+        connection = new LdapNetworkConnection( server.newConfig() );
+        connection.connect();
+    }
+
+
+    @AfterEach
+    public void tearDown() throws Exception
+    {
+        connection.close();
+        server.close();
+    }
+
+
+    /**
+     * Answers the paged search requests. The cookie is the position of the next entry.
+     */
+    private List<Response> pagedResponses( Request request )
+    {
+        if ( request instanceof AbandonRequest )
+        {
+            abandonRequests.incrementAndGet();
+        }
+
+        if ( !( request instanceof SearchRequest ) )
+        {
+            return LdapStubServer.defaultResponses( request );
+        }
+
+        List<Response> responses = new ArrayList<>();
+        PagedResults pagedResults = ( PagedResults ) request.getControl( PagedResults.OID );
+        SearchResultDone done = new SearchResultDoneImpl( request.getMessageId() );
+        done.getLdapResult().setResultCode( ResultCodeEnum.SUCCESS );
+        responses.add( done );
+
+        if ( pagedResults.getSize() == 0 )
+        {
+            releaseRequests.incrementAndGet();
+
+            return responses;
+        }
+
+        int page = pageRequests.incrementAndGet();
+
+        if ( page == failingPage )
+        {
+            done.getLdapResult().setResultCode( ResultCodeEnum.UNWILLING_TO_PERFORM );
+
+            return responses;
+        }
+
+        int start = Strings.isEmpty( pagedResults.getCookie() ) ? 0
+            : Integer.parseInt( Strings.utf8ToString( pagedResults.getCookie() ) );
+        int end = Math.min( start + pagedResults.getSize(), NB_ENTRIES );
+
+        try
+        {
+            for ( int i = start; i < end; i++ )
+            {
+                SearchResultEntry entry = new SearchResultEntryImpl( request.getMessageId() );
+                entry.setEntry( new DefaultEntry( "cn=test" + i + ",ou=system", "objectClass: person",
+                    "cn: test" + i ) );
+                responses.add( responses.size() - 1, entry );
+            }
+        }
+        catch ( Exception e )
+        {
+            throw new IllegalStateException( e );
+        }
+
+        PagedResults responseControl = new PagedResultsImpl();
+        responseControl.setSize( NB_ENTRIES );
+        responseControl.setCookie( end < NB_ENTRIES ? Strings.getBytesUtf8( Integer.toString( end ) )
+            : Strings.EMPTY_BYTES );
+        done.addControl( responseControl );
+
+        return responses;
+    }
+
+
+    private SearchRequest newSearchRequest() throws Exception
+    {
+        SearchRequest searchRequest = new SearchRequestImpl();
+        searchRequest.setBase( new Dn( "ou=system" ) );
+        searchRequest.setFilter( "(objectClass=*)" );
+        searchRequest.setScope( SearchScope.SUBTREE );
+
+        return searchRequest;
+    }
+
+
+    private void checkAllEntries( boolean prefetch ) throws Exception
+    {
+        SearchRequest searchRequest = newSearchRequest();
+
+        checkAllEntries( searchRequest, connection.searchPaged( searchRequest, 20, prefetch ) );
+    }
+
+
+    private void checkAllEntries( SearchRequest searchRequest, EntryCursor pagedCursor ) throws Exception
+    {
+        int nbEntries = 0;
+
+        try ( EntryCursor cursor = pagedCursor )
+        {
+            while ( cursor.next() )
+            {
+                assertEquals( "cn=test" + nbEntries + ",ou=system", cursor.get().getDn().getName() );
+                nbEntries++;
+            }
+
+            assertEquals( ResultCodeEnum.SUCCESS, cursor.getSearchResultDone().getLdapResult().getResultCode() );
+        }
+
+        assertEquals( NB_ENTRIES, nbEntries );
+        assertEquals( 13, pageRequests.get() );
+        assertEquals( 0, releaseRequests.get() );
+
+        // The original request has not been modified
+        assertTrue( searchRequest.getControls().isEmpty() );
+    }
+
+
+    @Test
+    public void testPagedSearchWithPrefetch() throws Exception
+    {
+        checkAllEntries( true );
+    }
+
+
+    @Test
+    public void testPagedSearchWithoutPrefetch() throws Exception
+    {
+        checkAllEntries( false );
+    }
+
+
+    @Test
+    public void testBlockingPagedSearch() throws Exception
+    {
+        // The cursor used by the default LdapConnection implementation
+        SearchRequest searchRequest = newSearchRequest();
+
+        checkAllEntries( searchRequest, new BlockingPagedEntryCursorImpl( connection, searchRequest, 20 ) );
+    }
+
+
+    @Test
+    public void testBlockingPagedSearchFailingPage() throws Exception
+    {
+        failingPage = 3;
+        int nbEntries = 0;
+
+        try ( EntryCursor cursor = new BlockingPagedEntryCursorImpl( connection, newSearchRequest(), 20 ) )
+        {
+            while ( cursor.next() )
+            {
+                nbEntries++;
+            }
+
+            assertEquals( ResultCodeEnum.UNWILLING_TO_PERFORM,
+                cursor.getSearchResultDone().getLdapResult().getResultCode() );
+            assertFalse( cursor.next() );
+        }
+
+        assertEquals( 40, nbEntries );
+    }
+
+
+    @Test
+    public void testInvalidPageSize() throws Exception
+    {
+        assertThrows( IllegalArgumentException.class, () -> connection.searchPaged( newSearchRequest(), 0 ) );
+    }
+
+
+    @Test
+    public void testCloseReleasesServerState() throws Exception
+    {
+        try ( EntryCursor cursor = connection.searchPaged( newSearchRequest(), 20, false ) )
+        {
+            for ( int i = 0; i < 30; i++ )
+            {
+                assertTrue( cursor.next() );
+            }
+        }
+
+        // Wait for the release request to reach the server. If the second page was not
+        // completely received when the cursor was closed, it has been abandoned instead.
+        long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis( 10 );
+
+        while ( ( releaseRequests.get() + abandonRequests.get() == 0 ) && ( System.currentTimeMillis() < end ) )
+        {
+            Thread.sleep( 10L );
+        }
+
+        assertEquals( 1, releaseRequests.get() + abandonRequests.get() );
+        assertEquals( 2, pageRequests.get() );
+    }
+
+
+    @Test
+    public void testFailingPage() throws Exception
+    {
+        failingPage = 3;
+        int nbEntries = 0;
+
+        try ( EntryCursor cursor = connection.searchPaged( newSearchRequest(), 20 ) )
+        {
+            while ( cursor.next() )
+            {
+                nbEntries++;
+            }
+
+            assertEquals( ResultCodeEnum.UNWILLING_TO_PERFORM,
+                cursor.getSearchResultDone().getLdapResult().getResultCode() );
+            assertFalse( cursor.next() );
+        }
+
+        assertEquals( 40, nbEntries );
+    }
+
+
+    @Test
+    public void testTemplatePagedSearch() throws Exception
+    {
+        LdapConnectionPool pool = new LdapConnectionPool(
+            new DefaultPoolableLdapConnectionFactory( new DefaultLdapConnectionFactory( server.newConfig() ) ) );
+
+        try
+        {
+            LdapConnectionTemplate template = new LdapConnectionTemplate( pool );
+
+            List<String> dns = template.searchPaged( newSearchRequest(), 100, entry -> entry.getDn().getName() );
+            assertEquals( NB_ENTRIES, dns.size() );
+            assertEquals( "cn=test249,ou=system", dns.get( NB_ENTRIES - 1 ) );
+
+            failingPage = pageRequests.get() + 2;
+            assertThrows( LdapRequestUnsuccessfulException.class,
+                () -> template.searchPaged( newSearchRequest(), 100, entry -> entry.getDn().getName() ) );
+        }
+        finally
+        {
+            pool.close();
+        }
+    }
+}
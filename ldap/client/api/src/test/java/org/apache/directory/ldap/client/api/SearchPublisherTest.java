@@ -0,0 +1,347 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.api.ldap.model.entry.DefaultEntry;
+import org.apache.directory.api.ldap.model.message.Response;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.message.SearchRequest;
+import org.apache.directory.api.ldap.model.message.SearchRequestImpl;
+import org.apache.directory.api.ldap.model.message.SearchResultDone;
+import org.apache.directory.api.ldap.model.message.SearchResultDoneImpl;
+import org.apache.directory.api.ldap.model.message.SearchResultEntry;
+import org.apache.directory.api.ldap.model.message.SearchResultEntryImpl;
+import org.apache.directory.api.ldap.model.message.SearchScope;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.ldap.client.api.flow.Subscriber;
+import org.apache.directory.ldap.client.api.flow.Subscription;
+import org.apache.directory.ldap.client.api.future.SearchPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the SearchPublisher.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class SearchPublisherTest
+{
+    private static final int NB_ENTRIES = 2000;
+
+    private LdapStubServer server;
+    private LdapNetworkConnection connection;
+
+
+    @BeforeEach
+    public void setup() throws Exception
+    {
+        server = new LdapStubServer();
+        server.setResponder( request ->
+        {
+            if ( !( request instanceof SearchRequest ) )
+            {
+                return LdapStubServer.defaultResponses( request );
+            }
+
+            List<Response> responses = new ArrayList<>();
+
+            try
+            {
+                for ( int i = 0; i < NB_ENTRIES; i++ )
+                {
+                    SearchResultEntry entry = new SearchResultEntryImpl( request.getMessageId() );
+                    entry.setEntry( new DefaultEntry( "cn=test" + i + ",ou=system", "objectClass: person",
+                        "cn: test" + i ) );
+                    responses.add( entry );
+                }
+            }
+            catch ( Exception e )
+            {
+                throw new IllegalStateException( e );
+            }
+
+            SearchResultDone done = new SearchResultDoneImpl( request.getMessageId() );
+            done.getLdapResult().setResultCode( ResultCodeEnum.SUCCESS );
+            responses.add( done );
+
+            return responses;
+        } );
+
+        connection = new LdapNetworkConnection( server.newConfig() );
+        connection.connect();
+    }
+
+
+    @AfterEach
+    public void tearDown() throws Exception
+    {
+        connection.close();
+        server.close();
+    }
+
+
+    private SearchRequest newSearchRequest() throws Exception
+    {
+        SearchRequest searchRequest = new SearchRequestImpl();
+        searchRequest.setBase( new Dn( "ou=system" ) );
+        searchRequest.setFilter( "(objectClass=*)" );
+        searchRequest.setScope( SearchScope.SUBTREE );
+
+        return searchRequest;
+    }
+
+
+    /**
+     * A subscriber storing the received responses, and requesting them one by one
+     * only when asked to.
+     */
+    private static class TestSubscriber implements Subscriber<Response>
+    {
+        private final BlockingQueue<Response> received = new LinkedBlockingQueue<>();
+        private final CountDownLatch terminated = new CountDownLatch( 1 );
+        private volatile Subscription subscription;
+        private volatile Throwable error;
+        private volatile boolean completed;
+
+
+        @Override
+        public void onSubscribe( Subscription subscription )
+        {
+            this.subscription = subscription;
+        }
+
+
+        @Override
+        public void onNext( Response response )
+        {
+            received.add( response );
+        }
+
+
+        @Override
+        public void onError( Throwable throwable )
+        {
+            error = throwable;
+            terminated.countDown();
+        }
+
+
+        @Override
+        public void onComplete()
+        {
+            completed = true;
+            terminated.countDown();
+        }
+    }
+
+
+    @Test
+    public void testBoundedDemand() throws Exception
+    {
+        SearchPublisher publisher = connection.searchPublisher( newSearchRequest() );
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe( subscriber );
+
+        subscriber.subscription.request( 10 );
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            assertTrue( subscriber.received.poll( 10, TimeUnit.SECONDS ) instanceof SearchResultEntry );
+        }
+
+        // No more than the requested responses must be published
+        assertNull( subscriber.received.poll( 200, TimeUnit.MILLISECONDS ) );
+        assertFalse( subscriber.completed );
+
+        // Request all the remaining responses
+        subscriber.subscription.request( Long.MAX_VALUE );
+
+        assertTrue( subscriber.terminated.await( 10, TimeUnit.SECONDS ) );
+        assertTrue( subscriber.completed );
+        assertNull( subscriber.error );
+        assertEquals( NB_ENTRIES - 10 + 1, subscriber.received.size() );
+
+        Response last = null;
+
+        for ( Response response : subscriber.received )
+        {
+            last = response;
+        }
+
+        assertTrue( last instanceof SearchResultDone );
+
+        // The connection is still usable
+        connection.bind( "uid=admin,ou=system", "secret" );
+        assertTrue( connection.isAuthenticated() );
+    }
+
+
+    @Test
+    public void testOneByOne() throws Exception
+    {
+        SearchPublisher publisher = connection.searchPublisher( newSearchRequest() );
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe( subscriber );
+
+        int nbEntries = 0;
+
+        while ( true )
+        {
+            subscriber.subscription.request( 1 );
+            Response response = subscriber.received.poll( 10, TimeUnit.SECONDS );
+
+            if ( response instanceof SearchResultDone )
+            {
+                break;
+            }
+
+            assertTrue( response instanceof SearchResultEntry );
+            nbEntries++;
+        }
+
+        assertEquals( NB_ENTRIES, nbEntries );
+        assertTrue( subscriber.terminated.await( 10, TimeUnit.SECONDS ) );
+        assertTrue( subscriber.completed );
+    }
+
+
+    @Test
+    public void testCancelSubscription() throws Exception
+    {
+        SearchRequest searchRequest = newSearchRequest();
+        SearchPublisher publisher = connection.searchPublisher( searchRequest );
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe( subscriber );
+
+        subscriber.subscription.request( 5 );
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            assertTrue( subscriber.received.poll( 10, TimeUnit.SECONDS ) instanceof SearchResultEntry );
+        }
+
+        subscriber.subscription.cancel();
+
+        assertTrue( publisher.isCancelled() );
+        assertTrue( connection.isRequestCompleted( searchRequest.getMessageId() ) );
+
+        // Nothing more is published once the subscription is cancelled
+        subscriber.subscription.request( 100 );
+        assertNull( subscriber.received.poll( 200, TimeUnit.MILLISECONDS ) );
+
+        // The reads have been resumed : the connection can still be used
+        server.setResponder( LdapStubServer::defaultResponses );
+        connection.bind( "uid=admin,ou=system", "secret" );
+        assertTrue( connection.isAuthenticated() );
+    }
+
+
+    @Test
+    public void testErrorOnSessionClose() throws Exception
+    {
+        server.setResponder( request -> Collections.emptyList() );
+
+        SearchPublisher publisher = connection.searchPublisher( newSearchRequest() );
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe( subscriber );
+        subscriber.subscription.request( 1 );
+
+        connection.close();
+
+        assertTrue( subscriber.terminated.await( 10, TimeUnit.SECONDS ) );
+        assertFalse( subscriber.completed );
+        assertTrue( subscriber.error != null );
+    }
+
+
+    @Test
+    public void testInvalidDemand() throws Exception
+    {
+        SearchPublisher publisher = connection.searchPublisher( newSearchRequest() );
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe( subscriber );
+
+        subscriber.subscription.request( 0 );
+
+        assertTrue( subscriber.terminated.await( 10, TimeUnit.SECONDS ) );
+        assertTrue( subscriber.error instanceof IllegalArgumentException );
+        assertTrue( publisher.isCancelled() );
+    }
+
+
+    @Test
+    public void testPull() throws Exception
+    {
+        SearchPublisher publisher = connection.searchPublisher( newSearchRequest() );
+        int nbEntries = 0;
+
+        while ( true )
+        {
+            Response response = publisher.get( 10, TimeUnit.SECONDS );
+
+            if ( response instanceof SearchResultDone )
+            {
+                break;
+            }
+
+            assertTrue( response instanceof SearchResultEntry );
+            nbEntries++;
+        }
+
+        assertEquals( NB_ENTRIES, nbEntries );
+
+        // Nothing more once the search is done
+        assertNull( publisher.get() );
+        assertNull( publisher.get( 10, TimeUnit.SECONDS ) );
+
+        // A subscriber can't subscribe anymore
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe( subscriber );
+        assertTrue( subscriber.terminated.await( 10, TimeUnit.SECONDS ) );
+        assertTrue( subscriber.error instanceof IllegalStateException );
+    }
+
+
+    @Test
+    public void testPullWithSubscriber() throws Exception
+    {
+        SearchPublisher publisher = connection.searchPublisher( newSearchRequest() );
+        publisher.subscribe( new TestSubscriber() );
+
+        assertThrows( IllegalStateException.class, () -> publisher.get() );
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.api.ldap.model.cursor.SearchCursor;
+import org.apache.directory.api.ldap.model.entry.DefaultEntry;
+import org.apache.directory.api.ldap.model.message.Response;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.message.SearchRequest;
+import org.apache.directory.api.ldap.model.message.SearchRequestImpl;
+import org.apache.directory.api.ldap.model.message.SearchResultDone;
+import org.apache.directory.api.ldap.model.message.SearchResultDoneImpl;
+import org.apache.directory.api.ldap.model.message.SearchResultEntry;
+import org.apache.directory.api.ldap.model.message.SearchResultEntryImpl;
+import org.apache.directory.api.ldap.model.message.SearchScope;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.api.util.Strings;
+import org.apache.directory.ldap.client.api.future.SearchFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the bounded search queue.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class SearchQueueWatermarkTest
+{
+    private static final int NB_ENTRIES = 20000;
+
+    private LdapStubServer server;
+    private LdapConnectionConfig config;
+    private volatile int nbReturned;
+
+
+    @BeforeEach
+    public void setup() throws Exception
+    {
+        String description = new String( new char[200] ).replace( '\0', 'x' );
+        nbReturned = NB_ENTRIES;
+
+        server = new LdapStubServer();
+        server.setResponder( request ->
+        {
+            if ( !( request instanceof SearchRequest ) )
+            {
+                return LdapStubServer.defaultResponses( request );
+            }
+
+            List<Response> responses = new ArrayList<>();
+
+            try
+            {
+                for ( int i = 0; i < nbReturned; i++ )
+                {
+                    SearchResultEntry entry = new SearchResultEntryImpl( request.getMessageId() );
+                    entry.setEntry( new DefaultEntry( "cn=test" + i + ",ou=system", "objectClass: person",
+                        "cn: test" + i, "description: " + description ) );
+                    responses.add( entry );
+                }
+            }
+            catch ( Exception e )
+            {
+                throw new IllegalStateException( e );
+            }
+
+            SearchResultDone done = new SearchResultDoneImpl( request.getMessageId() );
+            done.getLdapResult().setResultCode( ResultCodeEnum.SUCCESS );
+            responses.add( done );
+
+            return responses;
+        } );
+
+        config = server.newConfig();
+    }
+
+
+    @AfterEach
+    public void tearDown() throws Exception
+    {
+        server.close();
+    }
+
+
+    private SearchRequest newSearchRequest() throws Exception
+    {
+        SearchRequest searchRequest = new SearchRequestImpl();
+        searchRequest.setBase( new Dn( "ou=system" ) );
+        searchRequest.setFilter( "(objectClass=*)" );
+        searchRequest.setScope( SearchScope.SUBTREE );
+
+        return searchRequest;
+    }
+
+
+    /**
+     * Checks that the queue stays bounded while nothing is read, then reads all the entries
+     */
+    private void checkBoundedSearch( LdapNetworkConnection connection ) throws Exception
+    {
+        SearchRequest searchRequest = newSearchRequest();
+        SearchFuture searchFuture = connection.searchAsync( searchRequest );
+
+        // Let the connection read as much as it can
+        Thread.sleep( 500L );
+
+        assertTrue( searchFuture.getQueueSize() < NB_ENTRIES / 10, Strings.EMPTY_STRING + searchFuture );
+        searchFuture.cancel( true );
+
+        // Now, read everything with a cursor
+        int nbEntries = 0;
+
+        try ( SearchCursor cursor = connection.search( newSearchRequest() ) )
+        {
+            while ( cursor.next() )
+            {
+                assertTrue( cursor.isEntry() );
+                nbEntries++;
+            }
+
+            assertEquals( ResultCodeEnum.SUCCESS, cursor.getSearchResultDone().getLdapResult().getResultCode() );
+        }
+
+        assertEquals( NB_ENTRIES, nbEntries );
+
+        // The connection is still usable
+        connection.bind( "uid=admin,ou=system", "secret" );
+        assertTrue( connection.isAuthenticated() );
+    }
+
+
+    @Test
+    public void testHighWatermarkEntries() throws Exception
+    {
+        config.setSearchQueueHighWatermark( 100 );
+        config.setSearchQueueLowWatermark( 20 );
+
+        try ( LdapNetworkConnection connection = new LdapNetworkConnection( config ) )
+        {
+            checkBoundedSearch( connection );
+        }
+    }
+
+
+    @Test
+    public void testHighWatermarkBytes() throws Exception
+    {
+        config.setSearchQueueHighWatermarkBytes( 32 * 1024L );
+        config.setSearchQueueLowWatermarkBytes( 8 * 1024L );
+
+        try ( LdapNetworkConnection connection = new LdapNetworkConnection( config ) )
+        {
+            checkBoundedSearch( connection );
+        }
+    }
+
+
+    @Test
+    public void testQueuedBytes() throws Exception
+    {
+        config.setSearchQueueHighWatermarkBytes( 32 * 1024L );
+        config.setSearchQueueLowWatermarkBytes( 8 * 1024L );
+
+        // Return less entries, so that the reads are resumed only a few times
+        nbReturned = 500;
+
+        try ( LdapNetworkConnection connection = new LdapNetworkConnection( config ) )
+        {
+            SearchFuture searchFuture = connection.searchAsync( newSearchRequest() );
+
+            // Let the connection read until the high watermark
+            Thread.sleep( 500L );
+
+            // The queued responses are counted with the size of their PDU, more than 200 bytes each
+            assertTrue( searchFuture.getQueuedBytes() >= 32 * 1024L, Strings.EMPTY_STRING + searchFuture );
+            assertTrue( searchFuture.getQueuedBytes() > searchFuture.getQueueSize() * 200L );
+
+            int nbEntries = 0;
+            Response response = searchFuture.get( 10, TimeUnit.SECONDS );
+
+            while ( response instanceof SearchResultEntry )
+            {
+                nbEntries++;
+                response = searchFuture.get( 10, TimeUnit.SECONDS );
+            }
+
+            assertTrue( response instanceof SearchResultDone );
+            assertEquals( 500, nbEntries );
+
+            // The same sizes have been subtracted when reading the responses
+            assertEquals( 0, searchFuture.getQueueSize() );
+            assertEquals( 0L, searchFuture.getQueuedBytes() );
+        }
+    }
+
+
+    @Test
+    public void testUnbounded() throws Exception
+    {
+        try ( LdapNetworkConnection connection = new LdapNetworkConnection( config ) )
+        {
+            SearchFuture searchFuture = connection.searchAsync( newSearchRequest() );
+            Response response = null;
+
+            for ( int i = 0; i <= NB_ENTRIES; i++ )
+            {
+                response = searchFuture.get();
+            }
+
+            assertTrue( response instanceof SearchResultDone );
+            assertEquals( 0L, searchFuture.getQueuedBytes() );
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.ldap.client.api.metrics;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the LatencyHistogram.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LatencyHistogramTest
+{
+    @Test
+    public void testBuckets()
+    {
+        // The small values have their own bucket
+        for ( long value = 0; value < 64; value++ )
+        {
+            assertEquals( value, LatencyHistogram.bucketIndex( value ) );
+            assertEquals( value, LatencyHistogram.highestValue( ( int ) value ) );
+        }
+
+        // The larger ones are known with a 1/32 relative precision
+        for ( long value = 64; value < 10_000_000L; value += 7 )
+        {
+            int index = LatencyHistogram.bucketIndex( value );
+            long highest = LatencyHistogram.highestValue( index );
+
+            assertTrue( highest >= value );
+            assertTrue( highest - value <= value / 32 );
+            assertTrue( LatencyHistogram.highestValue( index - 1 ) < value );
+        }
+
+        assertEquals( Long.MAX_VALUE,
+            LatencyHistogram.highestValue( LatencyHistogram.bucketIndex( Long.MAX_VALUE ) ) );
+    }
+
+
+    @Test
+    public void testPercentiles()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals( 0L, histogram.getValueAtPercentile( 99d ) );
+        assertEquals( 0L, histogram.getMin() );
+
+        for ( long value = 1; value <= 10_000L; value++ )
+        {
+            histogram.record( value );
+        }
+
+        assertEquals( 10_000L, histogram.getCount() );
+        assertEquals( 1L, histogram.getMin() );
+        assertEquals( 10_000L, histogram.getMax() );
+        assertEquals( 5000.5d, histogram.getMean(), 0.001d );
+
+        long p50 = histogram.getValueAtPercentile( 50d );
+        long p99 = histogram.getValueAtPercentile( 99d );
+        assertTrue( ( p50 >= 5000L ) && ( p50 <= 5000L + 5000L / 32 ), Long.toString( p50 ) );
+        assertTrue( ( p99 >= 9900L ) && ( p99 <= 10_000L ), Long.toString( p99 ) );
+        assertEquals( 10_000L, histogram.getValueAtPercentile( 100d ) );
+
+        // Negative values are recorded as 0
+        histogram.record( -5L );
+        assertEquals( 0L, histogram.getMin() );
+
+        histogram.reset();
+        assertEquals( 0L, histogram.getCount() );
+        assertEquals( 0L, histogram.getMax() );
+        assertEquals( 0d, histogram.getMean() );
+    }
+}
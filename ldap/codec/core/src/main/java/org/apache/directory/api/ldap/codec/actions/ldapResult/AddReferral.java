@@ -32,7 +32,6 @@ import org.apache.directory.api.ldap.model.message.Referral;
 import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
 import org.apache.directory.api.ldap.model.message.ResultResponse;
 import org.apache.directory.api.ldap.model.url.LdapUrl;
-import org.apache.directory.api.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,12 +81,12 @@ public class AddReferral extends GrammarAction<LdapMessageContainer<Message>>
             {
                 try
                 {
-                    String url = Strings.utf8ToString( tlv.getValue().getData() );
+                    String url = tlv.getValue().getUtf8String();
                     referral.addLdapUrl( new LdapUrl( url ).toString() );
                 }
                 catch ( LdapURLEncodingException luee )
                 {
-                    String badUrl = Strings.utf8ToString( tlv.getValue().getData() );
+                    String badUrl = tlv.getValue().getUtf8String();
                     LOG.error( I18n.err( I18n.ERR_05103_INVALID_URL, badUrl, luee.getMessage() ) );
                     throw new DecoderException( I18n.err( I18n.ERR_05104_INVALID_URL, luee.getMessage() ), luee );
                 }
@@ -91,7 +91,7 @@ public class AddAttributeValue extends GrammarAction<LdapMessageContainer<AddReq
                 }
                 else
                 {
-                    value = Strings.utf8ToString( tlv.getValue().getData() );
+                    value = tlv.getValue().getUtf8String();
 
                     if ( LOG.isDebugEnabled() )
                     {
@@ -25,7 +25,6 @@ import org.apache.directory.api.asn1.ber.tlv.TLV;
 import org.apache.directory.api.i18n.I18n;
 import org.apache.directory.api.ldap.codec.api.LdapMessageContainer;
 import org.apache.directory.api.ldap.model.message.BindRequest;
-import org.apache.directory.api.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,7 +69,7 @@ public class StoreSaslMechanism extends GrammarAction<LdapMessageContainer<BindR
         }
         else
         {
-            bindRequestMessage.setSaslMechanism( Strings.utf8ToString( tlv.getValue().getData() ) );
+            bindRequestMessage.setSaslMechanism( tlv.getValue().getUtf8String() );
         }
 
         // We can have an END transition
@@ -90,7 +90,7 @@ public class StoreCompareRequestAssertionValue extends GrammarAction<LdapMessage
             }
             else
             {
-                compareRequest.setAssertionValue( Strings.utf8ToString( tlv.getValue().getData() ) );
+                compareRequest.setAssertionValue( tlv.getValue().getUtf8String() );
 
                 if ( LOG.isDebugEnabled() )
                 {
@@ -29,7 +29,6 @@ import org.apache.directory.api.ldap.model.entry.Attribute;
 import org.apache.directory.api.ldap.model.entry.DefaultAttribute;
 import org.apache.directory.api.ldap.model.exception.LdapException;
 import org.apache.directory.api.ldap.model.message.SearchResultEntry;
-import org.apache.directory.api.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,13 +81,17 @@ public class AddAttributeType extends GrammarAction<LdapMessageContainer<SearchR
         {
             try
             {
-                Attribute attribute = new DefaultAttribute( tlv.getValue().getData() );
+                byte[] type = tlv.getValue().getData();
+                Attribute attribute = new DefaultAttribute( type );
                 container.setCurrentAttribute( attribute );
+
+                // Check once for all the values if they are binary, using the raw type
+                container.setCurrentAttributeBinary( container.isBinary( type, 0, type.length ) );
                 searchResultEntry.getEntry().put( attribute );
             }
             catch ( LdapException ine )
             {
-                String type = Strings.utf8ToString( tlv.getValue().getData() );
+                String type = tlv.getValue().getUtf8String();
                 // This is for the client side. We will never decode LdapResult on the server
                 String msg = I18n.err( I18n.ERR_05156_INVALID_ATTRIBUTE_TYPE, type, ine.getMessage() );
                 LOG.error( I18n.err( I18n.ERR_05114_ERROR_MESSAGE, msg, ine.getMessage() ) );
@@ -98,7 +101,7 @@ public class AddAttributeType extends GrammarAction<LdapMessageContainer<SearchR
 
         if ( LOG.isDebugEnabled() )
         {
-            String type = Strings.utf8ToString( tlv.getValue().getData() );
+            String type = tlv.getValue().getUtf8String();
             LOG.debug( I18n.msg( I18n.MSG_05179_ATTRIBUTE_TYPE, type ) );
         }
     }
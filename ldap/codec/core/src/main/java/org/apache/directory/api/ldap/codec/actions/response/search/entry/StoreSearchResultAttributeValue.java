@@ -80,7 +80,7 @@ public class StoreSearchResultAttributeValue extends GrammarAction<LdapMessageCo
             }
             else
             {
-                if ( container.isBinary( container.getCurrentAttribute().getId() ) )
+                if ( container.isCurrentAttributeBinary() )
                 {
                     byte[] value = tlv.getValue().getData();
                     currentAttribute.add( value );
@@ -92,7 +92,7 @@ public class StoreSearchResultAttributeValue extends GrammarAction<LdapMessageCo
                 }
                 else
                 {
-                    String value = Strings.utf8ToString( tlv.getValue().getData() );
+                    String value = tlv.getValue().getUtf8String();
                     currentAttribute.add( value );
 
                     if ( LOG.isDebugEnabled() )
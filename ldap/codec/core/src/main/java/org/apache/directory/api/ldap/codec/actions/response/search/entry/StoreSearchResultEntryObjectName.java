@@ -74,8 +74,7 @@ public class StoreSearchResultEntryObjectName extends GrammarAction<LdapMessageC
         }
         else
         {
-            byte[] dnBytes = tlv.getValue().getData();
-            String dnStr = Strings.utf8ToString( dnBytes );
+            String dnStr = tlv.getValue().getUtf8String();
 
             try
             {
@@ -85,7 +84,7 @@ public class StoreSearchResultEntryObjectName extends GrammarAction<LdapMessageC
             catch ( LdapInvalidDnException ine )
             {
                 // This is for the client side. We will never decode LdapResult on the server
-                String msg = I18n.err( I18n.ERR_05157_INVALID_DN, Strings.dumpBytes( dnBytes ), ine.getMessage() );
+                String msg = I18n.err( I18n.ERR_05157_INVALID_DN, Strings.dumpBytes( tlv.getValue().getData() ), ine.getMessage() );
                 LOG.error( I18n.err( I18n.ERR_05114_ERROR_MESSAGE, msg, ine.getMessage() ) );
                 throw new DecoderException( msg, ine );
             }
@@ -20,6 +20,8 @@
 package org.apache.directory.api.ldap.codec.api;
 
 
+import org.apache.directory.api.util.Strings;
+
 /**
  * An interface used to abstract the means to detect whether or not an attribute
  * identifier/descriptor represents a binary attributeType.
@@ -33,4 +35,19 @@ public interface BinaryAttributeDetector
      * @return true if the attribute specified is not human readible, false otherwise
      */
     boolean isBinary( String attributeId );
+
+
+    /**
+     * Returns true if the attribute specified, encoded in UTF-8, is not human readable. This
+     * allows a check with the raw bytes of a decoded PDU.
+     *
+     * @param bytes the buffer containing the identifier/descriptor for the attribute to be checked
+     * @param start the position of the first byte
+     * @param length the number of bytes
+     * @return true if the attribute specified is not human readable, false otherwise
+     */
+    default boolean isBinary( byte[] bytes, int start, int length )
+    {
+        return isBinary( Strings.utf8ToString( bytes, start, length ) );
+    }
 }
@@ -153,6 +153,23 @@ public class DefaultConfigurableBinaryAttributeDetector extends SchemaBinaryAttr
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isBinary( byte[] bytes, int start, int length )
+    {
+        if ( super.isBinary( bytes, start, length ) )
+        {
+            return true;
+        }
+
+        String attrId = Strings.toLowerCaseAscii( Strings.utf8ToString( bytes, start, length ) );
+
+        return binaryAttributes.contains( attrId );
+    }
+
+
     /**
      * {@inheritDoc}
      */
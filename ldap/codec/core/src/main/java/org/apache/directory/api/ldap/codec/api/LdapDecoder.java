@@ -48,6 +48,12 @@ public class LdapDecoder
     /** The maximum PDU size, stored into the LDAPSession's attribute */
     public static final String MAX_PDU_SIZE_ATTR = "LDAP-maxPduSize";
 
+    /**
+     * The name of the LdapSession's attribute for the ObjIntConsumer notified with each
+     * decoded message and the size of its PDU, if any
+     */
+    public static final String DECODED_SIZE_LISTENER_ATTR = "LDAP-decodedSizeListener";
+
 
     /**
      * Creates an instance of a Ldap Decoder implementation.
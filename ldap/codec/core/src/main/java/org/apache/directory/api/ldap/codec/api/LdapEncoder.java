@@ -62,6 +62,13 @@ import org.apache.directory.api.ldap.model.message.Request;
  */
 public final class LdapEncoder
 {
+    /**
+     * The name of the LdapSession's attribute for the ObjIntConsumer notified with each
+     * encoded message and the size of its PDU, if any
+     */
+    public static final String ENCODED_SIZE_LISTENER_ATTR = "LDAP-encodedSizeListener";
+
+
     /**
      * Make this final class impossible to instaciate from teh outside
      */
@@ -273,6 +280,25 @@ public final class LdapEncoder
      * @throws EncoderException If anything goes wrong.
      */
     public static ByteBuffer encodeMessage( Asn1Buffer buffer, LdapApiService codec, Message message ) throws EncoderException
+    {
+        encodeMessageToBuffer( buffer, codec, message );
+
+        return buffer.getBytes();
+    }
+
+
+    /**
+     * Encode the LdapMessage into the given Asn1Buffer, without copying the resulting PDU.
+     * It can then be written where it's needed using {@link Asn1Buffer#writeTo(ByteBuffer)}.
+     *
+     * @param buffer The Asn1Buffer instance in which we store the result
+     * @param codec The LdapApiService instance
+     * @param message The message to encode
+     * @throws EncoderException If anything goes wrong.
+     * @see #encodeMessage(Asn1Buffer, LdapApiService, Message)
+     */
+    public static void encodeMessageToBuffer( Asn1Buffer buffer, LdapApiService codec, Message message )
+        throws EncoderException
     {
         int start = buffer.getPos();
 
@@ -295,7 +321,5 @@ public final class LdapEncoder
 
         // The LdapMessage Sequence
         BerValue.encodeSequence( buffer );
-
-        return buffer.getBytes();
     }
 }
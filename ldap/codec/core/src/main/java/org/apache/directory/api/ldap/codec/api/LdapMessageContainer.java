@@ -78,6 +78,9 @@ public class LdapMessageContainer<E extends Message> extends AbstractContainer
     /** The current attribute being decoded */
     private Attribute currentAttribute;
 
+    /** Tells if the values of the current attribute are binary */
+    private boolean currentAttributeBinary;
+
     /** A local storage for the MODIFY operation */
     private Modification currentModification;
     
@@ -168,6 +171,7 @@ public class LdapMessageContainer<E extends Message> extends AbstractContainer
         ldapResult = null;
         currentControl = null;
         currentAttribute = null;
+        currentAttributeBinary = false;
         currentFilter = null;
         terminalFilter = null;
         topFilter = null;
@@ -188,6 +192,18 @@ public class LdapMessageContainer<E extends Message> extends AbstractContainer
     }
 
 
+    /**
+     * @return Returns true if the attribute is binary.
+     * @param bytes The buffer containing the attribute id, encoded in UTF-8
+     * @param start The position of the first byte
+     * @param length The number of bytes
+     */
+    public boolean isBinary( byte[] bytes, int start, int length )
+    {
+        return binaryAttributeDetector.isBinary( bytes, start, length );
+    }
+
+
     /**
      * @return The message ID
      */
@@ -300,6 +316,24 @@ public class LdapMessageContainer<E extends Message> extends AbstractContainer
     }
 
 
+    /**
+     * @return <tt>true</tt> if the values of the current attribute are binary
+     */
+    public boolean isCurrentAttributeBinary()
+    {
+        return currentAttributeBinary;
+    }
+
+
+    /**
+     * @param currentAttributeBinary Tells if the values of the current attribute are binary
+     */
+    public void setCurrentAttributeBinary( boolean currentAttributeBinary )
+    {
+        this.currentAttributeBinary = currentAttributeBinary;
+    }
+
+
     /**
      * @return the currentModification
      */
@@ -22,7 +22,6 @@ package org.apache.directory.api.ldap.codec.api;
 import org.apache.directory.api.ldap.model.schema.AttributeType;
 import org.apache.directory.api.ldap.model.schema.LdapSyntax;
 import org.apache.directory.api.ldap.model.schema.SchemaManager;
-import org.apache.directory.api.util.Strings;
 
 /**
  * An implementation of the BinaryAttributeDetector interface. It's not
@@ -32,6 +31,9 @@ import org.apache.directory.api.util.Strings;
  */
 public class SchemaBinaryAttributeDetector implements BinaryAttributeDetector
 {
+    /** The option forcing an attribute to be binary */
+    private static final String BINARY_OPTION = ";binary";
+
     /** The schemaManager to use */
     private SchemaManager schemaManager;
     
@@ -66,27 +68,94 @@ public class SchemaBinaryAttributeDetector implements BinaryAttributeDetector
     @Override
     public boolean isBinary( String attributeId )
     {
-        String attrId = Strings.toLowerCaseAscii( attributeId );
+        // Called for each decoded attribute : avoid creating a lower cased copy of the ID
+        if ( attributeId.regionMatches( true, attributeId.length() - BINARY_OPTION.length(), BINARY_OPTION, 0,
+            BINARY_OPTION.length() ) )
+        {
+            return true;
+        }
 
-        if ( attrId.endsWith( ";binary" ) )
+        if ( schemaManager != null )
+        {
+            // The lookup ignores the case
+            return hasBinarySyntax( schemaManager.getAttributeType( attributeId ) );
+        }
+
+        return false;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isBinary( byte[] bytes, int start, int length )
+    {
+        if ( endsWithBinaryOption( bytes, start, length ) )
         {
             return true;
         }
 
         if ( schemaManager != null )
         {
-            AttributeType attributeType =  schemaManager.getAttributeType( attrId );
-            
-            if ( attributeType == null )
+            // Get rid of the options, and look the AttributeType up without creating a String
+            int end = start;
+
+            while ( ( end < start + length ) && ( bytes[end] != ';' ) )
             {
-                return false;
+                end++;
             }
-            
-            LdapSyntax ldapSyntax = attributeType.getSyntax();
-            
-            return ( ldapSyntax != null ) && !ldapSyntax.isHumanReadable();
+
+            return hasBinarySyntax( schemaManager.getAttributeTypeRegistry().find( bytes, start, end - start ) );
         }
 
         return false;
     }
+
+
+    /**
+     * Tells if an AttributeType has a syntax which is not human readable
+     */
+    private static boolean hasBinarySyntax( AttributeType attributeType )
+    {
+        if ( attributeType == null )
+        {
+            return false;
+        }
+
+        LdapSyntax ldapSyntax = attributeType.getSyntax();
+
+        return ( ldapSyntax != null ) && !ldapSyntax.isHumanReadable();
+    }
+
+
+    /**
+     * Tells if an attribute ID encoded in UTF-8 ends with the ';binary' option, ignoring the case
+     */
+    private static boolean endsWithBinaryOption( byte[] bytes, int start, int length )
+    {
+        int optionStart = start + length - BINARY_OPTION.length();
+
+        if ( optionStart < start )
+        {
+            return false;
+        }
+
+        for ( int i = 0; i < BINARY_OPTION.length(); i++ )
+        {
+            byte b = bytes[optionStart + i];
+
+            if ( ( b >= 'A' ) && ( b <= 'Z' ) )
+            {
+                b += 'a' - 'A';
+            }
+
+            if ( b != BINARY_OPTION.charAt( i ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
 }
@@ -26,13 +26,16 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
 
 import org.apache.directory.api.asn1.DecoderException;
 import org.apache.directory.api.asn1.EncoderException;
 import org.apache.directory.api.asn1.ber.Asn1Decoder;
+import org.apache.directory.api.asn1.ber.tlv.TLVStateEnum;
 import org.apache.directory.api.asn1.util.Asn1Buffer;
 import org.apache.directory.api.ldap.codec.api.LdapEncoder;
 import org.apache.directory.api.ldap.codec.api.LdapMessageContainer;
@@ -1009,4 +1012,66 @@ public class SearchResultEntryTest extends AbstractCodecServiceTest
         assertEquals( originalSearchResultEntry, decodedSearchResultEntry );
     }
 
+
+    /**
+     * Test the decoding of SearchResultEntries without copying the values, the PDUs
+     * being received in small chunks written in the same buffer
+     */
+    @Test
+    public void testDecodeSearchResultEntryZeroCopy() throws DecoderException, EncoderException, LdapException
+    {
+        SearchResultEntry binarySearchResultEntry = new SearchResultEntryImpl( 5 );
+        binarySearchResultEntry.setEntry( new DefaultEntry(
+            "cn=test,ou=system",
+            "objectClass: top",
+            "objectClass: person",
+            "cn: test",
+            "sn: A long enough value to be split",
+            "userPassword", new byte[] { 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08 } ) );
+
+        SearchResultEntry textSearchResultEntry = new SearchResultEntryImpl( 6 );
+        textSearchResultEntry.setEntry( new DefaultEntry(
+            "cn=test2,ou=system",
+            "objectClass: top",
+            "cn: test2" ) );
+
+        byte[] pdu1 = LdapEncoder.encodeMessage( new Asn1Buffer(), codec, binarySearchResultEntry ).array();
+        byte[] pdu2 = LdapEncoder.encodeMessage( new Asn1Buffer(), codec, textSearchResultEntry ).array();
+        byte[] pdus = new byte[pdu1.length + pdu2.length];
+        System.arraycopy( pdu1, 0, pdus, 0, pdu1.length );
+        System.arraycopy( pdu2, 0, pdus, pdu1.length, pdu2.length );
+
+        LdapMessageContainer<SearchResultEntry> ldapMessageContainer = new LdapMessageContainer<>( codec );
+        ldapMessageContainer.setZeroCopy( true );
+
+        List<SearchResultEntry> decodedSearchResultEntries = new ArrayList<>();
+        byte[] chunk = new byte[7];
+
+        for ( int pos = 0; pos < pdus.length; pos += chunk.length )
+        {
+            int length = Math.min( chunk.length, pdus.length - pos );
+            System.arraycopy( pdus, pos, chunk, 0, length );
+            ByteBuffer stream = ByteBuffer.wrap( chunk, 0, length );
+
+            while ( stream.hasRemaining() )
+            {
+                Asn1Decoder.decode( stream, ldapMessageContainer );
+
+                if ( ldapMessageContainer.getState() == TLVStateEnum.PDU_DECODED )
+                {
+                    decodedSearchResultEntries.add( ldapMessageContainer.getMessage() );
+                    ldapMessageContainer.clean();
+                }
+            }
+
+            // The decoded values must not refer to the received bytes
+            Arrays.fill( chunk, ( byte ) 0 );
+        }
+
+        assertEquals( 2, decodedSearchResultEntries.size() );
+        assertEquals( binarySearchResultEntry, decodedSearchResultEntries.get( 0 ) );
+        assertEquals( textSearchResultEntry, decodedSearchResultEntries.get( 1 ) );
+        assertArrayEquals( new byte[] { 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08 },
+            decodedSearchResultEntries.get( 0 ).getEntry().get( "userPassword" ).getBytes() );
+    }
 }
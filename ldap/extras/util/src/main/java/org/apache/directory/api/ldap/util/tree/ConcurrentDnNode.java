@@ -0,0 +1,1061 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.util.tree;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.exception.LdapInvalidDnException;
+import org.apache.directory.api.ldap.model.exception.LdapUnwillingToPerformException;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.api.ldap.model.name.Rdn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A concurrent version of the {@link DnNode} tree, with the same API.<br>
+ * The reads never lock : each node holds an immutable map of its children, which is
+ * replaced by a modified copy when a child is added or removed, and all the node's
+ * fields are volatile. Only the modifications are serialized, on a lock shared by
+ * all the nodes of a tree.<br>
+ * It is designed for trees which are often read and seldom modified, like the
+ * partitions or referrals maps used to route the operations : a read sees the tree
+ * either before or after a modification, and many threads can look up the tree
+ * at the same time.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ * @param <N> The type of node we store
+ */
+public class ConcurrentDnNode<N>
+{
+    /** The logger for this class */
+    private static final Logger LOG = LoggerFactory.getLogger( ConcurrentDnNode.class );
+
+    /** The lock shared by all the nodes of a tree, used by the modifications */
+    private final Object lock;
+
+    /** The stored element */
+    private volatile N nodeElement;
+
+    /** The node's key */
+    private volatile Rdn nodeRdn;
+
+    /** The node's Dn */
+    private volatile Dn nodeDn;
+
+    /** The node's depth in the tree */
+    private volatile int depth;
+
+    /** The parent, if any */
+    private volatile ConcurrentDnNode<N> parent;
+
+    /** The children, never modified : a new map is set on each modification */
+    private volatile Map<String, ConcurrentDnNode<N>> children = Collections.emptyMap();
+
+
+    //-------------------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------------------
+    /**
+     * Creates a new instance of ConcurrentDnNode.
+     */
+    public ConcurrentDnNode()
+    {
+        lock = new Object();
+        nodeDn = Dn.EMPTY_DN;
+        nodeRdn = Rdn.EMPTY_RDN;
+    }
+
+
+    /**
+     * Creates a new instance of ConcurrentDnNode.
+     *
+     * @param element the element to store
+     */
+    public ConcurrentDnNode( N element )
+    {
+        this( new Object(), element );
+    }
+
+
+    /**
+     * Creates a new node of an existing tree.
+     *
+     * @param lock The tree's lock
+     * @param element the element to store
+     */
+    private ConcurrentDnNode( Object lock, N element )
+    {
+        this.lock = lock;
+        this.nodeElement = element;
+    }
+
+
+    /**
+     * Creates a new instance of ConcurrentDnNode.
+     *
+     * @param dn the node's Dn
+     * @param element the element to store
+     */
+    public ConcurrentDnNode( Dn dn, N element )
+    {
+        lock = new Object();
+
+        if ( ( dn == null ) || ( dn.isEmpty() ) )
+        {
+            this.nodeDn = Dn.EMPTY_DN;
+
+            return;
+        }
+
+        try
+        {
+            ConcurrentDnNode<N> rootNode = createNode( dn, element, dn.size() );
+
+            // Now copy back the created node into this
+            this.depth = rootNode.depth;
+            this.nodeDn = rootNode.nodeDn;
+            this.nodeElement = rootNode.nodeElement;
+            this.nodeRdn = rootNode.nodeRdn;
+            this.children = rootNode.children;
+
+            for ( ConcurrentDnNode<N> child : children.values() )
+            {
+                child.parent = this;
+            }
+        }
+        catch ( LdapException le )
+        {
+            // Special cas e: the Dn is empty, this is not allowed
+            throw new IllegalArgumentException( le.getMessage(), le );
+        }
+    }
+
+
+    //-------------------------------------------------------------------------
+    // Helper methods
+    //-------------------------------------------------------------------------
+    /**
+     * Check that the Dn is not null
+     *
+     * @param dn The Dn to check
+     * @throws LdapException If teh Dn is null or empty
+     */
+    private void checkDn( Dn dn ) throws LdapException
+    {
+        if ( ( dn == null ) || dn.isEmpty() )
+        {
+            String message = I18n.err( I18n.ERR_12000_CANNOT_PROCESS_EMPTY_DN );
+            LOG.error( message );
+            throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, message );
+        }
+    }
+
+
+    /**
+     * Adds a child to this node, replacing the children map. Must be called holding the lock.
+     *
+     * @param child The child to add
+     */
+    private void putChild( ConcurrentDnNode<N> child )
+    {
+        Map<String, ConcurrentDnNode<N>> newChildren = new HashMap<>( children );
+        newChildren.put( child.nodeRdn.getNormName(), child );
+        children = Collections.unmodifiableMap( newChildren );
+    }
+
+
+    /**
+     * Removes a child from this node, replacing the children map. Must be called holding the lock.
+     *
+     * @param normName The child's normalized Rdn
+     */
+    private void removeChild( String normName )
+    {
+        if ( children.containsKey( normName ) )
+        {
+            Map<String, ConcurrentDnNode<N>> newChildren = new HashMap<>( children );
+            newChildren.remove( normName );
+            children = Collections.unmodifiableMap( newChildren );
+        }
+    }
+
+
+    /**
+     * Create a new ConcurrentDnNode, recursively creating all the intermediate nodes.
+     * The created nodes are not visible until they are attached to the tree.
+     *
+     * @param dn The nod's Dn
+     * @param element The element to set
+     * @param nbRdns The number of level to create
+     * @return The created Node
+     * @throws LdapException If the Dn is null or empty
+     */
+    private ConcurrentDnNode<N> createNode( Dn dn, N element, int nbRdns ) throws LdapException
+    {
+        checkDn( dn );
+
+        ConcurrentDnNode<N> rootNode = null;
+
+        // No parent : add from the current position
+        for ( Rdn rdn : dn.getRdns() )
+        {
+            if ( nbRdns == 0 )
+            {
+                break;
+            }
+
+            if ( rootNode == null )
+            {
+                // Create the new top node
+                ConcurrentDnNode<N> node = new ConcurrentDnNode<>( lock, element );
+                node.nodeRdn = rdn;
+                node.nodeDn = dn;
+                node.depth = dn.size() + depth;
+
+                rootNode = node;
+            }
+            else
+            {
+                ConcurrentDnNode<N> node = new ConcurrentDnNode<>( lock, null );
+                node.nodeRdn = rdn;
+                node.nodeDn = rootNode.nodeDn.getParent();
+                node.depth = node.nodeDn.size() + depth;
+                rootNode.parent = node;
+                node.putChild( rootNode );
+                rootNode = node;
+            }
+
+            nbRdns--;
+        }
+
+        return rootNode;
+    }
+
+
+    /**
+     * Tells if the implementation is a leaf node. If it's a branch node
+     * then false is returned.
+     *
+     * @return <code>true</code> if the class is a leaf node, false otherwise.
+     */
+    public boolean isLeaf()
+    {
+        return !hasChildren();
+    }
+
+
+    /**
+     * Tells if the implementation is a leaf node. If it's a branch node
+     * then false is returned.
+     *
+     * @param dn The Dn we want to check
+     * @return <code>true</code> if this is a leaf node, false otherwise.
+     */
+    public boolean isLeaf( Dn dn )
+    {
+        ConcurrentDnNode<N> node = getNode( dn );
+
+        if ( node == null )
+        {
+            return false;
+        }
+
+        return node.children.isEmpty();
+    }
+
+
+    /**
+     * Returns the number of entries under this node. It includes
+     * the node itself, plus the number of all it children and descendants.
+     *
+     * @return The number of descendents
+     */
+    public int size()
+    {
+        // The node itself
+        int size = 1;
+
+        // Iterate through the children if any
+        for ( ConcurrentDnNode<N> node : children.values() )
+        {
+            size += node.size();
+        }
+
+        return size;
+    }
+
+
+    /**
+     * @return Return the stored element, if any
+     */
+    public N getElement()
+    {
+        return nodeElement;
+    }
+
+
+    /**
+     * @return Return the stored element, if any
+     * @param dn The Dn we want to get the element for
+     */
+    public N getElement( Dn dn )
+    {
+        ConcurrentDnNode<N> node = getNode( dn );
+
+        if ( node == null )
+        {
+            return null;
+        }
+
+        return node.nodeElement;
+    }
+
+
+    /**
+     * @return True if the Node stores an element. BranchNode may not hold any
+     * element.
+     */
+    public boolean hasElement()
+    {
+        return nodeElement != null;
+    }
+
+
+    /**
+     * @return True if the Node stores an element. BranchNode may not hold any
+     * element.
+     * @param dn The Dn we want to get the element for
+     */
+    public boolean hasElement( Dn dn )
+    {
+        ConcurrentDnNode<N> node = getNode( dn );
+
+        if ( node == null )
+        {
+            return false;
+        }
+
+        return node.nodeElement != null;
+    }
+
+
+    /**
+     * Recursively check if the node has a descendant having an element
+     *
+     * @param node The node to start from
+     * @return <tt>true</tt> if the node has some descendant
+     */
+    private boolean hasDescendantElement( ConcurrentDnNode<N> node )
+    {
+        if ( node == null )
+        {
+            return false;
+        }
+
+        if ( node.hasElement() )
+        {
+            return true;
+        }
+
+        for ( ConcurrentDnNode<N> child : node.children.values() )
+        {
+            if ( hasDescendantElement( child ) )
+            {
+                return true;
+            }
+        }
+
+        // Nothing found ...
+        return false;
+    }
+
+
+    /**
+     * @return True if one of the node below the current node has one element,
+     * False otherwise
+     * @param dn The Dn we want to get the element for
+     */
+    public boolean hasDescendantElement( Dn dn )
+    {
+        ConcurrentDnNode<N> node = getNode( dn );
+
+        if ( node == null )
+        {
+            return false;
+        }
+
+        // We must be at the right place in the tree
+        if ( node.getDn().size() != dn.size() )
+        {
+            return false;
+        }
+
+        for ( ConcurrentDnNode<N> child : node.children.values() )
+        {
+            if ( hasDescendantElement( child ) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Recursively get all the elements from nodes having an element
+     *
+     * @param node The node to start with
+     * @param descendants The list of descendant to fulfill
+     */
+    private void getDescendantElements( ConcurrentDnNode<N> node, List<N> descendants )
+    {
+        if ( node == null )
+        {
+            return;
+        }
+
+        N element = node.nodeElement;
+
+        if ( element != null )
+        {
+            descendants.add( element );
+
+            // Stop here
+            return;
+        }
+
+        for ( ConcurrentDnNode<N> child : node.children.values() )
+        {
+            getDescendantElements( child, descendants );
+        }
+    }
+
+
+    /**
+     * @return True if one of the node below the current node has one element,
+     * False otherwise
+     * @param dn The Dn we want to get the element for
+     */
+    public List<N> getDescendantElements( Dn dn )
+    {
+        List<N> descendants = new ArrayList<>();
+
+        ConcurrentDnNode<N> node = getNode( dn );
+
+        if ( node == null )
+        {
+            return descendants;
+        }
+
+        // We must be at the right place in the tree
+        if ( node.getDn().size() != dn.size() )
+        {
+            return descendants;
+        }
+
+        for ( ConcurrentDnNode<N> child : node.children.values() )
+        {
+            getDescendantElements( child, descendants );
+        }
+
+        return descendants;
+    }
+
+
+    /**
+     * Tells if the current ConcurrentDnNode has some children or not
+     *
+     * @return <code>true</code> if the node has some children
+     */
+    public boolean hasChildren()
+    {
+        return !children.isEmpty();
+    }
+
+
+    /**
+     * Tells if a node has some children or not.
+     *
+     * @param dn the node's Dn
+     * @return <code>true</code> if the node has some children
+     * @throws LdapException if the Dn is null or empty
+     */
+    public boolean hasChildren( Dn dn ) throws LdapException
+    {
+        checkDn( dn );
+
+        ConcurrentDnNode<N> node = getNode( dn );
+
+        return ( node != null ) && node.hasChildren();
+    }
+
+
+    /**
+     * @return The children of this node. The returned map can't be modified, and
+     * won't reflect the changes done in the tree later on
+     */
+    public Map<String, ConcurrentDnNode<N>> getChildren()
+    {
+        return children;
+    }
+
+
+    /**
+     * @return The parent ConcurrentDnNode, if any
+     */
+    public ConcurrentDnNode<N> getParent()
+    {
+        return parent;
+    }
+
+
+    /**
+     * @return True if the current ConcurrentDnNode has a parent
+     */
+    public boolean hasParent()
+    {
+        return parent != null;
+    }
+
+
+    /**
+     * Tells if there is a parent for a given Dn,. This parent should be a
+     * subset of the given dn.<br>
+     * For instance, if we have stored dc=acme, dc=org into the tree,
+     * the Dn: ou=example, dc=acme, dc=org will have a parent
+     * <br>For the Dn ou=apache, dc=org, there is no parent, so false will be returned.
+     *
+     * @param dn the normalized distinguished name to resolve to a parent
+     * @return true if there is a parent associated with the normalized dn
+     */
+    public boolean hasParent( Dn dn )
+    {
+        List<Rdn> rdns = dn.getRdns();
+
+        ConcurrentDnNode<N> currentNode = this;
+        ConcurrentDnNode<N> parentNode = null;
+
+        // Iterate through all the Rdn until we find the associated element
+        for ( int i = rdns.size() - 1; i >= 0; i-- )
+        {
+            Rdn rdn = rdns.get( i );
+
+            if ( rdn.equals( currentNode.nodeRdn ) )
+            {
+                parentNode = currentNode;
+            }
+            else
+            {
+                currentNode = currentNode.children.get( rdn.getNormName() );
+
+                if ( currentNode == null )
+                {
+                    break;
+                }
+
+                parentNode = currentNode;
+            }
+        }
+
+        return parentNode != null;
+    }
+
+
+    /**
+     * Add a new node in the tree. The added node won't have any element.
+     *
+     * @param dn The node's Dn
+     * @return the corresponding node
+     * @throws LdapException if the Dn is null or empty
+     */
+    public ConcurrentDnNode<N> add( Dn dn ) throws LdapException
+    {
+        return add( dn, null );
+    }
+
+
+    /**
+     * Add a new node in the tree. We can't add a node if its Dn is empty. The
+     * added element is attached to the node, which is named by the Dn's Rdn.<br>
+     *
+     * @param dn The node's Dn
+     * @param element The element to associate with this Node. Can be null.
+     * @return the corresponding node
+     * @throws LdapException if the Dn is null or empty
+     */
+    public ConcurrentDnNode<N> add( Dn dn, N element ) throws LdapException
+    {
+        checkDn( dn );
+
+        synchronized ( lock )
+        {
+            // We first have to find the Node which will be the parent
+            ConcurrentDnNode<N> parentNode = getNode( dn );
+
+            if ( parentNode == null )
+            {
+                // No parent : add a new node to the root
+                ConcurrentDnNode<N> childNode = createNode( dn, element, dn.size() );
+                childNode.parent = this;
+                putChild( childNode );
+
+                return childNode;
+            }
+
+            // We have a parent. Add the new node to the found parent
+            int nbRdns = dn.size() - parentNode.depth;
+
+            if ( nbRdns == 0 )
+            {
+                // That means the added Dn is already present. Check if it already has an element
+                if ( parentNode.hasElement() )
+                {
+                    String message = I18n.err( I18n.ERR_12001_CANNOT_ADD_NODE_CHILD_EXISTS );
+                    LOG.error( message );
+                    throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, message );
+                }
+                // We may try to add twice the same Dn, without any element
+                else if ( element == null )
+                {
+                    String message = I18n.err( I18n.ERR_12002_CANNOT_ADD_NODE_ALREADY_EXISTS );
+                    LOG.error( message );
+                    throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, message );
+                }
+                // All is fine : we are just injecting some data into an existing node
+                else
+                {
+                    parentNode.nodeElement = element;
+
+                    return parentNode;
+                }
+            }
+            else
+            {
+                ConcurrentDnNode<N> childNode = createNode( dn, element, nbRdns );
+
+                // done. now, add the newly created tree to the parent node
+                childNode.parent = parentNode;
+                parentNode.putChild( childNode );
+
+                return childNode;
+            }
+        }
+    }
+
+
+    /**
+     * Removes a node from the tree.
+     *
+     * @param dn the node's Dn
+     * @throws LdapException if the Dn is null or empty
+     */
+    public void remove( Dn dn ) throws LdapException
+    {
+        checkDn( dn );
+
+        synchronized ( lock )
+        {
+            // Find the parent first : we won't be able to remove
+            // a node if it's not present in the tree !
+            ConcurrentDnNode<N> parentNode = getNode( dn );
+
+            if ( parentNode == null )
+            {
+                return;
+            }
+
+            // Now, check that this parent has the same Dn than the one
+            // we gave and that there is no children
+            if ( ( dn.size() != parentNode.depth ) || parentNode.hasChildren() )
+            {
+                return;
+            }
+
+            // Ok, no children, same Dn, let's remove what we can.
+            parentNode = parentNode.parent;
+
+            for ( Rdn rdn : dn.getRdns() )
+            {
+                parentNode.removeChild( rdn.getNormName() );
+
+                if ( parentNode.hasChildren() || parentNode.hasElement() )
+                {
+                    // We have to stop here, because the parent's node is shared with other Node,
+                    // or holds its own element.
+                    break;
+                }
+
+                parentNode = parentNode.parent;
+            }
+        }
+    }
+
+
+    /**
+     * Tells if the current DnBranchNode contains another node associated
+     * with an rdn.
+     *
+     * @param rdn The name we are looking for
+     * @return <code>true</code> if the tree instance contains this name
+     */
+    public boolean contains( Rdn rdn )
+    {
+        return children.containsKey( rdn.getNormName() );
+    }
+
+
+    /**
+     * Get's a child using an rdn string.
+     *
+     * @param rdn the rdn to use as the node key
+     * @return the child node corresponding to the rdn.
+     */
+    public ConcurrentDnNode<N> getChild( Rdn rdn )
+    {
+        return children.get( rdn.getNormName() );
+    }
+
+
+    /**
+     * @return The Node's Rdn
+     */
+    public Rdn getRdn()
+    {
+        return nodeRdn;
+    }
+
+
+    /**
+     * Get the Node for a given Dn, if present in the tree.<br>
+     * For instance, if we have stored dc=acme, dc=org into the tree,
+     * the Dn: ou=example, dc=acme, dc=org will have a parent, and
+     * dc=acme, dc=org will be returned.
+     * <br>For the Dn ou=apache, dc=org, there is no parent, so null will be returned.
+     *
+     * @param dn the normalized distinguished name to resolve to a parent
+     * @return the Node associated with the normalized dn
+     */
+    public ConcurrentDnNode<N> getNode( Dn dn )
+    {
+        ConcurrentDnNode<N> currentNode = this;
+        ConcurrentDnNode<N> parentNode = null;
+
+        // Iterate through all the Rdn until we find the associated partition
+        for ( int i = dn.size() - 1; i >= 0; i-- )
+        {
+            currentNode = currentNode.children.get( dn.getRdn( i ).getNormName() );
+
+            if ( currentNode == null )
+            {
+                break;
+            }
+
+            parentNode = currentNode;
+        }
+
+        return parentNode;
+    }
+
+
+    /**
+     * Tells if the given Dn or one of its ancestors is stored in the tree with an element.<br>
+     * For instance, if we have stored dc=acme, dc=org into the tree with an element,
+     * the Dn: ou=example, dc=acme, dc=org will have a parent element.
+     * <br>For the Dn ou=apache, dc=org, there is no parent, so false will be returned.
+     *
+     * @param dn the normalized distinguished name to resolve to a parent
+     * @return <code>true</code> if a node on the path of the Dn has an element
+     */
+    public boolean hasParentElement( Dn dn )
+    {
+        List<Rdn> rdns = dn.getRdns();
+
+        ConcurrentDnNode<N> currentNode = this;
+
+        // Iterate through all the Rdn until we find the associated partition
+        for ( int i = rdns.size() - 1; i >= 0; i-- )
+        {
+            currentNode = currentNode.children.get( rdns.get( i ).getNormName() );
+
+            if ( currentNode == null )
+            {
+                break;
+            }
+
+            if ( currentNode.hasElement() )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Get the closest Node for a given Dn which has an element, if present in the tree.<br>
+     * For instance, if we have stored dc=acme, dc=org into the tree,
+     * the Dn: ou=example, dc=acme, dc=org will have a parent, and
+     * dc=acme, dc=org will be returned if it has an associated element.
+     * <br>For the Dn ou=apache, dc=org, there is no parent, so null will be returned.
+     *
+     * @param dn the normalized distinguished name to resolve to a parent
+     * @return the Node associated with the normalized dn
+     */
+    public ConcurrentDnNode<N> getParentWithElement( Dn dn )
+    {
+        List<Rdn> rdns = dn.getRdns();
+
+        ConcurrentDnNode<N> currentNode = this;
+        ConcurrentDnNode<N> element = null;
+
+        // Iterate through all the Rdn until we find the associated partition
+        for ( int i = rdns.size() - 1; i >= 1; i-- )
+        {
+            currentNode = currentNode.children.get( rdns.get( i ).getNormName() );
+
+            if ( currentNode == null )
+            {
+                break;
+            }
+
+            if ( currentNode.hasElement() )
+            {
+                element = currentNode;
+            }
+        }
+
+        return element;
+    }
+
+
+    /**
+     * Get the closest Node for a given Dn which has an element, if present in the tree.<br>
+     * For instance, if we have stored dc=acme, dc=org into the tree,
+     * the Dn: ou=example, dc=acme, dc=org will have a parent, and
+     * dc=acme, dc=org will be returned if it has an associated element.
+     * <br>For the Dn ou=apache, dc=org, there is no parent, so null will be returned.
+     *
+     * @return the Node associated with the normalized dn
+     */
+    public ConcurrentDnNode<N> getParentWithElement()
+    {
+        ConcurrentDnNode<N> currentNode = parent;
+
+        while ( currentNode != null )
+        {
+            if ( currentNode.nodeElement != null )
+            {
+                return currentNode;
+            }
+
+            currentNode = currentNode.parent;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * rename the ConcurrentDnNode's Dn
+     *
+     * @param newRdn the new Rdn of this node
+     * @throws LdapException If the rename failed
+     */
+    public void rename( Rdn newRdn ) throws LdapException
+    {
+        synchronized ( lock )
+        {
+            Dn temp = nodeDn.getParent();
+            temp = temp.add( newRdn );
+
+            Rdn oldRdn = nodeRdn;
+
+            nodeRdn = temp.getRdn();
+            nodeDn = temp;
+
+            if ( parent != null )
+            {
+                parent.removeChild( oldRdn.getNormName() );
+                parent.putChild( this );
+            }
+
+            updateAfterModDn( nodeDn );
+        }
+    }
+
+
+    /**
+     * move the ConcurrentDnNode's Dn
+     *
+     * @param newParent the new parent Dn
+     * @throws LdapException If the move failed
+     */
+    public void move( Dn newParent ) throws LdapException
+    {
+        synchronized ( lock )
+        {
+            ConcurrentDnNode<N> tmp = null;
+
+            Dn tmpDn = null;
+
+            // check if the new parent Dn is child of the parent
+            if ( newParent.isDescendantOf( parent.nodeDn ) )
+            {
+                tmp = parent;
+                tmpDn = parent.nodeDn;
+            }
+
+            // if yes, then drill for the new parent node
+            if ( tmpDn != null )
+            {
+                int parentNodeSize = tmpDn.size();
+                int count = newParent.size() - parentNodeSize;
+
+                while ( count-- > 0 )
+                {
+                    tmp = tmp.getChild( newParent.getRdn( parentNodeSize++ ) );
+                }
+            }
+
+            // if not, we have to traverse all the way up to the
+            // root node and then find the new parent node
+            if ( tmp == null )
+            {
+                tmp = this;
+
+                while ( tmp.parent != null )
+                {
+                    tmp = tmp.parent;
+                }
+
+                tmp = tmp.getNode( newParent );
+            }
+
+            nodeDn = newParent.add( nodeRdn );
+            depth = nodeDn.size();
+            updateAfterModDn( nodeDn );
+
+            if ( parent != null )
+            {
+                parent.removeChild( nodeRdn.getNormName() );
+            }
+
+            parent = tmp;
+            parent.putChild( this );
+        }
+    }
+
+
+    /**
+     * update the children's Dn based on the new parent Dn created
+     * after a rename or move operation. Must be called holding the lock.
+     *
+     * @param newParentDn The new parent's Dn
+     * @throws LdapInvalidDnException The parent DN is invalid
+     */
+    private void updateAfterModDn( Dn newParentDn ) throws LdapInvalidDnException
+    {
+        for ( ConcurrentDnNode<N> child : children.values() )
+        {
+            child.nodeDn = newParentDn.add( child.nodeRdn );
+            child.depth = child.nodeDn.size();
+            child.updateAfterModDn( child.nodeDn );
+        }
+    }
+
+
+    private String toString( String tabs )
+    {
+        if ( nodeRdn == null )
+        {
+            return tabs;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append( tabs );
+
+        Map<String, ConcurrentDnNode<N>> currentChildren = children;
+
+        if ( currentChildren.isEmpty() )
+        {
+            sb.append( "Leaf[" ).append( nodeDn ).append( "]: " ).append( "'" ).append( nodeElement ).append( "'" );
+            return sb.toString();
+        }
+
+        sb.append( "Branch[" ).append( nodeDn ).append( "]: " );
+
+        if ( nodeElement != null )
+        {
+            sb.append( "'" ).append( nodeElement ).append( "'" );
+        }
+
+        tabs += "    ";
+
+        sb.append( '\n' );
+
+        boolean isFirst = true;
+
+        for ( ConcurrentDnNode<N> child : currentChildren.values() )
+        {
+            if ( isFirst )
+            {
+                isFirst = false;
+            }
+            else
+            {
+                sb.append( "\n" );
+            }
+
+            sb.append( child.toString( tabs ) );
+        }
+
+        return sb.toString();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return toString( "" );
+    }
+
+
+    /**
+     * @return the dn
+     */
+    public Dn getDn()
+    {
+        return nodeDn;
+    }
+}
@@ -0,0 +1,1049 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.model.entry;
+
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.constants.SchemaConstants;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.exception.LdapInvalidDnException;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.api.ldap.model.schema.AttributeType;
+import org.apache.directory.api.ldap.model.schema.SchemaManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A schema aware Entry built from a schema agnostic Entry (typically, an entry decoded
+ * from a SearchResultEntry), which applies the schema lazily.
+ * <br>
+ * Creating a schema aware {@link DefaultEntry} from an existing entry creates a new schema
+ * aware copy of every attribute, normalizing every value, and normalizes the Dn. This entry
+ * only resolves the AttributeTypes of the attributes when it's created : the attributes
+ * are converted, and their values normalized, when they are accessed for the first time. The
+ * Dn is normalized when it's read for the first time. An application reading a few attributes
+ * out of many does not pay for the others.
+ * <br>
+ * The operations working on all the attributes (iterating over them, comparing or serializing
+ * the entry...) convert all of them. If an attribute contains some values which are not valid
+ * accordingly to the schema, an IllegalArgumentException is thrown when this attribute is
+ * converted.
+ * <br>
+ * This class is not thread safe : even the read accessors modify it, when they convert an
+ * attribute. An instance must not be shared between threads without an external synchronization.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LazySchemaAwareEntry implements Entry
+{
+    /** Used for serialization */
+    private static final long serialVersionUID = 2L;
+
+    /** The logger for this class */
+    private static final Logger LOG = LoggerFactory.getLogger( LazySchemaAwareEntry.class );
+
+    /** The SchemaManager */
+    private transient SchemaManager schemaManager;
+
+    /** The schema aware entry, containing the attributes converted so far */
+    private DefaultEntry entry;
+
+    /** The attributes not yet converted, per AttributeType's OID */
+    private transient Map<String, Attribute> pendingAttributes;
+
+    /** The Dn, until it has been normalized */
+    private transient Dn pendingDn;
+
+
+    //-------------------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------------------
+    /**
+     * Creates a new instance of LazySchemaAwareEntry, used for deserialization.
+     */
+    public LazySchemaAwareEntry()
+    {
+        entry = new DefaultEntry();
+        pendingAttributes = new HashMap<>();
+    }
+
+
+    /**
+     * Creates a new instance of LazySchemaAwareEntry, wrapping an existing entry. The
+     * AttributeTypes of all the attributes are resolved, but the attributes are not
+     * converted : the given entry must not be modified afterwards.
+     *
+     * @param schemaManager The SchemaManager
+     * @param entry The entry to wrap
+     * @throws LdapException If one of the attributes is not known by the SchemaManager
+     */
+    public LazySchemaAwareEntry( SchemaManager schemaManager, Entry entry ) throws LdapException
+    {
+        this.schemaManager = schemaManager;
+        this.entry = new DefaultEntry( schemaManager );
+
+        if ( entry.getDn() != null )
+        {
+            pendingDn = entry.getDn();
+        }
+
+        pendingAttributes = new HashMap<>();
+
+        for ( Attribute attribute : entry )
+        {
+            AttributeType attributeType = attribute.getAttributeType();
+
+            if ( attributeType == null )
+            {
+                try
+                {
+                    attributeType = schemaManager.lookupAttributeTypeRegistry( attribute.getId() );
+                }
+                catch ( LdapException le )
+                {
+                    if ( LOG.isWarnEnabled() )
+                    {
+                        LOG.warn( I18n.msg( I18n.MSG_13200_CANT_STORE_ATTRIBUTE, attribute.getId() ) );
+                    }
+
+                    throw le;
+                }
+            }
+
+            Attribute previous = pendingAttributes.putIfAbsent( attributeType.getOid(), attribute );
+
+            if ( previous != null )
+            {
+                // The same attribute has been sent twice, using two different names
+                for ( Value value : attribute )
+                {
+                    previous.add( value );
+                }
+            }
+        }
+    }
+
+
+    //-------------------------------------------------------------------------
+    // Helper methods
+    //-------------------------------------------------------------------------
+    /**
+     * Converts the pending attribute for the given AttributeType, if any
+     */
+    private void materialize( AttributeType attributeType )
+    {
+        if ( ( attributeType == null ) || pendingAttributes.isEmpty() )
+        {
+            return;
+        }
+
+        Attribute attribute = pendingAttributes.remove( attributeType.getOid() );
+
+        if ( attribute != null )
+        {
+            try
+            {
+                entry.add( new DefaultAttribute( attributeType, attribute ) );
+            }
+            catch ( LdapException le )
+            {
+                throw new IllegalArgumentException( I18n.err( I18n.ERR_13251_CANT_APPLY_SCHEMA_TO_ATTRIBUTE,
+                    attribute.getUpId(), le.getMessage() ), le );
+            }
+        }
+    }
+
+
+    /**
+     * Converts the pending attribute for the given attribute ID, if any
+     */
+    private void materialize( String upId )
+    {
+        if ( ( upId != null ) && !pendingAttributes.isEmpty() )
+        {
+            materialize( schemaManager.getAttributeType( upId ) );
+        }
+    }
+
+
+    /**
+     * Converts the pending attributes with the same type as the given attributes, if any
+     */
+    private void materialize( Attribute... attributes )
+    {
+        if ( ( attributes == null ) || pendingAttributes.isEmpty() )
+        {
+            return;
+        }
+
+        for ( Attribute attribute : attributes )
+        {
+            if ( attribute != null )
+            {
+                if ( attribute.getAttributeType() != null )
+                {
+                    materialize( attribute.getAttributeType() );
+                }
+                else
+                {
+                    materialize( attribute.getUpId() );
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Converts all the pending attributes, and normalizes the Dn
+     */
+    private void materializeAll()
+    {
+        materializeDn();
+
+        if ( !pendingAttributes.isEmpty() )
+        {
+            for ( String oid : pendingAttributes.keySet().toArray( new String[pendingAttributes.size()] ) )
+            {
+                materialize( schemaManager.getAttributeType( oid ) );
+            }
+        }
+    }
+
+
+    /**
+     * Normalizes the Dn, if not already done
+     */
+    private void materializeDn()
+    {
+        if ( pendingDn == null )
+        {
+            return;
+        }
+
+        Dn dn = pendingDn;
+        pendingDn = null;
+
+        if ( !dn.isSchemaAware() )
+        {
+            try
+            {
+                dn = new Dn( schemaManager, dn );
+            }
+            catch ( LdapException ne )
+            {
+                if ( LOG.isWarnEnabled() )
+                {
+                    LOG.warn( I18n.msg( I18n.MSG_13201_DN_CANT_BE_NORMALIZED, dn ) );
+                }
+            }
+        }
+
+        entry.setDn( dn );
+    }
+
+
+    /**
+     * Drops the pending attribute for the given AttributeType, if any
+     */
+    private void discard( AttributeType attributeType )
+    {
+        if ( attributeType != null )
+        {
+            pendingAttributes.remove( attributeType.getOid() );
+        }
+    }
+
+
+    /**
+     * Drops the pending attribute for the given attribute ID, if any
+     */
+    private void discard( String upId )
+    {
+        if ( ( upId != null ) && !pendingAttributes.isEmpty() )
+        {
+            discard( schemaManager.getAttributeType( upId ) );
+        }
+    }
+
+
+    /**
+     * Tells if an attribute is pending for the given attribute ID
+     */
+    private boolean isPending( String upId )
+    {
+        if ( ( upId == null ) || pendingAttributes.isEmpty() )
+        {
+            return false;
+        }
+
+        AttributeType attributeType = schemaManager.getAttributeType( upId );
+
+        return ( attributeType != null ) && pendingAttributes.containsKey( attributeType.getOid() );
+    }
+
+
+    /**
+     * @return The number of attributes which have not been converted yet
+     */
+    public int getPendingAttributesCount()
+    {
+        return pendingAttributes.size();
+    }
+
+
+    //-------------------------------------------------------------------------
+    // Entry methods
+    //-------------------------------------------------------------------------
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry add( AttributeType attributeType, byte[]... values ) throws LdapException
+    {
+        materialize( attributeType );
+        entry.add( attributeType, values );
+
+        return this;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry add( AttributeType attributeType, String... values ) throws LdapException
+    {
+        materialize( attributeType );
+        entry.add( attributeType, values );
+
+        return this;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry add( AttributeType attributeType, Value... values ) throws LdapException
+    {
+        materialize( attributeType );
+        entry.add( attributeType, values );
+
+        return this;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry add( String upId, AttributeType attributeType, byte[]... values ) throws LdapException
+    {
+        materialize( attributeType );
+        entry.add( upId, attributeType, values );
+
+        return this;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry add( String upId, AttributeType attributeType, Value... values ) throws LdapException
+    {
+        materialize( attributeType );
+        entry.add( upId, attributeType, values );
+
+        return this;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry add( String upId, AttributeType attributeType, String... values ) throws LdapException
+    {
+        materialize( attributeType );
+        entry.add( upId, attributeType, values );
+
+        return this;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry add( Attribute... attributes ) throws LdapException
+    {
+        materialize( attributes );
+        entry.add( attributes );
+
+        return this;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry add( String upId, byte[]... values ) throws LdapException
+    {
+        materialize( upId );
+        entry.add( upId, values );
+
+        return this;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry add( String upId, String... values ) throws LdapException
+    {
+        materialize( upId );
+        entry.add( upId, values );
+
+        return this;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry add( String upId, Value... values ) throws LdapException
+    {
+        materialize( upId );
+        entry.add( upId, values );
+
+        return this;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry clone()
+    {
+        materializeAll();
+
+        return entry.clone();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry shallowClone()
+    {
+        materializeAll();
+
+        return entry.shallowClone();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains( Attribute... attributes )
+    {
+        materialize( attributes );
+
+        return entry.contains( attributes );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsAttribute( String... attributes )
+    {
+        for ( String attribute : attributes )
+        {
+            if ( !isPending( attribute ) && !entry.containsAttribute( attribute ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsAttribute( AttributeType attributeType )
+    {
+        if ( ( attributeType != null ) && pendingAttributes.containsKey( attributeType.getOid() ) )
+        {
+            return true;
+        }
+
+        return entry.containsAttribute( attributeType );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains( AttributeType attributeType, byte[]... values )
+    {
+        materialize( attributeType );
+
+        return entry.contains( attributeType, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains( AttributeType attributeType, String... values )
+    {
+        materialize( attributeType );
+
+        return entry.contains( attributeType, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains( AttributeType attributeType, Value... values )
+    {
+        materialize( attributeType );
+
+        return entry.contains( attributeType, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains( String upId, byte[]... values )
+    {
+        materialize( upId );
+
+        return entry.contains( upId, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains( String upId, String... values )
+    {
+        materialize( upId );
+
+        return entry.contains( upId, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains( String upId, Value... values )
+    {
+        materialize( upId );
+
+        return entry.contains( upId, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attribute get( String alias )
+    {
+        materialize( alias );
+
+        return entry.get( alias );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attribute get( AttributeType attributeType )
+    {
+        materialize( attributeType );
+
+        return entry.get( attributeType );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Attribute> getAttributes()
+    {
+        materializeAll();
+
+        return entry.getAttributes();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attribute put( String upId, byte[]... values )
+    {
+        discard( upId );
+
+        return entry.put( upId, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attribute put( String upId, String... values )
+    {
+        discard( upId );
+
+        return entry.put( upId, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attribute put( String upId, Value... values )
+    {
+        discard( upId );
+
+        return entry.put( upId, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Attribute> put( Attribute... attributes ) throws LdapException
+    {
+        materialize( attributes );
+
+        return entry.put( attributes );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attribute put( AttributeType attributeType, byte[]... values ) throws LdapException
+    {
+        discard( attributeType );
+
+        return entry.put( attributeType, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attribute put( AttributeType attributeType, String... values ) throws LdapException
+    {
+        discard( attributeType );
+
+        return entry.put( attributeType, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attribute put( AttributeType attributeType, Value... values ) throws LdapException
+    {
+        discard( attributeType );
+
+        return entry.put( attributeType, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attribute put( String upId, AttributeType attributeType, byte[]... values ) throws LdapException
+    {
+        discard( attributeType );
+
+        return entry.put( upId, attributeType, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attribute put( String upId, AttributeType attributeType, String... values ) throws LdapException
+    {
+        discard( attributeType );
+
+        return entry.put( upId, attributeType, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attribute put( String upId, AttributeType attributeType, Value... values ) throws LdapException
+    {
+        discard( attributeType );
+
+        return entry.put( upId, attributeType, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Attribute> remove( Attribute... attributes ) throws LdapException
+    {
+        materialize( attributes );
+
+        return entry.remove( attributes );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove( AttributeType attributeType, byte[]... values ) throws LdapException
+    {
+        materialize( attributeType );
+
+        return entry.remove( attributeType, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove( AttributeType attributeType, String... values ) throws LdapException
+    {
+        materialize( attributeType );
+
+        return entry.remove( attributeType, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove( AttributeType attributeType, Value... values ) throws LdapException
+    {
+        materialize( attributeType );
+
+        return entry.remove( attributeType, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeAttributes( AttributeType... attributes )
+    {
+        if ( attributes != null )
+        {
+            for ( AttributeType attributeType : attributes )
+            {
+                discard( attributeType );
+            }
+        }
+
+        entry.removeAttributes( attributes );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeAttributes( String... attributes )
+    {
+        if ( attributes != null )
+        {
+            for ( String attribute : attributes )
+            {
+                discard( attribute );
+            }
+        }
+
+        entry.removeAttributes( attributes );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove( String upId, byte[]... values ) throws LdapException
+    {
+        materialize( upId );
+
+        return entry.remove( upId, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove( String upId, String... values ) throws LdapException
+    {
+        materialize( upId );
+
+        return entry.remove( upId, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove( String upId, Value... values ) throws LdapException
+    {
+        materialize( upId );
+
+        return entry.remove( upId, values );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Dn getDn()
+    {
+        materializeDn();
+
+        return entry.getDn();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setDn( Dn dn )
+    {
+        pendingDn = null;
+        entry.setDn( dn );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setDn( String dn ) throws LdapInvalidDnException
+    {
+        pendingDn = null;
+        entry.setDn( dn );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear()
+    {
+        pendingAttributes.clear();
+        entry.clear();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<Attribute> iterator()
+    {
+        materializeAll();
+
+        return entry.iterator();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size()
+    {
+        return entry.size() + pendingAttributes.size();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasObjectClass( String... objectClasses )
+    {
+        materialize( SchemaConstants.OBJECT_CLASS_AT );
+
+        return entry.hasObjectClass( objectClasses );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasObjectClass( Attribute... objectClasses )
+    {
+        materialize( SchemaConstants.OBJECT_CLASS_AT );
+
+        return entry.hasObjectClass( objectClasses );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSchemaAware()
+    {
+        return entry.isSchemaAware();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeExternal( ObjectOutput out ) throws IOException
+    {
+        materializeAll();
+        entry.writeExternal( out );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readExternal( ObjectInput in ) throws IOException, ClassNotFoundException
+    {
+        pendingAttributes.clear();
+        pendingDn = null;
+        entry.readExternal( in );
+    }
+
+
+    /**
+     * Get the hash code of this LazySchemaAwareEntry.
+     *
+     * @see java.lang.Object#hashCode()
+     * @return the instance's hash code
+     */
+    @Override
+    public int hashCode()
+    {
+        materializeAll();
+
+        return entry.hashCode();
+    }
+
+
+    /**
+     * @see Object#equals(Object)
+     */
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+
+        materializeAll();
+
+        return entry.equals( o );
+    }
+
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        materializeAll();
+
+        return entry.toString();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString( String tabs )
+    {
+        materializeAll();
+
+        return entry.toString( tabs );
+    }
+}
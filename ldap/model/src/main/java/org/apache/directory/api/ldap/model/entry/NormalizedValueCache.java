@@ -0,0 +1,325 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.model.entry;
+
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.schema.AttributeType;
+import org.apache.directory.api.ldap.model.schema.Normalizer;
+import org.apache.directory.api.util.GenerationalCache;
+
+
+/**
+ * A cache of normalized values, keyed by the AttributeType (compared by identity) and by the
+ * user provided value. Normalizing a value which is already cached for an AttributeType returns
+ * the cached normalized value, without calling the Normalizer again.
+ * <br>
+ * The normalized values are interned : two values normalized to the same string share the same
+ * String instance, so the entries loaded in memory use less heap.
+ * <br>
+ * The cache is bounded, and keeps the recently used entries (see {@link GenerationalCache}). It's
+ * not used unless it has been enabled :
+ * <pre>
+ * NormalizedValueCache.setInstance( new NormalizedValueCache( 100000 ) );
+ * </pre>
+ * Once enabled, the {@link Value}, and the {@link org.apache.directory.api.ldap.model.name.Ava}
+ * and {@link DefaultAttribute} which create their values, consult it before normalizing a value.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public final class NormalizedValueCache
+{
+    /** The default number of cached values */
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    /** The cache in use, if any */
+    private static volatile NormalizedValueCache instance;
+
+    /** The cached normalized values */
+    private final GenerationalCache<Key, String> normValues;
+
+    /** The interned normalized values */
+    private final GenerationalCache<String, String> interned;
+
+    /** The number of lookups finding a cached value */
+    private final LongAdder hits = new LongAdder();
+
+    /** The number of lookups which had to normalize the value */
+    private final LongAdder misses = new LongAdder();
+
+
+    /**
+     * The key of a cached value : a user provided value and its AttributeType.
+     */
+    private static final class Key
+    {
+        /** The AttributeType, compared by identity */
+        private final AttributeType attributeType;
+
+        /** The user provided value */
+        private final String upValue;
+
+        /** The pre-computed hash code */
+        private final int hash;
+
+
+        Key( AttributeType attributeType, String upValue )
+        {
+            this.attributeType = attributeType;
+            this.upValue = upValue;
+            this.hash = upValue.hashCode() * 31 + System.identityHashCode( attributeType );
+        }
+
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+
+        @Override
+        public boolean equals( Object that )
+        {
+            if ( this == that )
+            {
+                return true;
+            }
+
+            if ( !( that instanceof Key ) )
+            {
+                return false;
+            }
+
+            Key other = ( Key ) that;
+
+            return ( attributeType == other.attributeType ) && upValue.equals( other.upValue );
+        }
+    }
+
+
+    /**
+     * Creates a new NormalizedValueCache holding up to {@link #DEFAULT_MAX_SIZE} values
+     */
+    public NormalizedValueCache()
+    {
+        this( DEFAULT_MAX_SIZE );
+    }
+
+
+    /**
+     * Creates a new NormalizedValueCache
+     *
+     * @param maxSize The maximum number of cached values
+     */
+    public NormalizedValueCache( int maxSize )
+    {
+        if ( maxSize <= 0 )
+        {
+            throw new IllegalArgumentException( I18n.err( I18n.ERR_13627_INVALID_CACHE_SIZE, maxSize ) );
+        }
+
+        normValues = new GenerationalCache<>( maxSize );
+        interned = new GenerationalCache<>( maxSize );
+    }
+
+
+    /**
+     * @return The cache in use, or null if the normalized values aren't cached
+     */
+    public static NormalizedValueCache getInstance()
+    {
+        return instance;
+    }
+
+
+    /**
+     * Sets the cache to use when normalizing the values.
+     *
+     * @param cache The cache to use, or null to stop caching the normalized values
+     */
+    public static void setInstance( NormalizedValueCache cache )
+    {
+        instance = cache;
+    }
+
+
+    /**
+     * Normalizes a value, using the cache in use if any.
+     *
+     * @param attributeType The value's AttributeType
+     * @param normalizer The Normalizer to use
+     * @param upValue The user provided value
+     * @return The normalized value
+     * @throws LdapException If the value can't be normalized
+     */
+    public static String normalize( AttributeType attributeType, Normalizer normalizer, String upValue )
+        throws LdapException
+    {
+        NormalizedValueCache cache = instance;
+
+        if ( cache == null )
+        {
+            return normalizer.normalize( upValue );
+        }
+
+        return cache.getNormValue( attributeType, normalizer, upValue );
+    }
+
+
+    /**
+     * Gets the normalized value of a user provided value, normalizing it only if it's not
+     * already cached for this AttributeType.
+     *
+     * @param attributeType The value's AttributeType
+     * @param normalizer The Normalizer to use. It must always be the same for a given AttributeType
+     * @param upValue The user provided value
+     * @return The interned normalized value
+     * @throws LdapException If the value can't be normalized
+     */
+    public String getNormValue( AttributeType attributeType, Normalizer normalizer, String upValue )
+        throws LdapException
+    {
+        if ( ( attributeType == null ) || ( upValue == null ) )
+        {
+            return normalizer.normalize( upValue );
+        }
+
+        Key key = new Key( attributeType, upValue );
+        String normValue = normValues.get( key );
+
+        if ( normValue != null )
+        {
+            hits.increment();
+
+            return normValue;
+        }
+
+        misses.increment();
+        normValue = normalizer.normalize( upValue );
+
+        if ( normValue == null )
+        {
+            return null;
+        }
+
+        normValue = intern( normValue );
+
+        return normValues.putIfAbsent( key, normValue );
+    }
+
+
+    /**
+     * Gets the shared instance of a normalized value.
+     *
+     * @param normValue The normalized value
+     * @return The interned normalized value
+     */
+    public String intern( String normValue )
+    {
+        if ( normValue == null )
+        {
+            return null;
+        }
+
+        String shared = interned.get( normValue );
+
+        if ( shared != null )
+        {
+            return shared;
+        }
+
+        return interned.putIfAbsent( normValue, normValue );
+    }
+
+
+    /**
+     * @return The number of lookups which found a cached value
+     */
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+
+    /**
+     * @return The number of lookups which had to normalize the value
+     */
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+
+    /**
+     * @return The ratio of lookups which found a cached value, between 0 and 1
+     */
+    public double getHitRate()
+    {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+
+        return total == 0 ? 0d : ( double ) hitCount / total;
+    }
+
+
+    /**
+     * @return The number of values dropped from the cache to keep it under its maximum size
+     */
+    public long getEvictionCount()
+    {
+        return normValues.getEvictionCount();
+    }
+
+
+    /**
+     * @return The approximate number of cached values
+     */
+    public int size()
+    {
+        return normValues.size();
+    }
+
+
+    /**
+     * Removes all the cached values, and resets the counters.
+     */
+    public void clear()
+    {
+        normValues.clear();
+        interned.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "NormalizedValueCache[size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+            + ", evictions=" + getEvictionCount() + "]";
+    }
+}
@@ -95,9 +95,32 @@ public class Value implements Cloneable, Externalizable, Comparable<Value>
 
     /** Two flags used to tell if the value is HR or not in serialization */
     private boolean isHR = true;
+
+    /** The ordering key, computed once by a comparator. See {@link #getOrderingKey(LdapComparator)} */
+    private transient volatile OrderingKey orderingKey;
     
     /** A default comparator if we don't have an EQUALITY MR */
     private static StringComparator stringComparator = new StringComparator( null );
+
+
+    /**
+     * An ordering key, and the class of the comparator which has computed it.
+     */
+    private static final class OrderingKey
+    {
+        /** The comparator class */
+        private final Class<?> comparatorClass;
+
+        /** The key. May be null */
+        private final Object key;
+
+
+        OrderingKey( Class<?> comparatorClass, Object key )
+        {
+            this.comparatorClass = comparatorClass;
+            this.key = key;
+        }
+    }
     
     // -----------------------------------------------------------------------
     // Constructors
@@ -1256,8 +1279,8 @@ public class Value implements Cloneable, Externalizable, Comparable<Value>
             throw new IllegalArgumentException( I18n.err( I18n.ERR_13220_NO_NORMALIZER ) );
         }
 
-        // Now, normalize the upValue
-        normValue = normalizer.normalize( upValue );
+        // Now, normalize the upValue, unless it's already cached
+        normValue = NormalizedValueCache.normalize( attributeType, normalizer, upValue );
     }
     
     
@@ -1401,6 +1424,76 @@ public class Value implements Cloneable, Externalizable, Comparable<Value>
     }
 
 
+    /**
+     * Gets the ordering key of this value, computed by the comparator of the AttributeType
+     * ORDERING MatchingRule.
+     *
+     * @return The ordering key, or null if there is no ORDERING MatchingRule, or if its
+     * comparator does not compute keys
+     * @see #getOrderingKey(LdapComparator)
+     */
+    public Object getOrderingKey()
+    {
+        LdapComparator<?> comparator = getOrderingComparator();
+
+        if ( comparator != null )
+        {
+            return getOrderingKey( comparator );
+        }
+
+        return null;
+    }
+
+
+    /**
+     * @return The comparator of the AttributeType ORDERING MatchingRule, or null if there is none
+     */
+    private LdapComparator<?> getOrderingComparator()
+    {
+        if ( attributeType != null )
+        {
+            MatchingRule ordering = attributeType.getOrdering();
+
+            if ( ordering != null )
+            {
+                return ordering.getLdapComparator();
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Gets the ordering key of this value, as computed by {@link LdapComparator#getOrderingKey(String)}.
+     * The key is computed once and cached, so comparing values using their keys does not parse
+     * them again.
+     *
+     * @param comparator The comparator computing the key
+     * @return The ordering key, or null if the comparator does not compute keys, or if this
+     * value can't be parsed
+     */
+    public Object getOrderingKey( LdapComparator<?> comparator )
+    {
+        OrderingKey cached = orderingKey;
+
+        if ( ( cached == null ) || ( cached.comparatorClass != comparator.getClass() ) )
+        {
+            Object key = null;
+
+            if ( isHR && ( upValue != null ) )
+            {
+                key = comparator.getOrderingKey( upValue );
+            }
+
+            cached = new OrderingKey( comparator.getClass(), key );
+            orderingKey = cached;
+        }
+
+        return cached.key;
+    }
+
+
     /**
      * Serialize the Value into a buffer at the given position.
      * 
@@ -1855,6 +1948,24 @@ public class Value implements Cloneable, Externalizable, Comparable<Value>
             return Strings.compare( bytes, other.bytes );
         }
 
+        // Use the cached ordering keys when the ORDERING MatchingRule comparator computes some
+        LdapComparator<?> orderingComparator = getOrderingComparator();
+
+        if ( orderingComparator != null )
+        {
+            Object key = getOrderingKey( orderingComparator );
+
+            if ( key != null )
+            {
+                Object otherKey = other.getOrderingKey( orderingComparator );
+
+                if ( otherKey != null )
+                {
+                    return orderingComparator.compareOrderingKeys( key, otherKey );
+                }
+            }
+        }
+
         // We have HR values. We may have an attributeType for the base Value
         // It actually does not matter if the second value has an attributeType
         // which is different
@@ -1960,7 +2071,7 @@ public class Value implements Cloneable, Externalizable, Comparable<Value>
                     }
                     
                     String thisNormValue = normValue;
-                    String otherNormValue = normalizer.normalize( other );
+                    String otherNormValue = NormalizedValueCache.normalize( attributeType, normalizer, other );
                         
                     // Compare normalized values
                     if ( comparator == null )
@@ -0,0 +1,959 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.model.filter;
+
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import javax.naming.NamingException;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.entry.Attribute;
+import org.apache.directory.api.ldap.model.entry.Entry;
+import org.apache.directory.api.ldap.model.entry.NormalizedValueCache;
+import org.apache.directory.api.ldap.model.entry.Value;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.name.Ava;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.api.ldap.model.name.Rdn;
+import org.apache.directory.api.ldap.model.schema.AttributeType;
+import org.apache.directory.api.ldap.model.schema.LdapComparator;
+import org.apache.directory.api.ldap.model.schema.MatchingRule;
+import org.apache.directory.api.ldap.model.schema.Normalizer;
+import org.apache.directory.api.ldap.model.schema.SchemaManager;
+import org.apache.directory.api.util.Strings;
+
+
+/**
+ * A filter compiled to be evaluated against entries, on the client side. The filter is compiled
+ * once, using the SchemaManager matching rules : the assertion values are normalized, the
+ * substring patterns are compiled and the AND and OR branches are reordered so that the cheapest
+ * filters are evaluated first. The compiled filter can then be used to evaluate many entries, by
+ * many threads.
+ * <br>
+ * The evaluation follows RFC 4511, section 4.5.1.7 : a filter whose attribute type is unknown or
+ * which can't be evaluated because there is no matching rule is Undefined, and a Undefined
+ * filter does not match, even when it's negated.
+ * <br>
+ * Example :
+ * <pre>
+ * CompiledFilter filter = CompiledFilter.compile( schemaManager, "(&amp;(objectClass=person)(cn=j*))" );
+ *
+ * for ( Entry entry : entries )
+ * {
+ *     if ( filter.matches( entry ) )
+ *     {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public final class CompiledFilter implements Predicate<Entry>
+{
+    /** The filter evaluates to FALSE */
+    private static final int FALSE = 0;
+
+    /** The filter evaluates to TRUE */
+    private static final int TRUE = 1;
+
+    /** The filter evaluates to Undefined */
+    private static final int UNDEFINED = 2;
+
+    /** The evaluation costs, used to order the branches */
+    private static final int CONSTANT_COST = 0;
+    private static final int PRESENCE_COST = 1;
+    private static final int EQUALITY_COST = 2;
+    private static final int ORDERING_COST = 3;
+    private static final int SCOPE_COST = 3;
+    private static final int SUBSTRING_COST = 4;
+    private static final int EXTENSIBLE_COST = 5;
+    private static final int ASSERTION_COST = 10;
+
+    /** The compiled filters, sorted by cost */
+    private static final Comparator<Matcher> BY_COST = ( m1, m2 ) -> Integer.compare( m1.cost, m2.cost );
+
+    /** The filter which has been compiled */
+    private final ExprNode filter;
+
+    /** The compiled filter */
+    private final Matcher matcher;
+
+
+    /**
+     * A compiled filter node.
+     */
+    private abstract static class Matcher
+    {
+        /** The evaluation cost */
+        protected final int cost;
+
+
+        Matcher( int cost )
+        {
+            this.cost = cost;
+        }
+
+
+        /**
+         * @param entry The entry to evaluate
+         * @return TRUE, FALSE or UNDEFINED
+         */
+        abstract int evaluate( Entry entry );
+    }
+
+
+    /**
+     * A filter which always evaluates to the same result.
+     */
+    private static final class ConstantMatcher extends Matcher
+    {
+        private static final ConstantMatcher ALWAYS_TRUE = new ConstantMatcher( TRUE );
+        private static final ConstantMatcher ALWAYS_UNDEFINED = new ConstantMatcher( UNDEFINED );
+
+        /** The result */
+        private final int result;
+
+
+        ConstantMatcher( int result )
+        {
+            super( CONSTANT_COST );
+            this.result = result;
+        }
+
+
+        @Override
+        int evaluate( Entry entry )
+        {
+            return result;
+        }
+    }
+
+
+    /**
+     * The AND and OR filters.
+     */
+    private static final class BranchMatcher extends Matcher
+    {
+        /** The children, the cheapest first */
+        private final Matcher[] children;
+
+        /** True for a AND, false for a OR */
+        private final boolean isAnd;
+
+
+        BranchMatcher( List<Matcher> children, boolean isAnd )
+        {
+            super( children.stream().mapToInt( child -> child.cost ).sum() );
+            this.children = children.toArray( new Matcher[0] );
+            this.isAnd = isAnd;
+            Arrays.sort( this.children, BY_COST );
+        }
+
+
+        @Override
+        int evaluate( Entry entry )
+        {
+            // A AND is FALSE as soon as a child is FALSE, a OR is TRUE as soon as a child is TRUE
+            int shortcut = isAnd ? FALSE : TRUE;
+            int result = isAnd ? TRUE : FALSE;
+
+            for ( Matcher child : children )
+            {
+                int childResult = child.evaluate( entry );
+
+                if ( childResult == shortcut )
+                {
+                    return shortcut;
+                }
+
+                if ( childResult == UNDEFINED )
+                {
+                    result = UNDEFINED;
+                }
+            }
+
+            return result;
+        }
+    }
+
+
+    /**
+     * The NOT filter.
+     */
+    private static final class NotMatcher extends Matcher
+    {
+        /** The negated filter */
+        private final Matcher child;
+
+
+        NotMatcher( Matcher child )
+        {
+            super( child.cost );
+            this.child = child;
+        }
+
+
+        @Override
+        int evaluate( Entry entry )
+        {
+            switch ( child.evaluate( entry ) )
+            {
+                case TRUE:
+                    return FALSE;
+
+                case FALSE:
+                    return TRUE;
+
+                default:
+                    return UNDEFINED;
+            }
+        }
+    }
+
+
+    /**
+     * The filters on a scope.
+     */
+    private static final class ScopeMatcher extends Matcher
+    {
+        /** The ScopeNode */
+        private final ScopeNode node;
+
+
+        ScopeMatcher( ScopeNode node )
+        {
+            super( SCOPE_COST );
+            this.node = node;
+        }
+
+
+        @Override
+        int evaluate( Entry entry )
+        {
+            Dn dn = entry.getDn();
+            Dn baseDn = node.getBaseDn();
+
+            switch ( node.getScope() )
+            {
+                case OBJECT:
+                    return baseDn.equals( dn ) ? TRUE : FALSE;
+
+                case ONELEVEL:
+                    return ( dn.size() == baseDn.size() + 1 ) && dn.isDescendantOf( baseDn ) ? TRUE : FALSE;
+
+                default:
+                    return dn.isDescendantOf( baseDn ) ? TRUE : FALSE;
+            }
+        }
+    }
+
+
+    /**
+     * The filters evaluated by a custom Assertion.
+     */
+    private static final class AssertionMatcher extends Matcher
+    {
+        /** The Assertion */
+        private final Assertion assertion;
+
+
+        AssertionMatcher( Assertion assertion )
+        {
+            super( ASSERTION_COST );
+            this.assertion = assertion;
+        }
+
+
+        @Override
+        int evaluate( Entry entry )
+        {
+            try
+            {
+                return assertion.assertCandidate( entry ) ? TRUE : FALSE;
+            }
+            catch ( NamingException ne )
+            {
+                return UNDEFINED;
+            }
+        }
+    }
+
+
+    /**
+     * The filters on an attribute : they match if one of the attribute values matches.
+     */
+    private abstract static class AttributeMatcher extends Matcher
+    {
+        /** The attribute type and its subtypes */
+        private final AttributeType[] attributeTypes;
+
+        /** The Normalizer used to normalize the entry values. May be null */
+        protected final Normalizer normalizer;
+
+
+        AttributeMatcher( int cost, AttributeType[] attributeTypes, Normalizer normalizer )
+        {
+            super( cost );
+            this.attributeTypes = attributeTypes;
+            this.normalizer = normalizer;
+        }
+
+
+        @Override
+        int evaluate( Entry entry )
+        {
+            for ( AttributeType attributeType : attributeTypes )
+            {
+                Attribute attribute = getAttribute( entry, attributeType );
+
+                if ( attribute != null )
+                {
+                    for ( Value value : attribute )
+                    {
+                        if ( matches( attributeType, value ) )
+                        {
+                            return TRUE;
+                        }
+                    }
+                }
+            }
+
+            return FALSE;
+        }
+
+
+        /**
+         * @param attributeType The attribute type of the value
+         * @param value The entry value
+         * @return true if the value matches the filter
+         */
+        abstract boolean matches( AttributeType attributeType, Value value );
+
+
+        /**
+         * Normalizes an entry value with this filter's Normalizer. The value normalized form is used
+         * when it has been computed by the same Normalizer.
+         */
+        protected String normalize( AttributeType attributeType, Value value ) throws LdapException
+        {
+            MatchingRule equality = attributeType.getEquality();
+
+            if ( ( equality != null ) && ( equality.getNormalizer() == normalizer ) )
+            {
+                if ( value.isSchemaAware() )
+                {
+                    return value.getNormalized();
+                }
+
+                return NormalizedValueCache.normalize( attributeType, normalizer, value.getString() );
+            }
+
+            return normalizer.normalize( value.getString() );
+        }
+    }
+
+
+    /**
+     * The presence filter.
+     */
+    private static final class PresenceMatcher extends AttributeMatcher
+    {
+        PresenceMatcher( AttributeType[] attributeTypes )
+        {
+            super( PRESENCE_COST, attributeTypes, null );
+        }
+
+
+        @Override
+        boolean matches( AttributeType attributeType, Value value )
+        {
+            return true;
+        }
+    }
+
+
+    /**
+     * The equality and approximate filters.
+     */
+    private static final class EqualityMatcher extends AttributeMatcher
+    {
+        /** The normalized assertion value */
+        private final String normValue;
+
+        /** The assertion value, if it's binary */
+        private final byte[] bytes;
+
+
+        EqualityMatcher( AttributeType[] attributeTypes, Normalizer normalizer, Value assertion )
+            throws LdapException
+        {
+            super( EQUALITY_COST, attributeTypes, normalizer );
+            String value = getString( attributeTypes[0], assertion );
+
+            if ( value != null )
+            {
+                normValue = normalizer.normalize( value );
+                bytes = null;
+            }
+            else
+            {
+                normValue = null;
+                bytes = assertion.getBytes();
+            }
+        }
+
+
+        @Override
+        boolean matches( AttributeType attributeType, Value value )
+        {
+            if ( !value.isHumanReadable() || ( bytes != null ) )
+            {
+                return Arrays.equals( bytes, value.getBytes() );
+            }
+
+            try
+            {
+                return normValue.equals( normalize( attributeType, value ) );
+            }
+            catch ( LdapException le )
+            {
+                return false;
+            }
+        }
+    }
+
+
+    /**
+     * The greater or equal and less or equal filters. The entry values are compared using their
+     * ordering keys, when the comparator computes some.
+     */
+    private static final class OrderingMatcher extends AttributeMatcher
+    {
+        /** The ORDERING comparator */
+        private final LdapComparator<Object> comparator;
+
+        /** The normalized assertion value */
+        private final String normValue;
+
+        /** The assertion value ordering key. May be null */
+        private final Object key;
+
+        /** True for a greater or equal filter, false for a less or equal filter */
+        private final boolean greater;
+
+
+        @SuppressWarnings("unchecked")
+        OrderingMatcher( AttributeType[] attributeTypes, MatchingRule ordering, String assertion, boolean greater )
+            throws LdapException
+        {
+            super( ORDERING_COST, attributeTypes, ordering.getNormalizer() );
+            this.comparator = ( LdapComparator<Object> ) ordering.getLdapComparator();
+            this.normValue = normalizer.normalize( assertion );
+            this.key = comparator.getOrderingKey( assertion );
+            this.greater = greater;
+        }
+
+
+        @Override
+        boolean matches( AttributeType attributeType, Value value )
+        {
+            if ( !value.isHumanReadable() )
+            {
+                return false;
+            }
+
+            int comparison;
+
+            try
+            {
+                Object valueKey = key == null ? null : value.getOrderingKey( comparator );
+
+                if ( valueKey != null )
+                {
+                    comparison = comparator.compareOrderingKeys( valueKey, key );
+                }
+                else
+                {
+                    comparison = comparator.compare( normalize( attributeType, value ), normValue );
+                }
+            }
+            catch ( LdapException | IllegalArgumentException e )
+            {
+                return false;
+            }
+
+            return greater ? comparison >= 0 : comparison <= 0;
+        }
+    }
+
+
+    /**
+     * The substring filter.
+     */
+    private static final class SubstringMatcher extends AttributeMatcher
+    {
+        /** The compiled pattern, built from the normalized substrings */
+        private final Pattern pattern;
+
+
+        SubstringMatcher( AttributeType[] attributeTypes, MatchingRule substring, SubstringNode node )
+            throws LdapException
+        {
+            super( SUBSTRING_COST, attributeTypes, substring.getNormalizer() );
+            pattern = node.getRegex( normalizer );
+        }
+
+
+        @Override
+        boolean matches( AttributeType attributeType, Value value )
+        {
+            if ( !value.isHumanReadable() )
+            {
+                return false;
+            }
+
+            try
+            {
+                return pattern.matcher( normalize( attributeType, value ) ).matches();
+            }
+            catch ( LdapException le )
+            {
+                return false;
+            }
+        }
+    }
+
+
+    /**
+     * The extensible filter.
+     */
+    private static final class ExtensibleMatcher extends AttributeMatcher
+    {
+        /** The matching rule comparator */
+        private final LdapComparator<Object> comparator;
+
+        /** The normalized assertion value */
+        private final String normValue;
+
+        /** The attribute type, or null if all the attributes are evaluated */
+        private final AttributeType attributeType;
+
+        /** Tells if the Dn attributes are evaluated too */
+        private final boolean dnAttributes;
+
+
+        @SuppressWarnings("unchecked")
+        ExtensibleMatcher( AttributeType[] attributeTypes, AttributeType attributeType, MatchingRule matchingRule,
+            String assertion, boolean dnAttributes ) throws LdapException
+        {
+            super( EXTENSIBLE_COST, attributeTypes, matchingRule.getNormalizer() );
+            this.comparator = ( LdapComparator<Object> ) matchingRule.getLdapComparator();
+            this.normValue = normalizer.normalize( assertion );
+            this.attributeType = attributeType;
+            this.dnAttributes = dnAttributes;
+        }
+
+
+        @Override
+        int evaluate( Entry entry )
+        {
+            if ( attributeType != null )
+            {
+                if ( super.evaluate( entry ) == TRUE )
+                {
+                    return TRUE;
+                }
+            }
+            else
+            {
+                for ( Attribute attribute : entry )
+                {
+                    AttributeType type = attribute.getAttributeType();
+
+                    for ( Value value : attribute )
+                    {
+                        if ( ( type != null ) && matches( type, value ) )
+                        {
+                            return TRUE;
+                        }
+                    }
+                }
+            }
+
+            if ( dnAttributes && ( entry.getDn() != null ) )
+            {
+                for ( Rdn rdn : entry.getDn() )
+                {
+                    for ( Ava ava : rdn )
+                    {
+                        AttributeType type = ava.getAttributeType();
+
+                        if ( ( type != null ) && ( ( attributeType == null ) || ( attributeType == type ) )
+                            && matches( type, ava.getValue() ) )
+                        {
+                            return TRUE;
+                        }
+                    }
+                }
+            }
+
+            return FALSE;
+        }
+
+
+        @Override
+        boolean matches( AttributeType type, Value value )
+        {
+            if ( !value.isHumanReadable() )
+            {
+                return false;
+            }
+
+            try
+            {
+                return comparator.compare( normalize( type, value ), normValue ) == 0;
+            }
+            catch ( LdapException | IllegalArgumentException e )
+            {
+                return false;
+            }
+        }
+    }
+
+
+    private CompiledFilter( ExprNode filter, Matcher matcher )
+    {
+        this.filter = filter;
+        this.matcher = matcher;
+    }
+
+
+    /**
+     * Parses and compiles a filter.
+     *
+     * @param schemaManager The SchemaManager
+     * @param filter The filter to compile
+     * @return The compiled filter
+     * @throws ParseException If the filter is invalid
+     * @throws LdapException If the filter can't be compiled
+     */
+    public static CompiledFilter compile( SchemaManager schemaManager, String filter )
+        throws ParseException, LdapException
+    {
+        if ( schemaManager == null )
+        {
+            throw new IllegalArgumentException( I18n.err( I18n.ERR_13319_NULL_SCHEMA_MANAGER_FOR_FILTER ) );
+        }
+
+        return compile( schemaManager, FilterParser.parse( schemaManager, filter ) );
+    }
+
+
+    /**
+     * Compiles a filter.
+     *
+     * @param schemaManager The SchemaManager
+     * @param filter The filter to compile
+     * @return The compiled filter
+     * @throws LdapException If the filter can't be compiled
+     */
+    public static CompiledFilter compile( SchemaManager schemaManager, ExprNode filter ) throws LdapException
+    {
+        if ( schemaManager == null )
+        {
+            throw new IllegalArgumentException( I18n.err( I18n.ERR_13319_NULL_SCHEMA_MANAGER_FOR_FILTER ) );
+        }
+
+        return new CompiledFilter( filter, compileNode( schemaManager, filter ) );
+    }
+
+
+    private static Matcher compileNode( SchemaManager schemaManager, ExprNode node ) throws LdapException
+    {
+        if ( node == null )
+        {
+            // The parser returns null when the whole filter is Undefined
+            return ConstantMatcher.ALWAYS_UNDEFINED;
+        }
+
+        if ( node instanceof BranchNode )
+        {
+            List<Matcher> children = new ArrayList<>();
+
+            for ( ExprNode child : ( ( BranchNode ) node ).getChildren() )
+            {
+                children.add( compileNode( schemaManager, child ) );
+            }
+
+            if ( node instanceof NotNode )
+            {
+                return new NotMatcher( children.get( 0 ) );
+            }
+
+            return new BranchMatcher( children, node instanceof AndNode );
+        }
+
+        if ( node instanceof ObjectClassNode )
+        {
+            return ConstantMatcher.ALWAYS_TRUE;
+        }
+
+        if ( node instanceof UndefinedNode )
+        {
+            return ConstantMatcher.ALWAYS_UNDEFINED;
+        }
+
+        if ( node instanceof ScopeNode )
+        {
+            return new ScopeMatcher( ( ScopeNode ) node );
+        }
+
+        if ( node instanceof AssertionNode )
+        {
+            return new AssertionMatcher( ( ( AssertionNode ) node ).getAssertion() );
+        }
+
+        if ( node instanceof LeafNode )
+        {
+            return compileLeaf( schemaManager, ( LeafNode ) node );
+        }
+
+        throw new LdapException( I18n.err( I18n.ERR_13320_CANNOT_EVALUATE_FILTER_NODE, node ) );
+    }
+
+
+    private static Matcher compileLeaf( SchemaManager schemaManager, LeafNode node ) throws LdapException
+    {
+        AttributeType attributeType = node.getAttributeType();
+
+        if ( ( attributeType == null ) && ( node.getAttribute() != null ) )
+        {
+            attributeType = schemaManager.getAttributeType( node.getAttribute() );
+        }
+
+        if ( node instanceof ExtensibleNode )
+        {
+            return compileExtensible( schemaManager, ( ExtensibleNode ) node, attributeType );
+        }
+
+        if ( attributeType == null )
+        {
+            // Unknown attribute type
+            return ConstantMatcher.ALWAYS_UNDEFINED;
+        }
+
+        AttributeType[] attributeTypes = withSubtypes( schemaManager, attributeType );
+
+        if ( node instanceof PresenceNode )
+        {
+            return new PresenceMatcher( attributeTypes );
+        }
+
+        if ( node instanceof SubstringNode )
+        {
+            MatchingRule substring = attributeType.getSubstring();
+
+            if ( substring == null )
+            {
+                return ConstantMatcher.ALWAYS_UNDEFINED;
+            }
+
+            return new SubstringMatcher( attributeTypes, substring, ( SubstringNode ) node );
+        }
+
+        Value assertion = ( ( SimpleNode<?> ) node ).getValue();
+
+        if ( ( node instanceof GreaterEqNode ) || ( node instanceof LessEqNode ) )
+        {
+            MatchingRule ordering = attributeType.getOrdering();
+            String value = getString( attributeType, assertion );
+
+            if ( ( ordering == null ) || ( value == null ) )
+            {
+                return ConstantMatcher.ALWAYS_UNDEFINED;
+            }
+
+            return new OrderingMatcher( attributeTypes, ordering, value, node instanceof GreaterEqNode );
+        }
+
+        // Equality and approximate filters
+        MatchingRule equality = attributeType.getEquality();
+
+        if ( equality == null )
+        {
+            return ConstantMatcher.ALWAYS_UNDEFINED;
+        }
+
+        return new EqualityMatcher( attributeTypes, equality.getNormalizer(), assertion );
+    }
+
+
+    private static Matcher compileExtensible( SchemaManager schemaManager, ExtensibleNode node,
+        AttributeType attributeType ) throws LdapException
+    {
+        MatchingRule matchingRule;
+
+        if ( node.getMatchingRuleId() != null )
+        {
+            matchingRule = schemaManager.getMatchingRuleRegistry().find( node.getMatchingRuleId() );
+        }
+        else
+        {
+            matchingRule = attributeType == null ? null : attributeType.getEquality();
+        }
+
+        if ( ( matchingRule == null ) || ( ( attributeType == null ) && ( node.getAttribute() != null ) )
+            || ( node.getValue() == null ) )
+        {
+            return ConstantMatcher.ALWAYS_UNDEFINED;
+        }
+
+        String assertion = getString( attributeType, node.getValue() );
+
+        if ( assertion == null )
+        {
+            return ConstantMatcher.ALWAYS_UNDEFINED;
+        }
+
+        AttributeType[] attributeTypes = attributeType == null ? new AttributeType[0]
+            : withSubtypes( schemaManager, attributeType );
+
+        return new ExtensibleMatcher( attributeTypes, attributeType, matchingRule, assertion,
+            node.hasDnAttributes() );
+    }
+
+
+    private static AttributeType[] withSubtypes( SchemaManager schemaManager, AttributeType attributeType )
+        throws LdapException
+    {
+        List<AttributeType> attributeTypes = new ArrayList<>();
+        attributeTypes.add( attributeType );
+
+        if ( schemaManager.getAttributeTypeRegistry().hasDescendants( attributeType ) )
+        {
+            Iterator<AttributeType> descendants = schemaManager.getAttributeTypeRegistry().descendants( attributeType );
+
+            while ( descendants.hasNext() )
+            {
+                attributeTypes.add( descendants.next() );
+            }
+        }
+
+        return attributeTypes.toArray( new AttributeType[0] );
+    }
+
+
+    /**
+     * Gets an assertion value as a String. The parser keeps the values as bytes when it does not
+     * know the attribute type syntax, which is always the case for the extensible filters.
+     *
+     * @return The value, or null if it's a binary value
+     */
+    private static String getString( AttributeType attributeType, Value value )
+    {
+        if ( value.isHumanReadable() )
+        {
+            return value.getString();
+        }
+
+        if ( ( attributeType == null ) || ( attributeType.getSyntax() == null )
+            || attributeType.getSyntax().isHumanReadable() )
+        {
+            return Strings.utf8ToString( value.getBytes() );
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Gets an entry attribute. The entries which are not schema aware are looked up using the
+     * attribute type names and OID.
+     */
+    private static Attribute getAttribute( Entry entry, AttributeType attributeType )
+    {
+        if ( entry.isSchemaAware() )
+        {
+            return entry.get( attributeType );
+        }
+
+        for ( String name : attributeType.getNames() )
+        {
+            Attribute attribute = entry.get( name );
+
+            if ( attribute != null )
+            {
+                return attribute;
+            }
+        }
+
+        return entry.get( attributeType.getOid() );
+    }
+
+
+    /**
+     * Evaluates the filter against an entry.
+     *
+     * @param entry The entry
+     * @return true if the entry matches the filter
+     */
+    public boolean matches( Entry entry )
+    {
+        return ( entry != null ) && ( matcher.evaluate( entry ) == TRUE );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean test( Entry entry )
+    {
+        return matches( entry );
+    }
+
+
+    /**
+     * @return The filter which has been compiled
+     */
+    public ExprNode getFilter()
+    {
+        return filter;
+    }
+
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "CompiledFilter[" + filter + "]";
+    }
+}
@@ -27,6 +27,7 @@ import java.io.ObjectOutput;
 import java.util.Arrays;
 
 import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.entry.NormalizedValueCache;
 import org.apache.directory.api.ldap.model.entry.Value;
 import org.apache.directory.api.ldap.model.exception.LdapException;
 import org.apache.directory.api.ldap.model.exception.LdapInvalidAttributeValueException;
@@ -875,7 +876,8 @@ public class Ava implements Externalizable, Cloneable, Comparable<Ava>
                     
                     try
                     {
-                        return equalityMatchingRule.getLdapComparator().compare( normalizer.normalize( value.getString() ),
+                        return equalityMatchingRule.getLdapComparator().compare(
+                            NormalizedValueCache.normalize( attributeType, normalizer, value.getString() ),
                             instance.value.getString() ) == 0;
                     }
                     catch ( LdapException le )
@@ -0,0 +1,273 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.model.name;
+
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.exception.LdapInvalidDnException;
+import org.apache.directory.api.ldap.model.schema.SchemaManager;
+import org.apache.directory.api.util.GenerationalCache;
+
+
+/**
+ * A cache of parsed Dn, which can be used concurrently by many threads. The parsed Dn
+ * are keyed by the user provided name and by the SchemaManager they have been parsed with
+ * (compared by identity), so parsing the same name again returns the same Dn instance, without
+ * parsing or normalizing it again. A Dn is immutable, so it can safely be shared.
+ * <br>
+ * The parent RDNs of the cached Dn are shared too : when "cn=a,ou=people,dc=example,dc=com"
+ * and "cn=b,ou=people,dc=example,dc=com" are both cached, their "ou=people", "dc=example" and
+ * "dc=com" Rdn are the same instances.
+ * <br>
+ * The cache is bounded, and keeps the recently used entries (see {@link GenerationalCache}).
+ * Looking up an entry never blocks.
+ * <br>
+ * Example :
+ * <pre>
+ * DnCache cache = new DnCache( 10000 );
+ * Dn dn = cache.getDn( schemaManager, "cn=test,ou=system" );
+ * </pre>
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public final class DnCache
+{
+    /** The default number of cached Dn */
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    /** The cached Dn */
+    private final GenerationalCache<Key, Dn> dns;
+
+    /** The shared parent Rdn */
+    private final GenerationalCache<Key, Rdn> rdns;
+
+    /** The number of lookups finding a cached Dn */
+    private final LongAdder hits = new LongAdder();
+
+    /** The number of lookups which had to parse the name */
+    private final LongAdder misses = new LongAdder();
+
+
+    /**
+     * The key of a cached element : a name and the SchemaManager it has been parsed with.
+     */
+    private static final class Key
+    {
+        /** The SchemaManager, compared by identity. May be null */
+        private final SchemaManager schemaManager;
+
+        /** The user provided name */
+        private final String name;
+
+        /** The pre-computed hash code */
+        private final int hash;
+
+
+        Key( SchemaManager schemaManager, String name )
+        {
+            this.schemaManager = schemaManager;
+            this.name = name;
+            this.hash = name.hashCode() * 31 + System.identityHashCode( schemaManager );
+        }
+
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+
+        @Override
+        public boolean equals( Object that )
+        {
+            if ( this == that )
+            {
+                return true;
+            }
+
+            if ( !( that instanceof Key ) )
+            {
+                return false;
+            }
+
+            Key other = ( Key ) that;
+
+            return ( schemaManager == other.schemaManager ) && name.equals( other.name );
+        }
+    }
+
+
+    /**
+     * Creates a new DnCache holding up to {@link #DEFAULT_MAX_SIZE} Dn
+     */
+    public DnCache()
+    {
+        this( DEFAULT_MAX_SIZE );
+    }
+
+
+    /**
+     * Creates a new DnCache
+     *
+     * @param maxSize The maximum number of cached Dn
+     */
+    public DnCache( int maxSize )
+    {
+        if ( maxSize <= 0 )
+        {
+            throw new IllegalArgumentException( I18n.err( I18n.ERR_13627_INVALID_CACHE_SIZE, maxSize ) );
+        }
+
+        dns = new GenerationalCache<>( maxSize );
+        rdns = new GenerationalCache<>( maxSize );
+    }
+
+
+    /**
+     * Gets the Dn for a name, parsing it only if it's not already cached.
+     *
+     * @param name The name to parse
+     * @return The Dn
+     * @throws LdapInvalidDnException If the name is not a valid Dn
+     */
+    public Dn getDn( String name ) throws LdapInvalidDnException
+    {
+        return getDn( null, name );
+    }
+
+
+    /**
+     * Gets the schema aware Dn for a name, parsing and normalizing it only if it's not already
+     * cached for this SchemaManager.
+     *
+     * @param schemaManager The SchemaManager to use. May be null
+     * @param name The name to parse
+     * @return The Dn
+     * @throws LdapInvalidDnException If the name is not a valid Dn
+     */
+    public Dn getDn( SchemaManager schemaManager, String name ) throws LdapInvalidDnException
+    {
+        if ( ( name == null ) || name.isEmpty() )
+        {
+            return new Dn( schemaManager );
+        }
+
+        Key key = new Key( schemaManager, name );
+        Dn dn = dns.get( key );
+
+        if ( dn != null )
+        {
+            hits.increment();
+
+            return dn;
+        }
+
+        misses.increment();
+        dn = new Dn( schemaManager, name );
+
+        // Share the parent Rdn with the other cached Dn. The leftmost Rdn is usually unique
+        for ( int i = 1; i < dn.rdns.size(); i++ )
+        {
+            Rdn rdn = dn.rdns.get( i );
+            Rdn shared = rdns.putIfAbsent( new Key( schemaManager, rdn.getName() ), rdn );
+
+            if ( shared != rdn )
+            {
+                dn.rdns.set( i, shared );
+            }
+        }
+
+        return dns.putIfAbsent( key, dn );
+    }
+
+
+    /**
+     * @return The number of lookups which found a cached Dn
+     */
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+
+    /**
+     * @return The number of lookups which had to parse the name
+     */
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+
+    /**
+     * @return The ratio of lookups which found a cached Dn, between 0 and 1
+     */
+    public double getHitRate()
+    {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+
+        return total == 0 ? 0d : ( double ) hitCount / total;
+    }
+
+
+    /**
+     * @return The number of Dn dropped from the cache to keep it under its maximum size
+     */
+    public long getEvictionCount()
+    {
+        return dns.getEvictionCount();
+    }
+
+
+    /**
+     * @return The approximate number of cached Dn
+     */
+    public int size()
+    {
+        return dns.size();
+    }
+
+
+    /**
+     * Removes all the cached Dn and Rdn, and resets the counters.
+     */
+    public void clear()
+    {
+        dns.clear();
+        rdns.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "DnCache[size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+            + ", evictions=" + getEvictionCount() + "]";
+    }
+}
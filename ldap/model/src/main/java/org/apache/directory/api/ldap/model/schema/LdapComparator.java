@@ -23,6 +23,7 @@ package org.apache.directory.api.ldap.model.schema;
 import java.io.Serializable;
 import java.util.Comparator;
 
+import org.apache.directory.api.ldap.model.entry.Value;
 import org.apache.directory.api.ldap.model.schema.normalizers.NoOpNormalizer;
 
 
@@ -65,6 +66,85 @@ public abstract class LdapComparator<T> extends LoadableSchemaObject implements
     }
     
     
+    /**
+     * Computes the ordering key of a value : an object which can be compared with the
+     * {@link #compareOrderingKeys(Object, Object)} method instead of comparing the values
+     * themselves, so that the values don't have to be parsed on each comparison. The
+     * {@link Value} cache their ordering key.
+     * <br>
+     * The default implementation does not compute any key.
+     *
+     * @param value The value
+     * @return The ordering key, or null if this comparator does not use keys or if the
+     * value can't be parsed
+     */
+    public Object getOrderingKey( String value )
+    {
+        return null;
+    }
+
+
+    /**
+     * Compares two ordering keys computed by {@link #getOrderingKey(String)}. The default
+     * implementation expects the keys to be mutually {@link Comparable}.
+     *
+     * @param key1 The first key
+     * @param key2 The second key
+     * @return a negative integer, zero, or a positive integer as the first key is less than,
+     * equal to, or greater than the second key
+     */
+    @SuppressWarnings("unchecked")
+    public int compareOrderingKeys( Object key1, Object key2 )
+    {
+        return ( ( Comparable<Object> ) key1 ).compareTo( key2 );
+    }
+
+
+    /**
+     * Compares two Values, using their cached ordering keys when this comparator computes
+     * some, or comparing their content otherwise.
+     *
+     * @param value1 The first value
+     * @param value2 The second value
+     * @return a negative integer, zero, or a positive integer as the first value is less than,
+     * equal to, or greater than the second value
+     */
+    @SuppressWarnings("unchecked")
+    public int compareValues( Value value1, Value value2 )
+    {
+        if ( value1 == value2 )
+        {
+            return 0;
+        }
+
+        if ( ( value1 == null ) || ( value2 == null ) )
+        {
+            return value1 == null ? -1 : 1;
+        }
+
+        Object key1 = value1.getOrderingKey( this );
+
+        if ( key1 != null )
+        {
+            Object key2 = value2.getOrderingKey( this );
+
+            if ( key2 != null )
+            {
+                return compareOrderingKeys( key1, key2 );
+            }
+        }
+
+        if ( value1.isHumanReadable() )
+        {
+            return compare( ( T ) value1.getString(), ( T ) value2.getString() );
+        }
+        else
+        {
+            return compare( ( T ) value1.getBytes(), ( T ) value2.getBytes() );
+        }
+    }
+
+
     /**
      * {@inheritDoc}
      */
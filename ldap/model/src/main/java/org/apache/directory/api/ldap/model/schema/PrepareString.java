@@ -20,6 +20,7 @@
 package org.apache.directory.api.ldap.model.schema;
 
 
+import java.nio.CharBuffer;
 import java.text.Normalizer;
 
 import org.apache.directory.api.util.Strings;
@@ -68,10 +69,71 @@ public final class PrepareString
         /** An Attribute Value */
         ATTRIBUTE_VALUE
     }
-    
-    /** An exception used to get out of the map method quickly */
-    private static final ArrayIndexOutOfBoundsException AIOOBE = new ArrayIndexOutOfBoundsException();
-    
+
+    /** The longest buffers kept for reuse by a thread, longer ones are allocated for each call */
+    private static final int MAX_BUFFER_SIZE = 16 * 1024;
+
+    /** The buffers used by each thread to prepare the Strings */
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial( Buffers::new );
+
+
+    /**
+     * The reusable buffers used by one thread to prepare Strings
+     */
+    private static final class Buffers
+    {
+        /** The buffer where the mapped chars are stored */
+        private char[] mapped = new char[256];
+
+        /** The buffer where the final chars are stored */
+        private char[] prepared = new char[256];
+
+
+        /**
+         * @param size The needed size
+         * @return A buffer containing at least the given number of chars
+         */
+        char[] mapped( int size )
+        {
+            if ( size <= mapped.length )
+            {
+                return mapped;
+            }
+
+            if ( size > MAX_BUFFER_SIZE )
+            {
+                return new char[size];
+            }
+
+            mapped = new char[size];
+
+            return mapped;
+        }
+
+
+        /**
+         * @param size The needed size
+         * @return A buffer containing at least the given number of chars
+         */
+        char[] prepared( int size )
+        {
+            if ( size <= prepared.length )
+            {
+                return prepared;
+            }
+
+            if ( size > MAX_BUFFER_SIZE )
+            {
+                return new char[size];
+            }
+
+            prepared = new char[size];
+
+            return prepared;
+        }
+    }
+
+
     /**
      * A private constructor, to avoid instance creation of this static class.
      */
@@ -103,7 +165,7 @@ public final class PrepareString
      */
     public static String normalize( String value )
     {
-        if ( !Normalizer.isNormalized( value, Normalizer.Form.NFKC ) )
+        if ( !isNormalized( value ) )
         {
             return Normalizer.normalize( value, Normalizer.Form.NFKC );
         }
@@ -112,6 +174,104 @@ public final class PrepareString
             return value;
         }
     }
+
+
+    /**
+     * Tells if some chars are NFKC normalized. The chars below U+00A0 are never modified by the
+     * normalization, so the normalizer is only called when the chars contain a char above.
+     *
+     * @param chars The chars to check
+     * @return <code>true</code> if the chars are normalized
+     */
+    private static boolean isNormalized( CharSequence chars )
+    {
+        for ( int i = 0; i < chars.length(); i++ )
+        {
+            if ( chars.charAt( i ) >= 0x00A0 )
+            {
+                return Normalizer.isNormalized( chars, Normalizer.Form.NFKC );
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Prepares a String as described in RFC 4518 : the map, normalize, prohibit and insignificant
+     * characters handling steps are applied one after the other, using buffers reused by the current
+     * thread, so that only the resulting String is allocated. The normalize and prohibit steps are
+     * skipped for an ASCII String, as they can't modify or reject an ASCII char.
+     *
+     * @param value The String to prepare
+     * @param caseSensitive {@link #CASE_SENSITIVE} to keep the chars case, {@link #IGNORE_CASE} to fold it
+     * @param assertionType The type of the assertion the value is used in
+     * @return The prepared String
+     * @throws InvalidCharacterException If the String contains a prohibited char
+     */
+    public static String prepare( String value, boolean caseSensitive, AssertionType assertionType )
+        throws InvalidCharacterException
+    {
+        if ( value == null )
+        {
+            return null;
+        }
+
+        Buffers buffers = BUFFERS.get();
+
+        // Map. The map phase may transform a char to three chars
+        char[] mapped = buffers.mapped( value.length() * 3 + 2 );
+        int length = caseSensitive ? mapCaseSensitiveAscii( value, mapped ) : mapIgnoreCaseAscii( value, mapped );
+
+        if ( length < 0 )
+        {
+            // Not an ASCII String, we have to apply all the steps
+            length = caseSensitive ? mapCaseSensitive( value, mapped ) : mapIgnoreCase( value, mapped );
+
+            // Normalize
+            CharBuffer mappedChars = CharBuffer.wrap( mapped, 0, length );
+
+            if ( !isNormalized( mappedChars ) )
+            {
+                String normalized = Normalizer.normalize( mappedChars, Normalizer.Form.NFKC );
+                length = normalized.length();
+                mapped = buffers.mapped( length );
+                normalized.getChars( 0, length, mapped, 0 );
+            }
+
+            // Prohibit
+            for ( int i = 0; i < length; i++ )
+            {
+                checkProhibited( mapped[i] );
+            }
+        }
+
+        // Bidi is ignored
+
+        // Insignificant Characters Handling
+        char[] prepared = buffers.prepared( length * 2 + 2 );
+
+        switch ( assertionType )
+        {
+            case SUBSTRING_INITIAL :
+                length = insignificantSpacesStringInitial( mapped, length, prepared );
+                break;
+
+            case SUBSTRING_ANY :
+                length = insignificantSpacesStringAny( mapped, length, prepared );
+                break;
+
+            case SUBSTRING_FINAL :
+                length = insignificantSpacesStringFinal( mapped, length, prepared );
+                break;
+
+            default :
+                length = insignificantSpacesStringValue( mapped, length, prepared );
+                break;
+        }
+
+        return new String( prepared, 0, length );
+    }
     
     
     /**
@@ -122,27 +282,35 @@ public final class PrepareString
      */
     public static String mapCaseSensitive( String unicode )
     {
-        try
-        {
-            return mapCaseSensitiveAscii( unicode );
-        }
-        catch ( ArrayIndexOutOfBoundsException aioobe )
+        // The map phase may transform a char to three chars
+        char[] target = BUFFERS.get().mapped( unicode.length() * 3 + 2 );
+        int limit = mapCaseSensitiveAscii( unicode, target );
+
+        if ( limit < 0 )
         {
-            // There 
+            // Not an ASCII String
+            limit = mapCaseSensitive( unicode, target );
         }
 
-        char[] source = unicode.toCharArray();
+        return new String( target, 0, limit );
+    }
 
-        // Create a target char array which is 3 times bigger than the original size. 
-        // We have to do that because the map phase may transform a char to
-        // three chars.
-        // TODO : we have to find a way to prevent this waste of space.
-        char[] target = new char[unicode.length() * 3 + 2];
 
+    /**
+     * Apply the RFC 4518 MAP transformation, case sensitive, on any String
+     * 
+     * @param unicode The original String
+     * @param target The buffer where the mapped chars are stored, at least three times longer than the String
+     * @return The number of mapped chars
+     */
+    private static int mapCaseSensitive( String unicode, char[] target )
+    {
         int limit = 0;
 
-        for ( char c : source )
+        for ( int i = 0; i < unicode.length(); i++ )
         {
+            char c = unicode.charAt( i );
+
             switch ( c )
             {
                 case 0x0000:
@@ -2657,7 +2825,7 @@ public final class PrepareString
             }
         }
 
-        return new String( target, 0, limit );
+        return limit;
     }
 
 
@@ -3356,18 +3524,32 @@ public final class PrepareString
     {
         if ( origin == null )
         {
-            // Special case : a null strings is replaced by 2 spaces
+            // Special case : a null string is replaced by two spaces
             return "  ";
         }
 
-        int pos = 0;
+        // Each space in the middle may be doubled, and a space may be added at both ends
+        char[] target = new char[origin.length * 2 + 2];
+        int length = insignificantSpacesStringValue( origin, origin.length, target );
 
-        // Create a target char array which is longer than the original String, as we will
-        // have 2 more spaces (one at the beginning, one at the end, and each space in the 
-        // middle will be doubled).
+        return new String( target, 0, length );
+    }
+
+
+    /**
+     * Remove all insignificant spaces of the first chars of a buffer, storing the result
+     * in another buffer. See {@link #insignificantSpacesStringValue(char[])}.
+     *
+     * @param origin The chars to modify
+     * @param length The number of chars to modify
+     * @param target The buffer where the result is stored, at least twice longer than the chars plus 2
+     * @return The number of chars stored in the target
+     */
+    private static int insignificantSpacesStringValue( char[] origin, int length, char[] target )
+    {
+        int pos = 0;
         int newPos = 0;
         
-        char[] target = new char[origin.length * 2 + 1];
         NormStateEnum normState = NormStateEnum.START;
         
         while ( normState != NormStateEnum.END )
@@ -3375,10 +3557,12 @@ public final class PrepareString
             switch ( normState )
             {
                 case START :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, it's an empty string
-                        return "  ";
+                        target[0] = ' ';
+                        target[1] = ' ';
+                        return 2;
                     }
                     
                     char c = origin[pos];
@@ -3403,7 +3587,7 @@ public final class PrepareString
                     break;
                     
                 case INITIAL_CHAR :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, add a space
                         target[newPos++] = ' ';
@@ -3431,10 +3615,12 @@ public final class PrepareString
                     break;
 
                 case INITIAL_SPACES :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, this is an empty String
-                        return "  ";
+                        target[0] = ' ';
+                        target[1] = ' ';
+                        return 2;
                     }
                     
                     c = origin[pos];
@@ -3458,7 +3644,7 @@ public final class PrepareString
                     break;
 
                 case CHARS :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, add a Space
                         target[newPos++] = ' ';
@@ -3485,7 +3671,7 @@ public final class PrepareString
                     break;
 
                 case SPACES :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, add a Space
                         target[newPos++] = ' ';
@@ -3518,7 +3704,7 @@ public final class PrepareString
                     break;
 
                 case SPACE_CHAR :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, add a Space
                         target[newPos++] = ' ';
@@ -3554,8 +3740,7 @@ public final class PrepareString
             }
         }
 
-        // create the resulting String
-        return new String( target, 0, newPos );
+        return newPos;
     }
     
     
@@ -3580,16 +3765,31 @@ public final class PrepareString
     {
         if ( origin == null )
         {
-            // Special case : a null string is replaced by 1 space
+            // Special case : a null string is replaced by one space
             return " ";
         }
 
+        // Each space in the middle may be doubled, and a space may be added at both ends
+        char[] target = new char[origin.length * 2 + 2];
+        int length = insignificantSpacesStringInitial( origin, origin.length, target );
+
+        return new String( target, 0, length );
+    }
+
+
+    /**
+     * Remove all insignificant spaces of the first chars of a buffer, storing the result
+     * in another buffer. See {@link #insignificantSpacesStringInitial(char[])}.
+     *
+     * @param origin The chars to modify
+     * @param length The number of chars to modify
+     * @param target The buffer where the result is stored, at least twice longer than the chars plus 2
+     * @return The number of chars stored in the target
+     */
+    private static int insignificantSpacesStringInitial( char[] origin, int length, char[] target )
+    {
         int pos = 0;
 
-        // Create a target char array which is longer than the original String, as we will
-        // have 1 more spaces (one at the beginning, one at the end, and each space in the 
-        // middle will be doubled).
-        char[] target = new char[origin.length * 2];
         int newPos = 0;
         
         NormStateEnum normState = NormStateEnum.START;
@@ -3599,10 +3799,11 @@ public final class PrepareString
             switch ( normState )
             {
                 case START :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, it's an empty string
-                        return " ";
+                        target[0] = ' ';
+                        return 1;
                     }
                     
                     char c = origin[pos];
@@ -3627,7 +3828,7 @@ public final class PrepareString
                     break;
                     
                 case INITIAL_CHAR :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done
                         normState = NormStateEnum.END;
@@ -3654,10 +3855,11 @@ public final class PrepareString
                     break;
 
                 case INITIAL_SPACES :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, this is an empty String
-                        return " ";
+                        target[0] = ' ';
+                        return 1;
                     }
                     
                     c = origin[pos];
@@ -3681,7 +3883,7 @@ public final class PrepareString
                     break;
 
                 case CHARS :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done
                         normState = NormStateEnum.END;
@@ -3707,7 +3909,7 @@ public final class PrepareString
                     break;
 
                 case SPACES :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, add a Space
                         target[newPos++] = ' ';
@@ -3740,7 +3942,7 @@ public final class PrepareString
                     break;
 
                 case SPACE_CHAR :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done
                         normState = NormStateEnum.END;
@@ -3775,8 +3977,7 @@ public final class PrepareString
             }
         }
 
-        // create the resulting String
-        return new String( target, 0, newPos );
+        return newPos;
     }
 
     
@@ -3803,14 +4004,31 @@ public final class PrepareString
     {
         if ( origin == null )
         {
-            // Special case : a null strings is replaced by 1 space
+            // Special case : a null string is replaced by one space
             return " ";
         }
 
+        // Each space in the middle may be doubled, and a space may be added at both ends
+        char[] target = new char[origin.length * 2 + 2];
+        int length = insignificantSpacesStringAny( origin, origin.length, target );
+
+        return new String( target, 0, length );
+    }
+
+
+    /**
+     * Remove all insignificant spaces of the first chars of a buffer, storing the result
+     * in another buffer. See {@link #insignificantSpacesStringAny(char[])}.
+     *
+     * @param origin The chars to modify
+     * @param length The number of chars to modify
+     * @param target The buffer where the result is stored, at least twice longer than the chars plus 2
+     * @return The number of chars stored in the target
+     */
+    private static int insignificantSpacesStringAny( char[] origin, int length, char[] target )
+    {
         int pos = 0;
 
-        // Create a target char array which is longer than the original String, as we may have to add a space.
-        char[] target = new char[origin.length * 2 + 1];
         int newPos = 0;
         
         NormStateEnum normState = NormStateEnum.START;
@@ -3820,10 +4038,11 @@ public final class PrepareString
             switch ( normState )
             {
                 case START :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, it's an empty string -> one space
-                        return " ";
+                        target[0] = ' ';
+                        return 1;
                     }
                     
                     char c = origin[pos];
@@ -3845,7 +4064,7 @@ public final class PrepareString
                     break;
                     
                 case INITIAL_CHAR :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done
                         normState = NormStateEnum.END;
@@ -3873,10 +4092,11 @@ public final class PrepareString
                     break;
 
                 case INITIAL_SPACES :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, this is an empty String -> one space
-                        return " ";
+                        target[0] = ' ';
+                        return 1;
                     }
                     
                     c = origin[pos];
@@ -3900,7 +4120,7 @@ public final class PrepareString
                     break;
 
                 case CHARS :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done
                         normState = NormStateEnum.END;
@@ -3929,7 +4149,7 @@ public final class PrepareString
                     break;
 
                 case SPACES :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done
                         normState = NormStateEnum.END;
@@ -3960,7 +4180,7 @@ public final class PrepareString
                     break;
 
                 case SPACE_CHAR :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done
                         normState = NormStateEnum.END;
@@ -3998,8 +4218,7 @@ public final class PrepareString
             }
         }
 
-        // create the resulting String
-        return new String( target, 0, newPos );
+        return newPos;
     }
     
     
@@ -4016,16 +4235,31 @@ public final class PrepareString
     {
         if ( origin == null )
         {
-            // Special case : a null strings is replaced by 1 spaces
+            // Special case : a null string is replaced by one space
             return " ";
         }
 
+        // Each space in the middle may be doubled, and a space may be added at both ends
+        char[] target = new char[origin.length * 2 + 2];
+        int length = insignificantSpacesStringFinal( origin, origin.length, target );
+
+        return new String( target, 0, length );
+    }
+
+
+    /**
+     * Remove all insignificant spaces of the first chars of a buffer, storing the result
+     * in another buffer. See {@link #insignificantSpacesStringFinal(char[])}.
+     *
+     * @param origin The chars to modify
+     * @param length The number of chars to modify
+     * @param target The buffer where the result is stored, at least twice longer than the chars plus 2
+     * @return The number of chars stored in the target
+     */
+    private static int insignificantSpacesStringFinal( char[] origin, int length, char[] target )
+    {
         int pos = 0;
 
-        // Create a target char array which is longer than the original String, as we will
-        // have 2 more spaces (one at the beginning, one at the end, and each space in the 
-        // middle will be doubled).
-        char[] target = new char[origin.length * 2 + 1];
         int newPos = 0;
         
         NormStateEnum normState = NormStateEnum.START;
@@ -4035,10 +4269,11 @@ public final class PrepareString
             switch ( normState )
             {
                 case START :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, it's an empty string
-                        return " ";
+                        target[0] = ' ';
+                        return 1;
                     }
                     
                     char c = origin[pos];
@@ -4060,7 +4295,7 @@ public final class PrepareString
                     break;
                     
                 case INITIAL_CHAR :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, add a space
                         target[newPos++] = ' ';
@@ -4088,10 +4323,11 @@ public final class PrepareString
                     break;
 
                 case INITIAL_SPACES :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, this is an empty String
-                        return " ";
+                        target[0] = ' ';
+                        return 1;
                     }
                     
                     c = origin[pos];
@@ -4115,7 +4351,7 @@ public final class PrepareString
                     break;
 
                 case CHARS :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, add a Space
                         target[newPos++] = ' ';
@@ -4142,7 +4378,7 @@ public final class PrepareString
                     break;
 
                 case SPACES :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, add a Space
                         target[newPos++] = ' ';
@@ -4175,7 +4411,7 @@ public final class PrepareString
                     break;
 
                 case SPACE_CHAR :
-                    if ( pos == origin.length )
+                    if ( pos == length )
                     {
                         // We are done, add a Space
                         target[newPos++] = ' ';
@@ -4211,8 +4447,7 @@ public final class PrepareString
             }
         }
 
-        // create the resulting String
-        return new String( target, 0, newPos );
+        return newPos;
     }
 
     
@@ -4220,15 +4455,17 @@ public final class PrepareString
      * Map for Ascii String, case insensitive
      * 
      * @param unicode The string to map
-     * @return The lower cased string
+     * @param target The buffer where the mapped chars are stored
+     * @return The number of mapped chars, or -1 if the string contains a non ASCII char
      */
-    private static String mapIgnoreCaseAscii( String unicode )
+    private static int mapIgnoreCaseAscii( String unicode, char[] target )
     {
-        char[] source = unicode.toCharArray();
         int pos = 0;
-        
-        for ( char c : source )
+
+        for ( int i = 0; i < unicode.length(); i++ )
         {
+            char c = unicode.charAt( i );
+
             switch ( c )
             {
                 case 0x0000:
@@ -4253,7 +4490,7 @@ public final class PrepareString
                     // CHARACTER TABULATION (U+0009), LINE FEED (LF) (U+000A), LINE
                     // TABULATION (U+000B), FORM FEED (FF) (U+000C), CARRIAGE RETURN (CR)
                     // (U+000D), ... are mapped to SPACE (U+0020).
-                    source[pos++] = 0x0020;
+                    target[pos++] = 0x0020;
                     break;
     
                 case 0x000E:
@@ -4312,7 +4549,7 @@ public final class PrepareString
                 case 0x003E:
                 case 0x003F:
                 case 0x0040:
-                    source[pos++] = c;
+                    target[pos++] = c;
                     break;
                     
                 case 0x0041:
@@ -4343,7 +4580,7 @@ public final class PrepareString
                 case 0x005A:
                     // For case ignore, numeric, and stored prefix string matching rules,
                     // characters are case folded per B.2 of [RFC3454] : U+0041-005A
-                    source[pos++] = ( char ) ( c + 0x0020 );
+                    target[pos++] = ( char ) ( c + 0x0020 );
                     break;
 
                 case 0x005B:
@@ -4382,7 +4619,7 @@ public final class PrepareString
                 case 0x007C:
                 case 0x007D:
                 case 0x007E:
-                    source[pos++] = c;
+                    target[pos++] = c;
                     break;
 
                 case 0x007F:
@@ -4392,11 +4629,12 @@ public final class PrepareString
                     break;
                     
                 default :
-                    throw AIOOBE;
+                    // Not an ASCII char, we can't go any further
+                    return -1;
             }
         }
         
-        return new String( source, 0, pos );
+        return pos;
     }
 
     
@@ -4404,15 +4642,17 @@ public final class PrepareString
      * Map for Ascii String, case sensitive
      * 
      * @param unicode The string to re-map
-     * @return The mapped string
+     * @param target The buffer where the mapped chars are stored
+     * @return The number of mapped chars, or -1 if the string contains a non ASCII char
      */
-    private static String mapCaseSensitiveAscii( String unicode )
+    private static int mapCaseSensitiveAscii( String unicode, char[] target )
     {
-        char[] source = unicode.toCharArray();
         int pos = 0;
-        
-        for ( char c : source )
+
+        for ( int i = 0; i < unicode.length(); i++ )
         {
+            char c = unicode.charAt( i );
+
             switch ( c )
             {
                 case 0x0000:
@@ -4437,7 +4677,7 @@ public final class PrepareString
                     // CHARACTER TABULATION (U+0009), LINE FEED (LF) (U+000A), LINE
                     // TABULATION (U+000B), FORM FEED (FF) (U+000C), CARRIAGE RETURN (CR)
                     // (U+000D), ... are mapped to SPACE (U+0020).
-                    source[pos++] = 0x0020;
+                    target[pos++] = 0x0020;
                     break;
     
                 case 0x000E:
@@ -4496,7 +4736,7 @@ public final class PrepareString
                 case 0x003E:
                 case 0x003F:
                 case 0x0040:
-                    source[pos++] = c;
+                    target[pos++] = c;
                     break;
                     
                 case 0x0041:
@@ -4561,7 +4801,7 @@ public final class PrepareString
                 case 0x007C:
                 case 0x007D:
                 case 0x007E:
-                    source[pos++] = c;
+                    target[pos++] = c;
                     break;
 
                 case 0x007F:
@@ -4571,11 +4811,12 @@ public final class PrepareString
                     break;
                     
                 default :
-                    throw AIOOBE;
+                    // Not an ASCII char, we can't go any further
+                    return -1;
             }
         }
         
-        return new String( source, 0, pos );
+        return pos;
     }
 
     
@@ -4587,27 +4828,35 @@ public final class PrepareString
      */
     public static String mapIgnoreCase( String unicode )
     {
-        try
-        {
-            return mapIgnoreCaseAscii( unicode );
-        }
-        catch ( ArrayIndexOutOfBoundsException aioobe )
+        // The map phase may transform a char to three chars
+        char[] target = BUFFERS.get().mapped( unicode.length() * 3 + 2 );
+        int limit = mapIgnoreCaseAscii( unicode, target );
+
+        if ( limit < 0 )
         {
-            // There 
+            // Not an ASCII String
+            limit = mapIgnoreCase( unicode, target );
         }
 
-        char[] source = unicode.toCharArray();
-        
-        // Create a target char array which is 3 times bigger than the original size. 
-        // We have to do that because the map phase may transform a char to
-        // three chars.
-        // TODO : we have to find a way to prevent this waste of space.
-        char[] target = new char[unicode.length() * 3 + 2];
-    
+        return new String( target, 0, limit );
+    }
+
+
+    /**
+     * Apply the RFC 4518 MAP transformation, case insensitive, on any String
+     * 
+     * @param unicode The original String
+     * @param target The buffer where the mapped chars are stored, at least three times longer than the String
+     * @return The number of mapped chars
+     */
+    private static int mapIgnoreCase( String unicode, char[] target )
+    {
         int limit = 0;
-    
-        for ( char c : source )
+
+        for ( int i = 0; i < unicode.length(); i++ )
         {
+            char c = unicode.charAt( i );
+
             switch ( c )
             {
                 case 0x0000:
@@ -7151,6 +7400,6 @@ public final class PrepareString
             }
         }
     
-        return new String( target, 0, limit );
+        return limit;
     }
 }
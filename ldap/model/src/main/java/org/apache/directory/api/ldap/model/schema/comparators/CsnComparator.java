@@ -47,6 +47,51 @@ public class CsnComparator extends LdapComparator<Object>
     private static final Logger LOG = LoggerFactory.getLogger( CsnComparator.class );
 
 
+    /** The length of a CSN : yyyyMMddHHmmss.SSSSSSZ#cccccc#sss#mmmmmm */
+    private static final int CSN_LENGTH = 40;
+
+
+    /**
+     * The ordering key of a CSN : its components, parsed once.
+     */
+    private static final class CsnKey implements Comparable<CsnKey>
+    {
+        /** The time, as yyyyMMddHHmmss */
+        private final long time;
+
+        /** The microseconds */
+        private final long micros;
+
+        /** The changeCount, sid and modifierNumber, packed in a long */
+        private final long ids;
+
+
+        CsnKey( long time, long micros, long ids )
+        {
+            this.time = time;
+            this.micros = micros;
+            this.ids = ids;
+        }
+
+
+        @Override
+        public int compareTo( CsnKey that )
+        {
+            if ( time != that.time )
+            {
+                return time < that.time ? -1 : 1;
+            }
+
+            if ( micros != that.micros )
+            {
+                return micros < that.micros ? -1 : 1;
+            }
+
+            return Long.compare( ids, that.ids );
+        }
+    }
+
+
     /**
      * The CsnComparator constructor. Its OID is the CsnMatch matching
      * rule OID.
@@ -88,6 +133,11 @@ public class CsnComparator extends LdapComparator<Object>
             return 1;
         }
 
+        if ( ( csnObj1 instanceof Value ) && ( csnObj2 instanceof Value ) )
+        {
+            return compareValues( ( Value ) csnObj1, ( Value ) csnObj2 );
+        }
+
         String csnStr1;
         String csnStr2;
 
@@ -111,4 +161,59 @@ public class CsnComparator extends LdapComparator<Object>
 
         return csnStr1.compareTo( csnStr2 );
     }
+
+
+    /**
+     * {@inheritDoc}
+     * 
+     * The key holds the CSN components, so that two CSN are compared with a few long comparisons.
+     */
+    @Override
+    public Object getOrderingKey( String value )
+    {
+        if ( ( value.length() != CSN_LENGTH ) || ( value.charAt( 14 ) != '.' ) || ( value.charAt( 21 ) != 'Z' )
+            || ( value.charAt( 22 ) != '#' ) || ( value.charAt( 29 ) != '#' ) || ( value.charAt( 33 ) != '#' ) )
+        {
+            return null;
+        }
+
+        long time = parse( value, 0, 14, 10 );
+        long micros = parse( value, 15, 21, 10 );
+        long changeCount = parse( value, 23, 29, 16 );
+        long sid = parse( value, 30, 33, 16 );
+        long modifierNumber = parse( value, 34, 40, 16 );
+
+        if ( ( time < 0 ) || ( micros < 0 ) || ( changeCount < 0 ) || ( sid < 0 ) || ( modifierNumber < 0 ) )
+        {
+            return null;
+        }
+
+        // 24 bits for the changeCount and the modifierNumber, 12 bits for the sid
+        return new CsnKey( time, micros, ( changeCount << 36 ) | ( sid << 24 ) | modifierNumber );
+    }
+
+
+    /**
+     * Parses a number in a part of a String, without allocating anything
+     *
+     * @return The number, or -1 if the part contains a char which is not a digit
+     */
+    private static long parse( String value, int start, int end, int radix )
+    {
+        long result = 0L;
+
+        for ( int i = start; i < end; i++ )
+        {
+            int digit = Character.digit( value.charAt( i ), radix );
+
+            if ( digit < 0 )
+            {
+                return -1L;
+            }
+
+            result = result * radix + digit;
+        }
+
+        return result;
+    }
 }
@@ -81,29 +81,47 @@ public class GeneralizedTimeComparator extends LdapComparator<String>
             return backendValue == null ? -1 : 1;
         }
 
-        // Both objects must be stored as String for generalized tim.
-        // But we need to normalize the values first.
-        GeneralizedTime backendTime;
+        // Compare the ordering keys, the times in milliseconds
+        return compareOrderingKeys( getTime( backendValue ), getTime( assertValue ) );
+    }
+
+
+    /**
+     * Parses a generalized time.
+     *
+     * @param value The generalized time
+     * @return The time in milliseconds since the epoch
+     * @throws IllegalArgumentException If the value is not a valid generalized time
+     */
+    private static long getTime( String value )
+    {
         try
         {
-            backendTime = new GeneralizedTime( backendValue );
+            return new GeneralizedTime( value ).getTime();
         }
         catch ( ParseException pe )
         {
-            throw new IllegalArgumentException( I18n.err( I18n.ERR_13724_INVALID_VALUE, backendValue ), pe );
+            throw new IllegalArgumentException( I18n.err( I18n.ERR_13724_INVALID_VALUE, value ), pe );
         }
+    }
+
 
-        GeneralizedTime assertTime;
-        
+    /**
+     * {@inheritDoc}
+     * 
+     * The key is the time in milliseconds since the epoch, the precision used when comparing
+     * two generalized times.
+     */
+    @Override
+    public Object getOrderingKey( String value )
+    {
         try
         {
-            assertTime = new GeneralizedTime( assertValue );
+            return getTime( value );
         }
-        catch ( ParseException pe )
+        catch ( IllegalArgumentException iae )
         {
-            throw new IllegalArgumentException( I18n.err( I18n.ERR_13724_INVALID_VALUE, assertValue ), pe );
+            return null;
         }
-
-        return backendTime.compareTo( assertTime );
     }
 }
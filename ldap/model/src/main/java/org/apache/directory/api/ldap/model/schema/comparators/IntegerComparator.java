@@ -87,7 +87,7 @@ public class IntegerComparator extends LdapComparator<Object> implements Seriali
         }
         else if ( v1 instanceof Value )
         {
-            return compare( ( ( Value ) v1 ).getString(), ( ( Value ) v2 ).getString() ); 
+            return compareValues( ( Value ) v1, ( Value ) v2 );
         }
         else 
         {
@@ -165,4 +165,58 @@ public class IntegerComparator extends LdapComparator<Object> implements Seriali
             return b1.compareTo( b2 );
         }
     }
+
+
+    /**
+     * {@inheritDoc}
+     * 
+     * The key is a Long, or a BigInteger if the value does not fit in a long.
+     */
+    @Override
+    public Object getOrderingKey( String value )
+    {
+        try
+        {
+            String normalized = new NumericNormalizer().normalize( value );
+
+            try
+            {
+                return Long.valueOf( normalized );
+            }
+            catch ( NumberFormatException nfe )
+            {
+                return new BigInteger( normalized );
+            }
+        }
+        catch ( LdapException | NumberFormatException e )
+        {
+            return null;
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareOrderingKeys( Object key1, Object key2 )
+    {
+        if ( ( key1 instanceof Long ) && ( key2 instanceof Long ) )
+        {
+            return Long.compare( ( Long ) key1, ( Long ) key2 );
+        }
+
+        return toBigInteger( key1 ).compareTo( toBigInteger( key2 ) );
+    }
+
+
+    private static BigInteger toBigInteger( Object key )
+    {
+        if ( key instanceof BigInteger )
+        {
+            return ( BigInteger ) key;
+        }
+
+        return BigInteger.valueOf( ( Long ) key );
+    }
 }
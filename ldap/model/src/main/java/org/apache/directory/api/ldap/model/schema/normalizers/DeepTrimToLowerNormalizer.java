@@ -84,49 +84,10 @@ public class DeepTrimToLowerNormalizer extends Normalizer implements PreparedNor
             return null;
         }
 
-        String normValue = null;
-
         try
         {
-            // Transcoding is useless
-            // Map
-            String mapped = PrepareString.mapIgnoreCase( value );
-
-            // Normalize
-            String normalized = PrepareString.normalize( mapped );
-            
-            char[] chars = normalized.toCharArray();
-            
-            // Prohibit
-            PrepareString.checkProhibited( chars );
-            
-            // Bidi is ignored
-            
-            // Insignificant Characters Handling
-            switch ( assertionType )
-            {
-                case ATTRIBUTE_VALUE :
-                    normValue = PrepareString.insignificantSpacesStringValue( chars );
-                    break;
-                    
-                case SUBSTRING_INITIAL :
-                    normValue = PrepareString.insignificantSpacesStringInitial( chars );
-                    break;
-                    
-                case SUBSTRING_ANY :
-                    normValue = PrepareString.insignificantSpacesStringAny( chars );
-                    break;
-                    
-                case SUBSTRING_FINAL :
-                    normValue = PrepareString.insignificantSpacesStringFinal( chars );
-                    break;
-                    
-                default :
-                    // Do nothing
-                    break;
-            }
-
-            return normValue;
+            // Transcoding is useless, the Bidi step is ignored
+            return PrepareString.prepare( value, PrepareString.IGNORE_CASE, assertionType );
         }
         catch ( IOException ioe )
         {
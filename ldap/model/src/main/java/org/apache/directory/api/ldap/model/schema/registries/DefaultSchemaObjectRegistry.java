@@ -54,6 +54,9 @@ public abstract class DefaultSchemaObjectRegistry<T extends SchemaObject> implem
     /** a map of SchemaObject looked up by name */
     protected Map<String, T> byName;
 
+    /** The case insensitive index of the byName keys, used for the lookups */
+    private NameIndex<T> nameIndex;
+
     /** The SchemaObject type, used by the toString() method  */
     protected SchemaObjectType schemaObjectType;
 
@@ -74,6 +77,7 @@ public abstract class DefaultSchemaObjectRegistry<T extends SchemaObject> implem
     protected DefaultSchemaObjectRegistry( SchemaObjectType schemaObjectType, OidRegistry<T> oidRegistry )
     {
         byName = new HashMap<>();
+        nameIndex = new NameIndex<>();
         this.schemaObjectType = schemaObjectType;
         this.oidRegistry = oidRegistry;
         this.isRelaxed = Registries.STRICT;
@@ -141,12 +145,7 @@ public abstract class DefaultSchemaObjectRegistry<T extends SchemaObject> implem
     @Override
     public boolean contains( String oid )
     {
-        if ( !byName.containsKey( oid ) )
-        {
-            return byName.containsKey( Strings.toLowerCaseAscii( oid ) );
-        }
-
-        return true;
+        return nameIndex.get( oid ) != null;
     }
 
 
@@ -240,24 +239,19 @@ public abstract class DefaultSchemaObjectRegistry<T extends SchemaObject> implem
             return null;
         }
 
-        T schemaObject = byName.get( oid );
+        // The index ignores the case and the surrounding spaces
+        T schemaObject = nameIndex.get( oid );
 
         if ( schemaObject == null )
         {
-            // let's try with trimming and lowercasing now
-            schemaObject = byName.get( Strings.trim( Strings.toLowerCaseAscii( oid ) ) );
+            String msg = I18n.err( I18n.ERR_13735_ELEMENT_FOR_OID_DOES_NOT_EXIST, schemaObjectType.name(), oid );
 
-            if ( schemaObject == null )
+            if ( LOG.isDebugEnabled() )
             {
-                String msg = I18n.err( I18n.ERR_13735_ELEMENT_FOR_OID_DOES_NOT_EXIST, schemaObjectType.name(), oid );
-
-                if ( LOG.isDebugEnabled() )
-                {
-                    LOG.debug( msg );
-                }
-                
-                throw new LdapException( msg );
+                LOG.debug( msg );
             }
+            
+            throw new LdapException( msg );
         }
 
         if ( LOG.isDebugEnabled() )
@@ -269,6 +263,26 @@ public abstract class DefaultSchemaObjectRegistry<T extends SchemaObject> implem
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T find( String oid )
+    {
+        return nameIndex.get( oid );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T find( byte[] bytes, int start, int length )
+    {
+        return nameIndex.get( bytes, start, length );
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -293,6 +307,7 @@ public abstract class DefaultSchemaObjectRegistry<T extends SchemaObject> implem
         }
 
         byName.put( oid, schemaObject );
+        nameIndex.put( oid, schemaObject );
 
         /*
          * add the aliases/names to the name map along with their toLowerCase
@@ -319,6 +334,7 @@ public abstract class DefaultSchemaObjectRegistry<T extends SchemaObject> implem
             else
             {
                 byName.put( lowerName, schemaObject );
+                nameIndex.put( lowerName, schemaObject );
             }
         }
 
@@ -346,10 +362,12 @@ public abstract class DefaultSchemaObjectRegistry<T extends SchemaObject> implem
         }
 
         T schemaObject = byName.remove( numericOid );
+        nameIndex.remove( numericOid );
 
         for ( String name : schemaObject.getNames() )
         {
             byName.remove( name );
+            nameIndex.remove( name );
         }
 
         // And remove the SchemaObject from the oidRegistry
@@ -386,6 +404,7 @@ public abstract class DefaultSchemaObjectRegistry<T extends SchemaObject> implem
 
         // Remove the oid
         T removed = byName.remove( oid );
+        nameIndex.remove( oid );
 
         /*
          * Remove the aliases/names from the name map along with their toLowerCase
@@ -393,7 +412,9 @@ public abstract class DefaultSchemaObjectRegistry<T extends SchemaObject> implem
          */
         for ( String name : schemaObject.getNames() )
         {
-            byName.remove( Strings.trim( Strings.toLowerCaseAscii( name ) ) );
+            String lowerName = Strings.trim( Strings.toLowerCaseAscii( name ) );
+            byName.remove( lowerName );
+            nameIndex.remove( lowerName );
         }
 
         // And unregister the oid -> schemaObject relation
@@ -438,20 +459,12 @@ public abstract class DefaultSchemaObjectRegistry<T extends SchemaObject> implem
     @Override
 public String getOidByName( String name ) throws LdapException
     {
-        T schemaObject = byName.get( name );
+        T schemaObject = nameIndex.get( name );
 
+        // ok this name is not for a schema object in the registry
         if ( schemaObject == null )
         {
-            // last resort before giving up check with lower cased version
-            String lowerCased = Strings.toLowerCaseAscii( name );
-
-            schemaObject = byName.get( lowerCased );
-
-            // ok this name is not for a schema object in the registry
-            if ( schemaObject == null )
-            {
-                throw new LdapException( I18n.err( I18n.ERR_13740_CANNOT_FIND_OID_FROM_NAME, name ) );
-            }
+            throw new LdapException( I18n.err( I18n.ERR_13740_CANNOT_FIND_OID_FROM_NAME, name ) );
         }
 
         // we found the schema object by key on the first lookup attempt
@@ -482,6 +495,7 @@ public String getOidByName( String name ) throws LdapException
                 // Comparators, Normalizers and SyntaxCheckers aren't copied, 
                 // they are immutable
                 byName.put( key, value );
+                nameIndex.put( key, value );
 
                 // Update the OidRegistry
                 oidRegistry.put( value );
@@ -509,6 +523,7 @@ public String getOidByName( String name ) throws LdapException
 
                 // Update the data structure. 
                 byName.put( key, copiedValue );
+                nameIndex.put( key, copiedValue );
 
                 // Update the OidRegistry
                 oidRegistry.put( copiedValue );
@@ -606,6 +621,7 @@ public String getOidByName( String name ) throws LdapException
 
         // Remove the byName elements
         byName.clear();
+        nameIndex.clear();
 
         // Clear the OidRegistry
         oidRegistry.clear();
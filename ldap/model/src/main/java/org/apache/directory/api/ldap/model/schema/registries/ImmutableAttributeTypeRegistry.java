@@ -111,7 +111,7 @@ public boolean hasDescendants( String ancestorId ) throws LdapException
     @Override
     public void register( AttributeType attributeType ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
     }
 
 
@@ -121,7 +121,7 @@ public boolean hasDescendants( String ancestorId ) throws LdapException
     @Override
     public void registerDescendants( AttributeType attributeType, AttributeType ancestor ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
     }
 
 
@@ -131,7 +131,7 @@ public boolean hasDescendants( String ancestorId ) throws LdapException
     @Override
     public void unregisterDescendants( AttributeType attributeType, AttributeType ancestor ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
     }
 
 
@@ -141,7 +141,7 @@ public boolean hasDescendants( String ancestorId ) throws LdapException
     @Override
     public AttributeType unregister( String numericOid ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION,
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM,
             I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
     }
 
@@ -152,7 +152,7 @@ public boolean hasDescendants( String ancestorId ) throws LdapException
     @Override
     public void addMappingFor( AttributeType attributeType ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, 
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, 
             I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
     }
 
@@ -163,7 +163,7 @@ public boolean hasDescendants( String ancestorId ) throws LdapException
     @Override
     public void removeMappingFor( AttributeType attributeType ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
     }
 
 
@@ -177,6 +177,26 @@ public boolean hasDescendants( String ancestorId ) throws LdapException
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AttributeType find( String oid )
+    {
+        return immutableAttributeTypeRegistry.find( oid );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AttributeType find( byte[] bytes, int start, int length )
+    {
+        return immutableAttributeTypeRegistry.find( bytes, start, length );
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -290,7 +310,7 @@ public boolean hasDescendants( String ancestorId ) throws LdapException
     @Override
     public void unregisterSchemaElements( String schemaName ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
     }
 
 
@@ -310,7 +330,7 @@ public boolean hasDescendants( String ancestorId ) throws LdapException
     @Override
     public void clear() throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
     }
 
 
@@ -320,6 +340,6 @@ public boolean hasDescendants( String ancestorId ) throws LdapException
     @Override
     public AttributeType unregister( AttributeType schemaObject ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13701_CANNOT_MODIFY_AT_REGISTRY_COPY ) );
     }
 }
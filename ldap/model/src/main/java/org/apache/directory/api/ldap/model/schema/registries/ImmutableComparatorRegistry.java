@@ -58,7 +58,7 @@ public class ImmutableComparatorRegistry implements ComparatorRegistry
     @Override
     public void register( LdapComparator<?> comparator ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13702_CANNOT_MODIFY_CMP_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13702_CANNOT_MODIFY_CMP_REGISTRY_COPY ) );
     }
 
 
@@ -68,7 +68,7 @@ public class ImmutableComparatorRegistry implements ComparatorRegistry
     @Override
     public LdapComparator<?> unregister( String numericOid ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13702_CANNOT_MODIFY_CMP_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13702_CANNOT_MODIFY_CMP_REGISTRY_COPY ) );
     }
 
 
@@ -78,7 +78,7 @@ public class ImmutableComparatorRegistry implements ComparatorRegistry
     @Override
     public void unregisterSchemaElements( String schemaName ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13702_CANNOT_MODIFY_CMP_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13702_CANNOT_MODIFY_CMP_REGISTRY_COPY ) );
     }
 
 
@@ -162,6 +162,26 @@ public class ImmutableComparatorRegistry implements ComparatorRegistry
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LdapComparator<?> find( String oid )
+    {
+        return immutableComparatorRegistry.find( oid );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LdapComparator<?> find( byte[] bytes, int start, int length )
+    {
+        return immutableComparatorRegistry.find( bytes, start, length );
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -178,7 +198,7 @@ public class ImmutableComparatorRegistry implements ComparatorRegistry
     @Override
     public void renameSchema( String originalSchemaName, String newSchemaName ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13702_CANNOT_MODIFY_CMP_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13702_CANNOT_MODIFY_CMP_REGISTRY_COPY ) );
     }
 
 
@@ -198,7 +218,7 @@ public class ImmutableComparatorRegistry implements ComparatorRegistry
     @Override
     public void clear() throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13702_CANNOT_MODIFY_CMP_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13702_CANNOT_MODIFY_CMP_REGISTRY_COPY ) );
     }
 
 
@@ -208,6 +228,6 @@ public class ImmutableComparatorRegistry implements ComparatorRegistry
     @Override
     public LdapComparator<?> unregister( LdapComparator<?> schemaObject ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13702_CANNOT_MODIFY_CMP_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13702_CANNOT_MODIFY_CMP_REGISTRY_COPY ) );
     }
 }
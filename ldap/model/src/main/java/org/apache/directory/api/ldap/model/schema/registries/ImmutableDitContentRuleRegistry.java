@@ -132,6 +132,26 @@ public class ImmutableDitContentRuleRegistry implements DitContentRuleRegistry
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DitContentRule find( String oid )
+    {
+        return immutableDITContentRuleRegistry.find( oid );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DitContentRule find( byte[] bytes, int start, int length )
+    {
+        return immutableDITContentRuleRegistry.find( bytes, start, length );
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -148,7 +168,7 @@ public class ImmutableDitContentRuleRegistry implements DitContentRuleRegistry
     @Override
     public void register( DitContentRule schemaObject ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13703_CANNOT_MODIFY_DITCR_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13703_CANNOT_MODIFY_DITCR_REGISTRY_COPY ) );
     }
 
 
@@ -158,7 +178,7 @@ public class ImmutableDitContentRuleRegistry implements DitContentRuleRegistry
     @Override
     public void renameSchema( String originalSchemaName, String newSchemaName ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13703_CANNOT_MODIFY_DITCR_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13703_CANNOT_MODIFY_DITCR_REGISTRY_COPY ) );
     }
 
 
@@ -168,7 +188,7 @@ public class ImmutableDitContentRuleRegistry implements DitContentRuleRegistry
     @Override
     public DitContentRule unregister( String numericOid ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13703_CANNOT_MODIFY_DITCR_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13703_CANNOT_MODIFY_DITCR_REGISTRY_COPY ) );
     }
 
 
@@ -178,7 +198,7 @@ public class ImmutableDitContentRuleRegistry implements DitContentRuleRegistry
     @Override
     public void unregisterSchemaElements( String schemaName ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13703_CANNOT_MODIFY_DITCR_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13703_CANNOT_MODIFY_DITCR_REGISTRY_COPY ) );
     }
 
 
@@ -198,7 +218,7 @@ public class ImmutableDitContentRuleRegistry implements DitContentRuleRegistry
     @Override
     public void clear() throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13703_CANNOT_MODIFY_DITCR_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13703_CANNOT_MODIFY_DITCR_REGISTRY_COPY ) );
     }
 
 
@@ -208,6 +228,6 @@ public class ImmutableDitContentRuleRegistry implements DitContentRuleRegistry
     @Override
     public DitContentRule unregister( DitContentRule schemaObject ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13703_CANNOT_MODIFY_DITCR_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13703_CANNOT_MODIFY_DITCR_REGISTRY_COPY ) );
     }
 }
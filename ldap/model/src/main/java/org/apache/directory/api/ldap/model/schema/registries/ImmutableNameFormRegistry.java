@@ -132,6 +132,26 @@ public class ImmutableNameFormRegistry implements NameFormRegistry
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public NameForm find( String oid )
+    {
+        return immutableNameFormRegistry.find( oid );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public NameForm find( byte[] bytes, int start, int length )
+    {
+        return immutableNameFormRegistry.find( bytes, start, length );
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -148,7 +168,7 @@ public class ImmutableNameFormRegistry implements NameFormRegistry
     @Override
     public void register( NameForm schemaObject ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13708_CANNOT_MODIFY_NF_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13708_CANNOT_MODIFY_NF_REGISTRY_COPY ) );
     }
 
 
@@ -158,7 +178,7 @@ public class ImmutableNameFormRegistry implements NameFormRegistry
     @Override
     public void renameSchema( String originalSchemaName, String newSchemaName ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13708_CANNOT_MODIFY_NF_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13708_CANNOT_MODIFY_NF_REGISTRY_COPY ) );
     }
 
 
@@ -168,7 +188,7 @@ public class ImmutableNameFormRegistry implements NameFormRegistry
     @Override
     public NameForm unregister( String numericOid ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13708_CANNOT_MODIFY_NF_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13708_CANNOT_MODIFY_NF_REGISTRY_COPY ) );
     }
 
 
@@ -178,7 +198,7 @@ public class ImmutableNameFormRegistry implements NameFormRegistry
     @Override
     public void unregisterSchemaElements( String schemaName ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13708_CANNOT_MODIFY_NF_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13708_CANNOT_MODIFY_NF_REGISTRY_COPY ) );
     }
 
 
@@ -198,7 +218,7 @@ public class ImmutableNameFormRegistry implements NameFormRegistry
     @Override
     public void clear() throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13708_CANNOT_MODIFY_NF_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13708_CANNOT_MODIFY_NF_REGISTRY_COPY ) );
     }
 
 
@@ -208,6 +228,6 @@ public class ImmutableNameFormRegistry implements NameFormRegistry
     @Override
     public NameForm unregister( NameForm schemaObject ) throws LdapException
     {
-        throw new LdapUnwillingToPerformException( ResultCodeEnum.NO_SUCH_OPERATION, I18n.err( I18n.ERR_13708_CANNOT_MODIFY_NF_REGISTRY_COPY ) );
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13708_CANNOT_MODIFY_NF_REGISTRY_COPY ) );
     }
 }
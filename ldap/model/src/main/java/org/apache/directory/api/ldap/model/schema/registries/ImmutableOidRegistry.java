@@ -0,0 +1,236 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.api.ldap.model.schema.registries;
+
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.exception.LdapUnwillingToPerformException;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.schema.SchemaErrorHandler;
+import org.apache.directory.api.ldap.model.schema.SchemaObject;
+
+
+/**
+ * An immutable wrapper of the OID registry.
+ *
+ * @param <T> The type of SchemaObject
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class ImmutableOidRegistry<T extends SchemaObject> extends OidRegistry<T>
+{
+    /** The wrapped OID registry */
+    private final OidRegistry<T> immutableOidRegistry;
+
+
+    /**
+     * Creates a new immutable OidRegistry instance.
+     *
+     * @param oidRegistry The wrapped OID registry
+     */
+    public ImmutableOidRegistry( OidRegistry<T> oidRegistry )
+    {
+        immutableOidRegistry = oidRegistry;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains( String oid )
+    {
+        return immutableOidRegistry.contains( oid );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getPrimaryName( String oid ) throws LdapException
+    {
+        return immutableOidRegistry.getPrimaryName( oid );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T getSchemaObject( String oid ) throws LdapException
+    {
+        return immutableOidRegistry.getSchemaObject( oid );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getNameSet( String oid ) throws LdapException
+    {
+        return immutableOidRegistry.getNameSet( oid );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<String> iteratorOids()
+    {
+        return immutableOidRegistry.iteratorOids();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator()
+    {
+        return immutableOidRegistry.iterator();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRelaxed()
+    {
+        return immutableOidRegistry.isRelaxed();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isStrict()
+    {
+        return immutableOidRegistry.isStrict();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setRelaxed()
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13870_CANNOT_MODIFY_OID_REGISTRY_COPY ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setStrict()
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13870_CANNOT_MODIFY_OID_REGISTRY_COPY ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaErrorHandler getErrorHandler()
+    {
+        return immutableOidRegistry.getErrorHandler();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setErrorHandler( SchemaErrorHandler errorHandler )
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13870_CANNOT_MODIFY_OID_REGISTRY_COPY ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void register( T schemaObject ) throws LdapException
+    {
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13870_CANNOT_MODIFY_OID_REGISTRY_COPY ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister( String oid ) throws LdapException
+    {
+        throw new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM, I18n.err( I18n.ERR_13870_CANNOT_MODIFY_OID_REGISTRY_COPY ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OidRegistry<T> copy()
+    {
+        return immutableOidRegistry.copy();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size()
+    {
+        return immutableOidRegistry.size();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear()
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_13870_CANNOT_MODIFY_OID_REGISTRY_COPY ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return immutableOidRegistry.toString();
+    }
+}
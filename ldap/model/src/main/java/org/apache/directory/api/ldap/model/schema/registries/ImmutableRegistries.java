@@ -0,0 +1,585 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.api.ldap.model.schema.registries;
+
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.exception.LdapUnwillingToPerformException;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.schema.AttributeType;
+import org.apache.directory.api.ldap.model.schema.MatchingRule;
+import org.apache.directory.api.ldap.model.schema.SchemaErrorHandler;
+import org.apache.directory.api.ldap.model.schema.SchemaObject;
+import org.apache.directory.api.ldap.model.schema.SchemaObjectWrapper;
+
+
+/**
+ * An immutable wrapper of the Registries. The returned registries are
+ * themselves immutable wrappers, and any modification is rejected.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class ImmutableRegistries extends Registries
+{
+    /** The wrapped Registries */
+    private final Registries immutableRegistries;
+
+
+    /**
+     * Creates a new immutable Registries instance.
+     *
+     * @param registries The wrapped Registries
+     */
+    public ImmutableRegistries( Registries registries )
+    {
+        immutableRegistries = registries;
+    }
+
+
+    private static UnsupportedOperationException unsupported()
+    {
+        return new UnsupportedOperationException( I18n.err( I18n.ERR_13871_CANNOT_MODIFY_REGISTRIES_COPY ) );
+    }
+
+
+    private static LdapUnwillingToPerformException unwilling()
+    {
+        return new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM,
+            I18n.err( I18n.ERR_13871_CANNOT_MODIFY_REGISTRIES_COPY ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AttributeTypeRegistry getAttributeTypeRegistry()
+    {
+        return new ImmutableAttributeTypeRegistry( immutableRegistries.getAttributeTypeRegistry() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ComparatorRegistry getComparatorRegistry()
+    {
+        return new ImmutableComparatorRegistry( immutableRegistries.getComparatorRegistry() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DitContentRuleRegistry getDitContentRuleRegistry()
+    {
+        return new ImmutableDitContentRuleRegistry( immutableRegistries.getDitContentRuleRegistry() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DitStructureRuleRegistry getDitStructureRuleRegistry()
+    {
+        return new ImmutableDitStructureRuleRegistry( immutableRegistries.getDitStructureRuleRegistry() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MatchingRuleRegistry getMatchingRuleRegistry()
+    {
+        return new ImmutableMatchingRuleRegistry( immutableRegistries.getMatchingRuleRegistry() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MatchingRuleUseRegistry getMatchingRuleUseRegistry()
+    {
+        return new ImmutableMatchingRuleUseRegistry( immutableRegistries.getMatchingRuleUseRegistry() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public NameFormRegistry getNameFormRegistry()
+    {
+        return new ImmutableNameFormRegistry( immutableRegistries.getNameFormRegistry() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public NormalizerRegistry getNormalizerRegistry()
+    {
+        return new ImmutableNormalizerRegistry( immutableRegistries.getNormalizerRegistry() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ObjectClassRegistry getObjectClassRegistry()
+    {
+        return new ImmutableObjectClassRegistry( immutableRegistries.getObjectClassRegistry() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SyntaxCheckerRegistry getSyntaxCheckerRegistry()
+    {
+        return new ImmutableSyntaxCheckerRegistry( immutableRegistries.getSyntaxCheckerRegistry() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LdapSyntaxRegistry getLdapSyntaxRegistry()
+    {
+        return new ImmutableLdapSyntaxRegistry( immutableRegistries.getLdapSyntaxRegistry() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OidRegistry<SchemaObject> getGlobalOidRegistry()
+    {
+        return new ImmutableOidRegistry<>( immutableRegistries.getGlobalOidRegistry() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getOid( String name )
+    {
+        return immutableRegistries.getOid( name );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Schema getLoadedSchema( String schemaName )
+    {
+        return immutableRegistries.getLoadedSchema( schemaName );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSchemaLoaded( String schemaName )
+    {
+        return immutableRegistries.isSchemaLoaded( schemaName );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void checkRefInteg()
+    {
+        immutableRegistries.checkRefInteg();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void delCrossReferences( AttributeType attributeType )
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void delCrossReferences( MatchingRule matchingRule )
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void buildReference( SchemaObject schemaObject )
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeReference( SchemaObject schemaObject )
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void buildReferences()
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add( SchemaObject schemaObject, boolean check ) throws LdapException
+    {
+        throw unwilling();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void delete( SchemaObject schemaObject ) throws LdapException
+    {
+        throw unwilling();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void schemaLoaded( Schema schema )
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void schemaUnloaded( Schema schema )
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Schema> getLoadedSchemas()
+    {
+        return Collections.unmodifiableMap( immutableRegistries.getLoadedSchemas() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Set<SchemaObjectWrapper>> getObjectBySchemaName()
+    {
+        return Collections.unmodifiableMap( immutableRegistries.getObjectBySchemaName() );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains( SchemaObject schemaObject )
+    {
+        return immutableRegistries.contains( schemaObject );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<SchemaObjectWrapper> addSchema( String schemaName )
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void associateWithSchema( SchemaObject schemaObject )
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void dissociateFromSchema( SchemaObject schemaObject ) throws LdapException
+    {
+        throw unwilling();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isReferenced( SchemaObject schemaObject )
+    {
+        return immutableRegistries.isReferenced( schemaObject );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<SchemaObjectWrapper> getUsedBy( SchemaObject schemaObject )
+    {
+        return immutableRegistries.getUsedBy( schemaObject );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String dumpUsedBy()
+    {
+        return immutableRegistries.dumpUsedBy();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String dumpUsing()
+    {
+        return immutableRegistries.dumpUsing();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<SchemaObjectWrapper> getUsing( SchemaObject schemaObject )
+    {
+        return immutableRegistries.getUsing( schemaObject );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addReference( SchemaObject base, SchemaObject referenced )
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void delReference( SchemaObject base, SchemaObject referenced )
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean check()
+    {
+        return immutableRegistries.check();
+    }
+
+
+    /**
+     * The clone is a modifiable copy of the wrapped Registries.
+     *
+     * @return A modifiable copy of the wrapped Registries
+     * @throws CloneNotSupportedException If the cloning failed
+     */
+    @Override
+    public Registries clone() throws CloneNotSupportedException
+    {
+        return immutableRegistries.clone();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRelaxed()
+    {
+        return immutableRegistries.isRelaxed();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isStrict()
+    {
+        return immutableRegistries.isStrict();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setRelaxed()
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setStrict()
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaErrorHandler getErrorHandler()
+    {
+        return immutableRegistries.getErrorHandler();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setErrorHandler( SchemaErrorHandler errorHandler )
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDisabledAccepted()
+    {
+        return immutableRegistries.isDisabledAccepted();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<SchemaObjectWrapper> getReferencing( SchemaObject schemaObject )
+    {
+        return immutableRegistries.getReferencing( schemaObject );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setDisabledAccepted( boolean disabledAccepted )
+    {
+        throw unsupported();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() throws LdapException
+    {
+        throw unwilling();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return immutableRegistries.toString();
+    }
+}
@@ -0,0 +1,416 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.model.schema.registries;
+
+
+import org.apache.directory.api.util.Strings;
+
+
+/**
+ * An index of the SchemaObjects by OID and by lower cased name, looked up ignoring the
+ * ASCII case and the leading and trailing spaces of the searched name, without creating
+ * any object. The name can be given as a String or as UTF-8 bytes, as received from the wire.
+ * <br>
+ * The index uses an open addressing table with linear probing, and a hash function which
+ * folds the ASCII upper case letters while hashing. It can be read concurrently as long as
+ * it is not modified.
+ *
+ * @param <T> The type of SchemaObject
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class NameIndex<T>
+{
+    /** The initial table size, must be a power of 2 */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** The keys, stored as they are registered */
+    private String[] keys;
+
+    /** The values associated with the keys */
+    private Object[] values;
+
+    /** The case insensitive hash of each key */
+    private int[] hashes;
+
+    /** The number of keys */
+    private int size;
+
+
+    /**
+     * Creates a new empty NameIndex
+     */
+    NameIndex()
+    {
+        clear();
+    }
+
+
+    /**
+     * Folds an ASCII upper case letter
+     */
+    private static int toLower( int c )
+    {
+        if ( ( c >= 'A' ) && ( c <= 'Z' ) )
+        {
+            return c + ( 'a' - 'A' );
+        }
+
+        return c;
+    }
+
+
+    /**
+     * Spreads the hash bits so that the lower bits used for the table index are well distributed
+     */
+    private static int spread( int hash )
+    {
+        return hash ^ ( hash >>> 16 );
+    }
+
+
+    private static int hash( String name, int start, int end )
+    {
+        int hash = 0;
+
+        for ( int i = start; i < end; i++ )
+        {
+            hash = 31 * hash + toLower( name.charAt( i ) );
+        }
+
+        return spread( hash );
+    }
+
+
+    /**
+     * Associates a value with a key. The key is expected to be lower cased, an existing
+     * association is replaced.
+     *
+     * @param key The key
+     * @param value The associated value
+     */
+    void put( String key, T value )
+    {
+        int hash = hash( key, 0, key.length() );
+        int mask = keys.length - 1;
+        int pos = hash & mask;
+
+        while ( keys[pos] != null )
+        {
+            if ( ( hashes[pos] == hash ) && keys[pos].equals( key ) )
+            {
+                values[pos] = value;
+
+                return;
+            }
+
+            pos = ( pos + 1 ) & mask;
+        }
+
+        keys[pos] = key;
+        values[pos] = value;
+        hashes[pos] = hash;
+        size++;
+
+        // Keep the table half empty so that the probe sequences stay short
+        if ( size * 2 > keys.length )
+        {
+            resize( keys.length * 2 );
+        }
+    }
+
+
+    /**
+     * Removes a key, exactly as it has been registered.
+     *
+     * @param key The key to remove
+     */
+    void remove( String key )
+    {
+        if ( key == null )
+        {
+            return;
+        }
+
+        int hash = hash( key, 0, key.length() );
+        int mask = keys.length - 1;
+        int pos = hash & mask;
+
+        while ( keys[pos] != null )
+        {
+            if ( ( hashes[pos] == hash ) && keys[pos].equals( key ) )
+            {
+                delete( pos );
+
+                return;
+            }
+
+            pos = ( pos + 1 ) & mask;
+        }
+    }
+
+
+    /**
+     * Removes the entry at a given position, moving back the following entries of the
+     * probe sequence which would not be found anymore.
+     */
+    private void delete( int pos )
+    {
+        int mask = keys.length - 1;
+        int hole = pos;
+        int next = pos;
+
+        while ( true )
+        {
+            next = ( next + 1 ) & mask;
+
+            if ( keys[next] == null )
+            {
+                break;
+            }
+
+            int ideal = hashes[next] & mask;
+
+            // The entry stays where it is if its ideal position is cyclically in ]hole, next]
+            boolean inPlace = hole <= next ? ( ( hole < ideal ) && ( ideal <= next ) )
+                : ( ( hole < ideal ) || ( ideal <= next ) );
+
+            if ( !inPlace )
+            {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hashes[hole] = hashes[next];
+                hole = next;
+            }
+        }
+
+        keys[hole] = null;
+        values[hole] = null;
+        size--;
+    }
+
+
+    private void resize( int capacity )
+    {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+
+        keys = new String[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        int mask = capacity - 1;
+
+        for ( int i = 0; i < oldKeys.length; i++ )
+        {
+            if ( oldKeys[i] != null )
+            {
+                int pos = oldHashes[i] & mask;
+
+                while ( keys[pos] != null )
+                {
+                    pos = ( pos + 1 ) & mask;
+                }
+
+                keys[pos] = oldKeys[i];
+                values[pos] = oldValues[i];
+                hashes[pos] = oldHashes[i];
+            }
+        }
+    }
+
+
+    /**
+     * Gets the value associated with a name, ignoring its ASCII case and its leading
+     * and trailing spaces.
+     *
+     * @param name The searched name
+     * @return The associated value, or null if there is none
+     */
+    T get( String name )
+    {
+        if ( name == null )
+        {
+            return null;
+        }
+
+        return get( name, 0, name.length() );
+    }
+
+
+    /**
+     * Gets the value associated with a part of a String, ignoring its ASCII case and its
+     * leading and trailing spaces.
+     *
+     * @param name The String containing the searched name
+     * @param start The position of the first char
+     * @param end The position following the last char
+     * @return The associated value, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    T get( String name, int start, int end )
+    {
+        while ( ( start < end ) && ( name.charAt( start ) <= ' ' ) )
+        {
+            start++;
+        }
+
+        while ( ( end > start ) && ( name.charAt( end - 1 ) <= ' ' ) )
+        {
+            end--;
+        }
+
+        int length = end - start;
+        int hash = hash( name, start, end );
+        int mask = keys.length - 1;
+        int pos = hash & mask;
+
+        while ( keys[pos] != null )
+        {
+            if ( ( hashes[pos] == hash ) && matches( keys[pos], name, start, length ) )
+            {
+                return ( T ) values[pos];
+            }
+
+            pos = ( pos + 1 ) & mask;
+        }
+
+        return null;
+    }
+
+
+    private static boolean matches( String key, String name, int start, int length )
+    {
+        if ( key.length() != length )
+        {
+            return false;
+        }
+
+        for ( int i = 0; i < length; i++ )
+        {
+            if ( toLower( name.charAt( start + i ) ) != key.charAt( i ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Gets the value associated with a name encoded in UTF-8, ignoring its ASCII case and
+     * its leading and trailing spaces.
+     *
+     * @param bytes The buffer containing the searched name
+     * @param start The position of the first byte
+     * @param length The number of bytes
+     * @return The associated value, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    T get( byte[] bytes, int start, int length )
+    {
+        if ( bytes == null )
+        {
+            return null;
+        }
+
+        int end = start + length;
+
+        while ( ( start < end ) && ( bytes[start] >= 0 ) && ( bytes[start] <= ' ' ) )
+        {
+            start++;
+        }
+
+        while ( ( end > start ) && ( bytes[end - 1] >= 0 ) && ( bytes[end - 1] <= ' ' ) )
+        {
+            end--;
+        }
+
+        int hash = 0;
+
+        for ( int i = start; i < end; i++ )
+        {
+            if ( bytes[i] < 0 )
+            {
+                // Not an ASCII name, the chars have to be decoded
+                return get( Strings.utf8ToString( bytes, start, end - start ) );
+            }
+
+            hash = 31 * hash + toLower( bytes[i] );
+        }
+
+        hash = spread( hash );
+        int mask = keys.length - 1;
+        int pos = hash & mask;
+
+        while ( keys[pos] != null )
+        {
+            if ( ( hashes[pos] == hash ) && matches( keys[pos], bytes, start, end - start ) )
+            {
+                return ( T ) values[pos];
+            }
+
+            pos = ( pos + 1 ) & mask;
+        }
+
+        return null;
+    }
+
+
+    private static boolean matches( String key, byte[] bytes, int start, int length )
+    {
+        if ( key.length() != length )
+        {
+            return false;
+        }
+
+        for ( int i = 0; i < length; i++ )
+        {
+            if ( toLower( bytes[start + i] ) != key.charAt( i ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * @return The number of keys
+     */
+    int size()
+    {
+        return size;
+    }
+
+
+    /**
+     * Removes all the keys
+     */
+    void clear()
+    {
+        keys = new String[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        hashes = new int[INITIAL_CAPACITY];
+        size = 0;
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Iterator;
 import org.apache.directory.api.ldap.model.exception.LdapException;
 import org.apache.directory.api.ldap.model.schema.SchemaObject;
 import org.apache.directory.api.ldap.model.schema.SchemaObjectType;
+import org.apache.directory.api.util.Strings;
 
 
 /**
@@ -101,6 +102,48 @@ public interface SchemaObjectRegistry<T extends SchemaObject>
     T lookup( String oid ) throws LdapException;
 
 
+    /**
+     * Looks up a SchemaObject by its unique Object Identifier or by name, ignoring the case
+     * and the surrounding spaces. Unlike {@link #lookup(String)}, nothing is created, and no
+     * exception is thrown if the SchemaObject does not exist.
+     *
+     * @param oid the object identifier or name
+     * @return the SchemaObject instance for the id, or null if it does not exist
+     */
+    default T find( String oid )
+    {
+        try
+        {
+            return lookup( oid );
+        }
+        catch ( LdapException le )
+        {
+            return null;
+        }
+    }
+
+
+    /**
+     * Looks up a SchemaObject by its unique Object Identifier or by name, encoded in UTF-8,
+     * ignoring the case and the surrounding spaces. This allows a lookup with the raw bytes
+     * of a decoded PDU, without creating a String.
+     *
+     * @param bytes the buffer containing the object identifier or name
+     * @param start the position of the first byte
+     * @param length the number of bytes
+     * @return the SchemaObject instance for the id, or null if it does not exist
+     */
+    default T find( byte[] bytes, int start, int length )
+    {
+        if ( bytes == null )
+        {
+            return null;
+        }
+
+        return find( Strings.utf8ToString( bytes, start, length ) );
+    }
+
+
     /**
      * Registers a new SchemaObject with this registry.
      *
@@ -0,0 +1,125 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.model.entry;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.schema.AttributeType;
+import org.apache.directory.api.ldap.model.schema.Normalizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+
+/**
+ * Test the NormalizedValueCache class
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class NormalizedValueCacheTest
+{
+    @Test
+    public void testCachedValues() throws LdapException
+    {
+        NormalizedValueCache cache = new NormalizedValueCache( 100 );
+        AttributeType attributeType = EntryUtils.getCaseIgnoringAttributeNoNumbersType();
+        Normalizer normalizer = attributeType.getEquality().getNormalizer();
+
+        String normValue = cache.getNormValue( attributeType, normalizer, "Test" );
+        assertEquals( "test", normValue );
+        assertSame( normValue, cache.getNormValue( attributeType, normalizer, "Test" ) );
+
+        // Another value normalized to the same string shares it
+        assertSame( normValue, cache.getNormValue( attributeType, normalizer, "TEST" ) );
+
+        // Another AttributeType is another key
+        AttributeType other = EntryUtils.getCaseIgnoringAttributeNoNumbersType();
+        assertSame( normValue, cache.getNormValue( other, normalizer, "Test" ) );
+
+        assertEquals( 1L, cache.getHitCount() );
+        assertEquals( 3L, cache.getMissCount() );
+        assertEquals( 0.25d, cache.getHitRate(), 0.0001d );
+        assertEquals( 3, cache.size() );
+
+        // A null value is not cached
+        assertEquals( normalizer.normalize( null ), cache.getNormValue( attributeType, normalizer, null ) );
+        assertEquals( 3, cache.size() );
+        assertNull( cache.intern( null ) );
+
+        cache.clear();
+        assertEquals( 0, cache.size() );
+        assertEquals( 0d, cache.getHitRate() );
+        assertThrows( IllegalArgumentException.class, () -> new NormalizedValueCache( 0 ) );
+    }
+
+
+    @Test
+    public void testBoundedSize() throws LdapException
+    {
+        NormalizedValueCache cache = new NormalizedValueCache( 100 );
+        AttributeType attributeType = EntryUtils.getCaseIgnoringAttributeNoNumbersType();
+        Normalizer normalizer = attributeType.getEquality().getNormalizer();
+
+        for ( int i = 0; i < 1000; i++ )
+        {
+            assertEquals( "value" + i, cache.getNormValue( attributeType, normalizer, "Value" + i ) );
+            assertTrue( cache.size() <= 100 );
+        }
+
+        assertTrue( cache.getEvictionCount() > 0 );
+    }
+
+
+    @Test
+    public void testValuesShareNormalizedStrings() throws LdapException
+    {
+        AttributeType attributeType = EntryUtils.getCaseIgnoringAttributeNoNumbersType();
+
+        // Without cache, each value has its own normalized string
+        assertEquals( new Value( attributeType, "ABC" ).getNormalized(),
+            new Value( attributeType, "abc" ).getNormalized() );
+
+        NormalizedValueCache.setInstance( new NormalizedValueCache() );
+
+        try
+        {
+            Value value1 = new Value( attributeType, "ABC" );
+            Value value2 = new Value( attributeType, "abc" );
+            Attribute attribute = new DefaultAttribute( attributeType, "Abc" );
+
+            assertEquals( "abc", value1.getNormalized() );
+            assertSame( value1.getNormalized(), value2.getNormalized() );
+            assertSame( value1.getNormalized(), attribute.get().getNormalized() );
+            assertEquals( "ABC", value1.getString() );
+            assertTrue( attribute.contains( "aBC" ) );
+        }
+        finally
+        {
+            NormalizedValueCache.setInstance( null );
+        }
+    }
+}
@@ -42,6 +42,7 @@ import org.apache.directory.api.ldap.model.exception.LdapException;
 import org.apache.directory.api.ldap.model.exception.LdapInvalidAttributeValueException;
 import org.apache.directory.api.ldap.model.schema.AttributeType;
 import org.apache.directory.api.ldap.model.schema.SyntaxChecker;
+import org.apache.directory.api.ldap.model.schema.comparators.IntegerComparator;
 import org.apache.directory.api.ldap.model.schema.comparators.StringComparator;
 import org.apache.directory.api.ldap.model.schema.normalizers.DeepTrimToLowerNormalizer;
 import org.apache.directory.api.ldap.model.schema.normalizers.NoOpNormalizer;
@@ -383,6 +384,36 @@ public class StringValueAttributeTypeTest
     }
 
 
+    /**
+     * Test the compareTo method with an ORDERING MatchingRule computing ordering keys
+     */
+    @Test
+    public void testCompareToOrderingKeys() throws LdapInvalidAttributeValueException
+    {
+        EntryUtils.MR equality = new EntryUtils.MR( "1.1.2.2" );
+        equality.setSyntax( s );
+        equality.setLdapComparator( new StringComparator( "1.1.2.2" ) );
+        equality.setNormalizer( new NoOpNormalizer( "1.1.2.2" ) );
+        EntryUtils.MR ordering = new EntryUtils.MR( "1.1.2.3" );
+        ordering.setSyntax( s );
+        ordering.setLdapComparator( new IntegerComparator( "1.1.2.3" ) );
+        EntryUtils.AT at1 = new EntryUtils.AT( "1.1.3.2" );
+        at1.setEquality( equality );
+        at1.setOrdering( ordering );
+        at1.setSyntax( s );
+
+        Value v0 = new Value( at1, "9" );
+        Value v1 = new Value( at1, "10" );
+        Value v2 = new Value( at1, "+10" );
+
+        // The values are compared as integers, not as Strings
+        assertTrue( v0.compareTo( v1 ) < 0 );
+        assertTrue( v1.compareTo( v0 ) > 0 );
+        assertEquals( 0, v1.compareTo( v2 ) );
+        assertEquals( 10L, v1.getOrderingKey() );
+    }
+
+
     /**
      * Test the clone method
      */
@@ -0,0 +1,180 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.model.name;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.directory.api.ldap.model.exception.LdapInvalidDnException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+
+/**
+ * Test the DnCache class
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class DnCacheTest
+{
+    @Test
+    public void testCachedDn() throws LdapInvalidDnException
+    {
+        DnCache cache = new DnCache( 100 );
+        Dn dn = cache.getDn( "cn=Test, ou=People,dc=example,dc=com" );
+
+        assertEquals( new Dn( "cn=Test, ou=People,dc=example,dc=com" ), dn );
+        assertEquals( "cn=Test, ou=People,dc=example,dc=com", dn.getName() );
+        assertSame( dn, cache.getDn( "cn=Test, ou=People,dc=example,dc=com" ) );
+
+        // Another name is another Dn, even if it's equal
+        Dn other = cache.getDn( "cn=Test,ou=People,dc=example,dc=com" );
+        assertNotSame( dn, other );
+        assertEquals( dn, other );
+
+        assertEquals( 1L, cache.getHitCount() );
+        assertEquals( 2L, cache.getMissCount() );
+        assertEquals( 1d / 3d, cache.getHitRate(), 0.0001d );
+        assertEquals( 2, cache.size() );
+
+        cache.clear();
+        assertEquals( 0, cache.size() );
+        assertEquals( 0d, cache.getHitRate() );
+        assertNotSame( dn, cache.getDn( "cn=Test, ou=People,dc=example,dc=com" ) );
+    }
+
+
+    @Test
+    public void testSharedParentRdns() throws LdapInvalidDnException
+    {
+        DnCache cache = new DnCache();
+        Dn dn1 = cache.getDn( "cn=a,ou=people,dc=example,dc=com" );
+        Dn dn2 = cache.getDn( "cn=b,ou=people,dc=example,dc=com" );
+        Dn dn3 = cache.getDn( "ou=people,dc=example,dc=com" );
+
+        assertEquals( "cn=b,ou=people,dc=example,dc=com", dn2.getName() );
+
+        for ( int i = 1; i < 4; i++ )
+        {
+            assertSame( dn1.getRdn( i ), dn2.getRdn( i ) );
+        }
+
+        // The leftmost Rdn is not shared, its parents are
+        assertNotSame( dn1.getRdn( 1 ), dn3.getRdn( 0 ) );
+        assertSame( dn1.getRdn( 2 ), dn3.getRdn( 1 ) );
+        assertSame( dn1.getRdn( 3 ), dn3.getRdn( 2 ) );
+
+        assertEquals( dn3, dn2.getParent() );
+    }
+
+
+    @Test
+    public void testInvalidDn()
+    {
+        DnCache cache = new DnCache();
+
+        assertThrows( LdapInvalidDnException.class, () -> cache.getDn( "invalid" ) );
+        assertThrows( LdapInvalidDnException.class, () -> cache.getDn( "invalid" ) );
+        assertEquals( 0, cache.size() );
+        assertThrows( IllegalArgumentException.class, () -> new DnCache( 0 ) );
+    }
+
+
+    @Test
+    public void testEmptyDn() throws LdapInvalidDnException
+    {
+        DnCache cache = new DnCache();
+
+        assertTrue( cache.getDn( "" ).isEmpty() );
+        assertTrue( cache.getDn( null ).isEmpty() );
+    }
+
+
+    @Test
+    public void testBoundedSize() throws LdapInvalidDnException
+    {
+        DnCache cache = new DnCache( 100 );
+
+        for ( int i = 0; i < 1000; i++ )
+        {
+            cache.getDn( "cn=user" + i + ",ou=people,dc=example,dc=com" );
+            assertTrue( cache.size() <= 100 );
+        }
+
+        assertTrue( cache.getEvictionCount() > 0 );
+
+        // A recently used entry is kept
+        Dn dn = cache.getDn( "cn=user999,ou=people,dc=example,dc=com" );
+        assertSame( dn, cache.getDn( "cn=user999,ou=people,dc=example,dc=com" ) );
+    }
+
+
+    @Test
+    public void testConcurrentAccess() throws Exception
+    {
+        DnCache cache = new DnCache( 50 );
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for ( int t = 0; t < 4; t++ )
+        {
+            Thread thread = new Thread( () ->
+            {
+                try
+                {
+                    for ( int i = 0; i < 5000; i++ )
+                    {
+                        String name = "cn=user" + ( i % 80 ) + ",ou=people,dc=example,dc=com";
+                        Dn dn = cache.getDn( name );
+                        assertEquals( name, dn.getName() );
+                        assertEquals( "ou=people", dn.getRdn( 1 ).getName() );
+                    }
+                }
+                catch ( Throwable e )
+                {
+                    failure.set( e );
+                }
+            } );
+
+            thread.start();
+            threads.add( thread );
+        }
+
+        for ( Thread thread : threads )
+        {
+            thread.join();
+        }
+
+        assertNull( failure.get() );
+        assertEquals( 20000L, cache.getHitCount() + cache.getMissCount() );
+        assertTrue( cache.size() <= 50 );
+    }
+}
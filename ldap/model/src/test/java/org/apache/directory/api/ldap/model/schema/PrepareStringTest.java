@@ -26,6 +26,8 @@ import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Tests for the PrepareString class
@@ -473,4 +475,102 @@ public class PrepareStringTest
         char[] empty = new char[]{ ' ', ' ', ' ', 'a', ' ', ' ', 'b', ' ', ' ', ' ', ' ', 'c', ' ', 'd', ' ', ' ', ' ' };
         assertEquals( " a  b  c  d ", PrepareString.insignificantSpacesStringAny( empty ) );
     }
+    
+    
+    //-------------------------------------------------------------------------
+    // Test the PrepareString.prepare method
+    //-------------------------------------------------------------------------
+    /**
+     * The steps applied one by one, as the normalizers used to do
+     */
+    private String prepareStepByStep( String value, boolean caseSensitive, PrepareString.AssertionType assertionType )
+        throws InvalidCharacterException
+    {
+        String mapped = caseSensitive ? PrepareString.mapCaseSensitive( value ) : PrepareString.mapIgnoreCase( value );
+        char[] chars = PrepareString.normalize( mapped ).toCharArray();
+        PrepareString.checkProhibited( chars );
+
+        switch ( assertionType )
+        {
+            case SUBSTRING_INITIAL :
+                return PrepareString.insignificantSpacesStringInitial( chars );
+
+            case SUBSTRING_ANY :
+                return PrepareString.insignificantSpacesStringAny( chars );
+
+            case SUBSTRING_FINAL :
+                return PrepareString.insignificantSpacesStringFinal( chars );
+
+            default :
+                return PrepareString.insignificantSpacesStringValue( chars );
+        }
+    }
+
+
+    @Test
+    public void testPrepare() throws InvalidCharacterException
+    {
+        assertEquals( " test  value ", PrepareString.prepare( "  Test \t VALUE ", PrepareString.IGNORE_CASE,
+            PrepareString.AssertionType.ATTRIBUTE_VALUE ) );
+        assertEquals( " Test  VALUE ", PrepareString.prepare( "  Test   VALUE ", PrepareString.CASE_SENSITIVE,
+            PrepareString.AssertionType.ATTRIBUTE_VALUE ) );
+        assertEquals( "  ", PrepareString.prepare( "", PrepareString.IGNORE_CASE,
+            PrepareString.AssertionType.ATTRIBUTE_VALUE ) );
+        assertEquals( " ", PrepareString.prepare( "   ", PrepareString.IGNORE_CASE,
+            PrepareString.AssertionType.SUBSTRING_ANY ) );
+        assertNull( PrepareString.prepare( null, PrepareString.IGNORE_CASE,
+            PrepareString.AssertionType.ATTRIBUTE_VALUE ) );
+
+        // Non ASCII values : mapped, normalized, folded
+        assertEquals( " \u00e9t\u00e9 ", PrepareString.prepare( "\u00c9T\u00c9", PrepareString.IGNORE_CASE,
+            PrepareString.AssertionType.ATTRIBUTE_VALUE ) );
+        assertEquals( " \u00e9 ", PrepareString.prepare( "e\u0301", PrepareString.CASE_SENSITIVE,
+            PrepareString.AssertionType.ATTRIBUTE_VALUE ) );
+        assertEquals( " fi  1\u20444 ", PrepareString.prepare( "\ufb01\u00a0\u00bc", PrepareString.IGNORE_CASE,
+            PrepareString.AssertionType.ATTRIBUTE_VALUE ) );
+    }
+
+
+    @Test
+    public void testPrepareProhibited()
+    {
+        assertThrows( InvalidCharacterException.class, () -> PrepareString.prepare( "a\u0221b",
+            PrepareString.IGNORE_CASE, PrepareString.AssertionType.ATTRIBUTE_VALUE ) );
+    }
+
+
+    @Test
+    public void testPrepareSameAsSteps() throws InvalidCharacterException
+    {
+        String[] values = new String[]
+            {
+                "", " ", "a", " A ", "  ABC  def\tGHI  ", "\u00c9T\u00c9  \u00e0 la plage", "\u00b5\u00df\u0130",
+                "x\u00adx\u200by", "\ufb01 \uff21\uff22", "\u2160 \u3000 \u00bd"
+            };
+
+        for ( String value : values )
+        {
+            for ( PrepareString.AssertionType assertionType : PrepareString.AssertionType.values() )
+            {
+                for ( boolean caseSensitive : new boolean[] { PrepareString.CASE_SENSITIVE, PrepareString.IGNORE_CASE } )
+                {
+                    assertEquals( prepareStepByStep( value, caseSensitive, assertionType ),
+                        PrepareString.prepare( value, caseSensitive, assertionType ), value );
+                }
+            }
+        }
+
+        // A value longer than the reused buffers
+        StringBuilder sb = new StringBuilder();
+
+        for ( int i = 0; i < 10000; i++ )
+        {
+            sb.append( "Ab\u00e9  " );
+        }
+
+        String value = sb.toString();
+
+        assertEquals( prepareStepByStep( value, PrepareString.IGNORE_CASE, PrepareString.AssertionType.ATTRIBUTE_VALUE ),
+            PrepareString.prepare( value, PrepareString.IGNORE_CASE, PrepareString.AssertionType.ATTRIBUTE_VALUE ) );
+    }
 }
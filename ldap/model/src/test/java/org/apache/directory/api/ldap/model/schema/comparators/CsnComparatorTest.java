@@ -21,8 +21,11 @@ package org.apache.directory.api.ldap.model.schema.comparators;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.apache.directory.api.ldap.model.csn.Csn;
+import org.apache.directory.api.ldap.model.entry.Value;
 import org.apache.directory.api.ldap.model.schema.comparators.CsnComparator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -118,4 +121,36 @@ public class CsnComparatorTest
         assertEquals( -1, comparator.compare( csn1.toString(), csn2.toString() ) );
         assertEquals( 1, comparator.compare( csn2.toString(), csn1.toString() ) );
     }
+
+
+    @Test
+    public void testOrderingKeys()
+    {
+        String[] csns =
+            {
+                "20100111202217.835000Z#000000#000#000000",
+                "20100111202217.835000Z#000000#000#000001",
+                "20100111202217.835000Z#000000#001#000000",
+                "20100111202217.835000Z#000001#000#000000",
+                "20100111202217.835001Z#000000#000#000000",
+                "20100111202218.000000Z#000000#000#000000"
+            };
+
+        for ( int i = 0; i < csns.length; i++ )
+        {
+            for ( int j = 0; j < csns.length; j++ )
+            {
+                int expected = Integer.signum( comparator.compare( csns[i], csns[j] ) );
+
+                assertEquals( expected, Integer.signum( comparator.compare( new Value( csns[i] ), new Value( csns[j] ) ) ) );
+                assertEquals( Integer.signum( Integer.compare( i, j ) ), expected );
+            }
+        }
+
+        assertNull( comparator.getOrderingKey( "20100111202217.835000Z#000000#000" ) );
+        assertNull( comparator.getOrderingKey( "2010011120221X.835000Z#000000#000#000000" ) );
+
+        // Values which can't be parsed are compared as Strings
+        assertTrue( comparator.compare( new Value( "a" ), new Value( "b" ) ) < 0 );
+    }
 }
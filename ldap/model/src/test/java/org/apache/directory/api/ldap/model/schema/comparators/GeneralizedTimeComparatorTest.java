@@ -0,0 +1,82 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.model.schema.comparators;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.directory.api.ldap.model.entry.Value;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+
+/**
+ * Test the GeneralizedTime comparator
+ * 
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class GeneralizedTimeComparatorTest
+{
+    private GeneralizedTimeComparator comparator;
+
+
+    @BeforeEach
+    public void init()
+    {
+        comparator = new GeneralizedTimeComparator( null );
+    }
+
+
+    @Test
+    public void testCompare()
+    {
+        assertEquals( 0, comparator.compare( null, null ) );
+        assertEquals( -1, comparator.compare( null, "20100101000000Z" ) );
+        assertEquals( 0, comparator.compare( "20100101000000Z", "20100101010000+0100" ) );
+        assertTrue( comparator.compare( "20100101000000Z", "20100101000000.5Z" ) < 0 );
+        assertThrows( IllegalArgumentException.class, () -> comparator.compare( "invalid", "20100101000000Z" ) );
+    }
+
+
+    @Test
+    public void testOrderingKeys()
+    {
+        assertEquals( 1262304000000L, comparator.getOrderingKey( "20100101000000Z" ) );
+        assertNull( comparator.getOrderingKey( "invalid" ) );
+
+        Value value1 = new Value( "20100101000000Z" );
+        Value value2 = new Value( "20100101010000+0100" );
+        Value value3 = new Value( "20100101000000.5Z" );
+
+        assertEquals( 0, comparator.compareValues( value1, value2 ) );
+        assertTrue( comparator.compareValues( value1, value3 ) < 0 );
+        assertTrue( comparator.compareValues( value3, value2 ) > 0 );
+        assertEquals( 1262304000500L, value3.getOrderingKey( comparator ) );
+
+        // A value which can't be parsed is compared as a String
+        assertThrows( IllegalArgumentException.class, () -> comparator.compareValues( new Value( "invalid" ), value1 ) );
+    }
+}
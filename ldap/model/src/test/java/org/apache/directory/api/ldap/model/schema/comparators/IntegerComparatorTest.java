@@ -20,6 +20,13 @@
 package org.apache.directory.api.ldap.model.schema.comparators;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+
+import org.apache.directory.api.ldap.model.entry.Value;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -75,4 +82,26 @@ public class IntegerComparatorTest
         
             assertEquals( 1, comparator.compare( "1000000000000000000000001", "1000000000000000000000000" ) );
     }
+
+
+    @Test
+    public void testOrderingKeys()
+    {
+        assertEquals( 12L, comparator.getOrderingKey( "12" ) );
+        assertEquals( new BigInteger( "1000000000000000000000000" ),
+            comparator.getOrderingKey( "1000000000000000000000000" ) );
+        assertNull( comparator.getOrderingKey( "abc" ) );
+
+        Value small = new Value( "-5" );
+        Value medium = new Value( "9223372036854775807" );
+        Value big = new Value( "1000000000000000000000000" );
+
+        assertTrue( comparator.compare( small, medium ) < 0 );
+        assertTrue( comparator.compare( big, medium ) > 0 );
+        assertTrue( comparator.compare( medium, big ) < 0 );
+        assertEquals( 0, comparator.compare( big, new Value( "1000000000000000000000000" ) ) );
+
+        // The key is computed once
+        assertSame( big.getOrderingKey( comparator ), big.getOrderingKey( comparator ) );
+    }
 }
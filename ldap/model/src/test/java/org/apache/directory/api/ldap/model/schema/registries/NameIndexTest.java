@@ -0,0 +1,142 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.model.schema.registries;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.directory.api.ldap.model.schema.AttributeType;
+import org.apache.directory.api.util.Strings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+
+/**
+ * Test the NameIndex and the registries lookups using it
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class NameIndexTest
+{
+    private static String find( NameIndex<String> index, String name )
+    {
+        String value = index.get( name );
+        byte[] bytes = Strings.getBytesUtf8( "[" + name + "]" );
+
+        // The byte lookup must give the same result
+        assertSame( value, index.get( bytes, 1, bytes.length - 2 ) );
+
+        return value;
+    }
+
+
+    @Test
+    public void testCaseInsensitiveLookup()
+    {
+        NameIndex<String> index = new NameIndex<>();
+        index.put( "2.5.4.3", "cn" );
+        index.put( "cn", "cn" );
+        index.put( "commonname", "cn" );
+        index.put( "né", "accent" );
+
+        assertEquals( "cn", find( index, "2.5.4.3" ) );
+        assertEquals( "cn", find( index, "CN" ) );
+        assertEquals( "cn", find( index, "CommonName" ) );
+        assertEquals( "cn", find( index, "  commonName " ) );
+        assertEquals( "cn", index.get( "xx;cn;yy", 3, 5 ) );
+        assertEquals( "accent", find( index, "Né" ) );
+        assertNull( find( index, "c" ) );
+        assertNull( find( index, "cnn" ) );
+        assertNull( find( index, "" ) );
+        assertNull( index.get( ( String ) null ) );
+        assertNull( index.get( ( byte[] ) null, 0, 0 ) );
+    }
+
+
+    @Test
+    public void testPutRemove()
+    {
+        NameIndex<String> index = new NameIndex<>();
+        Map<String, String> expected = new HashMap<>();
+        Random random = new Random( 42L );
+
+        // Enough keys to resize the table several times, with many removals in the probe sequences
+        for ( int i = 0; i < 10000; i++ )
+        {
+            String key = "name" + random.nextInt( 2000 );
+
+            if ( random.nextBoolean() )
+            {
+                index.put( key, key + i );
+                expected.put( key, key + i );
+            }
+            else
+            {
+                index.remove( key );
+                expected.remove( key );
+            }
+        }
+
+        assertEquals( expected.size(), index.size() );
+
+        for ( int i = 0; i < 2000; i++ )
+        {
+            String key = "name" + i;
+            assertEquals( expected.get( key ), index.get( Strings.upperCase( key ) ) );
+        }
+
+        index.clear();
+        assertEquals( 0, index.size() );
+        assertNull( index.get( "name1" ) );
+    }
+
+
+    @Test
+    public void testRegistryFind() throws Exception
+    {
+        AttributeTypeRegistry registry = new DefaultAttributeTypeRegistry();
+        AttributeType attributeType = new AttributeType( "1.1" );
+        attributeType.addName( "test", "anotherTest" );
+        registry.register( attributeType );
+
+        assertSame( attributeType, registry.find( "1.1" ) );
+        assertSame( attributeType, registry.find( "TEST" ) );
+        assertSame( attributeType, registry.find( "anothertest" ) );
+        assertSame( attributeType, registry.lookup( " AnotherTest " ) );
+        assertSame( attributeType, new ImmutableAttributeTypeRegistry( registry ).find( "Test" ) );
+
+        byte[] bytes = Strings.getBytesUtf8( "AnotherTest" );
+        assertSame( attributeType, registry.find( bytes, 0, bytes.length ) );
+        assertNull( registry.find( bytes, 0, 7 ) );
+        assertNull( registry.find( "unknown" ) );
+
+        registry.unregister( attributeType );
+        assertNull( registry.find( "test" ) );
+        assertNull( registry.find( "1.1" ) );
+    }
+}
@@ -23,6 +23,7 @@ package org.apache.directory.api.ldap.codec.protocol.mina;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.ObjIntConsumer;
 
 import org.apache.directory.api.asn1.DecoderException;
 import org.apache.directory.api.asn1.ber.Asn1Decoder;
@@ -54,6 +55,9 @@ public class LdapProtocolDecoder implements ProtocolDecoder
     /** The logger */
     private static final Logger CODEC_LOG = LoggerFactory.getLogger( Loggers.CODEC_LOG.getName() );
 
+    /** The session attribute holding the number of bytes read for the PDU being decoded */
+    private static final String DECODED_SIZE_ATTR = "LDAP-decodedSize";
+
     /**
      * Creates a new instance of LdapProtocolEncoder.
      */
@@ -83,7 +87,27 @@ public class LdapProtocolDecoder implements ProtocolDecoder
         List<Message> decodedMessages = new ArrayList<>();
         ByteBuffer buf = in.buf();
 
-        decode( buf, messageContainer, decodedMessages );
+        @SuppressWarnings("unchecked")
+        ObjIntConsumer<Message> sizeListener =
+            ( ObjIntConsumer<Message> ) session.getAttribute( LdapDecoder.DECODED_SIZE_LISTENER_ATTR );
+
+        if ( sizeListener == null )
+        {
+            decode( buf, messageContainer, decodedMessages, null, null );
+        }
+        else
+        {
+            // The PDU may be split across many buffers
+            int[] pduSize = ( int[] ) session.getAttribute( DECODED_SIZE_ATTR );
+
+            if ( pduSize == null )
+            {
+                pduSize = new int[1];
+                session.setAttribute( DECODED_SIZE_ATTR, pduSize );
+            }
+
+            decode( buf, messageContainer, decodedMessages, sizeListener, pduSize );
+        }
 
         for ( Message message : decodedMessages )
         {
@@ -101,10 +125,12 @@ public class LdapProtocolDecoder implements ProtocolDecoder
      * message being decoded. If the message is not fully decoded, the ucrrent state
      * is stored into this container
      * @param decodedMessages The list of decoded messages
+     * @param sizeListener The listener notified with the size of each decoded PDU, if any
+     * @param pduSize The number of bytes read for the PDU being decoded, if there is a listener
      * @throws DecoderException If the decoding failed
      */
     private void decode( ByteBuffer buffer, LdapMessageContainer<AbstractMessage> messageContainer,
-        List<Message> decodedMessages ) throws DecoderException
+        List<Message> decodedMessages, ObjIntConsumer<Message> sizeListener, int[] pduSize ) throws DecoderException
     {
         buffer.mark();
 
@@ -134,8 +160,15 @@ public class LdapProtocolDecoder implements ProtocolDecoder
                     }
                 }
 
+                int start = buffer.position();
+
                 Asn1Decoder.decode( buffer, messageContainer );
 
+                if ( pduSize != null )
+                {
+                    pduSize[0] += buffer.position() - start;
+                }
+
                 if ( messageContainer.getState() == TLVStateEnum.PDU_DECODED )
                 {
                     if ( CODEC_LOG.isDebugEnabled() )
@@ -147,6 +180,12 @@ public class LdapProtocolDecoder implements ProtocolDecoder
 
                     decodedMessages.add( message );
 
+                    if ( sizeListener != null )
+                    {
+                        sizeListener.accept( message, pduSize[0] );
+                        pduSize[0] = 0;
+                    }
+
                     messageContainer.clean();
                 }
             }
@@ -154,6 +193,7 @@ public class LdapProtocolDecoder implements ProtocolDecoder
             {
                 buffer.clear();
                 messageContainer.clean();
+                resetPduSize( pduSize );
                 
                 // Transform the DecoderException message to a MessageException
                 ResponseCarryingMessageException rcme = new ResponseCarryingMessageException( rce.getMessage(), rce );
@@ -165,6 +205,7 @@ public class LdapProtocolDecoder implements ProtocolDecoder
             {
                 buffer.clear();
                 messageContainer.clean();
+                resetPduSize( pduSize );
 
                 // TODO : This is certainly not the way we should handle such an exception !
                 throw new ResponseCarryingException( de.getMessage(), de );
@@ -173,6 +214,15 @@ public class LdapProtocolDecoder implements ProtocolDecoder
     }
 
 
+    private static void resetPduSize( int[] pduSize )
+    {
+        if ( pduSize != null )
+        {
+            pduSize[0] = 0;
+        }
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -20,7 +20,7 @@
 package org.apache.directory.api.ldap.codec.protocol.mina;
 
 
-import java.nio.ByteBuffer;
+import java.util.function.ObjIntConsumer;
 
 import org.apache.directory.api.asn1.EncoderException;
 import org.apache.directory.api.asn1.util.Asn1Buffer;
@@ -88,12 +88,26 @@ public class LdapProtocolEncoder implements ProtocolEncoder
             threadLocalStorage.set( asn1Buffer );
         }
 
-        ByteBuffer encoded;
+        IoBuffer ioBuffer;
         
         try
         { 
-            LdapEncoder.encodeMessage( asn1Buffer, codec, ( Message ) message );
-            encoded = asn1Buffer.getBytes();
+            LdapEncoder.encodeMessageToBuffer( asn1Buffer, codec, ( Message ) message );
+
+            // Copy the PDU straight into the buffer written to the session, which is
+            // a direct buffer if MINA has been configured to use them
+            ioBuffer = IoBuffer.allocate( asn1Buffer.getPos() );
+            asn1Buffer.writeTo( ioBuffer.buf() );
+            ioBuffer.flip();
+
+            @SuppressWarnings("unchecked")
+            ObjIntConsumer<Message> sizeListener =
+                ( ObjIntConsumer<Message> ) session.getAttribute( LdapEncoder.ENCODED_SIZE_LISTENER_ATTR );
+
+            if ( sizeListener != null )
+            {
+                sizeListener.accept( ( Message ) message, ioBuffer.limit() );
+            }
         }
         catch ( EncoderException e )
         {
@@ -104,14 +118,12 @@ public class LdapProtocolEncoder implements ProtocolEncoder
         {
             asn1Buffer.clear();
         }
-        
-        IoBuffer ioBuffer = IoBuffer.wrap( encoded );
     
         if ( CODEC_LOG.isDebugEnabled() )
         {
-            byte[] dumpBuffer = new byte[encoded.limit()];
-            encoded.get( dumpBuffer );
-            encoded.flip();
+            byte[] dumpBuffer = new byte[ioBuffer.limit()];
+            ioBuffer.get( dumpBuffer );
+            ioBuffer.flip();
             CODEC_LOG.debug( I18n.msg( I18n.MSG_14003_ENCODED_LDAP_MESSAGE, message, Strings.dumpBytes( dumpBuffer ) ) );
         }
 
@@ -54,7 +54,7 @@ public final class ResourceMap
      *                OR
      *         -Dschema.resource.location=/tmp/api-ldap-schema-1.0.0-M13.jar
      *  */
-    private static final String SCHEMA_RESOURCE_LOCATION = "schema.resource.location";
+    public static final String SCHEMA_RESOURCE_LOCATION = "schema.resource.location";
 
     /** The logger. */
     private static final Logger LOG = LoggerFactory.getLogger( ResourceMap.class );
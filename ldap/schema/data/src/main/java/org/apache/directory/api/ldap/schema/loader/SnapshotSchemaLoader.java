@@ -0,0 +1,605 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.schema.loader;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.entry.Attribute;
+import org.apache.directory.api.ldap.model.entry.DefaultAttribute;
+import org.apache.directory.api.ldap.model.entry.DefaultEntry;
+import org.apache.directory.api.ldap.model.entry.Entry;
+import org.apache.directory.api.ldap.model.entry.Value;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.api.ldap.model.schema.registries.AbstractSchemaLoader;
+import org.apache.directory.api.ldap.model.schema.registries.DefaultSchema;
+import org.apache.directory.api.ldap.model.schema.registries.Schema;
+import org.apache.directory.api.ldap.model.schema.registries.SchemaLoader;
+import org.apache.directory.api.util.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Loads the schemas from a binary snapshot containing all the schema entries. The snapshot
+ * of the schemas bundled in this jar is generated when the jar is built, and stored in
+ * the {@link #SNAPSHOT_RESOURCE} resource. Loading it is much faster than scanning the
+ * classpath and parsing the LDIF files as the {@link JarLdifSchemaLoader} does, and the
+ * entries of a schema are only decoded when this schema is loaded.
+ * <br>
+ * A snapshot of any SchemaLoader can be created with the
+ * {@link #writeSnapshot(SchemaLoader, OutputStream)} method.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class SnapshotSchemaLoader extends AbstractSchemaLoader
+{
+    /** The resource containing the snapshot of the schemas bundled in this jar */
+    public static final String SNAPSHOT_RESOURCE = "META-INF/apacheds-schema.snapshot";
+
+    /** The snapshot header */
+    private static final int MAGIC = 0x4C534E50;
+
+    /** The snapshot format version */
+    private static final int VERSION = 1;
+
+    /** The SchemaObject types, in the order they are stored in the snapshot */
+    private static final int COMPARATORS = 0;
+    private static final int NORMALIZERS = 1;
+    private static final int SYNTAX_CHECKERS = 2;
+    private static final int SYNTAXES = 3;
+    private static final int MATCHING_RULES = 4;
+    private static final int ATTRIBUTE_TYPES = 5;
+    private static final int OBJECT_CLASSES = 6;
+    private static final int MATCHING_RULE_USES = 7;
+    private static final int NAME_FORMS = 8;
+    private static final int DIT_CONTENT_RULES = 9;
+    private static final int DIT_STRUCTURE_RULES = 10;
+    private static final int NB_SCHEMA_OBJECT_TYPES = 11;
+
+    /** static class logger */
+    private static final Logger LOG = LoggerFactory.getLogger( SnapshotSchemaLoader.class );
+
+    /** The encoded entries of each schema, decoded when the schema is loaded */
+    private final Map<String, byte[]> encodedSchemaObjects = new ConcurrentHashMap<>();
+
+    /** The decoded entries of each schema, per SchemaObject type */
+    private final Map<String, List<List<Entry>>> schemaObjects = new ConcurrentHashMap<>();
+
+
+    /**
+     * Creates a new SchemaLoader reading the snapshot bundled in this jar.
+     *
+     * @throws LdapException If the snapshot is not valid
+     * @throws IOException If the snapshot can't be read
+     */
+    public SnapshotSchemaLoader() throws LdapException, IOException
+    {
+        this( getBundledSnapshot() );
+    }
+
+
+    /**
+     * Creates a new SchemaLoader reading the snapshot at the given URL.
+     *
+     * @param snapshotUrl The snapshot URL
+     * @throws LdapException If the snapshot is not valid
+     * @throws IOException If the snapshot can't be read
+     */
+    public SnapshotSchemaLoader( URL snapshotUrl ) throws LdapException, IOException
+    {
+        if ( snapshotUrl == null )
+        {
+            throw new LdapException( I18n.err( I18n.ERR_16081_INVALID_SCHEMA_SNAPSHOT, SNAPSHOT_RESOURCE ) );
+        }
+
+        if ( LOG.isDebugEnabled() )
+        {
+            LOG.debug( I18n.msg( I18n.MSG_16025_LOADING_SCHEMA_SNAPSHOT, snapshotUrl ) );
+        }
+
+        try ( InputStream in = snapshotUrl.openStream() )
+        {
+            readSnapshot( snapshotUrl.toString(), new DataInputStream( new BufferedInputStream( in ) ) );
+        }
+    }
+
+
+    /**
+     * Creates a new SchemaLoader reading a snapshot from a stream. The stream is not closed.
+     *
+     * @param in The stream containing the snapshot
+     * @throws LdapException If the snapshot is not valid
+     * @throws IOException If the snapshot can't be read
+     */
+    public SnapshotSchemaLoader( InputStream in ) throws LdapException, IOException
+    {
+        readSnapshot( in.toString(), new DataInputStream( new BufferedInputStream( in ) ) );
+    }
+
+
+    /**
+     * Tells if the snapshot of the schemas bundled in this jar is available. It is missing
+     * when the classes are used before the jar is built.
+     *
+     * @return <code>true</code> if the snapshot can be loaded
+     */
+    public static boolean isBundledSnapshotAvailable()
+    {
+        return getBundledSnapshot() != null;
+    }
+
+
+    private static URL getBundledSnapshot()
+    {
+        return SnapshotSchemaLoader.class.getClassLoader().getResource( SNAPSHOT_RESOURCE );
+    }
+
+
+    /**
+     * Reads all the schemas from the snapshot
+     */
+    private void readSnapshot( String snapshotName, DataInputStream in ) throws LdapException, IOException
+    {
+        if ( ( in.readInt() != MAGIC ) || ( in.readInt() != VERSION ) )
+        {
+            throw new LdapException( I18n.err( I18n.ERR_16081_INVALID_SCHEMA_SNAPSHOT, snapshotName ) );
+        }
+
+        int nbSchemas = in.readInt();
+
+        for ( int i = 0; i < nbSchemas; i++ )
+        {
+            String name = readString( in );
+            String owner = in.readBoolean() ? readString( in ) : null;
+            String[] dependencies = new String[in.readInt()];
+
+            for ( int j = 0; j < dependencies.length; j++ )
+            {
+                dependencies[j] = readString( in );
+            }
+
+            boolean disabled = in.readBoolean();
+            Schema schema = new DefaultSchema( this, name, owner, dependencies, disabled );
+            schemaMap.put( name, schema );
+
+            // The entries are decoded only if the schema is loaded
+            encodedSchemaObjects.put( Strings.toLowerCaseAscii( name ), readBytes( in ) );
+        }
+    }
+
+
+    /**
+     * Gets the entries of a schema, decoding them if needed. Different schemas can be
+     * decoded concurrently, each schema being decoded only once.
+     */
+    private List<List<Entry>> getSchemaObjects( String schemaName ) throws LdapException, IOException
+    {
+        String name = Strings.toLowerCaseAscii( schemaName );
+        List<List<Entry>> entries = schemaObjects.get( name );
+
+        if ( entries != null )
+        {
+            return entries;
+        }
+
+        byte[] encodedEntries = encodedSchemaObjects.get( name );
+
+        if ( encodedEntries == null )
+        {
+            // Unknown schema, or decoded by another thread in the meantime
+            return schemaObjects.get( name );
+        }
+
+        // The encoded entries are used as a lock for this schema
+        synchronized ( encodedEntries )
+        {
+            entries = schemaObjects.get( name );
+
+            if ( entries == null )
+            {
+                DataInputStream in = new DataInputStream( new ByteArrayInputStream( encodedEntries ) );
+                entries = new ArrayList<>( NB_SCHEMA_OBJECT_TYPES );
+
+                for ( int type = 0; type < NB_SCHEMA_OBJECT_TYPES; type++ )
+                {
+                    int nbEntries = in.readInt();
+                    List<Entry> typeEntries = new ArrayList<>( nbEntries );
+
+                    for ( int i = 0; i < nbEntries; i++ )
+                    {
+                        typeEntries.add( readEntry( in ) );
+                    }
+
+                    entries.add( typeEntries );
+                }
+
+                schemaObjects.put( name, entries );
+                encodedSchemaObjects.remove( name );
+            }
+        }
+
+        return entries;
+    }
+
+
+    private static Entry readEntry( DataInputStream in ) throws LdapException, IOException
+    {
+        Entry entry = new DefaultEntry( new Dn( readString( in ) ) );
+        int nbAttributes = in.readInt();
+
+        for ( int i = 0; i < nbAttributes; i++ )
+        {
+            Attribute attribute = new DefaultAttribute( readString( in ) );
+            int nbValues = in.readInt();
+
+            for ( int j = 0; j < nbValues; j++ )
+            {
+                if ( in.readBoolean() )
+                {
+                    attribute.add( readString( in ) );
+                }
+                else
+                {
+                    attribute.add( readBytes( in ) );
+                }
+            }
+
+            entry.add( attribute );
+        }
+
+        return entry;
+    }
+
+
+    private static byte[] readBytes( DataInputStream in ) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully( bytes );
+
+        return bytes;
+    }
+
+
+    private static String readString( DataInputStream in ) throws IOException
+    {
+        return Strings.utf8ToString( readBytes( in ) );
+    }
+
+
+    /**
+     * Writes a snapshot of all the schemas available in a SchemaLoader. The schemas and their
+     * entries are sorted, so that the snapshot of a given set of schemas is always the same.
+     *
+     * @param loader The SchemaLoader containing the schemas
+     * @param out The stream the snapshot is written into
+     * @throws LdapException If the schema entries can't be loaded
+     * @throws IOException If the snapshot can't be written
+     */
+    public static void writeSnapshot( SchemaLoader loader, OutputStream out ) throws LdapException, IOException
+    {
+        DataOutputStream data = new DataOutputStream( new BufferedOutputStream( out ) );
+        List<Schema> schemas = new ArrayList<>( loader.getAllSchemas() );
+        schemas.sort( Comparator.comparing( Schema::getSchemaName ) );
+
+        data.writeInt( MAGIC );
+        data.writeInt( VERSION );
+        data.writeInt( schemas.size() );
+
+        for ( Schema schema : schemas )
+        {
+            writeString( data, schema.getSchemaName() );
+            data.writeBoolean( schema.getOwner() != null );
+
+            if ( schema.getOwner() != null )
+            {
+                writeString( data, schema.getOwner() );
+            }
+
+            data.writeInt( schema.getDependencies().length );
+
+            for ( String dependency : schema.getDependencies() )
+            {
+                writeString( data, dependency );
+            }
+
+            data.writeBoolean( schema.isDisabled() );
+
+            ByteArrayOutputStream encodedEntries = new ByteArrayOutputStream();
+            DataOutputStream entriesData = new DataOutputStream( encodedEntries );
+
+            for ( int type = 0; type < NB_SCHEMA_OBJECT_TYPES; type++ )
+            {
+                List<Entry> entries = new ArrayList<>( loadSchemaObjects( loader, type, schema ) );
+                entries.sort( Comparator.comparing( entry -> entry.getDn().getName() ) );
+                entriesData.writeInt( entries.size() );
+
+                for ( Entry entry : entries )
+                {
+                    writeEntry( entriesData, entry );
+                }
+            }
+
+            entriesData.flush();
+            writeBytes( data, encodedEntries.toByteArray() );
+        }
+
+        data.flush();
+    }
+
+
+    private static List<Entry> loadSchemaObjects( SchemaLoader loader, int type, Schema schema )
+        throws LdapException, IOException
+    {
+        switch ( type )
+        {
+            case COMPARATORS:
+                return loader.loadComparators( schema );
+
+            case NORMALIZERS:
+                return loader.loadNormalizers( schema );
+
+            case SYNTAX_CHECKERS:
+                return loader.loadSyntaxCheckers( schema );
+
+            case SYNTAXES:
+                return loader.loadSyntaxes( schema );
+
+            case MATCHING_RULES:
+                return loader.loadMatchingRules( schema );
+
+            case ATTRIBUTE_TYPES:
+                return loader.loadAttributeTypes( schema );
+
+            case OBJECT_CLASSES:
+                return loader.loadObjectClasses( schema );
+
+            case MATCHING_RULE_USES:
+                return loader.loadMatchingRuleUses( schema );
+
+            case NAME_FORMS:
+                return loader.loadNameForms( schema );
+
+            case DIT_CONTENT_RULES:
+                return loader.loadDitContentRules( schema );
+
+            case DIT_STRUCTURE_RULES:
+                return loader.loadDitStructureRules( schema );
+
+            default:
+                throw new IllegalArgumentException( Integer.toString( type ) );
+        }
+    }
+
+
+    private static void writeEntry( DataOutputStream out, Entry entry ) throws IOException
+    {
+        writeString( out, entry.getDn().getName() );
+        out.writeInt( entry.size() );
+
+        for ( Attribute attribute : entry )
+        {
+            writeString( out, attribute.getUpId() );
+            out.writeInt( attribute.size() );
+
+            for ( Value value : attribute )
+            {
+                out.writeBoolean( value.isHumanReadable() );
+
+                if ( value.isHumanReadable() )
+                {
+                    writeString( out, value.getString() );
+                }
+                else
+                {
+                    writeBytes( out, value.getBytes() );
+                }
+            }
+        }
+    }
+
+
+    private static void writeBytes( DataOutputStream out, byte[] bytes ) throws IOException
+    {
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+
+    private static void writeString( DataOutputStream out, String string ) throws IOException
+    {
+        writeBytes( out, Strings.getBytesUtf8( string ) );
+    }
+
+
+    /**
+     * Writes the snapshot of the schemas found on the classpath. This is used when this jar is
+     * built, to generate the bundled snapshot.
+     *
+     * @param args The snapshot file
+     * @throws Exception If the snapshot can't be written
+     */
+    public static void main( String[] args ) throws Exception
+    {
+        Path snapshot = Paths.get( args[0] );
+
+        if ( snapshot.getParent() != null )
+        {
+            Files.createDirectories( snapshot.getParent() );
+        }
+
+        try ( OutputStream out = Files.newOutputStream( snapshot ) )
+        {
+            writeSnapshot( new JarLdifSchemaLoader(), out );
+        }
+    }
+
+
+    private List<Entry> loadSchemaObjects( int type, Schema... schemas ) throws LdapException, IOException
+    {
+        List<Entry> entries = new ArrayList<>();
+
+        if ( schemas == null )
+        {
+            return entries;
+        }
+
+        for ( Schema schema : schemas )
+        {
+            List<List<Entry>> schemaEntries = getSchemaObjects( schema.getSchemaName() );
+
+            if ( schemaEntries != null )
+            {
+                entries.addAll( schemaEntries.get( type ) );
+            }
+        }
+
+        return entries;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Entry> loadAttributeTypes( Schema... schemas ) throws LdapException, IOException
+    {
+        return loadSchemaObjects( ATTRIBUTE_TYPES, schemas );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Entry> loadComparators( Schema... schemas ) throws LdapException, IOException
+    {
+        return loadSchemaObjects( COMPARATORS, schemas );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Entry> loadDitContentRules( Schema... schemas ) throws LdapException, IOException
+    {
+        return loadSchemaObjects( DIT_CONTENT_RULES, schemas );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Entry> loadDitStructureRules( Schema... schemas ) throws LdapException, IOException
+    {
+        return loadSchemaObjects( DIT_STRUCTURE_RULES, schemas );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Entry> loadMatchingRules( Schema... schemas ) throws LdapException, IOException
+    {
+        return loadSchemaObjects( MATCHING_RULES, schemas );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Entry> loadMatchingRuleUses( Schema... schemas ) throws LdapException, IOException
+    {
+        return loadSchemaObjects( MATCHING_RULE_USES, schemas );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Entry> loadNameForms( Schema... schemas ) throws LdapException, IOException
+    {
+        return loadSchemaObjects( NAME_FORMS, schemas );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Entry> loadNormalizers( Schema... schemas ) throws LdapException, IOException
+    {
+        return loadSchemaObjects( NORMALIZERS, schemas );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Entry> loadObjectClasses( Schema... schemas ) throws LdapException, IOException
+    {
+        return loadSchemaObjects( OBJECT_CLASSES, schemas );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Entry> loadSyntaxes( Schema... schemas ) throws LdapException, IOException
+    {
+        return loadSchemaObjects( SYNTAXES, schemas );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Entry> loadSyntaxCheckers( Schema... schemas ) throws LdapException, IOException
+    {
+        return loadSchemaObjects( SYNTAX_CHECKERS, schemas );
+    }
+}
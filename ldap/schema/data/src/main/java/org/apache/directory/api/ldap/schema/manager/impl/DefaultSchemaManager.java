@@ -23,11 +23,15 @@ package org.apache.directory.api.ldap.schema.manager.impl;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.apache.directory.api.i18n.I18n;
 import org.apache.directory.api.ldap.model.constants.MetaSchemaConstants;
@@ -51,8 +55,8 @@ import org.apache.directory.api.ldap.model.schema.ObjectClass;
 import org.apache.directory.api.ldap.model.schema.SchemaErrorHandler;
 import org.apache.directory.api.ldap.model.schema.SchemaManager;
 import org.apache.directory.api.ldap.model.schema.SchemaObject;
+import org.apache.directory.api.ldap.model.schema.SchemaObjectType;
 import org.apache.directory.api.ldap.model.schema.SchemaObjectWrapper;
-import org.apache.directory.api.ldap.model.schema.SchemaUtils;
 import org.apache.directory.api.ldap.model.schema.SyntaxChecker;
 import org.apache.directory.api.ldap.model.schema.normalizers.OidNormalizer;
 import org.apache.directory.api.ldap.model.schema.registries.AttributeTypeRegistry;
@@ -82,9 +86,11 @@ import org.apache.directory.api.ldap.model.schema.registries.Registries;
 import org.apache.directory.api.ldap.model.schema.registries.Schema;
 import org.apache.directory.api.ldap.model.schema.registries.SchemaLoader;
 import org.apache.directory.api.ldap.model.schema.registries.SyntaxCheckerRegistry;
+import org.apache.directory.api.ldap.schema.extractor.impl.ResourceMap;
 import org.apache.directory.api.ldap.schema.loader.EntityFactory;
 import org.apache.directory.api.ldap.schema.loader.JarLdifSchemaLoader;
 import org.apache.directory.api.ldap.schema.loader.SchemaEntityFactory;
+import org.apache.directory.api.ldap.schema.loader.SnapshotSchemaLoader;
 import org.apache.directory.api.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -128,6 +134,39 @@ public class DefaultSchemaManager implements SchemaManager
      */
     private SchemaErrorHandler errorHandler;
 
+    /** The pool used to read the schema entries concurrently. They are read sequentially if null */
+    private ForkJoinPool loadingPool;
+
+    /** The entries read concurrently for the schemas being loaded, per schema name and SchemaObject type */
+    private Map<String, Map<SchemaObjectType, List<Entry>>> prefetchedEntries;
+
+    /** The SchemaObject types read from the schemas, in the order they are registered */
+    private static final SchemaObjectType[] LOADED_TYPES =
+        {
+            SchemaObjectType.COMPARATOR,
+            SchemaObjectType.NORMALIZER,
+            SchemaObjectType.SYNTAX_CHECKER,
+            SchemaObjectType.LDAP_SYNTAX,
+            SchemaObjectType.MATCHING_RULE,
+            SchemaObjectType.ATTRIBUTE_TYPE,
+            SchemaObjectType.OBJECT_CLASS
+        };
+
+    /** The last published snapshot, or null if no snapshot has been requested yet */
+    private volatile SchemaManagerSnapshot snapshot;
+
+    /** The version of the last created snapshot */
+    private long snapshotVersion;
+
+    /**
+     * A modification of the registries, after which a new snapshot is published
+     */
+    @FunctionalInterface
+    private interface SchemaOperation
+    {
+        boolean run() throws LdapException;
+    }
+
     /**
      * Creates a new instance of DefaultSchemaManager with LDIF based SchemaLoader,
      * Strict schema validation
@@ -135,7 +174,57 @@ public class DefaultSchemaManager implements SchemaManager
     public DefaultSchemaManager()
     {
         this( STRICT, jarLdifSchemaLoader().getAllSchemas() );
-        
+
+        loadDefaultSchemas();
+    }
+
+
+    /**
+     * Creates a new instance of DefaultSchemaManager with the schemas bundled in the schema
+     * data jar, read from the binary snapshot generated when the jar has been built, Strict
+     * schema validation. All the enabled schemas are loaded.
+     * <br>
+     * The snapshot only contains the bundled schemas : use {@link #DefaultSchemaManager()}
+     * when schema LDIF files are added to the classpath. The LDIF files are also scanned when
+     * the snapshot is not available, or when the <em>schema.resource.location</em> system
+     * property is set.
+     *
+     * @return A new DefaultSchemaManager instance
+     */
+    public static DefaultSchemaManager fromBundledSnapshot()
+    {
+        SchemaLoader schemaLoader;
+
+        try
+        {
+            if ( SnapshotSchemaLoader.isBundledSnapshotAvailable()
+                && Strings.isEmpty( System.getProperty( ResourceMap.SCHEMA_RESOURCE_LOCATION ) ) )
+            {
+                schemaLoader = new SnapshotSchemaLoader();
+            }
+            else
+            {
+                schemaLoader = new JarLdifSchemaLoader();
+            }
+        }
+        catch ( LdapException | IOException e )
+        {
+            LOG.error( I18n.err( I18n.ERR_16080_SCHEMA_LOADER_CANT_BE_CREATED, e.getMessage() ) );
+            throw new RuntimeException( e.getMessage() );
+        }
+
+        DefaultSchemaManager schemaManager = new DefaultSchemaManager( STRICT, schemaLoader.getAllSchemas() );
+        schemaManager.loadDefaultSchemas();
+
+        return schemaManager;
+    }
+
+
+    /*
+      Load all the enabled schemas, needed to handle checked exceptions
+     */
+    private void loadDefaultSchemas()
+    {
         try
         {
             loadAllEnabled();
@@ -147,6 +236,7 @@ public class DefaultSchemaManager implements SchemaManager
         }
     }
 
+
     /*
       Static helper factory Create LDIF based SchemaLoader
       needed to handle checked exceptions
@@ -165,7 +255,6 @@ public class DefaultSchemaManager implements SchemaManager
     }
 
 
-    
     /**
      * Creates a new instance of DefaultSchemaManager with the default schema schemaLoader
      * Strict schema validation
@@ -280,6 +369,264 @@ public class DefaultSchemaManager implements SchemaManager
     }
 
 
+    /**
+     * Runs a schema loading operation. When a loading pool has been set, the entries of the
+     * given schemas and of the dependencies which are not yet loaded are first read concurrently,
+     * one task per schema and SchemaObject type. The SchemaObjects are then created and registered
+     * sequentially by the operation, in the dependencies order, and a new snapshot is published.
+     *
+     * @param schemas The schemas to load
+     * @param operation The operation registering the schemas
+     * @return The operation result
+     * @throws LdapException If the entries cannot be read, or if the operation failed
+     */
+    private synchronized boolean loadWithPrefetch( Schema[] schemas, SchemaOperation operation ) throws LdapException
+    {
+        if ( ( loadingPool == null ) || ( prefetchedEntries != null ) )
+        {
+            return applyAndPublish( operation );
+        }
+
+        prefetchedEntries = prefetchEntries( schemas );
+
+        try
+        {
+            return applyAndPublish( operation );
+        }
+        finally
+        {
+            prefetchedEntries = null;
+        }
+    }
+
+
+    /**
+     * Applies a modification of the registries. The modifications are serialized, and a new
+     * snapshot is published once the modification is done, if snapshots are used.
+     *
+     * @param operation The modification to apply
+     * @return The operation result
+     * @throws LdapException If the operation failed
+     */
+    private synchronized boolean applyAndPublish( SchemaOperation operation ) throws LdapException
+    {
+        boolean applied = operation.run();
+        publishSnapshot();
+
+        return applied;
+    }
+
+
+    /**
+     * Replaces the published snapshot by a snapshot of the current registries, if a snapshot
+     * has already been requested. The readers holding the previous snapshot keep on using it.
+     */
+    private synchronized void publishSnapshot()
+    {
+        if ( snapshot == null )
+        {
+            return;
+        }
+
+        try
+        {
+            snapshot = createSnapshot();
+        }
+        catch ( LdapException le )
+        {
+            // The snapshot will be created again, and the error reported, on the next request
+            snapshot = null;
+        }
+    }
+
+
+    /**
+     * Creates a snapshot of the current registries. The errors found while the registries
+     * are copied are reported to the snapshot's error handler.
+     */
+    private SchemaManagerSnapshot createSnapshot() throws LdapException
+    {
+        SchemaErrorHandler snapshotErrorHandler = new LoggingSchemaErrorHandler();
+        Registries snapshotRegistries;
+
+        registries.setErrorHandler( snapshotErrorHandler );
+
+        try
+        {
+            snapshotRegistries = registries.clone();
+        }
+        catch ( CloneNotSupportedException cnse )
+        {
+            throw new LdapOtherException( cnse.getMessage(), cnse );
+        }
+        finally
+        {
+            registries.setErrorHandler( errorHandler );
+        }
+
+        snapshotVersion++;
+
+        return new SchemaManagerSnapshot( isRelaxed, schemaMap.values(), snapshotRegistries, snapshotErrorHandler,
+            snapshotVersion );
+    }
+
+
+    /**
+     * Reads concurrently the entries of the given schemas and of their dependencies
+     */
+    private Map<String, Map<SchemaObjectType, List<Entry>>> prefetchEntries( Schema[] schemas ) throws LdapException
+    {
+        Map<String, Schema> toRead = new HashMap<>();
+
+        for ( Schema schema : schemas )
+        {
+            collectSchemas( schema, toRead );
+        }
+
+        Map<String, Map<SchemaObjectType, Future<List<Entry>>>> tasks = new HashMap<>();
+
+        for ( Map.Entry<String, Schema> schema : toRead.entrySet() )
+        {
+            Map<SchemaObjectType, Future<List<Entry>>> schemaTasks = new EnumMap<>( SchemaObjectType.class );
+
+            for ( SchemaObjectType type : LOADED_TYPES )
+            {
+                schemaTasks.put( type, loadingPool.submit( () -> readEntries( schema.getValue(), type ) ) );
+            }
+
+            tasks.put( schema.getKey(), schemaTasks );
+        }
+
+        Map<String, Map<SchemaObjectType, List<Entry>>> entries = new HashMap<>();
+
+        try
+        {
+            for ( Map.Entry<String, Map<SchemaObjectType, Future<List<Entry>>>> schemaTasks : tasks.entrySet() )
+            {
+                Map<SchemaObjectType, List<Entry>> schemaEntries = new EnumMap<>( SchemaObjectType.class );
+
+                for ( Map.Entry<SchemaObjectType, Future<List<Entry>>> task : schemaTasks.getValue().entrySet() )
+                {
+                    schemaEntries.put( task.getKey(), task.getValue().get() );
+                }
+
+                entries.put( schemaTasks.getKey(), schemaEntries );
+            }
+        }
+        catch ( InterruptedException ie )
+        {
+            Thread.currentThread().interrupt();
+
+            throw new LdapOtherException( ie.getMessage(), ie );
+        }
+        catch ( ExecutionException ee )
+        {
+            Throwable cause = ee.getCause();
+
+            if ( cause instanceof LdapException )
+            {
+                throw ( LdapException ) cause;
+            }
+
+            throw new LdapOtherException( cause.getMessage(), cause );
+        }
+
+        return entries;
+    }
+
+
+    /**
+     * Gathers a schema and its dependencies, if they are not yet loaded
+     */
+    private void collectSchemas( Schema schema, Map<String, Schema> schemas )
+    {
+        if ( ( schema == null ) || ( schema.getSchemaLoader() == null ) )
+        {
+            return;
+        }
+
+        String schemaName = Strings.toLowerCaseAscii( schema.getSchemaName() );
+
+        if ( schemas.containsKey( schemaName ) || registries.isSchemaLoaded( schemaName ) )
+        {
+            return;
+        }
+
+        schemas.put( schemaName, schema );
+
+        if ( schema.getDependencies() != null )
+        {
+            for ( String dependency : schema.getDependencies() )
+            {
+                collectSchemas( schemaMap.get( dependency ), schemas );
+            }
+        }
+    }
+
+
+    /**
+     * Gets the entries of a given type from a schema, either read beforehand by the loading
+     * pool, or read from the schema loader
+     *
+     * @param schema The schema containing the entries
+     * @param type The SchemaObject type
+     * @return The entries
+     * @throws LdapException If the entries cannot be read
+     * @throws IOException If the entries cannot be loaded
+     */
+    private List<Entry> loadEntries( Schema schema, SchemaObjectType type ) throws LdapException, IOException
+    {
+        if ( prefetchedEntries != null )
+        {
+            Map<SchemaObjectType, List<Entry>> schemaEntries =
+                prefetchedEntries.get( Strings.toLowerCaseAscii( schema.getSchemaName() ) );
+
+            if ( schemaEntries != null )
+            {
+                return schemaEntries.get( type );
+            }
+        }
+
+        return readEntries( schema, type );
+    }
+
+
+    /**
+     * Reads the entries of a given type from the schema loader
+     */
+    private static List<Entry> readEntries( Schema schema, SchemaObjectType type ) throws LdapException, IOException
+    {
+        SchemaLoader schemaLoader = schema.getSchemaLoader();
+
+        switch ( type )
+        {
+            case COMPARATOR:
+                return schemaLoader.loadComparators( schema );
+
+            case NORMALIZER:
+                return schemaLoader.loadNormalizers( schema );
+
+            case SYNTAX_CHECKER:
+                return schemaLoader.loadSyntaxCheckers( schema );
+
+            case LDAP_SYNTAX:
+                return schemaLoader.loadSyntaxes( schema );
+
+            case MATCHING_RULE:
+                return schemaLoader.loadMatchingRules( schema );
+
+            case ATTRIBUTE_TYPE:
+                return schemaLoader.loadAttributeTypes( schema );
+
+            case OBJECT_CLASS:
+                return schemaLoader.loadObjectClasses( schema );
+
+            default:
+                throw new IllegalArgumentException( I18n.err( I18n.ERR_13718_UNEXPECTED_SCHEMA_OBJECT_TYPE, type ) );
+        }
+    }
+
+
     protected void addSchemaObjects( Schema schema, Registries registries ) throws LdapException
     {
         // Create a content container for this schema
@@ -346,6 +693,19 @@ public class DefaultSchemaManager implements SchemaManager
      */
     @Override
     public boolean disable( Schema... schemas ) throws LdapException
+    {
+        return applyAndPublish( () -> disableSchemas( schemas ) );
+    }
+
+
+    /**
+     * Disables the schemas, if the registries are not broken once they have been unloaded.
+     *
+     * @param schemas The schemas to disable
+     * @return <tt>true</tt> if the schemas have been disabled
+     * @throws LdapException If the schemas cannot be disabled
+     */
+    private boolean disableSchemas( Schema... schemas ) throws LdapException
     {
         boolean disabled = false;
 
@@ -461,6 +821,19 @@ public class DefaultSchemaManager implements SchemaManager
      */
     @Override
     public boolean enable( Schema... schemas ) throws LdapException
+    {
+        return loadWithPrefetch( schemas, () -> enableSchemas( schemas ) );
+    }
+
+
+    /**
+     * Enables the schemas, once their entries have been read.
+     *
+     * @param schemas The schemas to enable
+     * @return <tt>true</tt> if the schemas have been enabled
+     * @throws LdapException If the schemas cannot be enabled
+     */
+    private boolean enableSchemas( Schema... schemas ) throws LdapException
     {
         boolean enabled = false;
 
@@ -643,6 +1016,19 @@ public class DefaultSchemaManager implements SchemaManager
      */
     @Override
     public boolean load( Schema... schemas ) throws LdapException
+    {
+        return loadWithPrefetch( schemas, () -> loadSchemas( schemas ) );
+    }
+
+
+    /**
+     * Loads the schemas, once their entries have been read.
+     *
+     * @param schemas The schemas to load
+     * @return <tt>true</tt> if the schemas have been loaded
+     * @throws LdapException If the schemas cannot be loaded
+     */
+    private boolean loadSchemas( Schema... schemas ) throws LdapException
     {
         if ( schemas.length == 0 )
         {
@@ -898,7 +1284,7 @@ public class DefaultSchemaManager implements SchemaManager
             return;
         }
 
-        for ( Entry entry : schema.getSchemaLoader().loadAttributeTypes( schema ) )
+        for ( Entry entry : loadEntries( schema, SchemaObjectType.ATTRIBUTE_TYPE ) )
         {
             AttributeType attributeType = factory.getAttributeType( this, entry, registries, schema.getSchemaName() );
 
@@ -922,7 +1308,7 @@ public class DefaultSchemaManager implements SchemaManager
             return;
         }
         
-        for ( Entry entry : schema.getSchemaLoader().loadComparators( schema ) )
+        for ( Entry entry : loadEntries( schema, SchemaObjectType.COMPARATOR ) )
         {
             LdapComparator<?> comparator = factory.getLdapComparator( this, entry, registries, schema.getSchemaName() );
 
@@ -972,7 +1358,7 @@ public class DefaultSchemaManager implements SchemaManager
             return;
         }
 
-        for ( Entry entry : schema.getSchemaLoader().loadMatchingRules( schema ) )
+        for ( Entry entry : loadEntries( schema, SchemaObjectType.MATCHING_RULE ) )
         {
             MatchingRule matchingRule = factory.getMatchingRule( this, entry, registries, schema.getSchemaName() );
 
@@ -1026,7 +1412,7 @@ public class DefaultSchemaManager implements SchemaManager
             return;
         }
 
-        for ( Entry entry : schema.getSchemaLoader().loadNormalizers( schema ) )
+        for ( Entry entry : loadEntries( schema, SchemaObjectType.NORMALIZER ) )
         {
             Normalizer normalizer = factory.getNormalizer( this, entry, registries, schema.getSchemaName() );
 
@@ -1050,7 +1436,7 @@ public class DefaultSchemaManager implements SchemaManager
             return;
         }
 
-        for ( Entry entry : schema.getSchemaLoader().loadObjectClasses( schema ) )
+        for ( Entry entry : loadEntries( schema, SchemaObjectType.OBJECT_CLASS ) )
         {
             ObjectClass objectClass = factory.getObjectClass( this, entry, registries, schema.getSchemaName() );
 
@@ -1074,7 +1460,7 @@ public class DefaultSchemaManager implements SchemaManager
             return;
         }
 
-        for ( Entry entry : schema.getSchemaLoader().loadSyntaxes( schema ) )
+        for ( Entry entry : loadEntries( schema, SchemaObjectType.LDAP_SYNTAX ) )
         {
             LdapSyntax syntax = factory.getSyntax( this, entry, registries, schema.getSchemaName() );
 
@@ -1098,7 +1484,7 @@ public class DefaultSchemaManager implements SchemaManager
             return;
         }
 
-        for ( Entry entry : schema.getSchemaLoader().loadSyntaxCheckers( schema ) )
+        for ( Entry entry : loadEntries( schema, SchemaObjectType.SYNTAX_CHECKER ) )
         {
             SyntaxChecker syntaxChecker = factory.getSyntaxChecker( this, entry, registries, schema.getSchemaName() );
 
@@ -1198,6 +1584,19 @@ public class DefaultSchemaManager implements SchemaManager
      */
     @Override
     public boolean loadDisabled( Schema... schemas ) throws LdapException
+    {
+        return loadWithPrefetch( schemas, () -> loadDisabledSchemas( schemas ) );
+    }
+
+
+    /**
+     * Loads the disabled schemas, once their entries have been read.
+     *
+     * @param schemas The schemas to load
+     * @return <tt>true</tt> if the schemas have been loaded
+     * @throws LdapException If the schemas cannot be loaded
+     */
+    private boolean loadDisabledSchemas( Schema... schemas ) throws LdapException
     {
         // Work on a cloned and relaxed registries
         Registries clonedRegistries = cloneRegistries();
@@ -1276,6 +1675,19 @@ public class DefaultSchemaManager implements SchemaManager
      */
     @Override
     public boolean loadWithDeps( Schema... schemas ) throws LdapException
+    {
+        return loadWithPrefetch( schemas, () -> loadSchemasWithDeps( schemas ) );
+    }
+
+
+    /**
+     * Loads the schemas and their dependencies, once their entries have been read.
+     *
+     * @param schemas The schemas to load
+     * @return <tt>true</tt> if the schemas have been loaded
+     * @throws LdapException If the schemas cannot be loaded
+     */
+    private boolean loadSchemasWithDeps( Schema... schemas ) throws LdapException
     {
         boolean loaded = false;
 
@@ -1414,6 +1826,19 @@ public class DefaultSchemaManager implements SchemaManager
      */
     @Override
     public boolean loadWithDepsRelaxed( Schema... schemas ) throws LdapException
+    {
+        return loadWithPrefetch( schemas, () -> loadSchemasWithDepsRelaxed( schemas ) );
+    }
+
+
+    /**
+     * Loads the schemas and their dependencies in relaxed mode, once their entries have been read.
+     *
+     * @param schemas The schemas to load
+     * @return <tt>true</tt> if the schemas have been loaded
+     * @throws LdapException If the schemas cannot be loaded
+     */
+    private boolean loadSchemasWithDepsRelaxed( Schema... schemas ) throws LdapException
     {
         registries.setRelaxed();
 
@@ -1520,9 +1945,12 @@ public class DefaultSchemaManager implements SchemaManager
      * {@inheritDoc}
      */
     @Override
-    public void setRegistries( Registries registries )
+    public synchronized void setRegistries( Registries registries )
     {
         this.registries = registries;
+
+        // The next snapshot will be created on demand
+        snapshot = null;
     }
 
 
@@ -1531,6 +1959,19 @@ public class DefaultSchemaManager implements SchemaManager
      */
     @Override
     public boolean unload( Schema... schemas ) throws LdapException
+    {
+        return applyAndPublish( () -> unloadSchemas( schemas ) );
+    }
+
+
+    /**
+     * Unloads the schemas, if the registries are not broken once they have been removed.
+     *
+     * @param schemas The schemas to unload
+     * @return <tt>true</tt> if the schemas have been unloaded
+     * @throws LdapException If the schemas cannot be unloaded
+     */
+    private boolean unloadSchemas( Schema... schemas ) throws LdapException
     {
         boolean unloaded = false;
 
@@ -1826,9 +2267,17 @@ public class DefaultSchemaManager implements SchemaManager
     @Override
     public AttributeType lookupAttributeTypeRegistry( String oid ) throws LdapException
     {
-        String oidTrimmed = Strings.toLowerCaseAscii( oid ).trim();
-        String oidNoOption = stripOptions( oidTrimmed );
-        return registries.getAttributeTypeRegistry().lookup( oidNoOption );
+        String oidNoOption = oid == null ? "" : stripOptions( oid );
+        AttributeTypeRegistry attributeTypeRegistry = registries.getAttributeTypeRegistry();
+        AttributeType attributeType = attributeTypeRegistry.find( oidNoOption );
+
+        if ( attributeType != null )
+        {
+            return attributeType;
+        }
+
+        // Throws the expected exception
+        return attributeTypeRegistry.lookup( oidNoOption );
     }
 
 
@@ -1838,16 +2287,13 @@ public class DefaultSchemaManager implements SchemaManager
     @Override
     public AttributeType getAttributeType( String oid )
     {
-        try
-        {
-            // Get rid of the options
-            String attributeTypeNoOptions = SchemaUtils.stripOptions( oid );
-            return registries.getAttributeTypeRegistry().lookup( Strings.toLowerCaseAscii( attributeTypeNoOptions ).trim() );
-        }
-        catch ( LdapException lnsae )
+        if ( oid == null )
         {
             return null;
         }
+
+        // Get rid of the options. The lookup ignores the case and the surrounding spaces
+        return registries.getAttributeTypeRegistry().find( stripOptions( oid ) );
     }
 
 
@@ -2025,6 +2471,19 @@ public class DefaultSchemaManager implements SchemaManager
      */
     @Override
     public boolean add( SchemaObject schemaObject ) throws LdapException
+    {
+        return applyAndPublish( () -> addToRegistries( schemaObject ) );
+    }
+
+
+    /**
+     * Adds a copy of a SchemaObject into the registries, if it does not break them.
+     *
+     * @param schemaObject The SchemaObject to add
+     * @return <tt>true</tt> if the SchemaObject has been added
+     * @throws LdapException If the SchemaObject cannot be added
+     */
+    private boolean addToRegistries( SchemaObject schemaObject ) throws LdapException
     {
         // First, clear the errors
         errorHandler.reset();
@@ -2156,6 +2615,19 @@ public class DefaultSchemaManager implements SchemaManager
      */
     @Override
     public boolean delete( SchemaObject schemaObject ) throws LdapException
+    {
+        return applyAndPublish( () -> deleteFromRegistries( schemaObject ) );
+    }
+
+
+    /**
+     * Removes a SchemaObject from the registries, if it is not referenced.
+     *
+     * @param schemaObject The SchemaObject to remove
+     * @return <tt>true</tt> if the SchemaObject has been removed
+     * @throws LdapException If the SchemaObject cannot be removed
+     */
+    private boolean deleteFromRegistries( SchemaObject schemaObject ) throws LdapException
     {
         // First, clear the errors
         errorHandler.reset();
@@ -2323,9 +2795,12 @@ public class DefaultSchemaManager implements SchemaManager
      * {@inheritDoc}
      */
     @Override
-    public SchemaObject unregisterAttributeType( String attributeTypeOid ) throws LdapException
+    public synchronized SchemaObject unregisterAttributeType( String attributeTypeOid ) throws LdapException
     {
-        return registries.getAttributeTypeRegistry().unregister( attributeTypeOid );
+        SchemaObject removed = registries.getAttributeTypeRegistry().unregister( attributeTypeOid );
+        publishSnapshot();
+
+        return removed;
     }
 
 
@@ -2333,9 +2808,12 @@ public class DefaultSchemaManager implements SchemaManager
      * {@inheritDoc}
      */
     @Override
-    public SchemaObject unregisterComparator( String comparatorOid ) throws LdapException
+    public synchronized SchemaObject unregisterComparator( String comparatorOid ) throws LdapException
     {
-        return registries.getComparatorRegistry().unregister( comparatorOid );
+        SchemaObject removed = registries.getComparatorRegistry().unregister( comparatorOid );
+        publishSnapshot();
+
+        return removed;
     }
 
 
@@ -2343,9 +2821,12 @@ public class DefaultSchemaManager implements SchemaManager
      * {@inheritDoc}
      */
     @Override
-    public SchemaObject unregisterDitControlRule( String ditControlRuleOid ) throws LdapException
+    public synchronized SchemaObject unregisterDitControlRule( String ditControlRuleOid ) throws LdapException
     {
-        return registries.getDitContentRuleRegistry().unregister( ditControlRuleOid );
+        SchemaObject removed = registries.getDitContentRuleRegistry().unregister( ditControlRuleOid );
+        publishSnapshot();
+
+        return removed;
     }
 
 
@@ -2353,9 +2834,12 @@ public class DefaultSchemaManager implements SchemaManager
      * {@inheritDoc}
      */
     @Override
-    public SchemaObject unregisterDitStructureRule( String ditStructureRuleOid ) throws LdapException
+    public synchronized SchemaObject unregisterDitStructureRule( String ditStructureRuleOid ) throws LdapException
     {
-        return registries.getDitStructureRuleRegistry().unregister( ditStructureRuleOid );
+        SchemaObject removed = registries.getDitStructureRuleRegistry().unregister( ditStructureRuleOid );
+        publishSnapshot();
+
+        return removed;
     }
 
 
@@ -2363,9 +2847,12 @@ public class DefaultSchemaManager implements SchemaManager
      * {@inheritDoc}
      */
     @Override
-    public SchemaObject unregisterLdapSyntax( String ldapSyntaxOid ) throws LdapException
+    public synchronized SchemaObject unregisterLdapSyntax( String ldapSyntaxOid ) throws LdapException
     {
-        return registries.getLdapSyntaxRegistry().unregister( ldapSyntaxOid );
+        SchemaObject removed = registries.getLdapSyntaxRegistry().unregister( ldapSyntaxOid );
+        publishSnapshot();
+
+        return removed;
     }
 
 
@@ -2373,9 +2860,12 @@ public class DefaultSchemaManager implements SchemaManager
      * {@inheritDoc}
      */
     @Override
-    public SchemaObject unregisterMatchingRule( String matchingRuleOid ) throws LdapException
+    public synchronized SchemaObject unregisterMatchingRule( String matchingRuleOid ) throws LdapException
     {
-        return registries.getMatchingRuleRegistry().unregister( matchingRuleOid );
+        SchemaObject removed = registries.getMatchingRuleRegistry().unregister( matchingRuleOid );
+        publishSnapshot();
+
+        return removed;
     }
 
 
@@ -2383,9 +2873,12 @@ public class DefaultSchemaManager implements SchemaManager
      * {@inheritDoc}
      */
     @Override
-    public SchemaObject unregisterMatchingRuleUse( String matchingRuleUseOid ) throws LdapException
+    public synchronized SchemaObject unregisterMatchingRuleUse( String matchingRuleUseOid ) throws LdapException
     {
-        return registries.getMatchingRuleUseRegistry().unregister( matchingRuleUseOid );
+        SchemaObject removed = registries.getMatchingRuleUseRegistry().unregister( matchingRuleUseOid );
+        publishSnapshot();
+
+        return removed;
     }
 
 
@@ -2393,9 +2886,12 @@ public class DefaultSchemaManager implements SchemaManager
      * {@inheritDoc}
      */
     @Override
-    public SchemaObject unregisterNameForm( String nameFormOid ) throws LdapException
+    public synchronized SchemaObject unregisterNameForm( String nameFormOid ) throws LdapException
     {
-        return registries.getNameFormRegistry().unregister( nameFormOid );
+        SchemaObject removed = registries.getNameFormRegistry().unregister( nameFormOid );
+        publishSnapshot();
+
+        return removed;
     }
 
 
@@ -2403,9 +2899,12 @@ public class DefaultSchemaManager implements SchemaManager
      * {@inheritDoc}
      */
     @Override
-    public SchemaObject unregisterNormalizer( String normalizerOid ) throws LdapException
+    public synchronized SchemaObject unregisterNormalizer( String normalizerOid ) throws LdapException
     {
-        return registries.getNormalizerRegistry().unregister( normalizerOid );
+        SchemaObject removed = registries.getNormalizerRegistry().unregister( normalizerOid );
+        publishSnapshot();
+
+        return removed;
     }
 
 
@@ -2413,9 +2912,12 @@ public class DefaultSchemaManager implements SchemaManager
      * {@inheritDoc}
      */
     @Override
-    public SchemaObject unregisterObjectClass( String objectClassOid ) throws LdapException
+    public synchronized SchemaObject unregisterObjectClass( String objectClassOid ) throws LdapException
     {
-        return registries.getObjectClassRegistry().unregister( objectClassOid );
+        SchemaObject removed = registries.getObjectClassRegistry().unregister( objectClassOid );
+        publishSnapshot();
+
+        return removed;
     }
 
 
@@ -2423,9 +2925,12 @@ public class DefaultSchemaManager implements SchemaManager
      * {@inheritDoc}
      */
     @Override
-    public SchemaObject unregisterSyntaxChecker( String syntaxCheckerOid ) throws LdapException
+    public synchronized SchemaObject unregisterSyntaxChecker( String syntaxCheckerOid ) throws LdapException
     {
-        return registries.getSyntaxCheckerRegistry().unregister( syntaxCheckerOid );
+        SchemaObject removed = registries.getSyntaxCheckerRegistry().unregister( syntaxCheckerOid );
+        publishSnapshot();
+
+        return removed;
     }
 
 
@@ -2499,6 +3004,66 @@ public class DefaultSchemaManager implements SchemaManager
     }
 
 
+    /**
+     * Gets an immutable snapshot of this SchemaManager. A snapshot can be used by any number
+     * of threads without synchronization, while this SchemaManager is modified : the
+     * modifications are applied on the current registries, then a new snapshot is atomically
+     * published. The readers holding the previous snapshot are not affected, and get the
+     * modified schema when they request the snapshot again.
+     * <br>
+     * The first call copies the registries. The following modifications then publish a new
+     * snapshot each.
+     *
+     * @return The last published snapshot
+     * @throws LdapException If the registries cannot be copied
+     */
+    public SchemaManagerSnapshot getSnapshot() throws LdapException
+    {
+        SchemaManagerSnapshot current = snapshot;
+
+        if ( current != null )
+        {
+            return current;
+        }
+
+        synchronized ( this )
+        {
+            if ( snapshot == null )
+            {
+                snapshot = createSnapshot();
+            }
+
+            return snapshot;
+        }
+    }
+
+
+    /**
+     * @return The pool used to read the schema entries concurrently, or null if they are read sequentially
+     */
+    public ForkJoinPool getLoadingPool()
+    {
+        return loadingPool;
+    }
+
+
+    /**
+     * Sets the pool used to read the schema entries concurrently when some schemas are loaded,
+     * for instance the {@link ForkJoinPool#commonPool()}. The entries of each schema and
+     * SchemaObject type are then read and parsed in parallel, before being registered
+     * sequentially in the dependencies order. The SchemaLoader must be thread safe, which is
+     * the case of the loaders provided in this module.
+     * <br>
+     * The entries are read sequentially when the pool is null, which is the default.
+     *
+     * @param loadingPool The pool to use, or null
+     */
+    public void setLoadingPool( ForkJoinPool loadingPool )
+    {
+        this.loadingPool = loadingPool;
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,372 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.schema.manager.impl;
+
+
+import java.util.Collection;
+
+import org.apache.directory.api.i18n.I18n;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.exception.LdapUnwillingToPerformException;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.schema.SchemaErrorHandler;
+import org.apache.directory.api.ldap.model.schema.SchemaObject;
+import org.apache.directory.api.ldap.model.schema.registries.ImmutableRegistries;
+import org.apache.directory.api.ldap.model.schema.registries.OidRegistry;
+import org.apache.directory.api.ldap.model.schema.registries.Registries;
+import org.apache.directory.api.ldap.model.schema.registries.Schema;
+
+
+/**
+ * An immutable snapshot of a {@link DefaultSchemaManager}, as returned by
+ * {@link DefaultSchemaManager#getSnapshot()}. The snapshot owns a copy of the registries,
+ * which is never modified, so it can be read by any number of threads without
+ * synchronization. All the operations modifying the schema are rejected, and the
+ * registries it exposes are immutable wrappers.
+ * <br>
+ * The {@link Schema} descriptors are shared with the SchemaManager the snapshot has been
+ * created from.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public final class SchemaManagerSnapshot extends DefaultSchemaManager
+{
+    /** The snapshot version, incremented each time a snapshot is published */
+    private final long version;
+
+    /** The immutable view of the registries returned to the callers */
+    private final ImmutableRegistries immutableRegistries;
+
+    /** Set once the snapshot has been built, after which the error handler can't be changed */
+    private boolean sealed;
+
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param relaxed If the SchemaManager is relaxed or not
+     * @param schemas The schemas known by the SchemaManager
+     * @param registries The copy of the SchemaManager registries
+     * @param errorHandler The handler containing the errors found when the registries have been copied
+     * @param version The snapshot version
+     */
+    SchemaManagerSnapshot( boolean relaxed, Collection<Schema> schemas, Registries registries,
+        SchemaErrorHandler errorHandler, long version )
+    {
+        super( relaxed, schemas );
+        super.setRegistries( registries );
+        setErrorHandler( errorHandler );
+        this.version = version;
+        immutableRegistries = new ImmutableRegistries( registries );
+        sealed = true;
+    }
+
+
+    /**
+     * @return The snapshot version. A more recent snapshot has a greater version
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+
+    /**
+     * @return This snapshot
+     */
+    @Override
+    public SchemaManagerSnapshot getSnapshot()
+    {
+        return this;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Registries getRegistries()
+    {
+        return immutableRegistries;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("rawtypes")
+    @Override
+    public OidRegistry getGlobalOidRegistry()
+    {
+        return immutableRegistries.getGlobalOidRegistry();
+    }
+
+
+    private LdapException readOnly()
+    {
+        return new LdapUnwillingToPerformException( ResultCodeEnum.UNWILLING_TO_PERFORM,
+            I18n.err( I18n.ERR_16082_SCHEMA_SNAPSHOT_READ_ONLY, version ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add( SchemaObject schemaObject ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean delete( SchemaObject schemaObject ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean disable( Schema... schemas ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean enable( Schema... schemas ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean load( Schema... schemas ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean loadDisabled( Schema... schemas ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean loadWithDeps( Schema... schemas ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean loadWithDepsRelaxed( Schema... schemas ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean unload( Schema... schemas ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaObject unregisterAttributeType( String attributeTypeOid ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaObject unregisterComparator( String comparatorOid ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaObject unregisterDitControlRule( String ditControlRuleOid ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaObject unregisterDitStructureRule( String ditStructureRuleOid ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaObject unregisterLdapSyntax( String ldapSyntaxOid ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaObject unregisterMatchingRule( String matchingRuleOid ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaObject unregisterMatchingRuleUse( String matchingRuleUseOid ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaObject unregisterNameForm( String nameFormOid ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaObject unregisterNormalizer( String normalizerOid ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaObject unregisterObjectClass( String objectClassOid ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SchemaObject unregisterSyntaxChecker( String syntaxCheckerOid ) throws LdapException
+    {
+        throw readOnly();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setRegistries( Registries registries )
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_16082_SCHEMA_SNAPSHOT_READ_ONLY, version ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setRelaxed()
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_16082_SCHEMA_SNAPSHOT_READ_ONLY, version ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setStrict()
+    {
+        throw new UnsupportedOperationException( I18n.err( I18n.ERR_16082_SCHEMA_SNAPSHOT_READ_ONLY, version ) );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setErrorHandler( SchemaErrorHandler errorHandler )
+    {
+        if ( sealed )
+        {
+            throw new UnsupportedOperationException( I18n.err( I18n.ERR_16082_SCHEMA_SNAPSHOT_READ_ONLY, version ) );
+        }
+
+        super.setErrorHandler( errorHandler );
+    }
+}
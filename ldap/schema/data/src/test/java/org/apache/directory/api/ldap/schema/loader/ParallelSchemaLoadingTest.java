@@ -0,0 +1,142 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.schema.loader;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.directory.api.ldap.model.schema.SchemaObject;
+import org.apache.directory.api.ldap.model.schema.registries.SchemaLoader;
+import org.apache.directory.api.ldap.schema.manager.impl.DefaultSchemaManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the loading of the schemas with a loading pool.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class ParallelSchemaLoadingTest
+{
+    private static ForkJoinPool pool;
+
+
+    @BeforeAll
+    public static void setup()
+    {
+        pool = new ForkJoinPool( 4 );
+    }
+
+
+    @AfterAll
+    public static void tearDown()
+    {
+        pool.shutdown();
+    }
+
+
+    /**
+     * Gets the OIDs of all the SchemaObjects registered in a SchemaManager
+     */
+    private Set<String> getOids( DefaultSchemaManager schemaManager )
+    {
+        Set<String> oids = new TreeSet<>();
+
+        for ( SchemaObject schemaObject : schemaManager.getRegistries().getGlobalOidRegistry() )
+        {
+            oids.add( schemaObject.getOid() + " " + schemaObject.getSchemaName() );
+        }
+
+        for ( SchemaObject schemaObject : schemaManager.getComparatorRegistry() )
+        {
+            oids.add( "comparator " + schemaObject.getOid() );
+        }
+
+        for ( SchemaObject schemaObject : schemaManager.getNormalizerRegistry() )
+        {
+            oids.add( "normalizer " + schemaObject.getOid() );
+        }
+
+        for ( SchemaObject schemaObject : schemaManager.getSyntaxCheckerRegistry() )
+        {
+            oids.add( "syntaxChecker " + schemaObject.getOid() );
+        }
+
+        return oids;
+    }
+
+
+    private DefaultSchemaManager loadAllEnabled( SchemaLoader schemaLoader, boolean parallel ) throws Exception
+    {
+        DefaultSchemaManager schemaManager = new DefaultSchemaManager( schemaLoader );
+
+        if ( parallel )
+        {
+            schemaManager.setLoadingPool( pool );
+        }
+
+        assertTrue( schemaManager.loadAllEnabled() );
+        assertTrue( schemaManager.getErrors().isEmpty() );
+
+        return schemaManager;
+    }
+
+
+    private void checkParallelLoading( SchemaLoader sequentialLoader, SchemaLoader parallelLoader ) throws Exception
+    {
+        DefaultSchemaManager sequential = loadAllEnabled( sequentialLoader, false );
+        DefaultSchemaManager parallel = loadAllEnabled( parallelLoader, true );
+
+        Set<String> expected = getOids( sequential );
+        assertFalse( expected.isEmpty() );
+        assertEquals( expected, getOids( parallel ) );
+        assertEquals( sequential.getRegistries().getLoadedSchemas().keySet(),
+            parallel.getRegistries().getLoadedSchemas().keySet() );
+
+        // A disabled schema and its dependencies
+        assertTrue( sequential.loadDisabled( "nis" ) );
+        assertTrue( parallel.loadDisabled( "nis" ) );
+        assertNotNull( parallel.getAttributeType( "uidNumber" ) );
+        assertEquals( getOids( sequential ), getOids( parallel ) );
+    }
+
+
+    @Test
+    public void testParallelLoadingLdif() throws Exception
+    {
+        checkParallelLoading( new JarLdifSchemaLoader(), new JarLdifSchemaLoader() );
+    }
+
+
+    @Test
+    public void testParallelLoadingSnapshot() throws Exception
+    {
+        checkParallelLoading( new SnapshotSchemaLoader(), new SnapshotSchemaLoader() );
+    }
+}
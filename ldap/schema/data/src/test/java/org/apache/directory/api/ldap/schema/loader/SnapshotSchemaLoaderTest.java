@@ -0,0 +1,166 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.schema.loader;
+
+
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.directory.api.ldap.model.entry.Entry;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.schema.SchemaManager;
+import org.apache.directory.api.ldap.model.schema.SchemaObject;
+import org.apache.directory.api.ldap.model.schema.registries.Schema;
+import org.apache.directory.api.ldap.model.schema.registries.SchemaLoader;
+import org.apache.directory.api.ldap.schema.manager.impl.DefaultSchemaManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+
+/**
+ * Tests the SnapshotSchemaLoader.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@Execution( ExecutionMode.CONCURRENT )
+public class SnapshotSchemaLoaderTest
+{
+    /**
+     * Checks that two lists contain the same entries, whatever their order
+     */
+    private void assertSameEntries( List<Entry> expected, List<Entry> entries )
+    {
+        assertEquals( expected.size(), entries.size() );
+        assertTrue( new HashSet<>( entries ).containsAll( expected ) );
+    }
+
+
+    private Set<String> getOids( Iterable<? extends SchemaObject> schemaObjects )
+    {
+        Set<String> oids = new HashSet<>();
+
+        for ( SchemaObject schemaObject : schemaObjects )
+        {
+            oids.add( schemaObject.getOid() );
+        }
+
+        return oids;
+    }
+
+
+    @Test
+    public void testSnapshotContainsAllTheEntries() throws Exception
+    {
+        SchemaLoader ldifLoader = new JarLdifSchemaLoader();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotSchemaLoader.writeSnapshot( ldifLoader, out );
+
+        SchemaLoader snapshotLoader = new SnapshotSchemaLoader( new ByteArrayInputStream( out.toByteArray() ) );
+
+        assertEquals( ldifLoader.getAllSchemas().size(), snapshotLoader.getAllSchemas().size() );
+
+        for ( Schema expected : ldifLoader.getAllSchemas() )
+        {
+            Schema schema = snapshotLoader.getSchema( expected.getSchemaName() );
+
+            assertNotNull( schema );
+            assertEquals( expected.getOwner(), schema.getOwner() );
+            assertEquals( expected.isDisabled(), schema.isDisabled() );
+            assertEquals( new HashSet<>( Arrays.asList( expected.getDependencies() ) ),
+                new HashSet<>( Arrays.asList( schema.getDependencies() ) ) );
+
+            assertSameEntries( ldifLoader.loadComparators( expected ), snapshotLoader.loadComparators( schema ) );
+            assertSameEntries( ldifLoader.loadNormalizers( expected ), snapshotLoader.loadNormalizers( schema ) );
+            assertSameEntries( ldifLoader.loadSyntaxCheckers( expected ), snapshotLoader.loadSyntaxCheckers( schema ) );
+            assertSameEntries( ldifLoader.loadSyntaxes( expected ), snapshotLoader.loadSyntaxes( schema ) );
+            assertSameEntries( ldifLoader.loadMatchingRules( expected ), snapshotLoader.loadMatchingRules( schema ) );
+            assertSameEntries( ldifLoader.loadAttributeTypes( expected ), snapshotLoader.loadAttributeTypes( schema ) );
+            assertSameEntries( ldifLoader.loadObjectClasses( expected ), snapshotLoader.loadObjectClasses( schema ) );
+        }
+
+        // The snapshot is always the same for a given set of schemas
+        ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+        SnapshotSchemaLoader.writeSnapshot( snapshotLoader, out2 );
+        assertArrayEquals( out.toByteArray(), out2.toByteArray() );
+    }
+
+
+    @Test
+    public void testBundledSnapshot() throws Exception
+    {
+        assertTrue( SnapshotSchemaLoader.isBundledSnapshotAvailable() );
+
+        SchemaManager expected = new DefaultSchemaManager( new JarLdifSchemaLoader() );
+        expected.loadAllEnabled();
+
+        SchemaManager schemaManager = new DefaultSchemaManager( new SnapshotSchemaLoader() );
+        assertTrue( schemaManager.loadAllEnabled() );
+
+        assertTrue( schemaManager.getErrors().isEmpty() );
+        assertEquals( getOids( expected.getAttributeTypeRegistry() ), getOids( schemaManager.getAttributeTypeRegistry() ) );
+        assertEquals( getOids( expected.getObjectClassRegistry() ), getOids( schemaManager.getObjectClassRegistry() ) );
+        assertEquals( getOids( expected.getMatchingRuleRegistry() ), getOids( schemaManager.getMatchingRuleRegistry() ) );
+        assertEquals( getOids( expected.getLdapSyntaxRegistry() ), getOids( schemaManager.getLdapSyntaxRegistry() ) );
+
+        // The disabled schemas can be loaded
+        assertFalse( schemaManager.getAttributeTypeRegistry().contains( "uidNumber" ) );
+        assertTrue( schemaManager.loadDisabled( "nis" ) );
+        assertTrue( schemaManager.getAttributeTypeRegistry().contains( "uidNumber" ) );
+    }
+
+
+    @Test
+    public void testSchemaAddedToTheClasspath() throws Exception
+    {
+        // The test classpath contains an extra schema, which is not in the bundled snapshot.
+        // The default SchemaManager scans the LDIF files, and finds it
+        SchemaManager ldifSchemaManager = new DefaultSchemaManager();
+        assertTrue( ldifSchemaManager.loadDisabled( "snapshotfallback" ) );
+        assertTrue( ldifSchemaManager.isSchemaLoaded( "snapshotfallback" ) );
+
+        // The snapshot has to be explicitly requested
+        SchemaManager snapshotSchemaManager = DefaultSchemaManager.fromBundledSnapshot();
+        assertTrue( snapshotSchemaManager.getErrors().isEmpty() );
+        assertThrows( LdapException.class, () -> snapshotSchemaManager.loadDisabled( "snapshotfallback" ) );
+        assertEquals( getOids( ldifSchemaManager.getAttributeTypeRegistry() ),
+            getOids( snapshotSchemaManager.getAttributeTypeRegistry() ) );
+    }
+
+
+    @Test
+    public void testInvalidSnapshot()
+    {
+        assertThrows( LdapException.class,
+            () -> new SnapshotSchemaLoader( new ByteArrayInputStream( new byte[] { 0, 0, 0, 1, 0, 0, 0, 1 } ) ) );
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.ldap.schema.manager.impl;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.directory.api.ldap.model.entry.DefaultEntry;
+import org.apache.directory.api.ldap.model.entry.Entry;
+import org.apache.directory.api.ldap.model.exception.LdapUnwillingToPerformException;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.api.ldap.model.schema.AttributeType;
+import org.apache.directory.api.ldap.model.schema.LoggingSchemaErrorHandler;
+import org.apache.directory.api.ldap.model.schema.SchemaManager;
+import org.apache.directory.api.ldap.model.schema.registries.Registries;
+import org.apache.directory.api.ldap.model.schema.syntaxCheckers.OctetStringSyntaxChecker;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the SchemaManager snapshots.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class SchemaManagerSnapshotTest
+{
+    private static final String NEW_AT_OID = "1.3.6.1.4.1.18060.0.4.1.2.9999";
+
+
+    private AttributeType createAttributeType()
+    {
+        AttributeType attributeType = new AttributeType( NEW_AT_OID );
+        attributeType.setNames( "snapshotTest" );
+        attributeType.setEqualityOid( "2.5.13.2" );
+        attributeType.setSyntaxOid( "1.3.6.1.4.1.1466.115.121.1.15" );
+        attributeType.setSchemaName( "apachemeta" );
+
+        return attributeType;
+    }
+
+
+    @Test
+    public void testSnapshotLookups() throws Exception
+    {
+        DefaultSchemaManager schemaManager = new DefaultSchemaManager();
+        SchemaManagerSnapshot snapshot = schemaManager.getSnapshot();
+
+        assertSame( snapshot, schemaManager.getSnapshot() );
+        assertSame( snapshot, snapshot.getSnapshot() );
+        assertTrue( snapshot.getErrors().isEmpty() );
+        assertEquals( schemaManager.getAttributeTypeRegistry().size(), snapshot.getAttributeTypeRegistry().size() );
+        assertEquals( schemaManager.getEnabled().size(), snapshot.getEnabled().size() );
+
+        // The snapshot contains copies of the SchemaObjects
+        AttributeType cn = snapshot.lookupAttributeTypeRegistry( "CommonName" );
+        assertEquals( "2.5.4.3", cn.getOid() );
+        assertNotSame( schemaManager.lookupAttributeTypeRegistry( "cn" ), cn );
+        assertNotNull( cn.getEquality() );
+
+        // The snapshot can be used as any SchemaManager
+        Entry entry = new DefaultEntry( snapshot, "cn=Test,ou=System", "objectClass: person", "cn: Test",
+            "sn: Some  Name" );
+        assertTrue( entry.contains( "commonName", "test" ) );
+        assertEquals( new Dn( schemaManager, "CN=Test,OU=System" ).getNormName(),
+            new Dn( snapshot, "CN=Test,OU=System" ).getNormName() );
+    }
+
+
+    @Test
+    public void testSnapshotIsReadOnly() throws Exception
+    {
+        SchemaManagerSnapshot snapshot = new DefaultSchemaManager().getSnapshot();
+
+        assertThrows( LdapUnwillingToPerformException.class, () -> snapshot.add( createAttributeType() ) );
+        assertThrows( LdapUnwillingToPerformException.class, () -> snapshot.disable( "nis" ) );
+        assertThrows( LdapUnwillingToPerformException.class, () -> snapshot.loadDisabled( "nis" ) );
+        assertThrows( LdapUnwillingToPerformException.class, () -> snapshot.unregisterAttributeType( "2.5.4.3" ) );
+        assertThrows( UnsupportedOperationException.class, () -> snapshot.setRelaxed() );
+        assertThrows( UnsupportedOperationException.class,
+            () -> snapshot.setErrorHandler( new LoggingSchemaErrorHandler() ) );
+    }
+
+
+    @Test
+    public void testSnapshotRegistriesAreReadOnly() throws Exception
+    {
+        SchemaManager snapshot = new DefaultSchemaManager().getSnapshot();
+        Registries registries = snapshot.getRegistries();
+        AttributeType cn = snapshot.lookupAttributeTypeRegistry( "cn" );
+
+        // The registries can still be read
+        assertEquals( "2.5.4.3", registries.getOid( "commonName" ) );
+        assertTrue( registries.getAttributeTypeRegistry().contains( "cn" ) );
+        assertTrue( registries.getGlobalOidRegistry().contains( "2.5.4.3" ) );
+
+        // But not modified
+        assertThrows( LdapUnwillingToPerformException.class, () -> registries.add( createAttributeType(), true ) );
+        assertThrows( LdapUnwillingToPerformException.class, () -> registries.delete( cn ) );
+        assertThrows( LdapUnwillingToPerformException.class, () -> registries.clear() );
+        assertThrows( UnsupportedOperationException.class, () -> registries.setRelaxed() );
+        assertThrows( UnsupportedOperationException.class,
+            () -> registries.setErrorHandler( new LoggingSchemaErrorHandler() ) );
+        assertThrows( LdapUnwillingToPerformException.class,
+            () -> registries.getAttributeTypeRegistry().register( createAttributeType() ) );
+        assertThrows( LdapUnwillingToPerformException.class,
+            () -> snapshot.getAttributeTypeRegistry().unregister( "2.5.4.3" ) );
+        assertThrows( LdapUnwillingToPerformException.class,
+            () -> snapshot.getSyntaxCheckerRegistry().register( OctetStringSyntaxChecker.INSTANCE ) );
+        assertThrows( LdapUnwillingToPerformException.class,
+            () -> snapshot.getGlobalOidRegistry().unregister( "2.5.4.3" ) );
+        assertThrows( LdapUnwillingToPerformException.class,
+            () -> registries.getGlobalOidRegistry().register( createAttributeType() ) );
+
+        // The snapshot is left untouched
+        assertSame( cn, snapshot.lookupAttributeTypeRegistry( "2.5.4.3" ) );
+    }
+
+
+    @Test
+    public void testPublishOnModification() throws Exception
+    {
+        DefaultSchemaManager schemaManager = new DefaultSchemaManager();
+        SchemaManagerSnapshot before = schemaManager.getSnapshot();
+
+        assertTrue( schemaManager.add( createAttributeType() ) );
+
+        SchemaManagerSnapshot afterAdd = schemaManager.getSnapshot();
+        assertTrue( afterAdd.getVersion() > before.getVersion() );
+        assertNotNull( afterAdd.getAttributeType( "snapshotTest" ) );
+        assertNull( before.getAttributeType( "snapshotTest" ) );
+
+        assertTrue( schemaManager.delete( schemaManager.lookupAttributeTypeRegistry( NEW_AT_OID ) ) );
+
+        SchemaManagerSnapshot afterDelete = schemaManager.getSnapshot();
+        assertTrue( afterDelete.getVersion() > afterAdd.getVersion() );
+        assertNull( afterDelete.getAttributeType( "snapshotTest" ) );
+        assertNotNull( afterAdd.getAttributeType( "snapshotTest" ) );
+
+        // Enabling a schema publishes a new snapshot too
+        assertNull( afterDelete.getAttributeType( "uidNumber" ) );
+        assertTrue( schemaManager.loadDisabled( "nis" ) );
+        assertNotNull( schemaManager.getSnapshot().getAttributeType( "uidNumber" ) );
+        assertNull( afterDelete.getAttributeType( "uidNumber" ) );
+    }
+
+
+    @Test
+    public void testConcurrentReads() throws Exception
+    {
+        DefaultSchemaManager schemaManager = new DefaultSchemaManager();
+        schemaManager.getSnapshot();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+
+        for ( int i = 0; i < 4; i++ )
+        {
+            Thread reader = new Thread( () ->
+            {
+                try
+                {
+                    while ( !done.get() )
+                    {
+                        SchemaManager snapshot = schemaManager.getSnapshot();
+
+                        for ( int j = 0; j < 100; j++ )
+                        {
+                            assertEquals( "2.5.4.3", snapshot.lookupAttributeTypeRegistry( "cn" ).getOid() );
+                            assertNotNull( snapshot.lookupObjectClassRegistry( "inetOrgPerson" ) );
+                        }
+                    }
+                }
+                catch ( Throwable t )
+                {
+                    failure.set( t );
+                }
+            } );
+
+            reader.start();
+            readers.add( reader );
+        }
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            assertTrue( schemaManager.add( createAttributeType() ) );
+            assertTrue( schemaManager.delete( schemaManager.lookupAttributeTypeRegistry( NEW_AT_OID ) ) );
+        }
+
+        done.set( true );
+
+        for ( Thread reader : readers )
+        {
+            reader.join();
+        }
+
+        assertNull( failure.get() );
+    }
+}
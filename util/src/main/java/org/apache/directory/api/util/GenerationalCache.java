@@ -0,0 +1,175 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.directory.api.util;
+
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A bounded map which can be used concurrently by many threads, made of two generations of
+ * entries : the new entries are added to the current generation, and when it is full, it
+ * becomes the old generation, the previous old generation being dropped. An entry found in
+ * the old generation is moved back to the current one, so the recently used entries are kept.
+ * Looking up an entry never blocks.
+ * <br>
+ * The keys and the values can't be null.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the cached values
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public final class GenerationalCache<K, V>
+{
+    /** The number of entries in a generation */
+    private final int generationSize;
+
+    /** The generation where the entries are added */
+    private volatile ConcurrentHashMap<K, V> current = new ConcurrentHashMap<>();
+
+    /** The previous generation, dropped when the current one is full */
+    private volatile ConcurrentHashMap<K, V> old = new ConcurrentHashMap<>();
+
+    /** The number of entries dropped */
+    private final LongAdder evictions = new LongAdder();
+
+
+    /**
+     * Creates a new GenerationalCache
+     *
+     * @param maxSize The maximum number of entries
+     */
+    public GenerationalCache( int maxSize )
+    {
+        generationSize = Math.max( 1, maxSize / 2 );
+    }
+
+
+    /**
+     * Gets a cached value
+     *
+     * @param key The key
+     * @return The cached value, or null if there is none
+     */
+    public V get( K key )
+    {
+        V value = current.get( key );
+
+        if ( value == null )
+        {
+            value = old.get( key );
+
+            if ( value != null )
+            {
+                // Still in use, keep it
+                put( key, value );
+            }
+        }
+
+        return value;
+    }
+
+
+    /**
+     * Adds a value if the current generation does not already contain one for this key
+     *
+     * @param key The key
+     * @param value The value to add
+     * @return The value already present in the current generation, or the added value
+     */
+    public V putIfAbsent( K key, V value )
+    {
+        ConcurrentHashMap<K, V> generation = current;
+        V previous = generation.putIfAbsent( key, value );
+
+        if ( previous != null )
+        {
+            return previous;
+        }
+
+        if ( generation.size() >= generationSize )
+        {
+            rotate( generation );
+        }
+
+        return value;
+    }
+
+
+    /**
+     * Adds a value, replacing the one which may be present for this key
+     *
+     * @param key The key
+     * @param value The value to add
+     */
+    public void put( K key, V value )
+    {
+        ConcurrentHashMap<K, V> generation = current;
+        generation.put( key, value );
+
+        if ( generation.size() >= generationSize )
+        {
+            rotate( generation );
+        }
+    }
+
+
+    private synchronized void rotate( ConcurrentHashMap<K, V> full )
+    {
+        // Another thread may already have done it
+        if ( current == full )
+        {
+            evictions.add( old.size() );
+            old = full;
+            current = new ConcurrentHashMap<>();
+        }
+    }
+
+
+    /**
+     * Removes all the entries, and resets the evictions counter
+     */
+    public synchronized void clear()
+    {
+        current = new ConcurrentHashMap<>();
+        old = new ConcurrentHashMap<>();
+        evictions.reset();
+    }
+
+
+    /**
+     * @return The approximate number of entries
+     */
+    public int size()
+    {
+        // Entries moved from the old generation may be counted twice
+        return Math.min( current.size() + old.size(), generationSize * 2 );
+    }
+
+
+    /**
+     * @return The number of entries dropped to keep the map under its maximum size
+     */
+    public long getEvictionCount()
+    {
+        return evictions.sum();
+    }
+}